@@ -0,0 +1,89 @@
+package com.uiptv.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.uiptv.util.ServerUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * {@link RequestContext} over a {@link HttpExchange}, for hosts that still hand out JDK-style exchanges.
+ */
+public final class HttpExchangeRequestContext implements RequestContext {
+    private final HttpExchange exchange;
+    private Map<String, String> params;
+
+    public HttpExchangeRequestContext(HttpExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    @Override
+    public String method() {
+        return exchange.getRequestMethod();
+    }
+
+    @Override
+    public String path() {
+        return exchange.getRequestURI() == null ? "" : exchange.getRequestURI().getPath();
+    }
+
+    @Override
+    public String param(String name) {
+        if (params == null) {
+            params = ServerUtils.queryToMap(exchange.getRequestURI().getRawQuery());
+        }
+        return params.get(name);
+    }
+
+    @Override
+    public String header(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    @Override
+    public byte[] readBody() throws IOException {
+        return ServerUtils.readRequestBodyBytes(exchange);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        exchange.setAttribute(name, value);
+    }
+
+    @Override
+    public void addResponseHeader(String name, String value) {
+        exchange.getResponseHeaders().add(name, value);
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        exchange.getResponseHeaders().set(name, value);
+    }
+
+    @Override
+    public void sendJson(String body) throws IOException {
+        ServerUtils.generateJsonResponse(exchange, body);
+    }
+
+    @Override
+    public void sendText(int statusCode, String body) throws IOException {
+        ServerUtils.generateResponseText(exchange, statusCode, body);
+    }
+
+    @Override
+    public void send(int statusCode, String contentType, String body) throws IOException {
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    @Override
+    public void sendStatus(int statusCode) throws IOException {
+        exchange.sendResponseHeaders(statusCode, -1);
+    }
+}
@@ -0,0 +1,28 @@
+package com.uiptv.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.uiptv.util.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static com.uiptv.util.ServerUtils.writeBinaryResponse;
+
+/**
+ * Serves {@link MetricsRegistry} in the Prometheus text exposition format.
+ */
+public class HttpMetricsServer implements HttpHandler {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "GET");
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
+        byte[] body = MetricsRegistry.getInstance().scrape().getBytes(StandardCharsets.UTF_8);
+        writeBinaryResponse(exchange, 200, body, CONTENT_TYPE);
+    }
+}
@@ -3,6 +3,8 @@ package com.uiptv.server;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.uiptv.util.HttpUtil;
+import com.uiptv.util.MetricsRegistry;
+import com.uiptv.util.ProviderUnavailableException;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -46,6 +48,14 @@ public class HttpProxyStreamServer implements HttpHandler {
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/133.0.0.0 Safari/537.36";
     private static final long UNKNOWN_CONTENT_LENGTH = 0L;
     private static final String PROXY_STREAM_PATH = "/proxy-stream?src=";
+    private static final String PARAM_TIMESHIFT = "timeshift";
+    private static final String PARAM_TIMESHIFT_AT = "at";
+    private static final String PARAM_TIMESHIFT_OFFSET = "offset";
+    private static final String HEADER_TIMESHIFT_OLDEST = "X-Timeshift-Oldest";
+    private static final MetricsRegistry.Gauge ACTIVE_STREAMS = MetricsRegistry.getInstance()
+            .gauge("uiptv_proxy_active_streams", "Proxy requests currently relaying an upstream body.").labels();
+    private static final MetricsRegistry.Counter BYTES_RELAYED = MetricsRegistry.getInstance()
+            .counter("uiptv_proxy_relayed_bytes_total", "Body bytes written to proxy clients.").labels();
 
     @Override
     public void handle(HttpExchange ex) throws IOException {
@@ -60,12 +70,28 @@ public class HttpProxyStreamServer implements HttpHandler {
         String requestMethod = ex.getRequestMethod();
 
         try {
-            try (HttpUtil.StreamResult upstream = openResolvedStream(current, cookies, readForwardHeaders(ex), requestMethod)) {
-                if (upstream == null) {
-                    sendBadGateway(ex);
+            boolean timeshift = isTimeshiftRequest(ex, requestMethod);
+            if (timeshift) {
+                TimeshiftSessions.Session recording = TimeshiftSessions.getInstance().join(current);
+                if (recording != null) {
+                    serveTimeshift(ex, recording, false);
                     return;
                 }
-
+            }
+            HttpUtil.StreamResult upstream = openResolvedStream(current, cookies, readForwardHeaders(ex), requestMethod);
+            if (upstream == null) {
+                sendBadGateway(ex);
+                return;
+            }
+            if (timeshift && isLiveTransportStream(upstream)) {
+                TimeshiftSessions.Session recording = TimeshiftSessions.getInstance().start(current,
+                        firstHeader(upstream.responseHeaders(), HEADER_CONTENT_TYPE), resolvedBodyStream(upstream), upstream);
+                if (recording != null) {
+                    serveTimeshift(ex, recording, true);
+                    return;
+                }
+            }
+            try (upstream) {
                 byte[] responseBody = null;
                 boolean rewriteHlsPlaylist = shouldRewriteHlsPlaylist(upstream);
                 if (rewriteHlsPlaylist && !"HEAD".equalsIgnoreCase(requestMethod)) {
@@ -81,6 +107,7 @@ public class HttpProxyStreamServer implements HttpHandler {
                 );
 
                 if (!"HEAD".equalsIgnoreCase(requestMethod)) {
+                    ACTIVE_STREAMS.inc();
                     try (OutputStream os = ex.getResponseBody()) {
                         if (responseBody == null) {
                             try (InputStream is = resolvedBodyStream(upstream)) {
@@ -88,15 +115,102 @@ public class HttpProxyStreamServer implements HttpHandler {
                             }
                         } else {
                             os.write(responseBody);
+                            BYTES_RELAYED.add(responseBody.length);
                         }
+                    } finally {
+                        ACTIVE_STREAMS.dec();
                     }
                 }
             }
+        } catch (ProviderUnavailableException e) {
+            ex.getResponseHeaders().set("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            ex.sendResponseHeaders(503, -1);
         } catch (Exception _) {
             sendBadGateway(ex);
         }
     }
 
+    /**
+     * Proxy URL that records a live channel for timeshift; players add {@code offset} or {@code at} to start behind
+     * the live edge.
+     */
+    public static String buildTimeshiftUrl(String serverUrl, String sourceUrl) {
+        return serverUrl + PROXY_STREAM_PATH + URLEncoder.encode(sourceUrl, StandardCharsets.UTF_8)
+                + "&" + PARAM_TIMESHIFT + "=1";
+    }
+
+    private boolean isTimeshiftRequest(HttpExchange ex, String requestMethod) {
+        String timeshift = getParam(ex, PARAM_TIMESHIFT);
+        return "GET".equalsIgnoreCase(requestMethod)
+                && ("1".equals(timeshift) || "true".equalsIgnoreCase(timeshift))
+                && TimeshiftSessions.getInstance().isEnabled();
+    }
+
+    /**
+     * Only continuous live bodies are worth recording: files with a known length already support ranges, and HLS
+     * playlists are rewritten rather than relayed.
+     */
+    private boolean isLiveTransportStream(HttpUtil.StreamResult upstream) {
+        return upstream.statusCode() == HttpUtil.STATUS_OK
+                && !shouldRewriteHlsPlaylist(upstream)
+                && resolveContentLength(firstHeader(upstream.responseHeaders(), HEADER_CONTENT_LENGTH)) == UNKNOWN_CONTENT_LENGTH;
+    }
+
+    /**
+     * Streams a recorded channel from {@code at} (epoch milliseconds) or {@code offset} (seconds behind live), else
+     * from the live edge (from the first byte for the client whose request started the recording), and follows the
+     * recording until the client disconnects.
+     */
+    private void serveTimeshift(HttpExchange ex, TimeshiftSessions.Session recording, boolean startedRecording) throws IOException {
+        try {
+            TimeshiftBuffer buffer = recording.buffer();
+            long at = parseLong(getParam(ex, PARAM_TIMESHIFT_AT), -1L);
+            long offset = parseLong(getParam(ex, PARAM_TIMESHIFT_OFFSET), 0L);
+            TimeshiftBuffer.Reader reader;
+            if (at > 0) {
+                reader = buffer.readerAt(at);
+            } else if (offset > 0 || !startedRecording) {
+                reader = buffer.readerBehindLive(offset);
+            } else {
+                reader = buffer.readerAt(0L);
+            }
+            String contentType = recording.contentType();
+            ex.getResponseHeaders().add(HEADER_ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+            ex.getResponseHeaders().add(HEADER_CACHE_CONTROL, "no-store");
+            ex.getResponseHeaders().add(HEADER_CONTENT_TYPE, isBlank(contentType) ? "video/mp2t" : contentType);
+            ex.getResponseHeaders().add(HEADER_TIMESHIFT_OLDEST, String.valueOf(buffer.oldestTimeMs()));
+            ex.sendResponseHeaders(200, UNKNOWN_CONTENT_LENGTH);
+            ACTIVE_STREAMS.inc();
+            try (OutputStream os = ex.getResponseBody()) {
+                byte[] chunk = new byte[64 * 1024];
+                int read;
+                while ((read = reader.read(chunk, 0, chunk.length)) != -1) {
+                    os.write(chunk, 0, read);
+                    // Flush every chunk: a client resuming behind live should not wait for a full output buffer.
+                    os.flush();
+                    BYTES_RELAYED.add(read);
+                }
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+            } finally {
+                ACTIVE_STREAMS.dec();
+            }
+        } finally {
+            TimeshiftSessions.getInstance().leave(recording);
+        }
+    }
+
+    private static long parseLong(String value, long fallback) {
+        if (isBlank(value)) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException _) {
+            return fallback;
+        }
+    }
+
     private HttpUtil.StreamResult openResolvedStream(String current,
                                                      List<String> cookies,
                                                      Map<String, String> forwardHeaders,
@@ -392,7 +506,7 @@ public class HttpProxyStreamServer implements HttpHandler {
         }
     }
 
-    private byte[] rewriteHlsPlaylist(byte[] data, String playlistUrl) {
+    byte[] rewriteHlsPlaylist(byte[] data, String playlistUrl) {
         if (data == null || data.length == 0 || isBlank(playlistUrl)) {
             return data;
         }
@@ -485,6 +599,7 @@ public class HttpProxyStreamServer implements HttpHandler {
         int read;
         while ((read = inputStream.read(buffer)) != -1) {
             outputStream.write(buffer, 0, read);
+            BYTES_RELAYED.add(read);
         }
     }
 
@@ -0,0 +1,55 @@
+package com.uiptv.server;
+
+import com.uiptv.util.AppLog;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.SameThreadExecutor;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Answers a long-poll once its future completes without parking a server thread in between.
+ * <p>
+ * On Undertow the handler returns at once with the exchange still open; the response is written on a worker thread
+ * when the future completes, whether from the awaited event or from its timeout. Any other {@link RequestContext},
+ * such as a plain {@code HttpExchange}, waits for the future on the calling thread.
+ */
+public final class LongPollResponder {
+
+    /**
+     * Writes the response for a completed long-poll.
+     */
+    @FunctionalInterface
+    public interface Response<T> {
+        void write(RequestContext request, T value) throws IOException;
+    }
+
+    private LongPollResponder() {
+    }
+
+    public static <T> void respondWhenDone(RequestContext request, CompletableFuture<T> pending, Response<T> response) throws IOException {
+        if (pending.isDone() || !(request instanceof UndertowRequestContext undertowRequest)) {
+            response.write(request, pending.join());
+            return;
+        }
+        HttpServerExchange exchange = undertowRequest.exchange();
+        // Keeps the exchange open past the handler; the completion callback then moves the write onto a worker.
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> pending.whenComplete((value, error) ->
+                exchange.dispatch(() -> finish(undertowRequest, value, error, response))));
+    }
+
+    private static <T> void finish(UndertowRequestContext request, T value, Throwable error, Response<T> response) {
+        try {
+            if (error != null) {
+                AppLog.addWarningLog(LongPollResponder.class, "Long-poll failed for " + request.path() + ": " + error.getMessage());
+                request.sendStatus(500);
+            } else {
+                response.write(request, value);
+            }
+        } catch (IOException | RuntimeException e) {
+            AppLog.addWarningLog(LongPollResponder.class, "Unable to answer long-poll for " + request.path() + ": " + e.getMessage());
+        } finally {
+            request.finish();
+        }
+    }
+}
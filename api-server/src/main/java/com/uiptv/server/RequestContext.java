@@ -0,0 +1,56 @@
+package com.uiptv.server;
+
+import java.io.IOException;
+
+/**
+ * Request/response view used by handlers that do not need the full {@code HttpExchange} surface.
+ * <p>
+ * The server backs it with {@link UndertowRequestContext}, which reads Undertow's header map directly,
+ * decodes the query string once and writes responses as byte buffers. {@link HttpExchangeRequestContext}
+ * keeps the same handlers usable wherever a {@code com.sun.net.httpserver.HttpExchange} is supplied.
+ */
+public interface RequestContext {
+
+    String method();
+
+    /**
+     * Full request path without the query string.
+     */
+    String path();
+
+    /**
+     * Decoded query parameter, or {@code null} when absent.
+     */
+    String param(String name);
+
+    String header(String name);
+
+    byte[] readBody() throws IOException;
+
+    void setAttribute(String name, Object value);
+
+    void addResponseHeader(String name, String value);
+
+    void setResponseHeader(String name, String value);
+
+    /**
+     * GET-only JSON response with the permissive CORS headers of {@code ServerUtils.generateJsonResponse}.
+     * Any other method is answered with 405.
+     */
+    void sendJson(String body) throws IOException;
+
+    /**
+     * Plain-text response with the same headers as {@code ServerUtils.generateResponseText}.
+     */
+    void sendText(int statusCode, String body) throws IOException;
+
+    /**
+     * Writes {@code body} with the given status and content type and no further headers.
+     */
+    void send(int statusCode, String contentType, String body) throws IOException;
+
+    /**
+     * Ends the exchange with the given status and an empty body.
+     */
+    void sendStatus(int statusCode) throws IOException;
+}
@@ -0,0 +1,35 @@
+package com.uiptv.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import io.undertow.server.HttpServerExchange;
+
+import java.io.IOException;
+
+/**
+ * Handler written once against {@link RequestContext}. Mounted on Undertow it runs natively, without the
+ * {@link UndertowHttpHandlerAdapter} header and URI copies; it still accepts a plain {@link HttpExchange}.
+ */
+public interface RequestContextHandler extends io.undertow.server.HttpHandler, com.sun.net.httpserver.HttpHandler {
+
+    void handle(RequestContext request) throws IOException;
+
+    @Override
+    default void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (exchange.isInIoThread()) {
+            exchange.dispatch(this);
+            return;
+        }
+        exchange.startBlocking();
+        UndertowRequestContext request = new UndertowRequestContext(exchange);
+        try {
+            handle(request);
+        } finally {
+            request.finish();
+        }
+    }
+
+    @Override
+    default void handle(HttpExchange exchange) throws IOException {
+        handle(new HttpExchangeRequestContext(exchange));
+    }
+}
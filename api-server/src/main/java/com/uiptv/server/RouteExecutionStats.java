@@ -0,0 +1,23 @@
+package com.uiptv.server;
+
+/**
+ * Point-in-time view of how one server route is using its execution slots.
+ *
+ * @param route               route path as registered with the server
+ * @param maxConcurrent       configured concurrency limit, 0 when unlimited
+ * @param active              requests currently running
+ * @param waiting             requests currently waiting for a slot
+ * @param completed           requests that finished running
+ * @param rejected            requests turned away after waiting too long
+ * @param averageQueueMicros  mean time between dispatch and start (or rejection)
+ * @param maxQueueMicros      longest time between dispatch and start (or rejection)
+ */
+public record RouteExecutionStats(String route,
+                                  int maxConcurrent,
+                                  int active,
+                                  int waiting,
+                                  long completed,
+                                  long rejected,
+                                  long averageQueueMicros,
+                                  long maxQueueMicros) {
+}
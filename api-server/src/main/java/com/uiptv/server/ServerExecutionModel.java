@@ -0,0 +1,230 @@
+package com.uiptv.server;
+
+import com.uiptv.util.MetricsRegistry;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides where blocking request handlers run and how many of them may run per route.
+ * <p>
+ * By default handlers run on the Undertow worker pool. With {@code uiptv.server.virtualThreads=true}
+ * every request is dispatched to its own virtual thread instead, so long-lived proxy streams and slow
+ * upstream lookups no longer compete for a fixed number of platform threads. Route limits are read from
+ * {@code uiptv.server.route.maxConcurrent} (default for all routes) and
+ * {@code uiptv.server.route.maxConcurrent.<route>} (e.g. {@code uiptv.server.route.maxConcurrent./proxy-stream}).
+ * A value of 0 means unlimited. Requests that wait longer than {@code uiptv.server.route.queueTimeout.ms}
+ * for a permit are answered with 503.
+ */
+final class ServerExecutionModel implements AutoCloseable {
+    static final String VIRTUAL_THREADS_PROPERTY = "uiptv.server.virtualThreads";
+    static final String ROUTE_LIMIT_PROPERTY = "uiptv.server.route.maxConcurrent";
+    static final String QUEUE_TIMEOUT_PROPERTY = "uiptv.server.route.queueTimeout.ms";
+    private static final long DEFAULT_QUEUE_TIMEOUT_MS = 30_000L;
+    private static final MetricsRegistry.Family<MetricsRegistry.Histogram> ROUTE_LATENCY = MetricsRegistry.getInstance().histogram(
+            "uiptv_http_request_duration_seconds", "Server request time from dispatch to handler return, by route.", "route");
+    private static final MetricsRegistry.Family<MetricsRegistry.Counter> ROUTE_REQUESTS = MetricsRegistry.getInstance().counter(
+            "uiptv_http_requests_total", "Server requests by route and status class.", "route", "status");
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final boolean virtualThreads;
+    private final int defaultRouteLimit;
+    private final long queueTimeoutMs;
+    private final ExecutorService virtualThreadExecutor;
+    private final Map<String, RouteState> routes = new ConcurrentHashMap<>();
+
+    ServerExecutionModel(boolean virtualThreads, int defaultRouteLimit, long queueTimeoutMs) {
+        this.virtualThreads = virtualThreads;
+        this.defaultRouteLimit = Math.max(0, defaultRouteLimit);
+        this.queueTimeoutMs = Math.max(0L, queueTimeoutMs);
+        this.virtualThreadExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("uiptv-http-", 0).factory())
+                : null;
+    }
+
+    static ServerExecutionModel fromSystemProperties() {
+        return new ServerExecutionModel(
+                Boolean.parseBoolean(System.getProperty(VIRTUAL_THREADS_PROPERTY, "false")),
+                Integer.getInteger(ROUTE_LIMIT_PROPERTY, 0),
+                Long.getLong(QUEUE_TIMEOUT_PROPERTY, DEFAULT_QUEUE_TIMEOUT_MS)
+        );
+    }
+
+    boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Moves the exchange off the IO thread onto the configured executor and records when it was queued.
+     */
+    void dispatch(HttpServerExchange exchange, HttpHandler handler) {
+        exchange.putAttachment(UndertowAttachments.dispatchedAt(), System.nanoTime());
+        if (virtualThreadExecutor == null) {
+            exchange.dispatch(handler);
+        } else {
+            exchange.dispatch(virtualThreadExecutor, handler);
+        }
+    }
+
+    /**
+     * Wraps a route handler with its concurrency limit and queue-time bookkeeping.
+     */
+    HttpHandler route(String route, HttpHandler handler) {
+        RouteState state = routes.computeIfAbsent(route, key -> new RouteState(key, routeLimit(key)));
+        return new RouteLimitedHandler(state, handler, queueTimeoutMs);
+    }
+
+    List<RouteExecutionStats> stats() {
+        List<RouteExecutionStats> snapshot = new ArrayList<>(routes.size());
+        routes.values().forEach(state -> snapshot.add(state.snapshot()));
+        snapshot.sort((left, right) -> left.route().compareTo(right.route()));
+        return snapshot;
+    }
+
+    private int routeLimit(String route) {
+        return Math.max(0, Integer.getInteger(ROUTE_LIMIT_PROPERTY + "." + route, defaultRouteLimit));
+    }
+
+    @Override
+    public void close() {
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdownNow();
+        }
+    }
+
+    private static final class RouteLimitedHandler implements HttpHandler {
+        private final RouteState state;
+        private final HttpHandler next;
+        private final long queueTimeoutMs;
+
+        private RouteLimitedHandler(RouteState state, HttpHandler next, long queueTimeoutMs) {
+            this.state = state;
+            this.next = next;
+            this.queueTimeoutMs = queueTimeoutMs;
+        }
+
+        @Override
+        public void handleRequest(HttpServerExchange exchange) throws Exception {
+            if (exchange.isInIoThread()) {
+                exchange.dispatch(this);
+                return;
+            }
+            Long dispatchedAt = exchange.getAttachment(UndertowAttachments.dispatchedAt());
+            long queuedSince = dispatchedAt == null ? System.nanoTime() : dispatchedAt;
+            if (!state.acquire(queueTimeoutMs)) {
+                state.recordRejected(System.nanoTime() - queuedSince);
+                exchange.setStatusCode(503);
+                exchange.getResponseHeaders().put(Headers.RETRY_AFTER, "1");
+                exchange.endExchange();
+                state.recordCompletion(queuedSince, 503);
+                return;
+            }
+            state.recordStarted(System.nanoTime() - queuedSince);
+            boolean failed = true;
+            try {
+                next.handleRequest(exchange);
+                failed = false;
+            } finally {
+                state.release();
+                state.recordCompletion(queuedSince, failed ? Math.max(500, exchange.getStatusCode()) : exchange.getStatusCode());
+            }
+        }
+    }
+
+    private static final class RouteState {
+        private final String route;
+        private final int limit;
+        private final Semaphore permits;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalQueueNanos = new AtomicLong();
+        private final AtomicLong maxQueueNanos = new AtomicLong();
+        private final MetricsRegistry.Histogram latency;
+        private final MetricsRegistry.Counter[] requestsByStatusClass = new MetricsRegistry.Counter[STATUS_CLASSES.length];
+
+        private RouteState(String route, int limit) {
+            this.route = route;
+            this.limit = limit;
+            this.permits = limit > 0 ? new Semaphore(limit, true) : null;
+            this.latency = ROUTE_LATENCY.labels(route);
+        }
+
+        private void recordCompletion(long queuedSince, int statusCode) {
+            latency.observeSince(queuedSince);
+            int statusClass = Math.clamp(statusCode / 100 - 1, 0, STATUS_CLASSES.length - 1);
+            MetricsRegistry.Counter requests = requestsByStatusClass[statusClass];
+            if (requests == null) {
+                // Racing threads resolve the same registry series, so a lost write is harmless.
+                requests = ROUTE_REQUESTS.labels(route, STATUS_CLASSES[statusClass]);
+                requestsByStatusClass[statusClass] = requests;
+            }
+            requests.inc();
+        }
+
+        private boolean acquire(long timeoutMs) throws InterruptedException {
+            if (permits == null) {
+                return true;
+            }
+            waiting.incrementAndGet();
+            try {
+                return permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        private void release() {
+            active.decrementAndGet();
+            completed.incrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+
+        private void recordStarted(long queueNanos) {
+            active.incrementAndGet();
+            recordQueueTime(queueNanos);
+        }
+
+        private void recordRejected(long queueNanos) {
+            rejected.incrementAndGet();
+            recordQueueTime(queueNanos);
+        }
+
+        private void recordQueueTime(long queueNanos) {
+            long safeNanos = Math.max(0L, queueNanos);
+            totalQueueNanos.addAndGet(safeNanos);
+            maxQueueNanos.accumulateAndGet(safeNanos, Math::max);
+        }
+
+        private RouteExecutionStats snapshot() {
+            long finished = completed.get();
+            int running = active.get();
+            long started = finished + running;
+            long measured = started + rejected.get();
+            return new RouteExecutionStats(
+                    route,
+                    limit,
+                    running,
+                    waiting.get(),
+                    finished,
+                    rejected.get(),
+                    measured == 0 ? 0L : TimeUnit.NANOSECONDS.toMicros(totalQueueNanos.get() / measured),
+                    TimeUnit.NANOSECONDS.toMicros(maxQueueNanos.get())
+            );
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.uiptv.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Disk-backed ring of one live stream. Bytes are appended at an ever-growing stream position and stored at
+ * {@code position % capacity} of a fixed-size file, so disk usage never exceeds {@code capacity}. A one-second index of
+ * wall-clock time to stream position lets readers start at a point in time; positions are kept on MPEG-TS packet
+ * boundaries so a reader always starts on a packet.
+ * <p>
+ * One thread writes; any number of {@link Reader}s follow independently. A reader that falls behind the retained
+ * range (slower than the ring wraps, or older than {@code windowMs}) skips forward to the oldest retained data.
+ */
+final class TimeshiftBuffer implements Closeable {
+    static final int TS_PACKET_SIZE = 188;
+    private static final long INDEX_INTERVAL_MS = 1000L;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long capacity;
+    private final long windowMs;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataAvailable = lock.newCondition();
+    private final ArrayDeque<long[]> index = new ArrayDeque<>();
+    private long written;
+    private long floor;
+    private boolean finished;
+    private boolean closed;
+
+    TimeshiftBuffer(Path file, long capacityBytes, long windowMs, LongSupplier clock) throws IOException {
+        this.file = file;
+        this.capacity = Math.max(TS_PACKET_SIZE, capacityBytes - capacityBytes % TS_PACKET_SIZE);
+        this.windowMs = Math.max(INDEX_INTERVAL_MS, windowMs);
+        this.clock = clock;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Appends upstream bytes, overwriting the oldest data once the ring is full.
+     */
+    void write(byte[] data, int offset, int length) throws IOException {
+        long now = clock.getAsLong();
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Timeshift buffer is closed");
+            }
+            if (index.isEmpty() || now - index.peekLast()[0] >= INDEX_INTERVAL_MS) {
+                index.addLast(new long[]{now, alignDown(written)});
+            }
+            // Raise the floor before overwriting, so a reader still copying those slots sees its data went stale.
+            trim(now, written + length);
+        } finally {
+            lock.unlock();
+        }
+        // Only this thread moves written, so the region being filled is not visible to readers yet.
+        long position = written;
+        int remaining = length;
+        int from = offset;
+        while (remaining > 0) {
+            long slot = position % capacity;
+            int chunk = (int) Math.min(remaining, capacity - slot);
+            ByteBuffer buffer = ByteBuffer.wrap(data, from, chunk);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, slot + buffer.position() - from);
+            }
+            position += chunk;
+            from += chunk;
+            remaining -= chunk;
+        }
+        lock.lock();
+        try {
+            written = position;
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the end of the stream; readers drain what is left and then see end of stream.
+     */
+    void finish() {
+        lock.lock();
+        try {
+            finished = true;
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isFinished() {
+        lock.lock();
+        try {
+            return finished || closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A reader starting {@code secondsBehindLive} seconds before the newest data, or at the live edge for zero.
+     */
+    Reader readerBehindLive(long secondsBehindLive) {
+        if (secondsBehindLive <= 0) {
+            lock.lock();
+            try {
+                return new Reader(alignDown(written));
+            } finally {
+                lock.unlock();
+            }
+        }
+        return readerAt(clock.getAsLong() - secondsBehindLive * 1000L);
+    }
+
+    /**
+     * A reader starting at the stream data recorded at wall-clock time {@code epochMs}, clamped to what is retained.
+     */
+    Reader readerAt(long epochMs) {
+        lock.lock();
+        try {
+            long position = floor;
+            for (long[] entry : index) {
+                if (entry[0] > epochMs) {
+                    break;
+                }
+                position = entry[1];
+            }
+            return new Reader(Math.max(floor, Math.min(position, alignDown(written))));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wall-clock time of the oldest retained data, or the current time when nothing was recorded yet.
+     */
+    long oldestTimeMs() {
+        lock.lock();
+        try {
+            return index.isEmpty() ? clock.getAsLong() : index.peekFirst()[0];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void trim(long now, long end) {
+        long ringFloor = alignUp(Math.max(0, end - capacity));
+        long expiredBefore = now - windowMs;
+        // The first entry stays as the lower bound until the one after it is itself out of range.
+        while (index.size() > 1) {
+            Iterator<long[]> entries = index.iterator();
+            entries.next();
+            long[] second = entries.next();
+            if (second[1] > ringFloor && second[0] > expiredBefore) {
+                break;
+            }
+            index.removeFirst();
+        }
+        long indexFloor = index.isEmpty() ? 0 : index.peekFirst()[1];
+        floor = Math.max(floor, Math.max(ringFloor, indexFloor));
+    }
+
+    private static long alignDown(long position) {
+        return position - position % TS_PACKET_SIZE;
+    }
+
+    private static long alignUp(long position) {
+        long remainder = position % TS_PACKET_SIZE;
+        return remainder == 0 ? position : position + TS_PACKET_SIZE - remainder;
+    }
+
+    /**
+     * One client's read position in the buffer. Not thread-safe; each client owns its reader.
+     */
+    final class Reader {
+        private long position;
+
+        private Reader(long position) {
+            this.position = position;
+        }
+
+        long position() {
+            return position;
+        }
+
+        /**
+         * Reads the next bytes, waiting for the writer when the reader is at the live edge.
+         *
+         * @return the number of bytes read, or -1 once the stream has finished and everything was read
+         */
+        int read(byte[] target, int offset, int length) throws IOException, InterruptedException {
+            while (true) {
+                long available;
+                lock.lockInterruptibly();
+                try {
+                    while (position >= written && !finished && !closed) {
+                        dataAvailable.await();
+                    }
+                    if (closed || position >= written) {
+                        return -1;
+                    }
+                    if (position < floor) {
+                        position = floor;
+                    }
+                    available = written - position;
+                } finally {
+                    lock.unlock();
+                }
+                long slot = position % capacity;
+                int chunk = (int) Math.min(Math.min(length, available), capacity - slot);
+                ByteBuffer buffer = ByteBuffer.wrap(target, offset, chunk);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, slot + buffer.position() - offset) < 0) {
+                        break;
+                    }
+                }
+                lock.lock();
+                try {
+                    // The writer may have wrapped over this range while it was being read; if so, retry from the floor.
+                    if (position < floor) {
+                        continue;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                position += chunk;
+                return chunk;
+            }
+        }
+    }
+}
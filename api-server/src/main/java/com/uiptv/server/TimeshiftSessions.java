@@ -0,0 +1,198 @@
+package com.uiptv.server;
+
+import com.uiptv.util.AppLog;
+import com.uiptv.util.MetricsRegistry;
+import com.uiptv.util.SecureTempFileSupport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Live channels currently recorded into a {@link TimeshiftBuffer}, one per upstream URL. The first timeshift client of a
+ * channel hands its upstream response to a recorder thread; later clients of the same channel read from the buffer
+ * instead of opening the provider again. A channel nobody reads is recorded for {@code uiptv.timeshift.idle.seconds}
+ * (default 60) more, so a paused client can resume, and is then dropped together with its file.
+ * <p>
+ * Disk use is bounded by {@code uiptv.timeshift.max.sessions} (default 2, 0 disables timeshift) times
+ * {@code uiptv.timeshift.max.mb} (default 512); when all slots are taken, the channel unwatched for longest gives way.
+ * Each buffer keeps at most {@code uiptv.timeshift.window.minutes} (default 30) of the stream, or less when the
+ * stream's bitrate fills the file sooner.
+ */
+final class TimeshiftSessions {
+    private static final int MAX_SESSIONS = Math.max(0, Integer.getInteger("uiptv.timeshift.max.sessions", 2));
+    private static final long MAX_BYTES = Math.max(1, Long.getLong("uiptv.timeshift.max.mb", 512L)) * 1024 * 1024;
+    private static final long WINDOW_MS = TimeUnit.MINUTES.toMillis(Math.max(1, Long.getLong("uiptv.timeshift.window.minutes", 30L)));
+    private static final long IDLE_MS = TimeUnit.SECONDS.toMillis(Math.max(1, Long.getLong("uiptv.timeshift.idle.seconds", 60L)));
+    private static final int RECORD_CHUNK_SIZE = 64 * 1024;
+    private static final MetricsRegistry.Gauge ACTIVE_SESSIONS = MetricsRegistry.getInstance()
+            .gauge("uiptv_timeshift_sessions", "Live channels currently recorded for timeshift.").labels();
+
+    private final Map<String, Session> sessions = new HashMap<>();
+    private final int maxSessions;
+    private final long capacityBytes;
+    private final long windowMs;
+    private final long idleMs;
+    private final LongSupplier clock;
+
+    TimeshiftSessions(int maxSessions, long capacityBytes, long windowMs, long idleMs, LongSupplier clock) {
+        this.maxSessions = maxSessions;
+        this.capacityBytes = capacityBytes;
+        this.windowMs = windowMs;
+        this.idleMs = idleMs;
+        this.clock = clock;
+    }
+
+    private static class SingletonHelper {
+        private static final TimeshiftSessions INSTANCE =
+                new TimeshiftSessions(MAX_SESSIONS, MAX_BYTES, WINDOW_MS, IDLE_MS, System::currentTimeMillis);
+    }
+
+    static TimeshiftSessions getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    boolean isEnabled() {
+        return maxSessions > 0;
+    }
+
+    /**
+     * Joins the recording of {@code source} when one is running. The caller must {@link #leave(Session)} when done.
+     *
+     * @return the session, or {@code null} when the channel is not being recorded
+     */
+    synchronized Session join(String source) {
+        Session session = sessions.get(source);
+        if (session == null || session.buffer.isFinished()) {
+            return null;
+        }
+        session.readers++;
+        return session;
+    }
+
+    /**
+     * Starts recording {@code upstream} for {@code source} and joins it. On success the session owns {@code upstream}
+     * and closes it when recording stops; on {@code null} the caller keeps it.
+     *
+     * @return the session, or {@code null} when all session slots are in use or the buffer file cannot be created
+     */
+    Session start(String source, String contentType, InputStream upstream, AutoCloseable upstreamResponse) {
+        Session session;
+        synchronized (this) {
+            Session existing = sessions.get(source);
+            if (existing != null && existing.buffer.isFinished() && existing.readers == 0) {
+                sessions.remove(source);
+                existing.release();
+            }
+            if (sessions.size() >= maxSessions) {
+                evictUnwatched();
+            }
+            if (sessions.containsKey(source) || sessions.size() >= maxSessions) {
+                return null;
+            }
+            try {
+                Path file = SecureTempFileSupport.createTempFile("uiptv-timeshift-", ".ts");
+                session = new Session(source, contentType, new TimeshiftBuffer(file, capacityBytes, windowMs, clock));
+            } catch (IOException e) {
+                AppLog.addWarningLog(TimeshiftSessions.class, "Timeshift buffer unavailable: " + e.getMessage());
+                return null;
+            }
+            session.readers = 1;
+            session.lastReadMs = clock.getAsLong();
+            sessions.put(source, session);
+            ACTIVE_SESSIONS.set(sessions.size());
+        }
+        Thread recorder = new Thread(() -> record(session, upstream, upstreamResponse), "uiptv-timeshift-recorder");
+        recorder.setDaemon(true);
+        recorder.start();
+        return session;
+    }
+
+    synchronized void leave(Session session) {
+        session.readers = Math.max(0, session.readers - 1);
+        session.lastReadMs = clock.getAsLong();
+        if (session.readers == 0 && session.buffer.isFinished()) {
+            drop(session);
+        }
+    }
+
+    synchronized int activeSessions() {
+        return sessions.size();
+    }
+
+    private void record(Session session, InputStream upstream, AutoCloseable upstreamResponse) {
+        byte[] chunk = new byte[RECORD_CHUNK_SIZE];
+        try (upstreamResponse) {
+            int read;
+            while ((read = upstream.read(chunk)) != -1) {
+                session.buffer.write(chunk, 0, read);
+                if (isIdle(session)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            AppLog.addWarningLog(TimeshiftSessions.class, "Timeshift recording stopped: " + e.getMessage());
+        } finally {
+            session.buffer.finish();
+            synchronized (this) {
+                if (session.readers == 0) {
+                    drop(session);
+                }
+            }
+        }
+    }
+
+    private synchronized boolean isIdle(Session session) {
+        return session.readers == 0 && clock.getAsLong() - session.lastReadMs >= idleMs;
+    }
+
+    private void evictUnwatched() {
+        sessions.values().stream()
+                .filter(session -> session.readers == 0)
+                .min(Comparator.comparingLong(session -> session.lastReadMs))
+                .ifPresent(this::drop);
+    }
+
+    private void drop(Session session) {
+        if (sessions.get(session.source) == session) {
+            sessions.remove(session.source);
+            ACTIVE_SESSIONS.set(sessions.size());
+        }
+        session.release();
+    }
+
+    static final class Session {
+        private final String source;
+        private final String contentType;
+        private final TimeshiftBuffer buffer;
+        private int readers;
+        private long lastReadMs;
+
+        private Session(String source, String contentType, TimeshiftBuffer buffer) {
+            this.source = source;
+            this.contentType = contentType;
+            this.buffer = buffer;
+        }
+
+        String contentType() {
+            return contentType;
+        }
+
+        TimeshiftBuffer buffer() {
+            return buffer;
+        }
+
+        private void release() {
+            try {
+                buffer.close();
+            } catch (IOException _) {
+                // The file lives in the app temp directory and is replaced by the next session anyway.
+            }
+        }
+    }
+}
@@ -2,12 +2,16 @@ package com.uiptv.server;
 
 import com.uiptv.server.api.json.*;
 import com.uiptv.server.html.HttpSpaHtmlServer;
+import com.uiptv.util.MetricsRegistry;
 import io.undertow.Undertow;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.handlers.PathHandler;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
 
 import static com.uiptv.util.AppLog.addInfoLog;
 import static com.uiptv.util.ServerUrlUtil.*;
@@ -15,6 +19,18 @@ import static com.uiptv.util.ServerUrlUtil.*;
 public class UIptvServer {
     private static final int MIN_HTTP_WORKERS = 20;
     private static Undertow httpServer;
+    private static volatile ServerExecutionModel executionModel;
+
+    static {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.sampled("uiptv_http_route_active", MetricsRegistry.Type.GAUGE, "Requests currently running, by route.",
+                () -> sampleRoutes(RouteExecutionStats::active), "route");
+        metrics.sampled("uiptv_http_route_waiting", MetricsRegistry.Type.GAUGE, "Requests waiting for a route slot, by route.",
+                () -> sampleRoutes(RouteExecutionStats::waiting), "route");
+        metrics.sampled("uiptv_http_route_rejected_total", MetricsRegistry.Type.COUNTER,
+                "Requests answered with 503 after waiting too long for a route slot, by route.",
+                () -> sampleRoutes(RouteExecutionStats::rejected), "route");
+    }
 
     private UIptvServer() {
     }
@@ -29,6 +45,7 @@ public class UIptvServer {
         if (httpsEnabled && securePort == port) {
             throw new IOException("HTTPS server port must be different from HTTP server port.");
         }
+        executionModel = ServerExecutionModel.fromSystemProperties();
         int workerThreads = Math.max(MIN_HTTP_WORKERS, Runtime.getRuntime().availableProcessors() * 4);
         int ioThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
 
@@ -53,73 +70,94 @@ public class UIptvServer {
         PathHandler routes = new PathHandler();
 
         // SPA routes
-        routes.addExactPath("/", adapt(new HttpSpaHtmlServer()));
-        routes.addExactPath("/index.html", adapt(new HttpSpaHtmlServer()));
-        routes.addExactPath("/drm.html", adapt(new HttpSpaHtmlServer()));
+        exactRoute(routes, "/", new HttpSpaHtmlServer());
+        exactRoute(routes, "/index.html", new HttpSpaHtmlServer());
+        exactRoute(routes, "/drm.html", new HttpSpaHtmlServer());
 
         // PWA routes
-        routes.addExactPath("/manifest.json", adapt(new HttpManifestServer()));
-        routes.addExactPath("/sw.js", adapt(new HttpJavascriptServer()));
+        exactRoute(routes, "/manifest.json", new HttpManifestServer());
+        exactRoute(routes, "/sw.js", new HttpJavascriptServer());
 
         // Assets
-        routes.addExactPath("/icon.ico", adapt(new HttpIconServer()));
-        routes.addExactPath("/icon.png", adapt(new HttpIconServer()));
-        routes.addExactPath("/icon-192.png", adapt(new HttpIconServer()));
-        routes.addExactPath("/icon-512.png", adapt(new HttpIconServer()));
-        routes.addExactPath("/icon-maskable-512.png", adapt(new HttpIconServer()));
+        exactRoute(routes, "/icon.ico", new HttpIconServer());
+        exactRoute(routes, "/icon.png", new HttpIconServer());
+        exactRoute(routes, "/icon-192.png", new HttpIconServer());
+        exactRoute(routes, "/icon-512.png", new HttpIconServer());
+        exactRoute(routes, "/icon-maskable-512.png", new HttpIconServer());
 
         // Static file servers
-        routes.addPrefixPath("/javascript", adapt(new HttpJavascriptServer()));
-        routes.addPrefixPath("/js", adapt(new HttpJavascriptServer()));
-        routes.addPrefixPath("/css", adapt(new HttpCssServer()));
+        prefixRoute(routes, "/javascript", new HttpJavascriptServer());
+        prefixRoute(routes, "/js", new HttpJavascriptServer());
+        prefixRoute(routes, "/css", new HttpCssServer());
 
         // Local stream proxy for web playback.
-        routes.addPrefixPath("/proxy-stream", adapt(new HttpProxyStreamServer()));
-        routes.addExactPath("/bingewatch.m3u8", adapt(new HttpBingeWatchPlaylistServer()));
-        routes.addPrefixPath("/bingwatch", adapt(new HttpBingeWatchEntryServer()));
-        routes.addExactPath("/watchingNowSeriesEntry", adapt(new HttpWatchingNowSeriesM3u8EntryServer()));
-        routes.addExactPath("/watchingNowVodEntry", adapt(new HttpWatchingNowVodM3u8EntryServer()));
+        prefixRoute(routes, "/proxy-stream", new HttpProxyStreamServer());
+        exactRoute(routes, "/bingewatch.m3u8", new HttpBingeWatchPlaylistServer());
+        prefixRoute(routes, "/bingwatch", new HttpBingeWatchEntryServer());
+        exactRoute(routes, "/watchingNowSeriesEntry", new HttpWatchingNowSeriesM3u8EntryServer());
+        exactRoute(routes, "/watchingNowVodEntry", new HttpWatchingNowVodM3u8EntryServer());
 
         // API JSON servers
-        routes.addExactPath("/accounts", adapt(new HttpAccountJsonServer()));
-        routes.addExactPath("/categories", adapt(new HttpCategoryJsonServer()));
-        routes.addExactPath("/channels", adapt(new HttpChannelJsonServer()));
-        routes.addExactPath("/seriesEpisodes", adapt(new HttpSeriesEpisodesJsonServer()));
-        routes.addExactPath("/seriesDetails", adapt(new HttpSeriesDetailsJsonServer()));
-        routes.addExactPath("/bingeWatchSession", adapt(new HttpBingeWatchSessionJsonServer()));
-        routes.addExactPath("/watchingNow", adapt(new HttpWatchingNowJsonServer()));
-        routes.addExactPath("/watchingNowSeriesEpisodes", adapt(new HttpWatchingNowSeriesEpisodesJsonServer()));
-        routes.addExactPath("/watchingNowSeriesAction", adapt(new HttpWatchingNowSeriesActionServer()));
-        routes.addExactPath("/watchingNowVod", adapt(new HttpWatchingNowVodJsonServer()));
-        routes.addExactPath("/watchingNowVodAction", adapt(new HttpWatchingNowVodActionServer()));
-        routes.addExactPath("/vodDetails", adapt(new HttpVodDetailsJsonServer()));
+        exactRoute(routes, "/accounts", new HttpAccountJsonServer());
+        nativeExactRoute(routes, "/categories", new HttpCategoryJsonServer());
+        nativeExactRoute(routes, "/channels", new HttpChannelJsonServer());
+        nativeExactRoute(routes, "/catalogUpdates", new HttpCatalogUpdatesJsonServer());
+        exactRoute(routes, "/seriesEpisodes", new HttpSeriesEpisodesJsonServer());
+        exactRoute(routes, "/seriesDetails", new HttpSeriesDetailsJsonServer());
+        exactRoute(routes, "/bingeWatchSession", new HttpBingeWatchSessionJsonServer());
+        nativeExactRoute(routes, "/watchingNow", new HttpWatchingNowJsonServer());
+        exactRoute(routes, "/watchingNowSeriesEpisodes", new HttpWatchingNowSeriesEpisodesJsonServer());
+        exactRoute(routes, "/watchingNowSeriesAction", new HttpWatchingNowSeriesActionServer());
+        exactRoute(routes, "/watchingNowVod", new HttpWatchingNowVodJsonServer());
+        exactRoute(routes, "/watchingNowVodAction", new HttpWatchingNowVodActionServer());
+        exactRoute(routes, "/vodDetails", new HttpVodDetailsJsonServer());
+        nativeExactRoute(routes, "/macVerification", new HttpMacVerificationServer());
+        exactRoute(routes, "/epg", new HttpEpgJsonServer());
         // Single player gateway: /player is canonical, legacy /player/* paths are handled by prefix routing.
-        routes.addPrefixPath("/player", adapt(new HttpPlayerGatewayServer()));
-        routes.addExactPath("/bookmarks", adapt(new HttpBookmarksJsonServer()));
-        routes.addExactPath("/config", adapt(new HttpConfigJsonServer()));
-        routes.addExactPath("/remote-sync/health", adapt(new HttpRemoteSyncHealthServer()));
-        routes.addExactPath("/remote-sync/request", adapt(new HttpRemoteSyncRequestServer()));
-        routes.addExactPath("/remote-sync/status", adapt(new HttpRemoteSyncStatusServer()));
-        routes.addExactPath("/remote-sync/upload", adapt(new HttpRemoteSyncUploadServer()));
-        routes.addExactPath("/remote-sync/download", adapt(new HttpRemoteSyncDownloadServer()));
-        routes.addExactPath("/remote-sync/complete", adapt(new HttpRemoteSyncCompleteServer()));
-        routes.addExactPath("/playlist.m3u8", adapt(new HttpM3u8PlayListServer()));
-        routes.addExactPath("/bookmarkEntry.ts", adapt(new HttpM3u8BookmarkEntry()));
-        routes.addExactPath("/bookmarks.m3u8", adapt(new HttpM3u8BookmarkPlayListServer()));
-        routes.addExactPath("/iptv.m3u8", adapt(new HttpIptvM3u8Server()));
-        routes.addExactPath("/iptv.m3u", adapt(new HttpIptvM3u8Server()));
-
-        routes.addPrefixPath("/", adapt(new HttpSpaHtmlServer()));
+        nativePrefixRoute(routes, "/player", new HttpPlayerGatewayServer());
+        nativeExactRoute(routes, "/bookmarks", new HttpBookmarksJsonServer());
+        exactRoute(routes, "/config", new HttpConfigJsonServer());
+        exactRoute(routes, "/remote-sync/health", new HttpRemoteSyncHealthServer());
+        exactRoute(routes, "/remote-sync/request", new HttpRemoteSyncRequestServer());
+        exactRoute(routes, "/remote-sync/status", new HttpRemoteSyncStatusServer());
+        exactRoute(routes, "/remote-sync/summary", new HttpRemoteSyncSummaryServer());
+        exactRoute(routes, "/remote-sync/upload", new HttpRemoteSyncUploadServer());
+        exactRoute(routes, "/remote-sync/download", new HttpRemoteSyncDownloadServer());
+        exactRoute(routes, "/remote-sync/complete", new HttpRemoteSyncCompleteServer());
+        exactRoute(routes, "/playlist.m3u8", new HttpM3u8PlayListServer());
+        exactRoute(routes, "/bookmarkEntry.ts", new HttpM3u8BookmarkEntry());
+        exactRoute(routes, "/bookmarks.m3u8", new HttpM3u8BookmarkPlayListServer());
+        exactRoute(routes, "/iptv.m3u8", new HttpIptvM3u8Server());
+        exactRoute(routes, "/iptv.m3u", new HttpIptvM3u8Server());
+        exactRoute(routes, "/metrics", new HttpMetricsServer());
+
+        prefixRoute(routes, "/", new HttpSpaHtmlServer());
 
         HttpHandler routedHandler = exchange -> {
             exchange.putAttachment(UndertowAttachments.attributes(), UndertowAttachments.newAttributes());
             routes.handleRequest(exchange);
         };
-        return new WebRequestActivityLoggingHandler(routedHandler);
+        return new WebRequestActivityLoggingHandler(routedHandler, executionModel);
+    }
+
+    private static void exactRoute(PathHandler routes, String path, com.sun.net.httpserver.HttpHandler handler) {
+        routes.addExactPath(path, adapt(path, handler));
+    }
+
+    private static void prefixRoute(PathHandler routes, String path, com.sun.net.httpserver.HttpHandler handler) {
+        routes.addPrefixPath(path, adapt(path, handler));
+    }
+
+    private static void nativeExactRoute(PathHandler routes, String path, RequestContextHandler handler) {
+        routes.addExactPath(path, executionModel.route(path, handler));
+    }
+
+    private static void nativePrefixRoute(PathHandler routes, String path, RequestContextHandler handler) {
+        routes.addPrefixPath(path, executionModel.route(path, handler));
     }
 
-    private static HttpHandler adapt(com.sun.net.httpserver.HttpHandler handler) {
-        return new UndertowHttpHandlerAdapter(handler);
+    private static HttpHandler adapt(String route, com.sun.net.httpserver.HttpHandler handler) {
+        return executionModel.route(route, new UndertowHttpHandlerAdapter(handler));
     }
 
     private static String getHttpPort() {
@@ -152,17 +190,38 @@ public class UIptvServer {
             httpServer = null;
             addInfoLog(UIptvServer.class, "Server Stopped");
         }
+        if (executionModel != null) {
+            executionModel.close();
+            executionModel = null;
+        }
     }
 
     public static synchronized boolean isRunning() {
         return httpServer != null;
     }
 
+    public static synchronized List<RouteExecutionStats> routeExecutionStats() {
+        return executionModel == null ? List.of() : executionModel.stats();
+    }
+
+    private static Map<List<String>, Number> sampleRoutes(ToLongFunction<RouteExecutionStats> value) {
+        // Read without the class lock: a scrape runs on a server thread that stop() waits for.
+        ServerExecutionModel model = executionModel;
+        Map<List<String>, Number> samples = new LinkedHashMap<>();
+        for (RouteExecutionStats stats : model == null ? List.<RouteExecutionStats>of() : model.stats()) {
+            samples.put(List.of(stats.route()), value.applyAsLong(stats));
+        }
+        return samples;
+    }
+
     private static void addServerStartedLog() {
         String message = "Server Started on HTTP port " + getHttpPort();
         if (isHttpsServerEnabled()) {
             message += " and HTTPS port " + getHttpsPort();
         }
+        if (executionModel != null && executionModel.isVirtualThreads()) {
+            message += " (virtual-thread handlers)";
+        }
         addInfoLog(UIptvServer.class, message);
     }
 }
@@ -7,6 +7,7 @@ import java.util.Map;
 
 final class UndertowAttachments {
     private static final AttachmentKey<Map<String, Object>> ATTRIBUTES = AttachmentKey.create(Map.class);
+    private static final AttachmentKey<Long> DISPATCHED_AT = AttachmentKey.create(Long.class);
 
     private UndertowAttachments() {
     }
@@ -15,6 +16,10 @@ final class UndertowAttachments {
         return ATTRIBUTES;
     }
 
+    static AttachmentKey<Long> dispatchedAt() {
+        return DISPATCHED_AT;
+    }
+
     static Map<String, Object> newAttributes() {
         return new HashMap<>();
     }
@@ -0,0 +1,148 @@
+package com.uiptv.server;
+
+import com.uiptv.util.ServerUtils;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * {@link RequestContext} over a blocking Undertow exchange. Headers are read from and written to
+ * Undertow's {@link HeaderMap} without copying, the query string is decoded on first lookup only,
+ * and bodies are handed to the response sender as a single buffer.
+ */
+public final class UndertowRequestContext implements RequestContext {
+    private static final HttpString ACCESS_CONTROL_ALLOW_ORIGIN = new HttpString("Access-Control-Allow-Origin");
+    private static final HttpString ACCESS_CONTROL_ALLOW_METHODS = new HttpString("Access-Control-Allow-Methods");
+    private static final HttpString ACCESS_CONTROL_ALLOW_HEADERS = new HttpString("Access-Control-Allow-Headers");
+    private static final HttpString ACCESS_CONTROL_ALLOW_CREDENTIALS = new HttpString("Access-Control-Allow-Credentials");
+    private static final HttpString ACCESS_CONTROL_ALLOW_CREDENTIALS_HEADER = new HttpString("Access-Control-Allow-Credentials-Header");
+
+    private final HttpServerExchange exchange;
+    private Map<String, String> params;
+
+    UndertowRequestContext(HttpServerExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    public HttpServerExchange exchange() {
+        return exchange;
+    }
+
+    public HeaderMap requestHeaders() {
+        return exchange.getRequestHeaders();
+    }
+
+    public HeaderMap responseHeaders() {
+        return exchange.getResponseHeaders();
+    }
+
+    @Override
+    public String method() {
+        return exchange.getRequestMethod().toString();
+    }
+
+    @Override
+    public String path() {
+        return exchange.getRequestPath();
+    }
+
+    @Override
+    public String param(String name) {
+        if (params == null) {
+            params = ServerUtils.queryToMap(exchange.getQueryString());
+        }
+        return params.get(name);
+    }
+
+    @Override
+    public String header(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    @Override
+    public byte[] readBody() throws IOException {
+        try (InputStream inputStream = exchange.getInputStream()) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        Map<String, Object> attributes = exchange.getAttachment(UndertowAttachments.attributes());
+        if (attributes == null) {
+            attributes = UndertowAttachments.newAttributes();
+            exchange.putAttachment(UndertowAttachments.attributes(), attributes);
+        }
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void addResponseHeader(String name, String value) {
+        exchange.getResponseHeaders().add(headerName(name), value);
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        exchange.getResponseHeaders().put(headerName(name), value);
+    }
+
+    @Override
+    public void sendJson(String body) {
+        if (!"GET".equals(method())) {
+            exchange.getResponseHeaders().put(Headers.ALLOW, "GET");
+            sendStatus(405);
+            return;
+        }
+        HeaderMap headers = exchange.getResponseHeaders();
+        headers.add(ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        headers.add(ACCESS_CONTROL_ALLOW_METHODS, "GET");
+        headers.add(ACCESS_CONTROL_ALLOW_HEADERS, "*");
+        headers.add(ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+        headers.add(ACCESS_CONTROL_ALLOW_CREDENTIALS_HEADER, "*");
+        write(200, ServerUtils.CONTENT_TYPE_JSON, body);
+    }
+
+    @Override
+    public void sendText(int statusCode, String body) {
+        exchange.getResponseHeaders().add(ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        write(statusCode, ServerUtils.CONTENT_TYPE_TEXT + "; charset=UTF-8", body);
+    }
+
+    @Override
+    public void send(int statusCode, String contentType, String body) {
+        write(statusCode, contentType, body);
+    }
+
+    @Override
+    public void sendStatus(int statusCode) {
+        exchange.setStatusCode(statusCode);
+        exchange.endExchange();
+    }
+
+    void finish() {
+        // A dispatched exchange is still owned by a pending long-poll; it ends once that answers.
+        if (!exchange.isResponseStarted() && !exchange.isDispatched()) {
+            exchange.endExchange();
+        }
+    }
+
+    private void write(int statusCode, String contentType, String body) {
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.setStatusCode(statusCode);
+        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, contentType);
+        exchange.setResponseContentLength(bytes.length);
+        exchange.getResponseSender().send(ByteBuffer.wrap(bytes));
+    }
+
+    private static HttpString headerName(String name) {
+        HttpString header = HttpString.tryFromString(name);
+        return header == null ? new HttpString(name) : header;
+    }
+}
@@ -9,15 +9,17 @@ import java.util.concurrent.TimeUnit;
 
 final class WebRequestActivityLoggingHandler implements HttpHandler {
     private final HttpHandler next;
+    private final ServerExecutionModel executionModel;
 
-    WebRequestActivityLoggingHandler(HttpHandler next) {
+    WebRequestActivityLoggingHandler(HttpHandler next, ServerExecutionModel executionModel) {
         this.next = next;
+        this.executionModel = executionModel;
     }
 
     @Override
     public void handleRequest(HttpServerExchange exchange) throws Exception {
         if (exchange.isInIoThread()) {
-            exchange.dispatch(this);
+            executionModel.dispatch(exchange, this);
             return;
         }
 
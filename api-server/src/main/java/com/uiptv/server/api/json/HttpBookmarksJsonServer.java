@@ -1,80 +1,77 @@
 package com.uiptv.server.api.json;
 
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
 import com.uiptv.application.BookmarkApplicationService;
 import com.uiptv.application.BookmarkSaveRequest;
 import com.uiptv.application.BookmarkSaveResult;
 import com.uiptv.application.CatalogMode;
+import com.uiptv.server.RequestContext;
+import com.uiptv.server.RequestContextHandler;
 import org.json.JSONObject;
 import org.json.JSONArray;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import static com.uiptv.util.ServerUtils.getParam;
 import static com.uiptv.util.StringUtils.isBlank;
-import static com.uiptv.util.ServerUtils.generateJsonResponse;
 import static com.uiptv.util.ServerUtils.objectToJson;
 
-public class HttpBookmarksJsonServer implements HttpHandler {
+public class HttpBookmarksJsonServer implements RequestContextHandler {
     private static final String ALLOWED_METHODS = "GET,POST,PUT,DELETE,OPTIONS";
     private static final String PARAM_BOOKMARK_IDS = "bookmarkIds";
     private static final String PARAM_BOOKMARK_ORDERS = "bookmarkOrders";
     private static final String PARAM_CATEGORY_ID = "categoryId";
     private static final String PARAM_ORDERED_BOOKMARK_DB_IDS = "orderedBookmarkDbIds";
     @Override
-    public void handle(HttpExchange ex) throws IOException {
-        String method = ex.getRequestMethod();
+    public void handle(RequestContext request) throws IOException {
+        String method = request.method();
         if ("OPTIONS".equalsIgnoreCase(method)) {
-            ex.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
-            ex.getResponseHeaders().add("Access-Control-Allow-Methods", ALLOWED_METHODS);
-            ex.getResponseHeaders().add("Access-Control-Allow-Headers", "Content-Type,*");
-            ex.sendResponseHeaders(204, -1);
+            request.addResponseHeader("Access-Control-Allow-Origin", "*");
+            request.addResponseHeader("Access-Control-Allow-Methods", ALLOWED_METHODS);
+            request.addResponseHeader("Access-Control-Allow-Headers", "Content-Type,*");
+            request.sendStatus(204);
             return;
         }
         if ("GET".equalsIgnoreCase(method)) {
-            if ("categories".equalsIgnoreCase(queryParam(ex, "view"))) {
-                generateJsonResponse(ex, objectToJson(BookmarkApplicationService.getInstance().listCategories()));
+            if ("categories".equalsIgnoreCase(queryParam(request, "view"))) {
+                request.sendJson(objectToJson(BookmarkApplicationService.getInstance().listCategories()));
                 return;
             }
-            int offset = parseIntParam(queryParam(ex, "offset"), 0);
-            int limit = parseIntParam(queryParam(ex, "limit"), 0);
-            generateJsonResponse(ex, objectToJson(BookmarkApplicationService.getInstance().listBookmarks(offset, limit)));
+            int offset = parseIntParam(queryParam(request, "offset"), 0);
+            int limit = parseIntParam(queryParam(request, "limit"), 0);
+            request.sendJson(objectToJson(BookmarkApplicationService.getInstance().listBookmarks(offset, limit)));
             return;
         }
         if ("POST".equalsIgnoreCase(method)) {
-            upsertBookmark(ex);
+            upsertBookmark(request);
             return;
         }
         if ("PUT".equalsIgnoreCase(method)) {
-            updateBookmarkOrder(ex);
+            updateBookmarkOrder(request);
             return;
         }
         if ("DELETE".equalsIgnoreCase(method)) {
-            deleteBookmark(ex);
+            deleteBookmark(request);
             return;
         }
-        ex.getResponseHeaders().set("Allow", ALLOWED_METHODS);
-        ex.sendResponseHeaders(405, -1);
+        request.setResponseHeader("Allow", ALLOWED_METHODS);
+        request.sendStatus(405);
     }
 
-    private void updateBookmarkOrder(HttpExchange ex) throws IOException {
-        JSONObject body = readBodyJson(ex);
+    private void updateBookmarkOrder(RequestContext request) throws IOException {
+        JSONObject body = readBodyJson(request);
         Map<String, Integer> bookmarkOrders = extractBookmarkOrders(body);
 
         if (bookmarkOrders.isEmpty()) {
-            writeJson(ex, 400, "{\"status\":\"error\",\"message\":\"bookmarkOrders is required\"}");
+            writeJson(request, 400, "{\"status\":\"error\",\"message\":\"bookmarkOrders is required\"}");
             return;
         }
 
         BookmarkApplicationService.getInstance().saveBookmarkOrders(bookmarkOrders);
-        writeJson(ex, 200, "{\"status\":\"ok\",\"action\":\"reordered\"}");
+        writeJson(request, 200, "{\"status\":\"ok\",\"action\":\"reordered\"}");
     }
 
     private Map<String, Integer> extractBookmarkOrders(JSONObject body) {
@@ -141,14 +138,14 @@ public class HttpBookmarksJsonServer implements HttpHandler {
         return null;
     }
 
-    private void upsertBookmark(HttpExchange ex) throws IOException {
-        JSONObject body = readBodyJson(ex);
-        String accountId = opt(body, "accountId", queryParam(ex, "accountId"));
-        String categoryId = opt(body, PARAM_CATEGORY_ID, queryParam(ex, PARAM_CATEGORY_ID));
-        String mode = opt(body, "mode", queryParam(ex, "mode"));
-        String channelId = opt(body, "channelId", queryParam(ex, "channelId"));
-        String channelName = opt(body, "name", queryParam(ex, "name"));
-        String cmd = opt(body, "cmd", queryParam(ex, "cmd"));
+    private void upsertBookmark(RequestContext request) throws IOException {
+        JSONObject body = readBodyJson(request);
+        String accountId = opt(body, "accountId", queryParam(request, "accountId"));
+        String categoryId = opt(body, PARAM_CATEGORY_ID, queryParam(request, PARAM_CATEGORY_ID));
+        String mode = opt(body, "mode", queryParam(request, "mode"));
+        String channelId = opt(body, "channelId", queryParam(request, "channelId"));
+        String channelName = opt(body, "name", queryParam(request, "name"));
+        String cmd = opt(body, "cmd", queryParam(request, "cmd"));
         if (isBlank(channelId) && !isBlank(opt(body, "id", ""))) {
             channelId = opt(body, "id", "");
         }
@@ -170,29 +167,29 @@ public class HttpBookmarksJsonServer implements HttpHandler {
                 )
         );
         if (result == null) {
-            writeJson(ex, 400, "{\"status\":\"error\",\"message\":\"Missing account/channel details\"}");
+            writeJson(request, 400, "{\"status\":\"error\",\"message\":\"Missing account/channel details\"}");
             return;
         }
-        writeJson(ex, 200, "{\"status\":\"ok\",\"action\":\"" + escape(result.action()) + "\",\"bookmarkId\":\"" + escape(result.bookmarkId()) + "\"}");
+        writeJson(request, 200, "{\"status\":\"ok\",\"action\":\"" + escape(result.action()) + "\",\"bookmarkId\":\"" + escape(result.bookmarkId()) + "\"}");
     }
 
-    private void deleteBookmark(HttpExchange ex) throws IOException {
-        String bookmarkId = queryParam(ex, "bookmarkId");
+    private void deleteBookmark(RequestContext request) throws IOException {
+        String bookmarkId = queryParam(request, "bookmarkId");
         if (isBlank(bookmarkId)) {
-            JSONObject body = readBodyJson(ex);
+            JSONObject body = readBodyJson(request);
             bookmarkId = opt(body, "bookmarkId", "");
         }
         if (isBlank(bookmarkId)) {
-            writeJson(ex, 400, "{\"status\":\"error\",\"message\":\"bookmarkId is required\"}");
+            writeJson(request, 400, "{\"status\":\"error\",\"message\":\"bookmarkId is required\"}");
             return;
         }
         BookmarkApplicationService.getInstance().deleteBookmark(bookmarkId);
-        writeJson(ex, 200, "{\"status\":\"ok\",\"action\":\"removed\"}");
+        writeJson(request, 200, "{\"status\":\"ok\",\"action\":\"removed\"}");
     }
 
-    private JSONObject readBodyJson(HttpExchange ex) {
-        try (InputStream in = ex.getRequestBody()) {
-            byte[] data = in.readAllBytes();
+    private JSONObject readBodyJson(RequestContext request) {
+        try {
+            byte[] data = request.readBody();
             if (data.length == 0) {
                 return new JSONObject();
             }
@@ -212,15 +209,11 @@ public class HttpBookmarksJsonServer implements HttpHandler {
         return fallback == null ? "" : fallback;
     }
 
-    private void writeJson(HttpExchange ex, int status, String body) throws IOException {
-        byte[] responseBytes = body.getBytes(StandardCharsets.UTF_8);
-        ex.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
-        ex.getResponseHeaders().add("Access-Control-Allow-Methods", ALLOWED_METHODS);
-        ex.getResponseHeaders().add("Access-Control-Allow-Headers", "Content-Type,*");
-        ex.getResponseHeaders().add("Content-Type", "application/json");
-        ex.sendResponseHeaders(status, responseBytes.length);
-        ex.getResponseBody().write(responseBytes);
-        ex.getResponseBody().close();
+    private void writeJson(RequestContext request, int status, String body) throws IOException {
+        request.addResponseHeader("Access-Control-Allow-Origin", "*");
+        request.addResponseHeader("Access-Control-Allow-Methods", ALLOWED_METHODS);
+        request.addResponseHeader("Access-Control-Allow-Headers", "Content-Type,*");
+        request.send(status, "application/json", body);
     }
 
     private String escape(String value) {
@@ -228,9 +221,9 @@ public class HttpBookmarksJsonServer implements HttpHandler {
         return value.replace("\\", "\\\\").replace("\"", "\\\"");
     }
 
-    private String queryParam(HttpExchange ex, String key) {
+    private String queryParam(RequestContext request, String key) {
         try {
-            String value = getParam(ex, key);
+            String value = request.param(key);
             return value == null ? "" : value;
         } catch (Exception _) {
             return "";
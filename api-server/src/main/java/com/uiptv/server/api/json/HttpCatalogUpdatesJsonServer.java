@@ -0,0 +1,65 @@
+package com.uiptv.server.api.json;
+
+import com.uiptv.application.CatalogReadResult;
+import com.uiptv.server.LongPollResponder;
+import com.uiptv.server.RequestContext;
+import com.uiptv.server.RequestContextHandler;
+import com.uiptv.service.CatalogRefreshEvent;
+import com.uiptv.service.CatalogRefreshService;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Long-poll endpoint for background catalog refreshes: {@code /catalogUpdates?since=<revision>&timeoutMs=<ms>}.
+ * Answers as soon as a refresh newer than {@code since} lands, or with an empty event list on timeout. No server
+ * thread is held while the poll waits.
+ */
+public class HttpCatalogUpdatesJsonServer implements RequestContextHandler {
+    static final String HEADER_CATALOG_STALE = "X-UIPTV-Catalog-Stale";
+    static final String HEADER_CATALOG_REVISION = "X-UIPTV-Catalog-Revision";
+    private static final long DEFAULT_TIMEOUT_MS = 25_000;
+    private static final long MAX_TIMEOUT_MS = 55_000;
+
+    static void setCatalogHeaders(RequestContext request, CatalogReadResult<?> result) {
+        request.setResponseHeader(HEADER_CATALOG_STALE, String.valueOf(result.stale()));
+        request.setResponseHeader(HEADER_CATALOG_REVISION, String.valueOf(result.revision()));
+    }
+
+    @Override
+    public void handle(RequestContext request) throws IOException {
+        CatalogRefreshService refreshService = CatalogRefreshService.getInstance();
+        long since = parseLongParam(request.param("since"), refreshService.getRevision());
+        long timeoutMs = Math.clamp(parseLongParam(request.param("timeoutMs"), DEFAULT_TIMEOUT_MS), 0, MAX_TIMEOUT_MS);
+        LongPollResponder.respondWhenDone(request, refreshService.eventsAfter(since, timeoutMs), HttpCatalogUpdatesJsonServer::writeEvents);
+    }
+
+    private static void writeEvents(RequestContext request, List<CatalogRefreshEvent> events) throws IOException {
+        JSONArray items = new JSONArray();
+        for (CatalogRefreshEvent event : events) {
+            items.put(new JSONObject()
+                    .put("revision", event.revision())
+                    .put("kind", event.kind().name())
+                    .put("accountId", event.accountId())
+                    .put("mode", event.mode())
+                    .put("categoryId", event.categoryDbId())
+                    .put("itemCount", event.itemCount())
+                    .put("completedAt", event.completedEpochMs()));
+        }
+        JSONObject body = new JSONObject()
+                .put("revision", CatalogRefreshService.getInstance().getRevision())
+                .put("events", items);
+        request.setResponseHeader("Cache-Control", "no-store");
+        request.sendJson(body.toString());
+    }
+
+    private long parseLongParam(String value, long fallback) {
+        try {
+            return Long.parseLong(value);
+        } catch (Exception _) {
+            return fallback;
+        }
+    }
+}
@@ -1,25 +1,26 @@
 package com.uiptv.server.api.json;
 
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
 import com.uiptv.application.CatalogApplicationService;
 import com.uiptv.application.CatalogMode;
+import com.uiptv.application.CatalogReadResult;
 import com.uiptv.model.Category;
+import com.uiptv.server.RequestContext;
+import com.uiptv.server.RequestContextHandler;
 import com.uiptv.util.StringUtils;
 
 import java.io.IOException;
-import java.util.List;
 
-import static com.uiptv.util.ServerUtils.generateJsonResponse;
-import static com.uiptv.util.ServerUtils.getParam;
+import static com.uiptv.server.api.json.HttpCatalogUpdatesJsonServer.setCatalogHeaders;
+import static com.uiptv.util.ServerUtils.objectToJson;
 
-public class HttpCategoryJsonServer implements HttpHandler {
+public class HttpCategoryJsonServer implements RequestContextHandler {
     @Override
-    public void handle(HttpExchange ex) throws IOException {
-        List<Category> resolved = CatalogApplicationService.getInstance().listCategories(
-                getParam(ex, "accountId"),
-                CatalogMode.fromRequest(getParam(ex, "mode"))
+    public void handle(RequestContext request) throws IOException {
+        CatalogReadResult<Category> resolved = CatalogApplicationService.getInstance().readCategories(
+                request.param("accountId"),
+                CatalogMode.fromRequest(request.param("mode"))
         );
-        generateJsonResponse(ex, StringUtils.EMPTY + com.uiptv.util.ServerUtils.objectToJson(resolved));
+        setCatalogHeaders(request, resolved);
+        request.sendJson(StringUtils.EMPTY + objectToJson(resolved.items()));
     }
 }
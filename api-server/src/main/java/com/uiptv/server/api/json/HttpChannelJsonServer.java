@@ -1,30 +1,31 @@
 package com.uiptv.server.api.json;
 
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
 import com.uiptv.application.CatalogApplicationService;
 import com.uiptv.application.CatalogChannelsQuery;
 import com.uiptv.application.CatalogMode;
+import com.uiptv.application.CatalogReadResult;
 import com.uiptv.model.Channel;
+import com.uiptv.server.RequestContext;
+import com.uiptv.server.RequestContextHandler;
 import com.uiptv.util.StringUtils;
 
 import java.io.IOException;
-import java.util.List;
 
-import static com.uiptv.util.ServerUtils.generateJsonResponse;
-import static com.uiptv.util.ServerUtils.getParam;
+import static com.uiptv.server.api.json.HttpCatalogUpdatesJsonServer.setCatalogHeaders;
+import static com.uiptv.util.ServerUtils.objectToJson;
 
-public class HttpChannelJsonServer implements HttpHandler {
+public class HttpChannelJsonServer implements RequestContextHandler {
     @Override
-    public void handle(HttpExchange ex) throws IOException {
-        List<Channel> channels = CatalogApplicationService.getInstance().listChannels(
+    public void handle(RequestContext request) throws IOException {
+        CatalogReadResult<Channel> channels = CatalogApplicationService.getInstance().readChannels(
                 new CatalogChannelsQuery(
-                        getParam(ex, "accountId"),
-                        CatalogMode.fromRequest(getParam(ex, "mode")),
-                        getParam(ex, "categoryId"),
-                        getParam(ex, "movieId")
+                        request.param("accountId"),
+                        CatalogMode.fromRequest(request.param("mode")),
+                        request.param("categoryId"),
+                        request.param("movieId")
                 )
         );
-        generateJsonResponse(ex, StringUtils.EMPTY + com.uiptv.util.ServerUtils.objectToJson(channels));
+        setCatalogHeaders(request, channels);
+        request.sendJson(StringUtils.EMPTY + objectToJson(channels.items()));
     }
 }
@@ -0,0 +1,146 @@
+package com.uiptv.server.api.json;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.uiptv.db.ChannelDb;
+import com.uiptv.model.Account;
+import com.uiptv.model.Channel;
+import com.uiptv.model.EpgProgramme;
+import com.uiptv.service.AccountService;
+import com.uiptv.service.CacheRefreshScheduler;
+import com.uiptv.service.EpgService;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.uiptv.util.ServerUtils.getParam;
+import static com.uiptv.util.ServerUtils.writeJsonResponse;
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * Programme guide: GET {@code ?accountId=&channelId=&channelName=} returns the programme airing now and the next one;
+ * with {@code from} and {@code to} (epoch milliseconds) it returns the programmes overlapping that window instead.
+ * POST {@code ?accountId=} queues a guide download.
+ */
+public class HttpEpgJsonServer implements HttpHandler {
+    private static final long MAX_WINDOW_MS = 7L * 24 * 60 * 60 * 1000;
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        if ("GET".equalsIgnoreCase(method)) {
+            lookup(exchange);
+            return;
+        }
+        if ("POST".equalsIgnoreCase(method)) {
+            refresh(exchange);
+            return;
+        }
+        exchange.getResponseHeaders().set("Allow", "GET, POST");
+        exchange.sendResponseHeaders(405, -1);
+    }
+
+    private void lookup(HttpExchange exchange) throws IOException {
+        Account account = AccountService.getInstance().getById(getParam(exchange, "accountId"));
+        if (account == null) {
+            writeError(exchange, 404, "account not found");
+            return;
+        }
+        String channelId = getParam(exchange, "channelId");
+        String channelName = getParam(exchange, "channelName");
+        if (isBlank(channelId) && isBlank(channelName)) {
+            writeError(exchange, 400, "channelId or channelName is required");
+            return;
+        }
+        Channel channel = resolveChannel(account, channelId, channelName);
+        JSONObject response = new JSONObject()
+                .put("accountId", account.getDbId())
+                .put("channelId", channelId == null ? "" : channelId);
+        String from = getParam(exchange, "from");
+        String to = getParam(exchange, "to");
+        if (isBlank(from) && isBlank(to)) {
+            EpgService.NowNext nowNext = EpgService.getInstance().nowNext(account, channel);
+            response.put("now", toJson(nowNext.now()));
+            response.put("next", toJson(nowNext.next()));
+            writeJsonResponse(exchange, 200, response.toString());
+            return;
+        }
+        long fromMs = parseLong(from, System.currentTimeMillis());
+        long toMs = parseLong(to, fromMs + 24L * 60 * 60 * 1000);
+        if (toMs <= fromMs || toMs - fromMs > MAX_WINDOW_MS) {
+            writeError(exchange, 400, "to must be after from and at most 7 days later");
+            return;
+        }
+        List<EpgProgramme> programmes = EpgService.getInstance().programmes(account, channel, fromMs, toMs);
+        JSONArray items = new JSONArray();
+        programmes.forEach(programme -> items.put(toJson(programme)));
+        response.put("from", fromMs).put("to", toMs).put("programmes", items);
+        writeJsonResponse(exchange, 200, response.toString());
+    }
+
+    /**
+     * The cached channel carries the Xtreme {@code epg_channel_id} the guide is keyed by; a channel that is not cached
+     * is matched by the requested id and name alone.
+     */
+    private static Channel resolveChannel(Account account, String channelId, String channelName) {
+        Channel stored = isBlank(channelId) ? null : ChannelDb.get().getChannelByChannelIdAndAccount(channelId, account.getDbId());
+        if (stored != null) {
+            if (isBlank(stored.getName())) {
+                stored.setName(channelName);
+            }
+            return stored;
+        }
+        Channel channel = new Channel();
+        channel.setChannelId(channelId);
+        channel.setName(channelName);
+        return channel;
+    }
+
+    private void refresh(HttpExchange exchange) throws IOException {
+        Account account = AccountService.getInstance().getById(getParam(exchange, "accountId"));
+        if (account == null) {
+            writeError(exchange, 404, "account not found");
+            return;
+        }
+        if (!EpgService.getInstance().hasGuide(account)) {
+            writeError(exchange, 400, "account has no programme guide");
+            return;
+        }
+        if (!CacheRefreshScheduler.getInstance().enqueueGuideRefresh(account)) {
+            writeError(exchange, 503, "guide refresh could not be queued");
+            return;
+        }
+        writeJsonResponse(exchange, 202, new JSONObject().put("status", "queued").toString());
+    }
+
+    private static Object toJson(EpgProgramme programme) {
+        if (programme == null) {
+            return JSONObject.NULL;
+        }
+        return new JSONObject()
+                .put("title", nullToEmpty(programme.getTitle()))
+                .put("subTitle", nullToEmpty(programme.getSubTitle()))
+                .put("description", nullToEmpty(programme.getDescription()))
+                .put("category", nullToEmpty(programme.getCategory()))
+                .put("start", programme.getStartMs())
+                .put("stop", programme.getStopMs());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static void writeError(HttpExchange exchange, int status, String message) throws IOException {
+        writeJsonResponse(exchange, status, new JSONObject().put("status", "error").put("message", message).toString());
+    }
+
+    private static long parseLong(String value, long fallback) {
+        try {
+            return Long.parseLong(value);
+        } catch (Exception _) {
+            return fallback;
+        }
+    }
+}
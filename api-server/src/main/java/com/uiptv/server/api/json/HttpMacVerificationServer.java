@@ -0,0 +1,158 @@
+package com.uiptv.server.api.json;
+
+import com.uiptv.model.Account;
+import com.uiptv.model.AccountInfo;
+import com.uiptv.server.LongPollResponder;
+import com.uiptv.server.RequestContext;
+import com.uiptv.server.RequestContextHandler;
+import com.uiptv.service.AccountService;
+import com.uiptv.service.macverify.MacVerificationJob;
+import com.uiptv.service.macverify.MacVerificationResult;
+import com.uiptv.service.macverify.MacVerificationService;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.uiptv.util.ServerUtils.CONTENT_TYPE_JSON;
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * Bulk MAC verification: POST {@code {"accountId", "macAddresses", "includeAccountInfo"}} starts a job (all of the
+ * account's MACs when {@code macAddresses} is omitted), GET {@code ?jobId=&since=&timeoutMs=} long-polls for results
+ * past index {@code since} without holding a server thread while it waits, DELETE {@code ?jobId=} cancels.
+ */
+public class HttpMacVerificationServer implements RequestContextHandler {
+    private static final long DEFAULT_TIMEOUT_MS = 25_000;
+    private static final long MAX_TIMEOUT_MS = 55_000;
+
+    @Override
+    public void handle(RequestContext request) throws IOException {
+        String method = request.method();
+        if ("POST".equalsIgnoreCase(method)) {
+            start(request);
+            return;
+        }
+        if ("GET".equalsIgnoreCase(method)) {
+            poll(request);
+            return;
+        }
+        if ("DELETE".equalsIgnoreCase(method)) {
+            cancel(request);
+            return;
+        }
+        request.setResponseHeader("Allow", "GET, POST, DELETE");
+        request.sendStatus(405);
+    }
+
+    private void start(RequestContext request) throws IOException {
+        JSONObject body;
+        try {
+            String text = new String(request.readBody(), StandardCharsets.UTF_8);
+            body = isBlank(text) ? new JSONObject() : new JSONObject(text);
+        } catch (JSONException _) {
+            writeError(request, 400, "request body must be JSON");
+            return;
+        }
+        String accountId = body.optString("accountId", "");
+        if (isBlank(accountId)) {
+            writeError(request, 400, "accountId is required");
+            return;
+        }
+        Account account = AccountService.getInstance().getById(accountId);
+        if (account == null) {
+            writeError(request, 404, "account not found");
+            return;
+        }
+        try {
+            MacVerificationJob job = MacVerificationService.getInstance().verify(
+                    account, macAddresses(body, account), body.optBoolean("includeAccountInfo", false), null);
+            writeJson(request, 200, toJson(job, 0, List.of(), job.isDone()));
+        } catch (IllegalArgumentException ex) {
+            writeError(request, 400, ex.getMessage());
+        }
+    }
+
+    private void poll(RequestContext request) throws IOException {
+        MacVerificationJob job = MacVerificationService.getInstance().getJob(request.param("jobId"));
+        if (job == null) {
+            writeError(request, 404, "job not found");
+            return;
+        }
+        int since = (int) Math.max(0, parseLong(request.param("since"), 0));
+        long timeoutMs = Math.clamp(parseLong(request.param("timeoutMs"), DEFAULT_TIMEOUT_MS), 0, MAX_TIMEOUT_MS);
+        LongPollResponder.respondWhenDone(request, job.resultsAfter(since, timeoutMs), (pollRequest, _) -> {
+            // Read done first so a final result published in between is still in the snapshot the client sees.
+            boolean done = job.isDone();
+            writeJson(pollRequest, 200, toJson(job, since, job.resultsFrom(since), done));
+        });
+    }
+
+    private void cancel(RequestContext request) throws IOException {
+        MacVerificationJob job = MacVerificationService.getInstance().getJob(request.param("jobId"));
+        if (job == null) {
+            writeError(request, 404, "job not found");
+            return;
+        }
+        job.cancel();
+        writeJson(request, 200, toJson(job, 0, List.of(), job.isDone()));
+    }
+
+    private static List<String> macAddresses(JSONObject body, Account account) {
+        JSONArray requested = body.optJSONArray("macAddresses");
+        if (requested != null) {
+            List<String> macs = new ArrayList<>();
+            for (int i = 0; i < requested.length(); i++) {
+                macs.add(requested.optString(i, ""));
+            }
+            return macs;
+        }
+        String list = isBlank(account.getMacAddressList()) ? account.getMacAddress() : account.getMacAddressList();
+        return isBlank(list) ? List.of() : Arrays.asList(list.split(","));
+    }
+
+    private static JSONObject toJson(MacVerificationJob job, int since, List<MacVerificationResult> results, boolean done) {
+        JSONArray items = new JSONArray();
+        for (MacVerificationResult result : results) {
+            JSONObject item = new JSONObject()
+                    .put("macAddress", result.macAddress())
+                    .put("status", result.status().name())
+                    .put("attempts", result.attempts());
+            AccountInfo info = result.accountInfo();
+            if (info != null) {
+                item.put("expireDate", info.getExpireDate() == null ? "" : info.getExpireDate());
+                item.put("accountStatus", info.getAccountStatus() == null ? "" : info.getAccountStatus().toDisplay());
+            }
+            items.put(item);
+        }
+        return new JSONObject()
+                .put("jobId", job.id())
+                .put("total", job.total())
+                .put("next", since + results.size())
+                .put("done", done)
+                .put("cancelled", job.isCancelled())
+                .put("results", items);
+    }
+
+    private static void writeError(RequestContext request, int status, String message) throws IOException {
+        writeJson(request, status, new JSONObject().put("status", "error").put("message", message));
+    }
+
+    private static void writeJson(RequestContext request, int status, JSONObject body) throws IOException {
+        request.setResponseHeader("Access-Control-Allow-Origin", "*");
+        request.send(status, CONTENT_TYPE_JSON + "; charset=UTF-8", body.toString());
+    }
+
+    private static long parseLong(String value, long fallback) {
+        try {
+            return Long.parseLong(value);
+        } catch (Exception _) {
+            return fallback;
+        }
+    }
+}
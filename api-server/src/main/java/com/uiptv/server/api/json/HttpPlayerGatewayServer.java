@@ -1,7 +1,7 @@
 package com.uiptv.server.api.json;
 
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
+import com.uiptv.server.RequestContext;
+import com.uiptv.server.RequestContextHandler;
 
 import java.io.IOException;
 
@@ -9,12 +9,12 @@ import java.io.IOException;
  * Gateway/controller for all player resolution requests.
  * Canonical endpoint is /player, while legacy /player/* paths are still accepted.
  */
-public class HttpPlayerGatewayServer implements HttpHandler {
+public class HttpPlayerGatewayServer implements RequestContextHandler {
     private final HttpPlayerJsonServer delegate = new HttpPlayerJsonServer();
 
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        delegate.handle(exchange);
+    public void handle(RequestContext request) throws IOException {
+        delegate.handle(request);
     }
 }
 
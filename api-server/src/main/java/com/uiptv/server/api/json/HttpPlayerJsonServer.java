@@ -1,10 +1,11 @@
 package com.uiptv.server.api.json;
 
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
 import com.uiptv.model.Account;
 import com.uiptv.model.Channel;
 import com.uiptv.model.PlayerResponse;
+import com.uiptv.server.HttpProxyStreamServer;
+import com.uiptv.server.RequestContext;
+import com.uiptv.server.RequestContextHandler;
 import com.uiptv.service.*;
 import com.uiptv.util.AppLog;
 import com.uiptv.util.ServerUrlUtil;
@@ -16,12 +17,11 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
-import static com.uiptv.util.ServerUtils.*;
 import static com.uiptv.util.StringUtils.isBlank;
 import static com.uiptv.util.StringUtils.isNotBlank;
 
 @SuppressWarnings("java:S1075")
-public class HttpPlayerJsonServer implements HttpHandler {
+public class HttpPlayerJsonServer implements RequestContextHandler {
     public static final String SEASON = "season";
     public static final String EPISODE_NUM = "episodeNum";
     public static final String MANIFEST_TYPE = "manifestType";
@@ -33,6 +33,7 @@ public class HttpPlayerJsonServer implements HttpHandler {
     private static final String PATH_PLAYER_SERIES = "/player/series";
     private static final String PATH_PLAYER_VOD = "/player/vod";
     private static final String JSON_KEY_STRATEGY_HINT = "strategyHint";
+    private static final String JSON_KEY_TIMESHIFT_URL = "timeshiftUrl";
     private static final String HTTP_PREFIX = "http://";
     private static final String HTTPS_PREFIX = "https://";
     private static final String MODE_SERIES = "series";
@@ -48,19 +49,19 @@ public class HttpPlayerJsonServer implements HttpHandler {
     private final PlayerRequestResolver playerRequestResolver = new PlayerRequestResolver();
 
     @Override
-    public void handle(HttpExchange ex) throws IOException {
+    public void handle(RequestContext request) throws IOException {
         try {
-            String mode = resolveRequestedMode(ex, getParam(ex, "mode"));
-            ResolvedWebPlayback resolved = resolvePlayback(ex, mode);
+            String mode = resolveRequestedMode(request, request.param("mode"));
+            ResolvedWebPlayback resolved = resolvePlayback(request, mode);
             applyWebPlaybackProcessing(resolved.response(), mode);
-            generateJsonResponse(ex, buildJsonResponse(resolved));
+            request.sendJson(buildJsonResponse(resolved, mode));
         } catch (Exception e) {
             if (isClientDisconnect(e)) {
                 return;
             }
             AppLog.addErrorLog(HttpPlayerJsonServer.class, "HttpPlayerJsonServer failed: " + e);
             try {
-                generateResponseText(ex, 500, "player-error");
+                request.sendText(500, "player-error");
             } catch (IOException ioException) {
                 if (!isClientDisconnect(ioException)) {
                     throw ioException;
@@ -69,32 +70,32 @@ public class HttpPlayerJsonServer implements HttpHandler {
         }
     }
 
-    private ResolvedWebPlayback resolvePlayback(HttpExchange ex, String mode) throws IOException {
-        String bookmarkId = getParam(ex, "bookmarkId");
-        String accountId = getParam(ex, "accountId");
-        String bingeWatchToken = getParam(ex, "bingeWatchToken");
-        String bingeWatchEpisodeId = getParam(ex, "episodeId");
-        String categoryId = getParam(ex, "categoryId");
-        String channelId = getParam(ex, "channelId");
-        String directUrl = getParam(ex, "url");
-        String seriesParentId = getParam(ex, "seriesParentId");
+    private ResolvedWebPlayback resolvePlayback(RequestContext request, String mode) throws IOException {
+        String bookmarkId = request.param("bookmarkId");
+        String accountId = request.param("accountId");
+        String bingeWatchToken = request.param("bingeWatchToken");
+        String bingeWatchEpisodeId = request.param("episodeId");
+        String categoryId = request.param("categoryId");
+        String channelId = request.param("channelId");
+        String directUrl = request.param("url");
+        String seriesParentId = request.param("seriesParentId");
         if (isNotBlank(bingeWatchToken)) {
-            return resolveBingeWatchPlayback(ex, accountId, bingeWatchToken, bingeWatchEpisodeId);
+            return resolveBingeWatchPlayback(request, accountId, bingeWatchToken, bingeWatchEpisodeId);
         }
         if (isNotBlank(directUrl)) {
-            return resolveDirectUrlPlayback(ex, accountId, channelId, directUrl);
+            return resolveDirectUrlPlayback(request, accountId, channelId, directUrl);
         }
         if (isNotBlank(bookmarkId)) {
             return new ResolvedWebPlayback(resolveBookmarkPlayback(bookmarkId, mode, seriesParentId), "", "", List.of());
         }
-        return new ResolvedWebPlayback(resolveDirectPlayback(ex, accountId, categoryId, channelId, mode, seriesParentId), "", "", List.of());
+        return new ResolvedWebPlayback(resolveDirectPlayback(request, accountId, categoryId, channelId, mode, seriesParentId), "", "", List.of());
     }
 
-    private String resolveRequestedMode(HttpExchange ex, String requestedMode) {
+    private String resolveRequestedMode(RequestContext request, String requestedMode) {
         if (isNotBlank(requestedMode)) {
             return requestedMode;
         }
-        String path = ex == null || ex.getRequestURI() == null ? "" : safe(ex.getRequestURI().getPath()).toLowerCase();
+        String path = request == null ? "" : safe(request.path()).toLowerCase();
         if (PATH_PLAYER_BINGEWATCH.equals(path) || PATH_PLAYER_SERIES.equals(path)) {
             return MODE_SERIES;
         }
@@ -107,17 +108,17 @@ public class HttpPlayerJsonServer implements HttpHandler {
         return "";
     }
 
-    private ResolvedWebPlayback resolveDirectUrlPlayback(HttpExchange ex, String accountId, String channelId, String directUrl) {
+    private ResolvedWebPlayback resolveDirectUrlPlayback(RequestContext request, String accountId, String channelId, String directUrl) {
         PlayerResponse response = new PlayerResponse(directUrl);
         Account account = isBlank(accountId) ? null : AccountService.getInstance().getById(accountId);
-        Channel channel = buildRequestChannel(channelId, ex);
+        Channel channel = buildRequestChannel(channelId, request);
         if (hasChannelMetadata(channel)) {
             response.setFromChannel(channel, account);
         }
         return new ResolvedWebPlayback(response, "", "", List.of());
     }
 
-    private ResolvedWebPlayback resolveBingeWatchPlayback(HttpExchange ex,
+    private ResolvedWebPlayback resolveBingeWatchPlayback(RequestContext request,
                                                           String accountId,
                                                           String token,
                                                           String episodeId) throws IOException {
@@ -133,7 +134,7 @@ public class HttpPlayerJsonServer implements HttpHandler {
 
         PlayerResponse response = new PlayerResponse(resolvedEpisode.url());
         Account account = isBlank(accountId) ? null : AccountService.getInstance().getById(accountId);
-        Channel channel = buildRequestChannel(currentEpisodeId, ex);
+        Channel channel = buildRequestChannel(currentEpisodeId, request);
         if (isBlank(channel.getName())) {
             channel.setName(resolvedEpisode.episodeName());
         }
@@ -170,44 +171,62 @@ public class HttpPlayerJsonServer implements HttpHandler {
         return playerRequestResolver.resolveBookmarkPlayback(bookmarkId, mode, seriesParentId);
     }
 
-    private PlayerResponse resolveDirectPlayback(HttpExchange ex, String accountId, String categoryId, String channelId,
+    private PlayerResponse resolveDirectPlayback(RequestContext request, String accountId, String categoryId, String channelId,
                                                  String mode, String seriesParentId) throws IOException {
         Account account = AccountService.getInstance().getById(accountId);
-        String seriesId = getParam(ex, "seriesId");
-        Channel requestChannel = buildRequestChannel(channelId, ex);
+        String seriesId = request.param("seriesId");
+        Channel requestChannel = buildRequestChannel(channelId, request);
         return playerRequestResolver.resolveDirectPlayback(account, categoryId, channelId, mode, seriesParentId, seriesId, requestChannel);
     }
 
-    private Channel buildRequestChannel(String channelId, HttpExchange ex) {
+    private Channel buildRequestChannel(String channelId, RequestContext request) {
         Channel channel = new Channel();
         channel.setChannelId(channelId);
-        channel.setName(sanitizeParam(getParam(ex, "name")));
-        channel.setLogo(sanitizeParam(getParam(ex, "logo")));
-        channel.setCmd(sanitizeParam(getParam(ex, "cmd")));
-        channel.setCmd_1(sanitizeParam(getParam(ex, "cmd_1")));
-        channel.setCmd_2(sanitizeParam(getParam(ex, "cmd_2")));
-        channel.setCmd_3(sanitizeParam(getParam(ex, "cmd_3")));
-        channel.setDrmType(sanitizeParam(getParam(ex, "drmType")));
-        channel.setDrmLicenseUrl(sanitizeParam(getParam(ex, DRM_LICENSE_URL)));
-        channel.setClearKeysJson(sanitizeParam(getParam(ex, CLEAR_KEYS_JSON)));
-        channel.setInputstreamaddon(sanitizeParam(getParam(ex, INPUTSTREAMADDON)));
-        channel.setManifestType(sanitizeParam(getParam(ex, MANIFEST_TYPE)));
-        channel.setSeason(sanitizeParam(getParam(ex, SEASON)));
-        channel.setEpisodeNum(sanitizeParam(getParam(ex, EPISODE_NUM)));
+        channel.setName(sanitizeParam(request.param("name")));
+        channel.setLogo(sanitizeParam(request.param("logo")));
+        channel.setCmd(sanitizeParam(request.param("cmd")));
+        channel.setCmd_1(sanitizeParam(request.param("cmd_1")));
+        channel.setCmd_2(sanitizeParam(request.param("cmd_2")));
+        channel.setCmd_3(sanitizeParam(request.param("cmd_3")));
+        channel.setDrmType(sanitizeParam(request.param("drmType")));
+        channel.setDrmLicenseUrl(sanitizeParam(request.param(DRM_LICENSE_URL)));
+        channel.setClearKeysJson(sanitizeParam(request.param(CLEAR_KEYS_JSON)));
+        channel.setInputstreamaddon(sanitizeParam(request.param(INPUTSTREAMADDON)));
+        channel.setManifestType(sanitizeParam(request.param(MANIFEST_TYPE)));
+        channel.setSeason(sanitizeParam(request.param(SEASON)));
+        channel.setEpisodeNum(sanitizeParam(request.param(EPISODE_NUM)));
         return channel;
     }
 
-    private String buildJsonResponse(ResolvedWebPlayback resolved) {
+    private String buildJsonResponse(ResolvedWebPlayback resolved, String mode) {
         PlayerResponse response = resolved.response();
         JSONObject json = new JSONObject();
         json.put("url", response == null ? "" : response.getUrl());
         putIfNotBlank(json, JSON_KEY_STRATEGY_HINT, determineStrategyHint(response));
+        putIfNotBlank(json, JSON_KEY_TIMESHIFT_URL, buildTimeshiftUrl(response, mode));
         appendChannelJson(json, response);
         appendDrmJson(json, response);
         appendBingeWatchJson(json, resolved);
         return json.toString();
     }
 
+    /**
+     * Live channels are offered through the recording proxy so the web player can pause and rewind them; DRM and DASH
+     * streams stay with Shaka, which the proxy cannot record.
+     */
+    private String buildTimeshiftUrl(PlayerResponse response, String mode) {
+        if (response == null || !MODE_ITV.equalsIgnoreCase(safe(mode).trim()) || hasDrmMetadata(response)) {
+            return "";
+        }
+        String url = safe(response.getUrl());
+        String lowerUrl = url.toLowerCase();
+        if (!(lowerUrl.startsWith(HTTP_PREFIX) || lowerUrl.startsWith(HTTPS_PREFIX))
+                || isDashUrl(lowerUrl) || isLocalProxyUrl(lowerUrl)) {
+            return "";
+        }
+        return HttpProxyStreamServer.buildTimeshiftUrl(ServerUrlUtil.getLocalServerUrl(), url);
+    }
+
     private void appendChannelJson(JSONObject json, PlayerResponse response) {
         Channel channel = response == null ? null : response.getChannel();
         if (channel == null || !hasChannelMetadata(channel)) {
@@ -3,6 +3,7 @@ package com.uiptv.server.api.json;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.uiptv.application.RemoteSyncApplicationService;
+import com.uiptv.service.remotesync.RemoteSyncHttpClient;
 import org.json.JSONObject;
 
 import java.io.IOException;
@@ -10,7 +11,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static com.uiptv.util.ServerUtils.getParam;
-import static com.uiptv.util.ServerUtils.writeBinaryResponse;
+import static com.uiptv.util.ServerUtils.writeFileResponse;
 import static com.uiptv.util.ServerUtils.writeJsonResponse;
 
 public class HttpRemoteSyncDownloadServer implements HttpHandler {
@@ -23,9 +24,22 @@ public class HttpRemoteSyncDownloadServer implements HttpHandler {
         }
         try {
             Path snapshotPath = RemoteSyncApplicationService.getInstance().getDownloadSnapshot(getParam(exchange, "sessionId"));
-            writeBinaryResponse(exchange, 200, Files.readAllBytes(snapshotPath), "application/octet-stream");
+            long offset = parseOffset(getParam(exchange, "offset"));
+            exchange.getResponseHeaders().set(RemoteSyncHttpClient.TOTAL_BYTES_HEADER, Long.toString(Files.size(snapshotPath)));
+            writeFileResponse(exchange, offset > 0 ? 206 : 200, snapshotPath, offset, "application/octet-stream");
         } catch (IllegalArgumentException | IllegalStateException ex) {
             writeJsonResponse(exchange, 400, new JSONObject().put("message", ex.getMessage()).toString());
         }
     }
+
+    private long parseOffset(String value) {
+        if (value == null || value.isBlank()) {
+            return 0L;
+        }
+        long offset = Long.parseLong(value.trim());
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        return offset;
+    }
 }
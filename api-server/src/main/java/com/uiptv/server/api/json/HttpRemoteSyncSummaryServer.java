@@ -0,0 +1,54 @@
+package com.uiptv.server.api.json;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.uiptv.application.RemoteSyncApplicationService;
+import com.uiptv.service.remotesync.RemoteSyncJson;
+import com.uiptv.util.AppLog;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static com.uiptv.util.ServerUtils.getParam;
+import static com.uiptv.util.ServerUtils.readRequestBodyText;
+import static com.uiptv.util.ServerUtils.writeJsonResponse;
+
+/**
+ * Delta sync summary exchange: GET returns this database's table summary for an approved export, POST takes the
+ * requester's summary for an approved import and prepares a download with only the differing rows.
+ */
+public class HttpRemoteSyncSummaryServer implements HttpHandler {
+    private static final String REMOTE_SYNC_FAILED_MESSAGE = "Remote database sync failed.";
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (!"GET".equalsIgnoreCase(method) && !"POST".equalsIgnoreCase(method)) {
+            exchange.getResponseHeaders().set("Allow", "GET, POST");
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
+        String sessionId = getParam(exchange, "sessionId");
+        try {
+            if ("GET".equalsIgnoreCase(method)) {
+                writeJsonResponse(exchange, 200, RemoteSyncJson.toJson(
+                        RemoteSyncApplicationService.getInstance().getDeltaSummary(sessionId)
+                ).toString());
+                return;
+            }
+            writeJsonResponse(exchange, 200, RemoteSyncJson.toJson(
+                    RemoteSyncApplicationService.getInstance().acceptDeltaSummary(
+                            sessionId,
+                            RemoteSyncJson.toDeltaSyncSummary(new JSONObject(readRequestBodyText(exchange)))
+                    )
+            ).toString());
+        } catch (IllegalArgumentException | IllegalStateException | JSONException ex) {
+            writeJsonResponse(exchange, 400, new JSONObject().put("message", ex.getMessage()).toString());
+        } catch (SQLException ex) {
+            AppLog.addErrorLog(HttpRemoteSyncSummaryServer.class, "Remote sync summary failed: " + ex.getMessage());
+            writeJsonResponse(exchange, 500, new JSONObject().put("message", REMOTE_SYNC_FAILED_MESSAGE).toString());
+        }
+    }
+}
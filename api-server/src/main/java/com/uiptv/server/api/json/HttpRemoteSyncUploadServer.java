@@ -13,20 +13,41 @@ import java.sql.SQLException;
 import static com.uiptv.util.ServerUtils.getParam;
 import static com.uiptv.util.ServerUtils.writeJsonResponse;
 
+/**
+ * Accepts sync uploads. A plain PUT carries the whole transfer. With {@code offset} the PUT is one segment of a
+ * resumable upload, applied once a segment arrives with {@code complete=true}; GET reports how many bytes of
+ * the segmented upload have been received so a client can resume.
+ */
 public class HttpRemoteSyncUploadServer implements HttpHandler {
     private static final String REMOTE_SYNC_FAILED_MESSAGE = "Remote database sync failed.";
+    private static final String RECEIVED_BYTES = "receivedBytes";
 
     @Override
     public void handle(HttpExchange exchange) throws IOException {
-        if (!"PUT".equalsIgnoreCase(exchange.getRequestMethod())) {
-            exchange.getResponseHeaders().set("Allow", "PUT");
+        String method = exchange.getRequestMethod();
+        if (!"PUT".equalsIgnoreCase(method) && !"GET".equalsIgnoreCase(method)) {
+            exchange.getResponseHeaders().set("Allow", "GET, PUT");
             exchange.sendResponseHeaders(405, -1);
             return;
         }
+        RemoteSyncApplicationService app = RemoteSyncApplicationService.getInstance();
+        String sessionId = getParam(exchange, "sessionId");
         try {
-            writeJsonResponse(exchange, 200, RemoteSyncJson.toJson(
-                    RemoteSyncApplicationService.getInstance().acceptUpload(getParam(exchange, "sessionId"), exchange.getRequestBody())
-            ).toString());
+            if ("GET".equalsIgnoreCase(method)) {
+                writeJsonResponse(exchange, 200, new JSONObject().put(RECEIVED_BYTES, app.getUploadedBytes(sessionId)).toString());
+                return;
+            }
+            String offset = getParam(exchange, "offset");
+            if (offset == null || offset.isBlank()) {
+                writeJsonResponse(exchange, 200, RemoteSyncJson.toJson(app.acceptUpload(sessionId, exchange.getRequestBody())).toString());
+                return;
+            }
+            long receivedBytes = app.acceptUploadSegment(sessionId, Long.parseLong(offset.trim()), exchange.getRequestBody());
+            if (Boolean.parseBoolean(getParam(exchange, "complete"))) {
+                writeJsonResponse(exchange, 200, RemoteSyncJson.toJson(app.completeUpload(sessionId)).toString());
+                return;
+            }
+            writeJsonResponse(exchange, 200, new JSONObject().put(RECEIVED_BYTES, receivedBytes).toString());
         } catch (IllegalArgumentException | IllegalStateException ex) {
             writeJsonResponse(exchange, 400, new JSONObject().put("message", ex.getMessage()).toString());
         } catch (IOException | SQLException ex) {
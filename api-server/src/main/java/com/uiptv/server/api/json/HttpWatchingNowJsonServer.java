@@ -1,21 +1,19 @@
 package com.uiptv.server.api.json;
 
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
 import com.uiptv.application.WatchingNowApplicationService;
 import com.uiptv.application.WatchingNowSeriesRow;
+import com.uiptv.server.RequestContext;
+import com.uiptv.server.RequestContextHandler;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.IOException;
 import java.util.List;
 
-import static com.uiptv.util.ServerUtils.generateJsonResponse;
-
-public class HttpWatchingNowJsonServer implements HttpHandler {
+public class HttpWatchingNowJsonServer implements RequestContextHandler {
     @Override
-    public void handle(HttpExchange ex) throws IOException {
-        generateJsonResponse(ex, toJson(WatchingNowApplicationService.getInstance().listSeriesRows()));
+    public void handle(RequestContext request) throws IOException {
+        request.sendJson(toJson(WatchingNowApplicationService.getInstance().listSeriesRows()));
     }
 
     private String toJson(List<WatchingNowSeriesRow> rows) {
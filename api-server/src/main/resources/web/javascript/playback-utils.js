@@ -71,6 +71,40 @@
 
     const resolveMpegTsPlaybackUrl = (rawUrl) => buildProxyStreamUrl(rawUrl) || normalizeWebPlaybackUrl(rawUrl);
 
+    // Live channels go through the recording proxy on this page's origin; `at` (epoch ms) or `offset` (seconds behind
+    // live) start playback inside the recorded window, and neither means the live edge.
+    const buildTimeshiftStreamUrl = (rawUrl, position = {}) => {
+        let source = normalizeWebPlaybackUrl(rawUrl);
+        try {
+            const parsed = new URL(source, window.location.origin);
+            if (parsed.pathname === '/proxy-stream' && parsed.searchParams.get('src')) {
+                source = parsed.searchParams.get('src');
+            }
+        } catch (_) {
+            return '';
+        }
+        const proxyUrl = buildProxyStreamUrl(source);
+        if (!proxyUrl) {
+            return '';
+        }
+        try {
+            const parsed = new URL(proxyUrl, window.location.origin);
+            parsed.searchParams.set('timeshift', '1');
+            parsed.searchParams.delete('at');
+            parsed.searchParams.delete('offset');
+            const atMs = Math.floor(Number(position.atMs) || 0);
+            const offsetSeconds = Math.floor(Number(position.offsetSeconds) || 0);
+            if (atMs > 0) {
+                parsed.searchParams.set('at', String(atMs));
+            } else if (offsetSeconds > 0) {
+                parsed.searchParams.set('offset', String(offsetSeconds));
+            }
+            return parsed.toString();
+        } catch (_) {
+            return proxyUrl;
+        }
+    };
+
     const isBrowserUnsupportedMediaError = (error) => {
         const text = `${error?.name || ''} ${error?.message || error || ''}`.toLowerCase();
         return text.includes('notsupportederror')
@@ -225,6 +259,7 @@
         normalizeWebPlaybackUrl,
         buildProxyStreamUrl,
         resolveMpegTsPlaybackUrl,
+        buildTimeshiftStreamUrl,
         isBrowserUnsupportedMediaError,
         describeUnsupportedHlsManifest,
         describeMpegTsFailure,
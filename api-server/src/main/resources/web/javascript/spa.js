@@ -72,6 +72,9 @@ createApp({
         const playbackCurrentTime = ref(0);
         const playbackDuration = ref(0);
         const playbackProgressDragging = ref(false);
+        const timeshiftChannel = ref(null);
+        const timeshiftBehindMs = ref(0);
+        const timeshiftPausedAt = ref(0);
         const pendingPlaybackKey = ref('');
         const strategyOverride = ref('auto');
         let strategyOverrideKey = '';
@@ -597,6 +600,16 @@ createApp({
             return normalized ? normalized.replace(/_/g, ' ').toLowerCase().replace(/\b\w/g, c => c.toUpperCase()) : 'Account';
         };
 
+        const isAccountUnhealthy = (account) => !!account?.healthStatus && String(account.healthStatus).toUpperCase() !== 'HEALTHY';
+
+        const formatAccountHealth = (account) => {
+            const status = String(account?.healthStatus || '').toUpperCase();
+            if (status === 'DOWN') return 'Provider down';
+            if (status === 'RECOVERING') return 'Provider recovering';
+            if (status === 'DEGRADED') return `Provider degraded (${account.healthScore}/100)`;
+            return '';
+        };
+
         const currentAccount = computed(() => {
             const accountId = String(selectedAccountId.value || currentContext.value.accountId || '');
             return (accounts.value || []).find(account => String(account?.dbId || '') === accountId) || null;
@@ -944,6 +957,11 @@ createApp({
         const playerPanelVisible = computed(() => hasPlayerContent.value && !playerManuallyHidden.value);
         const playbackSeekable = computed(() => Number.isFinite(playbackDuration.value) && playbackDuration.value > 0);
         const widePlayerProgressVisible = computed(() => playerExpanded.value && isPlaying.value);
+        const timeshiftAvailable = computed(() => isPlaying.value && !!timeshiftChannel.value);
+        const timeshiftPaused = computed(() => timeshiftPausedAt.value > 0);
+        const timeshiftBehindLabel = computed(() => timeshiftBehindMs.value > 0 || timeshiftPaused.value
+            ? `-${formatPlaybackTime(timeshiftBehindMs.value / 1000)}`
+            : 'Live');
 
         const setBrowserTitle = () => {
             const channelTitle = String(currentChannelDebugTitle.value || '').trim();
@@ -956,6 +974,7 @@ createApp({
         const resolvePlaybackModeLabel = (url, engine = '') => playbackUtils.resolvePlaybackModeLabel(url, engine);
         const buildProxyStreamUrl = (url) => playbackUtils.buildProxyStreamUrl(url);
         const resolveMpegTsPlaybackUrl = (url) => playbackUtils.resolveMpegTsPlaybackUrl(url);
+        const buildTimeshiftStreamUrl = (url, position) => playbackUtils.buildTimeshiftStreamUrl(url, position);
         const describeMpegTsFailure = (error) => playbackUtils.describeMpegTsFailure(error);
         const isBrowserUnsupportedMediaError = (error) => playbackUtils.isBrowserUnsupportedMediaError(error);
         const describeUnsupportedHlsManifest = (manifest) => playbackUtils?.describeUnsupportedHlsManifest?.(manifest) || '';
@@ -1344,6 +1363,32 @@ createApp({
             return [{dbId: 'all', categoryId: 'all', title: 'All'}, ...list];
         };
 
+        // Stale catalog responses are revalidated on the server; wait for the refresh and reload if still in view.
+        const catalogRefreshWaits = new Set();
+        const awaitCatalogRefresh = async (response, waitKey, matches, reload) => {
+            if (response.headers.get('X-UIPTV-Catalog-Stale') !== 'true') return;
+            let since = response.headers.get('X-UIPTV-Catalog-Revision') || '0';
+            if (catalogRefreshWaits.has(waitKey)) return;
+            catalogRefreshWaits.add(waitKey);
+            try {
+                for (let attempt = 0; attempt < 5; attempt++) {
+                    const update = await (await fetch(`${window.location.origin}/catalogUpdates?since=${since}`)).json();
+                    since = update.revision;
+                    const event = (update.events || []).find(e => String(e.accountId) === String(currentContext.value.accountId)
+                        && String(e.mode).toLowerCase() === String(contentMode.value).toLowerCase()
+                        && matches(e));
+                    if (event) {
+                        await reload();
+                        return;
+                    }
+                }
+            } catch (e) {
+                console.warn('Catalog refresh wait failed', e);
+            } finally {
+                catalogRefreshWaits.delete(waitKey);
+            }
+        };
+
         const loadCategories = async (accountIdOrObj, forceReload = false) => {
             const selected = typeof accountIdOrObj === 'object'
                 ? accountIdOrObj
@@ -1366,6 +1411,12 @@ createApp({
                     `${window.location.origin}/categories?accountId=${currentContext.value.accountId}&mode=${contentMode.value}`
                 );
                 categories.value = withSyntheticAllCategory(await response.json(), currentContext.value.accountType);
+                const refreshAccountId = currentContext.value.accountId;
+                awaitCatalogRefresh(response, `categories|${refreshAccountId}|${contentMode.value}`, e => e.kind === 'CATEGORIES', async () => {
+                    if (viewState.value === 'categories' && String(currentContext.value.accountId) === String(refreshAccountId)) {
+                        await loadCategories(refreshAccountId, true);
+                    }
+                });
                 channels.value = [];
                 episodes.value = [];
                 viewState.value = 'categories';
@@ -1420,6 +1471,12 @@ createApp({
                     `${window.location.origin}/channels?categoryId=${categoryId}&accountId=${currentContext.value.accountId}&mode=${contentMode.value}`
                 );
                 channels.value = (await response.json()).map(normalizeChannel);
+                awaitCatalogRefresh(response, `channels|${currentContext.value.accountId}|${contentMode.value}|${categoryId}`,
+                    e => e.kind === 'CHANNELS' && (String(categoryId) === 'all' || String(e.categoryId) === String(categoryId)), async () => {
+                    if (viewState.value === 'channels' && String(currentContext.value.categoryId) === String(categoryId)) {
+                        await loadChannels(categoryId, true);
+                    }
+                });
                 episodes.value = [];
                 viewState.value = 'channels';
                 modeState.categoryId = categoryId;
@@ -3161,6 +3218,9 @@ createApp({
                 playbackMode.value = '';
                 isPlaying.value = false;
                 currentChannel.value = null;
+                timeshiftChannel.value = null;
+                timeshiftPausedAt.value = 0;
+                timeshiftBehindMs.value = 0;
                 playbackError.value = '';
                 clearPlaybackGestureRequirement();
                 playerExpanded.value = false;
@@ -3201,6 +3261,7 @@ createApp({
 
         const initPlayer = async (channel) => {
             const uri = channel.url;
+            timeshiftChannel.value = null;
             if (!uri) {
                 console.error('No URL provided for playback.');
                 playbackError.value = 'Playback failed: no stream URL returned.';
@@ -3244,7 +3305,7 @@ createApp({
                 return;
             }
             if (override === 'mpegts') {
-                await loadMpegTs({...channel, url: resolveMpegTsPlaybackUrl(uri)});
+                await loadMpegTs({...channel, url: resolveLiveMpegTsUrl(channel, uri)});
                 return;
             }
 
@@ -3253,7 +3314,7 @@ createApp({
                 if (hasDRM) {
                     await loadShaka(channel);
                 } else if (isTs) {
-                    await loadMpegTs({...channel, url: resolveMpegTsPlaybackUrl(uri)});
+                    await loadMpegTs({...channel, url: resolveLiveMpegTsUrl(channel, uri)});
                 } else if (isHls && prefersNativeHls) {
                     await loadNative(channel);
                 } else if (isHls) {
@@ -3330,6 +3391,61 @@ createApp({
             }
         };
 
+        const TIMESHIFT_REWIND_MS = 30000;
+
+        // Live MPEG-TS the server offers for timeshift is read through the recording proxy so it can be paused and rewound.
+        const resolveLiveMpegTsUrl = (channel, uri) => {
+            const timeshiftUrl = channel.timeshiftUrl ? buildTimeshiftStreamUrl(channel.timeshiftUrl) : '';
+            timeshiftChannel.value = timeshiftUrl ? channel : null;
+            timeshiftBehindMs.value = 0;
+            timeshiftPausedAt.value = 0;
+            return timeshiftUrl || resolveMpegTsPlaybackUrl(uri);
+        };
+
+        const restartTimeshift = async (position) => {
+            const channel = timeshiftChannel.value;
+            if (!channel) return;
+            await stopPlayback(true);
+            playbackError.value = '';
+            try {
+                await loadMpegTs({...channel, url: buildTimeshiftStreamUrl(channel.timeshiftUrl, position)});
+            } catch (e) {
+                playbackError.value = e?.message || 'Timeshift playback failed.';
+            }
+        };
+
+        const toggleTimeshiftPause = async () => {
+            if (!timeshiftChannel.value) return;
+            if (timeshiftPausedAt.value > 0) {
+                const atMs = timeshiftPausedAt.value;
+                timeshiftBehindMs.value = Math.max(0, Date.now() - atMs);
+                timeshiftPausedAt.value = 0;
+                await restartTimeshift({atMs});
+                return;
+            }
+            timeshiftPausedAt.value = Date.now() - timeshiftBehindMs.value;
+            // The proxy keeps recording while paused; the browser stops reading until playback resumes.
+            videoPlayer.value?.pause();
+            if (typeof mpegtsPlayer.value?.unload === 'function') {
+                mpegtsPlayer.value.unload();
+            }
+        };
+
+        const rewindTimeshift = async () => {
+            if (!timeshiftChannel.value) return;
+            const behindMs = timeshiftPausedAt.value > 0 ? Date.now() - timeshiftPausedAt.value : timeshiftBehindMs.value;
+            timeshiftBehindMs.value = behindMs + TIMESHIFT_REWIND_MS;
+            timeshiftPausedAt.value = 0;
+            await restartTimeshift({offsetSeconds: timeshiftBehindMs.value / 1000});
+        };
+
+        const returnToLiveEdge = async () => {
+            if (!timeshiftChannel.value) return;
+            timeshiftBehindMs.value = 0;
+            timeshiftPausedAt.value = 0;
+            await restartTimeshift({});
+        };
+
         const loadMpegTs = async (channel) => {
             await nextTick();
             const video = videoPlayer.value;
@@ -4216,6 +4332,9 @@ createApp({
             playbackDuration,
             playbackSeekable,
             widePlayerProgressVisible,
+            timeshiftAvailable,
+            timeshiftPaused,
+            timeshiftBehindLabel,
             isActiveChannel,
             isActiveBookmark,
             isActiveWatchingNowRow,
@@ -4263,6 +4382,8 @@ createApp({
             resolvePinColor,
             selectedAccountId,
             formatAccountType,
+            formatAccountHealth,
+            isAccountUnhealthy,
             selectAccountTypeFilter,
 
             switchTab,
@@ -4301,6 +4422,9 @@ createApp({
             broadcastIndicatorSrc,
             formatPlaybackTime,
             seekPlayback,
+            toggleTimeshiftPause,
+            rewindTimeshift,
+            returnToLiveEdge,
             removeRecentlyPlayedBookmark,
             onBookmarkCardClick,
             onBookmarkDragStart,
@@ -0,0 +1,217 @@
+package com.uiptv.server;
+
+import com.uiptv.db.CategoryDb;
+import com.uiptv.db.ChannelDb;
+import com.uiptv.db.VodCategoryDb;
+import com.uiptv.model.Account;
+import com.uiptv.model.Category;
+import com.uiptv.model.CategoryType;
+import com.uiptv.model.Channel;
+import com.uiptv.model.Configuration;
+import com.uiptv.service.AccountService;
+import com.uiptv.service.CacheService;
+import com.uiptv.service.CacheServiceImpl;
+import com.uiptv.service.CategoryService;
+import com.uiptv.service.ChannelService;
+import com.uiptv.service.ConfigurationService;
+import com.uiptv.testsupport.DbBackedTest;
+import com.uiptv.testsupport.FakeIptvProvider;
+import com.uiptv.testsupport.LoadDriver;
+import com.uiptv.testsupport.LoadDriver.LoadReport;
+import com.uiptv.util.AccountType;
+import com.uiptv.util.AppLog;
+import com.uiptv.util.XtremeCredentialsJson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.uiptv.model.Account.AccountAction.itv;
+import static com.uiptv.model.Account.AccountAction.vod;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Reload and serving throughput against FakeIptvProvider instead of a real portal.
+ * The defaults keep this a quick smoke run; raise the volume with
+ * -Duiptv.load.requests, -Duiptv.load.concurrency and -Duiptv.load.channelsPerGenre.
+ */
+class FakeProviderLoadTest extends DbBackedTest {
+    private static final int GENRES = 4;
+    private static final int CHANNELS_PER_GENRE = Integer.getInteger("uiptv.load.channelsPerGenre", 50);
+
+    private FakeIptvProvider provider;
+    private int appPort;
+
+    @BeforeEach
+    void startProvider() throws Exception {
+        provider = new FakeIptvProvider()
+                .genres(GENRES)
+                .channelsPerGenre(CHANNELS_PER_GENRE)
+                .pageSize(14)
+                .segments(1, 32, 4)
+                .start();
+        try (ServerSocket socket = new ServerSocket(0)) {
+            appPort = socket.getLocalPort();
+        }
+    }
+
+    @AfterEach
+    void stopServers() {
+        try {
+            UIptvServer.stop();
+        } catch (Exception _) {
+            // Best-effort shutdown between tests; server may already be stopped.
+        }
+        provider.close();
+    }
+
+    @Test
+    void reloadsAndServesFakeProviderCatalogsUnderConcurrentLoad() throws Exception {
+        Configuration cfg = new Configuration(
+                "player-a", "player-b", "player-c", "player-a",
+                "", "", false,
+                false, String.valueOf(appPort), false, false
+        );
+        cfg.setEnableThumbnails(false);
+        ConfigurationService.getInstance().save(cfg);
+
+        Account stalker = saveStalker();
+        Account xtreme = saveXtreme();
+        Account m3u = saveM3u();
+
+        CacheService cacheService = new CacheServiceImpl();
+        for (Account account : List.of(stalker, xtreme, m3u)) {
+            long started = System.nanoTime();
+            cacheService.reloadCache(account, _ -> {});
+            double elapsedMs = (System.nanoTime() - started) / 1_000_000d;
+            int loaded = loadedChannels(account);
+            AppLog.addInfoLog(FakeProviderLoadTest.class, String.format("reload %s: %d channels in %.1f ms", account.getType(), loaded, elapsedMs));
+            assertEquals(GENRES * CHANNELS_PER_GENRE, loaded, account.getAccountName());
+            assertEquals(CHANNELS_PER_GENRE, ChannelDb.get().getChannels(firstCategory(account).getDbId()).size(),
+                    account.getAccountName());
+        }
+        assertTrue(provider.requestCount("get_all_channels") >= 1);
+
+        stalker.setAction(vod);
+        AccountService.getInstance().save(stalker);
+        CategoryService.getInstance().get(stalker, false);
+        Category vodCategory = VodCategoryDb.get().getCategories(stalker).get(0);
+        List<Channel> movies = ChannelService.getInstance().get(vodCategory.getCategoryId(), stalker, vodCategory.getDbId());
+        assertEquals(CHANNELS_PER_GENRE, movies.size());
+        assertTrue(provider.requestCount("get_ordered_list") >= (CHANNELS_PER_GENRE + 13) / 14);
+        stalker.setAction(itv);
+        AccountService.getInstance().save(stalker);
+
+        UIptvServer.start();
+        assertTrue(UIptvServer.isRunning());
+        String appBaseUrl = "http://127.0.0.1:" + appPort;
+        LoadDriver driver = new LoadDriver();
+
+        List<String> channelPaths = List.of(stalker, xtreme, m3u).stream()
+                .map(account -> "/channels?accountId=" + account.getDbId() + "&categoryId=" + firstCategory(account).getDbId() + "&mode=itv")
+                .toList();
+        LoadReport channels = driver.run("/channels", index -> appBaseUrl + channelPaths.get(index % channelPaths.size()));
+        LoadReport playlist = driver.run("/iptv.m3u8", appBaseUrl + "/iptv.m3u8");
+        LoadReport proxy = driver.run("/proxy-stream", index -> appBaseUrl + "/proxy-stream?src="
+                + URLEncoder.encode(provider.baseUrl() + "/hls/" + (100_000 + index % CHANNELS_PER_GENRE) + "/" + index + ".ts", StandardCharsets.UTF_8));
+
+        for (LoadReport report : List.of(channels, playlist, proxy)) {
+            AppLog.addInfoLog(FakeProviderLoadTest.class, report.toString());
+            assertEquals(0, report.errors(), report.toString());
+            assertTrue(report.p99Ms() >= report.p50Ms());
+            assertTrue(report.maxMs() >= report.p99Ms());
+            assertTrue(report.throughputPerSecond() > 0);
+        }
+        assertEquals(proxy.requests(), provider.requestCount("hls-segment"));
+
+        HttpResponse<String> metrics = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(appBaseUrl + "/metrics")).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, metrics.statusCode());
+        assertTrue(metrics.headers().firstValue("Content-Type").orElse("").startsWith("text/plain; version=0.0.4"));
+        String text = metrics.body();
+        assertTrue(text.contains("uiptv_http_request_duration_seconds_bucket{route=\"/channels\",le=\"+Inf\"}"));
+        assertTrue(text.contains("uiptv_http_requests_total{route=\"/proxy-stream\",status=\"2xx\"}"));
+        assertTrue(text.contains("uiptv_provider_request_duration_seconds_count{account=\"load-stalker\"}"));
+        assertTrue(text.contains("uiptv_upstream_request_duration_seconds_count{host=\"127.0.0.1:"));
+        assertTrue(text.contains("uiptv_db_query_duration_seconds_count{table=\"Channel\",operation=\"saveAll\"}"));
+        assertTrue(text.contains("uiptv_http_route_active{route=\"/metrics\"} 1"));
+        assertTrue(text.contains("uiptv_proxy_active_streams 0"));
+        assertTrue(text.lines().anyMatch(line -> line.startsWith("uiptv_proxy_relayed_bytes_total ")
+                && Long.parseLong(line.substring(line.indexOf(' ') + 1)) >= (long) proxy.requests() * 32 * 188));
+    }
+
+    @Test
+    void injectedProviderErrorsAreReportedAsFailedRequests() throws Exception {
+        provider.close();
+        provider = new FakeIptvProvider().errorRate(0.5).seed(7L).start();
+
+        LoadReport report = new LoadDriver().requests(100).concurrency(4).run("provider-errors", provider.hlsUrl(100_000));
+
+        assertEquals(provider.requestCount("error"), report.errors());
+        assertEquals(100, report.errors() + provider.requestCount("hls-playlist"));
+        assertTrue(report.errors() > 0 && report.errors() < 100, report.toString());
+    }
+
+    private Account saveStalker() throws IOException {
+        Account stalker = new Account(
+                "load-stalker", "st-user", "st-pass", provider.stalkerPortalUrl(),
+                "00:11:22:33:44:91", null,
+                "AABBCCDDEE91", "AABBCCDDEEFF00112233445566778891", "AABBCCDDEEFF00112233445566778891",
+                "AABBCCDDEEFF00112233445566778899AABBCCDDEEFF00112233445566778899",
+                AccountType.STALKER_PORTAL, null, null, false
+        );
+        stalker.setServerPortalUrl(provider.stalkerPortalUrl());
+        stalker.setAction(itv);
+        AccountService.getInstance().save(stalker);
+        return AccountService.getInstance().getByName("load-stalker");
+    }
+
+    private Account saveXtreme() throws IOException {
+        Account xtreme = new Account(
+                "load-xtreme", "xtuser", "xtpass", provider.xtremeUrl(),
+                null, null, null, null, null, null,
+                AccountType.XTREME_API, null, provider.xtremeUrl(), false
+        );
+        xtreme.setXtremeCredentialsJson(XtremeCredentialsJson.toJson(List.of(
+                new XtremeCredentialsJson.Entry("xtuser", "xtpass", true)
+        )));
+        xtreme.setAction(itv);
+        AccountService.getInstance().save(xtreme);
+        return AccountService.getInstance().getByName("load-xtreme");
+    }
+
+    private Account saveM3u() throws IOException {
+        Account m3u = new Account(
+                "load-m3u", null, null, provider.m3uUrl(),
+                null, null, null, null, null, null,
+                AccountType.M3U8_URL, null, provider.m3uUrl(), false
+        );
+        m3u.setAction(itv);
+        AccountService.getInstance().save(m3u);
+        return AccountService.getInstance().getByName("load-m3u");
+    }
+
+    private static int loadedChannels(Account account) {
+        return CategoryDb.get().getCategories(account).stream()
+                .filter(c -> !CategoryType.ALL.displayName().equalsIgnoreCase(c.getTitle()))
+                .mapToInt(c -> ChannelDb.get().getChannels(c.getDbId()).size())
+                .sum();
+    }
+
+    private static Category firstCategory(Account account) {
+        return CategoryDb.get().getCategories(account).stream()
+                .filter(c -> !CategoryType.ALL.displayName().equalsIgnoreCase(c.getTitle()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -4,6 +4,7 @@ import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.net.HttpURLConnection;
@@ -12,9 +13,13 @@ import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -243,6 +248,72 @@ class HttpProxyStreamServerTest {
         assertFalse((Boolean) invoke(handler, "isAsciiDigits", new Class[]{String.class}, "12a45"));
     }
 
+    @Test
+    void timeshiftClientsShareOneUpstreamAndCanStartBehindLive() throws Exception {
+        int chunkSize = 188 * 10;
+        int chunks = 100;
+        AtomicInteger requestCount = new AtomicInteger();
+        CountDownLatch secondClientJoined = new CountDownLatch(1);
+
+        upstreamServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstreamServer.createContext("/live/channel.ts", exchange -> {
+            requestCount.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "video/mp2t");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                for (int i = 0; i < chunks; i++) {
+                    byte[] chunk = new byte[chunkSize];
+                    Arrays.fill(chunk, (byte) i);
+                    os.write(chunk);
+                    os.flush();
+                    if (i == 1) {
+                        awaitQuietly(secondClientJoined);
+                    }
+                }
+            }
+        });
+        upstreamServer.start();
+
+        proxyServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        proxyServer.setExecutor(Executors.newCachedThreadPool());
+        proxyServer.createContext("/proxy-stream", new HttpProxyStreamServer());
+        proxyServer.start();
+
+        String upstreamUrl = "http://127.0.0.1:" + upstreamServer.getAddress().getPort() + "/live/channel.ts";
+        String proxyUrl = HttpProxyStreamServer.buildTimeshiftUrl("http://127.0.0.1:" + proxyServer.getAddress().getPort(), upstreamUrl);
+        assertEquals("http://127.0.0.1:" + proxyServer.getAddress().getPort() + "/proxy-stream?src="
+                + URLEncoder.encode(upstreamUrl, StandardCharsets.UTF_8) + "&timeshift=1", proxyUrl);
+
+        HttpURLConnection first = (HttpURLConnection) URI.create(proxyUrl).toURL().openConnection();
+        assertEquals(200, first.getResponseCode());
+        try (InputStream firstBody = first.getInputStream()) {
+            assertEquals(0, firstBody.read());
+
+            HttpURLConnection second = (HttpURLConnection) URI.create(proxyUrl + "&offset=3600").toURL().openConnection();
+            assertEquals(200, second.getResponseCode());
+            assertTrue(Long.parseLong(second.getHeaderField("X-Timeshift-Oldest")) > 0);
+            secondClientJoined.countDown();
+            byte[] rewound;
+            try (InputStream secondBody = second.getInputStream()) {
+                rewound = secondBody.readAllBytes();
+            }
+
+            assertEquals(chunkSize * chunks, rewound.length);
+            assertEquals(0, rewound[0]);
+            assertEquals(chunks - 1, rewound[rewound.length - 1]);
+            assertEquals(chunkSize * chunks - 1, firstBody.readAllBytes().length);
+        }
+        assertEquals(1, requestCount.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T invoke(Object target, String methodName, Class<?>[] parameterTypes, Object... args) throws Exception {
         Method method = target.getClass().getDeclaredMethod(methodName, parameterTypes);
@@ -0,0 +1,129 @@
+package com.uiptv.server;
+
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerExecutionModelTest {
+    private Undertow server;
+    private ServerExecutionModel model;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+        if (model != null) {
+            model.close();
+        }
+    }
+
+    @Test
+    void virtualThreadMode_runsHandlersOnVirtualThreads() throws Exception {
+        model = new ServerExecutionModel(true, 0, 1_000);
+        AtomicBoolean ranOnVirtualThread = new AtomicBoolean();
+        int port = start("/channels", exchange -> {
+            ranOnVirtualThread.set(Thread.currentThread().isVirtual());
+            exchange.getResponseSender().send("ok");
+        });
+
+        assertEquals(200, status(port, "/channels"));
+        assertTrue(ranOnVirtualThread.get());
+
+        List<RouteExecutionStats> stats = awaitCompleted(1);
+        assertEquals(1, stats.size());
+        assertEquals("/channels", stats.getFirst().route());
+        assertEquals(1, stats.getFirst().completed());
+        assertEquals(0, stats.getFirst().active());
+    }
+
+    @Test
+    void routeLimit_rejectsRequestsThatWaitPastQueueTimeout() throws Exception {
+        model = new ServerExecutionModel(true, 1, 50);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int port = start("/proxy-stream", exchange -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            exchange.getResponseSender().send("ok");
+        });
+
+        Thread firstRequest = Thread.ofVirtual().start(() -> {
+            try {
+                status(port, "/proxy-stream");
+            } catch (Exception _) {
+                // Only the second request's outcome matters here.
+            }
+        });
+        try {
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            assertEquals(503, status(port, "/proxy-stream"));
+        } finally {
+            release.countDown();
+            firstRequest.join(5_000);
+        }
+
+        RouteExecutionStats stats = model.stats().getFirst();
+        assertEquals(1, stats.maxConcurrent());
+        assertEquals(1, stats.rejected());
+        assertTrue(stats.maxQueueMicros() >= TimeUnit.MILLISECONDS.toMicros(50));
+    }
+
+    @Test
+    void platformMode_keepsWorkerThreads() throws Exception {
+        model = new ServerExecutionModel(false, 0, 1_000);
+        AtomicBoolean ranOnVirtualThread = new AtomicBoolean(true);
+        int port = start("/categories", exchange -> {
+            ranOnVirtualThread.set(Thread.currentThread().isVirtual());
+            exchange.getResponseSender().send("ok");
+        });
+
+        assertEquals(200, status(port, "/categories"));
+        assertFalse(ranOnVirtualThread.get());
+    }
+
+    private int start(String route, HttpHandler handler) {
+        HttpHandler routed = model.route(route, handler);
+        server = Undertow.builder()
+                .addHttpListener(0, "127.0.0.1")
+                .setHandler(new WebRequestActivityLoggingHandler(routed, model))
+                .build();
+        server.start();
+        return ((InetSocketAddress) server.getListenerInfo().getFirst().getAddress()).getPort();
+    }
+
+    private List<RouteExecutionStats> awaitCompleted(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<RouteExecutionStats> stats = model.stats();
+        // The response can reach the client before the handler thread releases its slot.
+        while (stats.getFirst().completed() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            stats = model.stats();
+        }
+        return stats;
+    }
+
+    private static int status(int port, String path) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) URI.create("http://127.0.0.1:" + port + path).toURL().openConnection();
+        connection.setConnectTimeout(2_000);
+        connection.setReadTimeout(5_000);
+        try {
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
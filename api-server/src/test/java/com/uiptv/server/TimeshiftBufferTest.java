@@ -0,0 +1,118 @@
+package com.uiptv.server;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.uiptv.server.TimeshiftBuffer.TS_PACKET_SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeshiftBufferTest {
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    @Test
+    void readersStartAtTheDataRecordedAtAPointInTime() throws Exception {
+        try (TimeshiftBuffer buffer = new TimeshiftBuffer(tempDir.resolve("ring.ts"), 100L * TS_PACKET_SIZE, 60_000L, clock::get)) {
+            for (int second = 0; second < 5; second++) {
+                buffer.write(packets(second, 2), 0, 2 * TS_PACKET_SIZE);
+                clock.addAndGet(1000L);
+            }
+            buffer.finish();
+
+            assertArrayEquals(concat(packets(2, 2), packets(3, 2), packets(4, 2)), readAll(buffer.readerAt(1_002_500L)));
+            assertArrayEquals(packets(4, 2), readAll(buffer.readerBehindLive(1)));
+            assertEquals(0, readAll(buffer.readerBehindLive(0)).length);
+            assertEquals(1_000_000L, buffer.oldestTimeMs());
+        }
+    }
+
+    @Test
+    void diskUsageStaysWithinCapacityAndSlowReadersSkipForward() throws Exception {
+        Path file = tempDir.resolve("ring.ts");
+        try (TimeshiftBuffer buffer = new TimeshiftBuffer(file, 4L * TS_PACKET_SIZE + 50, 600_000L, clock::get)) {
+            TimeshiftBuffer.Reader slow = buffer.readerAt(0L);
+            for (int packet = 0; packet < 10; packet++) {
+                buffer.write(packets(packet, 1), 0, TS_PACKET_SIZE);
+                clock.addAndGet(1000L);
+            }
+            buffer.finish();
+
+            assertEquals(4L * TS_PACKET_SIZE, buffer.capacity());
+            assertTrue(Files.size(file) <= buffer.capacity());
+            assertArrayEquals(concat(packets(6, 1), packets(7, 1), packets(8, 1), packets(9, 1)), readAll(slow));
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void windowDropsDataOlderThanTheConfiguredDuration() throws Exception {
+        try (TimeshiftBuffer buffer = new TimeshiftBuffer(tempDir.resolve("ring.ts"), 100L * TS_PACKET_SIZE, 3_000L, clock::get)) {
+            for (int second = 0; second < 10; second++) {
+                buffer.write(packets(second, 1), 0, TS_PACKET_SIZE);
+                clock.addAndGet(1000L);
+            }
+            buffer.finish();
+
+            byte[] retained = readAll(buffer.readerAt(0L));
+            assertEquals(4 * TS_PACKET_SIZE, retained.length);
+            assertEquals(6, retained[0]);
+            assertEquals(1_006_000L, buffer.oldestTimeMs());
+        }
+    }
+
+    @Test
+    void readersAtTheLiveEdgeWaitForTheWriter() throws Exception {
+        try (TimeshiftBuffer buffer = new TimeshiftBuffer(tempDir.resolve("ring.ts"), 100L * TS_PACKET_SIZE, 60_000L, clock::get)) {
+            TimeshiftBuffer.Reader live = buffer.readerBehindLive(0);
+            CompletableFuture<byte[]> pending = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return readAll(live);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            buffer.write(packets(7, 1), 0, TS_PACKET_SIZE);
+            assertFalse(pending.isDone());
+            buffer.finish();
+
+            assertArrayEquals(packets(7, 1), pending.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static byte[] readAll(TimeshiftBuffer.Reader reader) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[100];
+        int read;
+        while ((read = reader.read(chunk, 0, chunk.length)) != -1) {
+            out.write(chunk, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] packets(int value, int count) {
+        byte[] data = new byte[count * TS_PACKET_SIZE];
+        Arrays.fill(data, (byte) value);
+        return data;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
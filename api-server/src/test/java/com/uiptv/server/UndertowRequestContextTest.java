@@ -0,0 +1,123 @@
+package com.uiptv.server;
+
+import io.undertow.Undertow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class UndertowRequestContextTest {
+    private Undertow server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void nativeHandler_decodesParamsAndWritesJson() throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        int port = start(request -> {
+            seen.set(request.param("name") + "|" + request.param("categoryId") + "|" + request.header("X-Test") + "|" + request.path());
+            request.sendJson("{\"ok\":true}");
+        });
+
+        HttpURLConnection connection = open(port, "/channels?name=Sky+News%20HD&categoryId=c%261&categoryId=c2");
+        connection.setRequestProperty("X-Test", "header-value");
+
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("application/json", connection.getHeaderField("Content-Type"));
+        assertEquals("*", connection.getHeaderField("Access-Control-Allow-Origin"));
+        assertEquals("11", connection.getHeaderField("Content-Length"));
+        assertEquals("{\"ok\":true}", new String(connection.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals("Sky News HD|c2|header-value|/channels", seen.get());
+    }
+
+    @Test
+    void nativeHandler_rejectsNonGetJsonRequests() throws Exception {
+        int port = start(request -> request.sendJson("[]"));
+
+        HttpURLConnection connection = open(port, "/channels");
+        connection.setRequestMethod("DELETE");
+
+        assertEquals(405, connection.getResponseCode());
+        assertEquals("GET", connection.getHeaderField("Allow"));
+    }
+
+    @Test
+    void nativeHandler_readsBodyAndEndsExchangeWhenHandlerWritesNothing() throws Exception {
+        AtomicReference<String> body = new AtomicReference<>();
+        int port = start(request -> body.set(new String(request.readBody(), StandardCharsets.UTF_8)));
+
+        HttpURLConnection connection = open(port, "/bookmarks");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("{\"id\":1}", body.get());
+    }
+
+    @Test
+    void longPoll_releasesTheWorkerUntilTheFutureCompletes() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        int port = start(request -> {
+            if ("/catalogUpdates".equals(request.path())) {
+                LongPollResponder.respondWhenDone(request, pending, RequestContext::sendJson);
+            } else {
+                request.sendJson("{\"other\":true}");
+            }
+        }, 1);
+
+        CompletableFuture<String> poll = CompletableFuture.supplyAsync(() -> {
+            try {
+                HttpURLConnection connection = open(port, "/catalogUpdates");
+                return connection.getResponseCode() + "|" + new String(connection.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+
+        HttpURLConnection other = open(port, "/channels");
+        assertEquals(200, other.getResponseCode());
+        assertFalse(poll.isDone());
+
+        pending.complete("{\"events\":[]}");
+        assertEquals("200|{\"events\":[]}", poll.get(5, TimeUnit.SECONDS));
+    }
+
+    private int start(RequestContextHandler handler) {
+        return start(handler, 0);
+    }
+
+    private int start(RequestContextHandler handler, int workerThreads) {
+        Undertow.Builder builder = Undertow.builder()
+                .addHttpListener(0, "127.0.0.1")
+                .setHandler(handler);
+        if (workerThreads > 0) {
+            builder.setWorkerThreads(workerThreads);
+        }
+        server = builder.build();
+        server.start();
+        return ((InetSocketAddress) server.getListenerInfo().getFirst().getAddress()).getPort();
+    }
+
+    private static HttpURLConnection open(int port, String pathAndQuery) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) URI.create("http://127.0.0.1:" + port + pathAndQuery).toURL().openConnection();
+        connection.setConnectTimeout(2_000);
+        connection.setReadTimeout(5_000);
+        return connection;
+    }
+}
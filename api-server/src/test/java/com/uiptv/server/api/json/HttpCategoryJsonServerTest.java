@@ -6,6 +6,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import com.uiptv.application.CatalogApplicationService;
 import com.uiptv.application.CatalogMode;
+import com.uiptv.application.CatalogReadResult;
 import com.uiptv.model.Category;
 import com.uiptv.server.TestHttpExchange;
 import org.junit.jupiter.api.Test;
@@ -23,7 +24,7 @@ class HttpCategoryJsonServerTest {
         try (MockedStatic<CatalogApplicationService> facadeStatic = mockStatic(CatalogApplicationService.class)) {
             CatalogApplicationService facade = mock(CatalogApplicationService.class);
             facadeStatic.when(CatalogApplicationService::getInstance).thenReturn(facade);
-            when(facade.listCategories("404", CatalogMode.ITV)).thenReturn(List.of());
+            when(facade.readCategories("404", CatalogMode.ITV)).thenReturn(new CatalogReadResult<>(List.of(), false, 0));
 
             TestHttpExchange exchange = new TestHttpExchange("/category?accountId=404", "GET");
             new HttpCategoryJsonServer().handle(exchange);
@@ -38,18 +39,21 @@ class HttpCategoryJsonServerTest {
         try (MockedStatic<CatalogApplicationService> facadeStatic = mockStatic(CatalogApplicationService.class)) {
             CatalogApplicationService facade = mock(CatalogApplicationService.class);
             facadeStatic.when(CatalogApplicationService::getInstance).thenReturn(facade);
-            when(facade.listCategories("1", CatalogMode.SERIES)).thenReturn(List.of(new Category("10", "Series", "series", false, 0)));
-            when(facade.listCategories("1", CatalogMode.ITV)).thenReturn(List.of(new Category("20", "Live", "live", false, 0)));
+            when(facade.readCategories("1", CatalogMode.SERIES)).thenReturn(new CatalogReadResult<>(List.of(new Category("10", "Series", "series", false, 0)), true, 7));
+            when(facade.readCategories("1", CatalogMode.ITV)).thenReturn(new CatalogReadResult<>(List.of(new Category("20", "Live", "live", false, 0)), false, 7));
 
             TestHttpExchange validMode = new TestHttpExchange("/category?accountId=1&mode=SERIES", "GET");
             new HttpCategoryJsonServer().handle(validMode);
-            verify(facade).listCategories("1", CatalogMode.SERIES);
+            verify(facade).readCategories("1", CatalogMode.SERIES);
             assertTrue(validMode.getResponseBodyText().contains("Series"));
+            assertEquals("true", validMode.getResponseHeaders().getFirst("X-UIPTV-Catalog-Stale"));
+            assertEquals("7", validMode.getResponseHeaders().getFirst("X-UIPTV-Catalog-Revision"));
 
             TestHttpExchange invalidMode = new TestHttpExchange("/category?accountId=1&mode=not-a-mode", "GET");
             new HttpCategoryJsonServer().handle(invalidMode);
-            verify(facade).listCategories("1", CatalogMode.ITV);
+            verify(facade).readCategories("1", CatalogMode.ITV);
             assertTrue(invalidMode.getResponseBodyText().contains("Live"));
+            assertEquals("false", invalidMode.getResponseHeaders().getFirst("X-UIPTV-Catalog-Stale"));
         }
     }
 }
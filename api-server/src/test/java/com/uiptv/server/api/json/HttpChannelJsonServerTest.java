@@ -6,6 +6,7 @@ import static org.mockito.Mockito.when;
 import com.uiptv.application.CatalogApplicationService;
 import com.uiptv.application.CatalogChannelsQuery;
 import com.uiptv.application.CatalogMode;
+import com.uiptv.application.CatalogReadResult;
 import com.uiptv.model.Channel;
 import com.uiptv.server.TestHttpExchange;
 import org.junit.jupiter.api.Test;
@@ -27,8 +28,8 @@ class HttpChannelJsonServerTest {
         try (MockedStatic<CatalogApplicationService> facadeStatic = mockStatic(CatalogApplicationService.class)) {
             CatalogApplicationService facade = mock(CatalogApplicationService.class);
             facadeStatic.when(CatalogApplicationService::getInstance).thenReturn(facade);
-            when(facade.listChannels(new CatalogChannelsQuery("1", CatalogMode.VOD, "cat-1", "")))
-                    .thenReturn(List.of(channel));
+            when(facade.readChannels(new CatalogChannelsQuery("1", CatalogMode.VOD, "cat-1", "")))
+                    .thenReturn(new CatalogReadResult<>(List.of(channel), true, 3));
 
             TestHttpExchange exchange = new TestHttpExchange("/channels?accountId=1&mode=vod&categoryId=cat-1&movieId=", "GET");
             new HttpChannelJsonServer().handle(exchange);
@@ -36,6 +37,8 @@ class HttpChannelJsonServerTest {
             assertEquals(200, exchange.getResponseCode());
             assertTrue(exchange.getResponseBodyText().contains("News"));
             assertTrue(exchange.getResponseBodyText().contains("ch-1"));
+            assertEquals("true", exchange.getResponseHeaders().getFirst("X-UIPTV-Catalog-Stale"));
+            assertEquals("3", exchange.getResponseHeaders().getFirst("X-UIPTV-Catalog-Revision"));
         }
     }
 }
@@ -0,0 +1,132 @@
+package com.uiptv.server.api.json;
+
+import com.uiptv.db.ChannelDb;
+import com.uiptv.model.Account;
+import com.uiptv.model.Channel;
+import com.uiptv.model.EpgProgramme;
+import com.uiptv.server.TestHttpExchange;
+import com.uiptv.service.AccountService;
+import com.uiptv.service.CacheRefreshScheduler;
+import com.uiptv.service.EpgService;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HttpEpgJsonServerTest {
+
+    @Test
+    void get_returnsNowAndNextOrAWindowOfProgrammes() throws Exception {
+        Account account = new Account();
+        account.setDbId("acc-1");
+        AccountService accounts = mock(AccountService.class);
+        when(accounts.getById("acc-1")).thenReturn(account);
+        EpgService epg = mock(EpgService.class);
+        EpgProgramme now = programme("Drama", 1_000L, 2_000L);
+        EpgProgramme next = programme("Late News", 2_000L, 3_000L);
+        when(epg.nowNext(eq(account), any(Channel.class))).thenReturn(new EpgService.NowNext(now, next));
+        when(epg.programmes(eq(account), any(Channel.class), eq(500L), eq(2_500L))).thenReturn(List.of(now, next));
+        ChannelDb channels = mock(ChannelDb.class);
+
+        try (MockedStatic<AccountService> accountStatic = mockStatic(AccountService.class);
+             MockedStatic<EpgService> epgStatic = mockStatic(EpgService.class);
+             MockedStatic<ChannelDb> channelStatic = mockStatic(ChannelDb.class)) {
+            accountStatic.when(AccountService::getInstance).thenReturn(accounts);
+            epgStatic.when(EpgService::getInstance).thenReturn(epg);
+            channelStatic.when(ChannelDb::get).thenReturn(channels);
+            HttpEpgJsonServer handler = new HttpEpgJsonServer();
+
+            TestHttpExchange nowNext = new TestHttpExchange("/epg?accountId=acc-1&channelId=bbc1.uk", "GET");
+            handler.handle(nowNext);
+            assertEquals(200, nowNext.getResponseCode());
+            JSONObject body = new JSONObject(nowNext.getResponseBodyText());
+            assertEquals("Drama", body.getJSONObject("now").getString("title"));
+            assertEquals(3_000L, body.getJSONObject("next").getLong("stop"));
+            ArgumentCaptor<Channel> channel = ArgumentCaptor.forClass(Channel.class);
+            verify(epg).nowNext(eq(account), channel.capture());
+            assertEquals("bbc1.uk", channel.getValue().getChannelId());
+
+            TestHttpExchange window = new TestHttpExchange("/epg?accountId=acc-1&channelName=BBC%20One&from=500&to=2500", "GET");
+            handler.handle(window);
+            assertEquals(200, window.getResponseCode());
+            assertEquals(2, new JSONObject(window.getResponseBodyText()).getJSONArray("programmes").length());
+
+            TestHttpExchange badWindow = new TestHttpExchange("/epg?accountId=acc-1&channelId=x&from=500&to=400", "GET");
+            handler.handle(badWindow);
+            assertEquals(400, badWindow.getResponseCode());
+
+            Channel stored = new Channel();
+            stored.setChannelId("4022");
+            stored.setExtraJson("{\"epg_channel_id\":\"news.uk\"}");
+            when(channels.getChannelByChannelIdAndAccount("4022", "acc-1")).thenReturn(stored);
+            TestHttpExchange cached = new TestHttpExchange("/epg?accountId=acc-1&channelId=4022&channelName=News", "GET");
+            handler.handle(cached);
+            assertEquals(200, cached.getResponseCode());
+            verify(epg, times(2)).nowNext(eq(account), channel.capture());
+            assertEquals("{\"epg_channel_id\":\"news.uk\"}", channel.getValue().getExtraJson());
+            assertEquals("News", channel.getValue().getName());
+
+            TestHttpExchange missing = new TestHttpExchange("/epg?accountId=nope&channelId=x", "GET");
+            handler.handle(missing);
+            assertEquals(404, missing.getResponseCode());
+        }
+    }
+
+    @Test
+    void post_queuesAGuideRefreshForAccountsWithAGuide() throws Exception {
+        Account withGuide = new Account();
+        withGuide.setDbId("acc-1");
+        Account withoutGuide = new Account();
+        withoutGuide.setDbId("acc-2");
+        AccountService accounts = mock(AccountService.class);
+        when(accounts.getById("acc-1")).thenReturn(withGuide);
+        when(accounts.getById("acc-2")).thenReturn(withoutGuide);
+        EpgService epg = mock(EpgService.class);
+        when(epg.hasGuide(withGuide)).thenReturn(true);
+        CacheRefreshScheduler scheduler = mock(CacheRefreshScheduler.class);
+        when(scheduler.enqueueGuideRefresh(withGuide)).thenReturn(true);
+
+        try (MockedStatic<AccountService> accountStatic = mockStatic(AccountService.class);
+             MockedStatic<EpgService> epgStatic = mockStatic(EpgService.class);
+             MockedStatic<CacheRefreshScheduler> schedulerStatic = mockStatic(CacheRefreshScheduler.class)) {
+            accountStatic.when(AccountService::getInstance).thenReturn(accounts);
+            epgStatic.when(EpgService::getInstance).thenReturn(epg);
+            schedulerStatic.when(CacheRefreshScheduler::getInstance).thenReturn(scheduler);
+            HttpEpgJsonServer handler = new HttpEpgJsonServer();
+
+            TestHttpExchange queued = new TestHttpExchange("/epg?accountId=acc-1", "POST");
+            handler.handle(queued);
+            assertEquals(202, queued.getResponseCode());
+            assertTrue(queued.getResponseBodyText().contains("queued"));
+            verify(scheduler).enqueueGuideRefresh(withGuide);
+
+            TestHttpExchange noGuide = new TestHttpExchange("/epg?accountId=acc-2", "POST");
+            handler.handle(noGuide);
+            assertEquals(400, noGuide.getResponseCode());
+
+            TestHttpExchange delete = new TestHttpExchange("/epg?accountId=acc-1", "DELETE");
+            handler.handle(delete);
+            assertEquals(405, delete.getResponseCode());
+        }
+    }
+
+    private static EpgProgramme programme(String title, long startMs, long stopMs) {
+        EpgProgramme programme = new EpgProgramme();
+        programme.setTitle(title);
+        programme.setStartMs(startMs);
+        programme.setStopMs(stopMs);
+        return programme;
+    }
+}
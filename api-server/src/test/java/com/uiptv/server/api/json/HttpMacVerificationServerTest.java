@@ -0,0 +1,94 @@
+package com.uiptv.server.api.json;
+
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import com.uiptv.model.Account;
+import com.uiptv.model.AccountInfo;
+import com.uiptv.model.AccountStatus;
+import com.uiptv.server.TestHttpExchange;
+import com.uiptv.service.AccountService;
+import com.uiptv.service.macverify.MacVerificationJob;
+import com.uiptv.service.macverify.MacVerificationResult;
+import com.uiptv.service.macverify.MacVerificationService;
+import com.uiptv.util.AccountType;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class HttpMacVerificationServerTest {
+
+    @Test
+    void handle_startsPollsAndCancelsVerificationJobs() throws Exception {
+        Account account = new Account();
+        account.setType(AccountType.STALKER_PORTAL);
+        account.setMacAddress("00:1A:79:00:00:01");
+        account.setMacAddressList("00:1A:79:00:00:01,00:1A:79:00:00:02");
+        AccountService accounts = mock(AccountService.class);
+        when(accounts.getById("acc-1")).thenReturn(account);
+        MacVerificationService service = mock(MacVerificationService.class);
+        MacVerificationJob job = mock(MacVerificationJob.class);
+        when(job.id()).thenReturn("job-1");
+        when(job.total()).thenReturn(2);
+        AccountInfo info = new AccountInfo();
+        info.setExpireDate("2027-01-01 00:00:00");
+        info.setAccountStatus(AccountStatus.ACTIVE);
+        when(job.resultsAfter(1, 0)).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(job.resultsFrom(1)).thenReturn(List.of(
+                new MacVerificationResult("00:1A:79:00:00:02", MacVerificationResult.Status.VALID, info, 2)));
+        when(service.verify(eq(account), anyList(), eq(true), isNull())).thenReturn(job);
+        when(service.getJob("job-1")).thenReturn(job);
+
+        try (MockedStatic<AccountService> accountStatic = mockStatic(AccountService.class);
+             MockedStatic<MacVerificationService> serviceStatic = mockStatic(MacVerificationService.class)) {
+            accountStatic.when(AccountService::getInstance).thenReturn(accounts);
+            serviceStatic.when(MacVerificationService::getInstance).thenReturn(service);
+            HttpMacVerificationServer handler = new HttpMacVerificationServer();
+
+            TestHttpExchange start = new TestHttpExchange("/macVerification", "POST",
+                    new JSONObject().put("accountId", "acc-1").put("includeAccountInfo", true).toString());
+            handler.handle(start);
+            assertEquals(200, start.getResponseCode());
+            assertEquals("job-1", new JSONObject(start.getResponseBodyText()).getString("jobId"));
+            verify(service).verify(account, List.of("00:1A:79:00:00:01", "00:1A:79:00:00:02"), true, null);
+
+            TestHttpExchange poll = new TestHttpExchange("/macVerification?jobId=job-1&since=1&timeoutMs=0", "GET");
+            handler.handle(poll);
+            JSONObject polled = new JSONObject(poll.getResponseBodyText());
+            JSONArray results = polled.getJSONArray("results");
+            assertEquals(2, polled.getInt("next"));
+            assertFalse(polled.getBoolean("done"));
+            assertEquals("VALID", results.getJSONObject(0).getString("status"));
+            assertEquals("2027-01-01 00:00:00", results.getJSONObject(0).getString("expireDate"));
+
+            TestHttpExchange cancel = new TestHttpExchange("/macVerification?jobId=job-1", "DELETE");
+            handler.handle(cancel);
+            assertEquals(200, cancel.getResponseCode());
+            verify(job).cancel();
+
+            TestHttpExchange missingAccount = new TestHttpExchange("/macVerification", "POST", new JSONObject().toString());
+            handler.handle(missingAccount);
+            assertEquals(400, missingAccount.getResponseCode());
+
+            TestHttpExchange unknownJob = new TestHttpExchange("/macVerification?jobId=nope", "GET");
+            handler.handle(unknownJob);
+            assertEquals(404, unknownJob.getResponseCode());
+
+            TestHttpExchange put = new TestHttpExchange("/macVerification", "PUT");
+            handler.handle(put);
+            assertEquals(405, put.getResponseCode());
+            assertEquals("GET, POST, DELETE", put.getResponseHeaders().getFirst("Allow"));
+        }
+    }
+}
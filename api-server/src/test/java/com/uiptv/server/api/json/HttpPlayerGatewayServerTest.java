@@ -1,6 +1,8 @@
 package com.uiptv.server.api.json;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import com.uiptv.server.RequestContext;
 import com.uiptv.server.TestHttpExchange;
 import org.junit.jupiter.api.Test;
 
@@ -22,6 +24,6 @@ class HttpPlayerGatewayServerTest {
 
         TestHttpExchange exchange = new TestHttpExchange("/player", "GET");
         assertDoesNotThrow(() -> gateway.handle(exchange));
-        verify(delegate).handle(exchange);
+        verify(delegate).handle(any(RequestContext.class));
     }
 }
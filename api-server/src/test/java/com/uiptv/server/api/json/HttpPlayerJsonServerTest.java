@@ -18,12 +18,15 @@ import com.uiptv.db.VodChannelDb;
 import com.uiptv.model.Account;
 import com.uiptv.model.Channel;
 import com.uiptv.model.PlayerResponse;
+import com.uiptv.server.HttpExchangeRequestContext;
+import com.uiptv.server.RequestContext;
 import com.uiptv.service.AccountService;
 import com.uiptv.service.PlayerService;
 import com.uiptv.testsupport.DbBackedTest;
 import com.uiptv.util.AccountType;
 import com.uiptv.util.AppLog;
 import com.uiptv.util.ServerUrlUtil;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
@@ -107,6 +110,7 @@ class HttpPlayerJsonServerTest extends DbBackedTest {
             assertTrue(exchange.getResponseBodyText().contains("\"url\":\"http://stream.test/live.m3u8\""));
             assertTrue(exchange.getResponseBodyText().contains("\"drm\""));
             assertTrue(exchange.getResponseBodyText().contains("\"type\":\"widevine\""));
+            assertFalse(exchange.getResponseBodyText().contains("timeshiftUrl"));
         }
     }
 
@@ -132,6 +136,26 @@ class HttpPlayerJsonServerTest extends DbBackedTest {
         assertEquals("value", invoke(handler, "sanitizeParam", new Class[]{String.class}, " value "));
     }
 
+    @Test
+    void handle_livePlayback_offersTimeshiftProxyUrl() throws Exception {
+        HttpPlayerJsonServer handler = new HttpPlayerJsonServer();
+
+        try (MockedStatic<ServerUrlUtil> serverUrlStatic = mockStatic(ServerUrlUtil.class)) {
+            serverUrlStatic.when(ServerUrlUtil::getLocalServerUrl).thenReturn("http://127.0.0.1:9090");
+
+            StubHttpExchange live = new StubHttpExchange("/player?mode=itv&url=http%3A%2F%2Fstream.test%2Flive%2F7.ts", "GET");
+            handler.handle(live);
+            JSONObject liveJson = new JSONObject(live.getResponseBodyText());
+            assertEquals("http://stream.test/live/7.ts", liveJson.getString("url"));
+            assertEquals("http://127.0.0.1:9090/proxy-stream?src=http%3A%2F%2Fstream.test%2Flive%2F7.ts&timeshift=1",
+                    liveJson.getString("timeshiftUrl"));
+
+            StubHttpExchange vod = new StubHttpExchange("/player?mode=vod&url=http%3A%2F%2Fstream.test%2Fmovie%2F7.mp4", "GET");
+            handler.handle(vod);
+            assertFalse(new JSONObject(vod.getResponseBodyText()).has("timeshiftUrl"));
+        }
+    }
+
     @Test
     void handle_clientDisconnectWhileWritingResponse_isIgnored() throws Exception {
         HttpPlayerJsonServer handler = new HttpPlayerJsonServer();
@@ -218,13 +242,13 @@ class HttpPlayerJsonServerTest extends DbBackedTest {
         HttpPlayerJsonServer handler = new HttpPlayerJsonServer();
 
         assertEquals("series", invoke(handler, "resolveRequestedMode",
-                new Class[]{HttpExchange.class, String.class}, new StubHttpExchange("/player/series", "GET"), ""));
+                new Class[]{RequestContext.class, String.class}, new HttpExchangeRequestContext(new StubHttpExchange("/player/series", "GET")), ""));
         assertEquals("vod", invoke(handler, "resolveRequestedMode",
-                new Class[]{HttpExchange.class, String.class}, new StubHttpExchange("/player/vod", "GET"), ""));
+                new Class[]{RequestContext.class, String.class}, new HttpExchangeRequestContext(new StubHttpExchange("/player/vod", "GET")), ""));
         assertEquals("itv", invoke(handler, "resolveRequestedMode",
-                new Class[]{HttpExchange.class, String.class}, new StubHttpExchange("/player/live", "GET"), ""));
+                new Class[]{RequestContext.class, String.class}, new HttpExchangeRequestContext(new StubHttpExchange("/player/live", "GET")), ""));
         assertEquals("custom", invoke(handler, "resolveRequestedMode",
-                new Class[]{HttpExchange.class, String.class}, new StubHttpExchange("/player/live", "GET"), "custom"));
+                new Class[]{RequestContext.class, String.class}, new HttpExchangeRequestContext(new StubHttpExchange("/player/live", "GET")), "custom"));
 
         PlayerResponse drm = new PlayerResponse("http://stream.test/movie.mpd");
         drm.setDrmType("widevine");
@@ -115,7 +115,38 @@ class HttpRemoteSyncServersTest {
             TestHttpExchange post = new TestHttpExchange("/remote-sync/upload", "POST");
             new HttpRemoteSyncUploadServer().handle(post);
             assertEquals(405, post.getResponseCode());
-            assertEquals("PUT", post.getResponseHeaders().getFirst("Allow"));
+            assertEquals("GET, PUT", post.getResponseHeaders().getFirst("Allow"));
+        }
+    }
+
+    @Test
+    void uploadServer_acceptsResumableSegmentsAndReportsProgress() throws Exception {
+        RemoteSyncApplicationService app = mock(RemoteSyncApplicationService.class);
+        when(app.getUploadedBytes("seg")).thenReturn(7L);
+        when(app.acceptUploadSegment(eq("seg"), eq(0L), any())).thenReturn(7L);
+        when(app.acceptUploadSegment(eq("seg"), eq(7L), any())).thenReturn(14L);
+        when(app.completeUpload("seg")).thenReturn(new RemoteSyncExecutionResult(null, "imported"));
+
+        try (MockedStatic<RemoteSyncApplicationService> appStatic = mockStatic(RemoteSyncApplicationService.class)) {
+            appStatic.when(RemoteSyncApplicationService::getInstance).thenReturn(app);
+
+            TestHttpExchange first = new TestHttpExchange("/remote-sync/upload?sessionId=seg&offset=0&complete=false", "PUT", "segment");
+            new HttpRemoteSyncUploadServer().handle(first);
+            assertEquals(200, first.getResponseCode());
+            assertEquals(7L, new JSONObject(first.getResponseBodyText()).getLong("receivedBytes"));
+
+            TestHttpExchange progress = new TestHttpExchange("/remote-sync/upload?sessionId=seg", "GET");
+            new HttpRemoteSyncUploadServer().handle(progress);
+            assertEquals(7L, new JSONObject(progress.getResponseBodyText()).getLong("receivedBytes"));
+
+            TestHttpExchange last = new TestHttpExchange("/remote-sync/upload?sessionId=seg&offset=7&complete=true", "PUT", "segment");
+            new HttpRemoteSyncUploadServer().handle(last);
+            assertEquals(200, last.getResponseCode());
+            assertEquals("imported", new JSONObject(last.getResponseBodyText()).getString("message"));
+
+            TestHttpExchange badOffset = new TestHttpExchange("/remote-sync/upload?sessionId=seg&offset=x", "PUT", "segment");
+            new HttpRemoteSyncUploadServer().handle(badOffset);
+            assertEquals(400, badOffset.getResponseCode());
         }
     }
 
@@ -155,6 +186,12 @@ class HttpRemoteSyncServersTest {
             assertArrayEquals(new byte[]{1, 2, 3}, downloadOk.getResponseBodyBytes());
             assertEquals("application/octet-stream", downloadOk.getResponseHeaders().getFirst("Content-Type"));
 
+            TestHttpExchange downloadResumed = new TestHttpExchange("/remote-sync/download?sessionId=ready&offset=1", "GET");
+            new HttpRemoteSyncDownloadServer().handle(downloadResumed);
+            assertEquals(206, downloadResumed.getResponseCode());
+            assertArrayEquals(new byte[]{2, 3}, downloadResumed.getResponseBodyBytes());
+            assertEquals("3", downloadResumed.getResponseHeaders().getFirst("X-Remote-Sync-Total-Bytes"));
+
             TestHttpExchange downloadBad = new TestHttpExchange("/remote-sync/download?sessionId=bad", "GET");
             new HttpRemoteSyncDownloadServer().handle(downloadBad);
             assertEquals(400, downloadBad.getResponseCode());
@@ -0,0 +1,405 @@
+package com.uiptv.testsupport;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for an IPTV provider, for load and end-to-end tests that must not touch real portals.
+ * <p>
+ * Serves a Stalker {@code /portal.php} (handshake, get_profile, get_genres, get_categories, get_all_channels, paged
+ * get_ordered_list starting at {@code p=0}, create_link), an Xtreme {@code /xtreme/player_api.php}, an M3U playlist at {@code /m3u/playlist.m3u}
+ * and live HLS at {@code /hls/<stream>/live.m3u8} whose segment window slides with the clock. Every request can be
+ * delayed by a fixed latency and failed with HTTP 503 at a given rate; the catalog is generated from a seed, so two
+ * providers with the same settings serve the same data.
+ */
+public final class FakeIptvProvider implements AutoCloseable {
+    private static final int TS_PACKET_BYTES = 188;
+
+    private int genres = 4;
+    private int channelsPerGenre = 50;
+    private int pageSize = 14;
+    private long latencyMs;
+    private double errorRate;
+    private int segmentSeconds = 2;
+    private int segmentPackets = 64;
+    private int liveWindow = 5;
+    private long seed = 1L;
+
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private Random random;
+    private HttpServer server;
+    private ExecutorService executor;
+    private String baseUrl;
+
+    public FakeIptvProvider genres(int genres) {
+        this.genres = Math.max(1, genres);
+        return this;
+    }
+
+    public FakeIptvProvider channelsPerGenre(int channelsPerGenre) {
+        this.channelsPerGenre = Math.max(1, channelsPerGenre);
+        return this;
+    }
+
+    /**
+     * Items per Stalker get_ordered_list page; the page count follows from {@link #channelsPerGenre(int)}.
+     */
+    public FakeIptvProvider pageSize(int pageSize) {
+        this.pageSize = Math.max(1, pageSize);
+        return this;
+    }
+
+    public FakeIptvProvider latencyMs(long latencyMs) {
+        this.latencyMs = Math.max(0, latencyMs);
+        return this;
+    }
+
+    /**
+     * Share of requests, 0 to 1, answered with HTTP 503 instead of a payload.
+     */
+    public FakeIptvProvider errorRate(double errorRate) {
+        this.errorRate = Math.clamp(errorRate, 0d, 1d);
+        return this;
+    }
+
+    public FakeIptvProvider segments(int segmentSeconds, int segmentPackets, int liveWindow) {
+        this.segmentSeconds = Math.max(1, segmentSeconds);
+        this.segmentPackets = Math.max(1, segmentPackets);
+        this.liveWindow = Math.max(1, liveWindow);
+        return this;
+    }
+
+    public FakeIptvProvider seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public FakeIptvProvider start() throws IOException {
+        random = new Random(seed);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/portal.php", exchange -> serve(exchange, this::stalker));
+        server.createContext("/xtreme/player_api.php", exchange -> serve(exchange, this::xtreme));
+        server.createContext("/m3u/playlist.m3u", exchange -> serve(exchange, this::m3uPlaylist));
+        server.createContext("/hls/", exchange -> serve(exchange, this::hls));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        return this;
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public String stalkerPortalUrl() {
+        return baseUrl + "/portal.php";
+    }
+
+    public String xtremeUrl() {
+        return baseUrl + "/xtreme/";
+    }
+
+    public String m3uUrl() {
+        return baseUrl + "/m3u/playlist.m3u";
+    }
+
+    public String hlsUrl(int stream) {
+        return baseUrl + "/hls/" + stream + "/live.m3u8";
+    }
+
+    public int totalChannels() {
+        return genres * channelsPerGenre;
+    }
+
+    /**
+     * Requests served so far for a Stalker/Xtreme action, or for {@code m3u}, {@code hls-playlist}, {@code hls-segment}
+     * and {@code error}.
+     */
+    public long requestCount(String key) {
+        LongAdder counter = requests.get(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Route {
+        Response handle(Map<String, String> query, String path);
+    }
+
+    private record Response(int status, String contentType, byte[] body) {
+        static Response json(Object json) {
+            return new Response(200, "application/json; charset=utf-8", json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void serve(HttpExchange exchange, Route route) throws IOException {
+        try (exchange) {
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs);
+            }
+            Response response;
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                count("error");
+                response = new Response(503, "text/plain", "fake provider error".getBytes(StandardCharsets.UTF_8));
+            } else {
+                response = route.handle(readQuery(exchange), exchange.getRequestURI().getPath());
+            }
+            exchange.getResponseHeaders().set("Content-Type", response.contentType());
+            exchange.sendResponseHeaders(response.status(), response.body().length == 0 ? -1 : response.body().length);
+            if (response.body().length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response.body());
+                }
+            }
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Response stalker(Map<String, String> query, String path) {
+        String action = query.getOrDefault("action", "");
+        String type = query.getOrDefault("type", "itv");
+        count(action);
+        return switch (action) {
+            case "handshake" -> Response.json(new JSONObject().put("js", new JSONObject().put("token", "fake-token")));
+            case "get_profile", "get_main_info" -> Response.json(new JSONObject().put("js", new JSONObject().put("status", "ok")));
+            case "get_genres", "get_categories" -> Response.json(new JSONObject().put("js", stalkerGenres(type)));
+            case "get_all_channels" -> {
+                JSONArray data = new JSONArray();
+                for (int genre = 1; genre <= genres; genre++) {
+                    for (int i = 0; i < channelsPerGenre; i++) {
+                        data.put(stalkerItem(type, genre, i));
+                    }
+                }
+                yield Response.json(new JSONObject().put("js", new JSONObject().put("data", data)));
+            }
+            case "get_ordered_list" -> stalkerPage(type, query);
+            case "create_link" -> {
+                String cmd = query.getOrDefault("cmd", "");
+                int stream = streamIdFrom(cmd);
+                yield Response.json(new JSONObject().put("js", new JSONObject().put("cmd", "ffmpeg " + hlsUrl(stream))));
+            }
+            default -> Response.json(new JSONObject().put("js", new JSONObject().put("data", new JSONArray())));
+        };
+    }
+
+    private JSONArray stalkerGenres(String type) {
+        JSONArray list = new JSONArray();
+        for (int genre = 1; genre <= genres; genre++) {
+            list.put(new JSONObject()
+                    .put("id", categoryId(type, genre))
+                    .put("title", label(type) + " " + genre)
+                    .put("alias", type + "-" + genre)
+                    .put("active_sub", true)
+                    .put("censored", 0));
+        }
+        return list;
+    }
+
+    private Response stalkerPage(String type, Map<String, String> query) {
+        int genre = genreFrom(query.getOrDefault("genre", "1"));
+        int page = Math.max(0, parseInt(query.getOrDefault("p", "0"), 0));
+        int from = page * pageSize;
+        int to = Math.min(channelsPerGenre, from + pageSize);
+        JSONArray data = new JSONArray();
+        for (int i = from; i < to && genre > 0; i++) {
+            data.put(stalkerItem(type, genre, i));
+        }
+        return Response.json(new JSONObject().put("js", new JSONObject()
+                .put("total_items", genre > 0 ? channelsPerGenre : 0)
+                .put("max_page_items", pageSize)
+                .put("data", data)));
+    }
+
+    private JSONObject stalkerItem(String type, int genre, int index) {
+        int stream = streamId(genre, index);
+        JSONObject item = new JSONObject()
+                .put("id", String.valueOf(stream))
+                .put("name", label(type) + " " + genre + "-" + index)
+                .put("o_name", label(type) + " " + genre + "-" + index)
+                .put("number", String.valueOf(stream))
+                .put("cmd", "ffmpeg " + hlsUrl(stream))
+                .put("cmd_1", "")
+                .put("cmd_2", "")
+                .put("cmd_3", "")
+                .put("logo", baseUrl + "/logo/" + stream + ".png")
+                .put("screenshot_uri", baseUrl + "/logo/" + stream + ".png")
+                .put("censored", 0)
+                .put("status", 1)
+                .put("hd", index % 2)
+                .put("tv_genre_id", categoryId(type, genre))
+                .put("category_id", categoryId(type, genre));
+        if ("series".equals(type)) {
+            item.put("series", new JSONArray(Arrays.asList(1, 2, 3)));
+        }
+        return item;
+    }
+
+    private Response xtreme(Map<String, String> query, String path) {
+        String action = query.getOrDefault("action", "");
+        count(action.isEmpty() ? "player_api" : action);
+        String type = switch (action) {
+            case "get_vod_categories", "get_vod_streams" -> "vod";
+            case "get_series_categories", "get_series" -> "series";
+            default -> "itv";
+        };
+        return switch (action) {
+            case "get_live_categories", "get_vod_categories", "get_series_categories" -> {
+                JSONArray list = new JSONArray();
+                for (int genre = 1; genre <= genres; genre++) {
+                    list.put(new JSONObject().put("category_id", categoryId(type, genre)).put("category_name", label(type) + " " + genre));
+                }
+                yield Response.json(list);
+            }
+            case "get_live_streams", "get_vod_streams", "get_series" -> {
+                String categoryId = query.getOrDefault("category_id", "");
+                JSONArray list = new JSONArray();
+                for (int genre = 1; genre <= genres; genre++) {
+                    if (!categoryId.isEmpty() && !categoryId.equals(categoryId(type, genre))) {
+                        continue;
+                    }
+                    for (int i = 0; i < channelsPerGenre; i++) {
+                        int stream = streamId(genre, i);
+                        list.put(new JSONObject()
+                                .put("num", stream)
+                                .put("name", label(type) + " " + genre + "-" + i)
+                                .put("stream_id", String.valueOf(stream))
+                                .put("series_id", String.valueOf(stream))
+                                .put("stream_icon", baseUrl + "/logo/" + stream + ".png")
+                                .put("cover", baseUrl + "/logo/" + stream + ".png")
+                                .put("category_id", categoryId(type, genre))
+                                .put("container_extension", "itv".equals(type) ? "ts" : "mp4"));
+                    }
+                }
+                yield Response.json(list);
+            }
+            default -> Response.json(new JSONObject()
+                    .put("user_info", new JSONObject().put("auth", 1).put("status", "Active").put("username", query.getOrDefault("username", "")))
+                    .put("server_info", new JSONObject().put("url", "127.0.0.1").put("server_protocol", "http")));
+        };
+    }
+
+    private Response m3uPlaylist(Map<String, String> query, String path) {
+        count("m3u");
+        StringBuilder playlist = new StringBuilder("#EXTM3U\n");
+        for (int genre = 1; genre <= genres; genre++) {
+            for (int i = 0; i < channelsPerGenre; i++) {
+                int stream = streamId(genre, i);
+                playlist.append("#EXTINF:-1 tvg-id=\"fake-").append(stream).append("\" tvg-logo=\"").append(baseUrl).append("/logo/")
+                        .append(stream).append(".png\" group-title=\"Group ").append(genre).append("\",Live ").append(genre).append('-').append(i).append('\n')
+                        .append(hlsUrl(stream)).append('\n');
+            }
+        }
+        return new Response(200, "application/vnd.apple.mpegurl; charset=utf-8", playlist.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Response hls(Map<String, String> query, String path) {
+        String[] parts = path.split("/");
+        String file = parts.length == 0 ? "" : parts[parts.length - 1];
+        if ("live.m3u8".equals(file)) {
+            count("hls-playlist");
+            long newest = System.currentTimeMillis() / (segmentSeconds * 1000L);
+            long first = Math.max(0, newest - liveWindow + 1);
+            StringBuilder playlist = new StringBuilder("#EXTM3U\n#EXT-X-VERSION:3\n#EXT-X-TARGETDURATION:")
+                    .append(segmentSeconds).append("\n#EXT-X-MEDIA-SEQUENCE:").append(first).append('\n');
+            for (long sequence = first; sequence <= newest; sequence++) {
+                playlist.append("#EXTINF:").append(segmentSeconds).append(".000,\n").append(sequence).append(".ts\n");
+            }
+            return new Response(200, "application/vnd.apple.mpegurl", playlist.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        if (file.endsWith(".ts")) {
+            count("hls-segment");
+            byte[] segment = new byte[segmentPackets * TS_PACKET_BYTES];
+            for (int packet = 0; packet < segmentPackets; packet++) {
+                segment[packet * TS_PACKET_BYTES] = 0x47;
+            }
+            return new Response(200, "video/mp2t", segment);
+        }
+        return new Response(404, "text/plain", new byte[0]);
+    }
+
+    private void count(String key) {
+        requests.computeIfAbsent(key, _ -> new LongAdder()).increment();
+    }
+
+    private static String label(String type) {
+        return switch (type) {
+            case "vod" -> "Movie";
+            case "series" -> "Series";
+            default -> "Live";
+        };
+    }
+
+    private static String categoryId(String type, int genre) {
+        return switch (type) {
+            case "vod" -> String.valueOf(100 + genre);
+            case "series" -> String.valueOf(200 + genre);
+            default -> String.valueOf(genre);
+        };
+    }
+
+    private static int genreFrom(String categoryId) {
+        int id = parseInt(categoryId, 0);
+        return id > 200 ? id - 200 : id > 100 ? id - 100 : id;
+    }
+
+    private static int streamId(int genre, int index) {
+        return genre * 100_000 + index;
+    }
+
+    private static int streamIdFrom(String cmd) {
+        int end = cmd.indexOf("/live.m3u8");
+        int start = end < 0 ? -1 : cmd.lastIndexOf('/', end - 1);
+        return start < 0 ? 0 : parseInt(cmd.substring(start + 1, end), 0);
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException _) {
+            return fallback;
+        }
+    }
+
+    private static Map<String, String> readQuery(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isBlank()) {
+            query = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Map<String, String> result = new HashMap<>();
+        for (String pair : query.split("&")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] kv = pair.split("=", 2);
+            result.put(URLDecoder.decode(kv[0], StandardCharsets.UTF_8),
+                    kv.length > 1 ? URLDecoder.decode(kv[1], StandardCharsets.UTF_8) : "");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+package com.uiptv.testsupport;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Fires a fixed number of GET requests at a fixed concurrency and reports latency percentiles and throughput.
+ * <p>
+ * Defaults come from {@code uiptv.load.requests} (200) and {@code uiptv.load.concurrency} (8), so a heavier run is a
+ * matter of {@code -Duiptv.load.requests=20000 -Duiptv.load.concurrency=64}. Any non-2xx status or I/O failure counts as
+ * an error; response bodies are drained and discarded.
+ */
+public final class LoadDriver {
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    private int requests = Integer.getInteger("uiptv.load.requests", 200);
+    private int concurrency = Integer.getInteger("uiptv.load.concurrency", 8);
+    private Duration timeout = Duration.ofSeconds(30);
+
+    public LoadDriver requests(int requests) {
+        this.requests = Math.max(1, requests);
+        return this;
+    }
+
+    public LoadDriver concurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+        return this;
+    }
+
+    public LoadDriver timeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    public LoadReport run(String name, String url) throws InterruptedException {
+        return run(name, _ -> url);
+    }
+
+    /**
+     * Runs the load; {@code urls} maps the request index to the URL to fetch, so callers can spread requests over a
+     * set of channels or categories.
+     */
+    public LoadReport run(String name, IntFunction<String> urls) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long started = System.nanoTime();
+        try (ExecutorService workers = Executors.newFixedThreadPool(concurrency, Thread.ofVirtual().name("uiptv-load-", 0).factory())) {
+            List<Future<?>> running = new ArrayList<>(concurrency);
+            for (int worker = 0; worker < concurrency; worker++) {
+                running.add(workers.submit(() -> {
+                    for (int index = next.getAndIncrement(); index < requests; index = next.getAndIncrement()) {
+                        long start = System.nanoTime();
+                        if (!fetch(urls.apply(index))) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[index] = System.nanoTime() - start;
+                    }
+                }));
+            }
+            for (Future<?> future : running) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load worker failed", e.getCause());
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        Arrays.sort(latencies);
+        return new LoadReport(name, requests, errors.get(), concurrency,
+                percentileMs(latencies, 0.50), percentileMs(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000d,
+                requests / Math.max(1e-9, elapsed / 1_000_000_000d));
+    }
+
+    private boolean fetch(String url) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() >= 200 && response.statusCode() < 300;
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception _) {
+            return false;
+        }
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)] / 1_000_000d;
+    }
+
+    public record LoadReport(String name, int requests, int errors, int concurrency,
+                             double p50Ms, double p99Ms, double maxMs, double throughputPerSecond) {
+        @Override
+        public String toString() {
+            return String.format("%s: %d requests @%d, %d errors, p50 %.2f ms, p99 %.2f ms, max %.2f ms, %.1f req/s",
+                    name, requests, concurrency, errors, p50Ms, p99Ms, maxMs, throughputPerSecond);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.uiptv.benchmark;
+
+import com.uiptv.model.Account;
+import com.uiptv.model.Channel;
+import com.uiptv.util.AccountType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic, seeded inputs shaped like real provider payloads, so every run measures the same data.
+ */
+public final class BenchmarkFixtures {
+    public static final long SEED = 20_260_101L;
+    public static final String PROVIDER_URL = "http://provider.example.com:8080/";
+    private static final int GROUPS = 250;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static String extinfLine(int index, Random random) {
+        int group = random.nextInt(GROUPS);
+        return "#EXTINF:-1 tvg-id=\"ch" + index + ".example\" tvg-name=\"Channel " + index + "\" tvg-logo=\"http://logos.example.com/"
+                + index + ".png\" group-title=\"Group " + group + "\" catchup=\"default\" catchup-days=\"" + (index % 8)
+                + "\",Channel " + index;
+    }
+
+    public static Path writeM3uPlaylist(int entries) throws IOException {
+        Path file = Files.createTempFile("uiptv-bench-", ".m3u");
+        file.toFile().deleteOnExit();
+        Random random = new Random(SEED);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("#EXTM3U\n");
+            for (int i = 0; i < entries; i++) {
+                writer.write(extinfLine(i, random));
+                writer.write('\n');
+                writer.write(PROVIDER_URL + "live/user/pass/" + i + ".ts\n");
+            }
+        }
+        return file;
+    }
+
+    public static String xtremeLiveStreamsJson(int entries) {
+        Random random = new Random(SEED);
+        StringBuilder json = new StringBuilder(entries * 320).append('[');
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"num\":").append(i + 1)
+                    .append(",\"name\":\"Channel ").append(i).append(" HD\"")
+                    .append(",\"stream_type\":\"live\",\"stream_id\":").append(100_000 + i)
+                    .append(",\"stream_icon\":\"http://logos.example.com/").append(i).append(".png\"")
+                    .append(",\"epg_channel_id\":\"ch").append(i).append(".example\"")
+                    .append(",\"added\":\"").append(1_700_000_000L + i).append('"')
+                    .append(",\"category_id\":\"").append(random.nextInt(GROUPS)).append('"')
+                    .append(",\"custom_sid\":\"\",\"tv_archive\":").append(i % 2)
+                    .append(",\"direct_source\":\"\",\"tv_archive_duration\":").append(i % 8)
+                    .append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    public static List<Channel> channels(int count) {
+        Random random = new Random(SEED);
+        List<Channel> channels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Channel channel = new Channel(String.valueOf(100_000 + i), "Channel " + i + " HD", String.valueOf(i + 1),
+                    PROVIDER_URL + "live/user/pass/" + (100_000 + i) + ".ts", null, null, null,
+                    "http://logos.example.com/" + i + ".png", 0, 1, random.nextInt(2), null, null, null, null, null);
+            channel.setCategoryId(String.valueOf(random.nextInt(GROUPS)));
+            channels.add(channel);
+        }
+        return channels;
+    }
+
+    public static String hlsMediaPlaylist(int segments) {
+        StringBuilder playlist = new StringBuilder(segments * 96)
+                .append("#EXTM3U\n#EXT-X-VERSION:3\n#EXT-X-TARGETDURATION:6\n#EXT-X-MEDIA-SEQUENCE:1000\n")
+                .append("#EXT-X-KEY:METHOD=AES-128,URI=\"https://keys.example.com/key?id=1\"\n");
+        for (int i = 0; i < segments; i++) {
+            playlist.append("#EXTINF:6.000,\n");
+            playlist.append(i % 2 == 0 ? "segment_" + i + ".ts" : "https://cdn.example.com/live/segment_" + i + ".ts").append('\n');
+        }
+        return playlist.toString();
+    }
+
+    public static Account xtremeAccount(String name, Account.AccountAction action) {
+        Account account = new Account();
+        account.setAccountName(name);
+        account.setType(AccountType.XTREME_API);
+        account.setAction(action);
+        account.setUrl(PROVIDER_URL);
+        account.setServerPortalUrl(PROVIDER_URL);
+        account.setM3u8Path(PROVIDER_URL);
+        account.setUsername("user");
+        account.setPassword("pass");
+        return account;
+    }
+
+    /**
+     * A fresh SQLite file in the temp directory, removed on exit together with its WAL files.
+     */
+    public static Path tempDatabase() throws IOException {
+        Path dir = Files.createTempDirectory("uiptv-bench-db-");
+        dir.toFile().deleteOnExit();
+        Path db = dir.resolve("uiptv-bench.db");
+        for (String suffix : List.of("", "-wal", "-shm")) {
+            dir.resolve(db.getFileName() + suffix).toFile().deleteOnExit();
+        }
+        return db;
+    }
+}
@@ -0,0 +1,64 @@
+package com.uiptv.db;
+
+import com.uiptv.benchmark.BenchmarkFixtures;
+import com.uiptv.model.Account;
+import com.uiptv.model.Category;
+import com.uiptv.model.Channel;
+import com.uiptv.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live channel cache writes and reads against a seeded SQLite file: one account, one category holding
+ * {@code channels} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChannelDbBenchmark {
+    @Param({"10000", "100000"})
+    public int channels;
+
+    private List<Channel> rows;
+    private Account account;
+    private String categoryDbId;
+
+    @Setup(Level.Trial)
+    public void seedDatabase() throws IOException {
+        SQLConnection.setDatabasePath(BenchmarkFixtures.tempDatabase().toString());
+        AccountService.getInstance().save(BenchmarkFixtures.xtremeAccount("bench-db", Account.AccountAction.itv));
+        account = AccountService.getInstance().getByName("bench-db");
+        account.setAction(Account.AccountAction.itv);
+        CategoryDb.get().saveAll(List.of(new Category("bench-cat", "Bench", "bench", false, 0)), account);
+        categoryDbId = CategoryDb.get().getCategories(account).getFirst().getDbId();
+        rows = BenchmarkFixtures.channels(channels);
+        ChannelDb.get().saveAll(rows, categoryDbId, account);
+    }
+
+    @Benchmark
+    public void saveCategory() {
+        ChannelDb.get().saveAll(rows, categoryDbId, account);
+    }
+
+    @Benchmark
+    public List<Channel> readCategory() {
+        return ChannelDb.get().getChannels(categoryDbId);
+    }
+}
@@ -0,0 +1,44 @@
+package com.uiptv.server;
+
+import com.uiptv.benchmark.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HlsPlaylistRewriteBenchmark {
+    private static final String PLAYLIST_URL = "https://cdn.example.com/live/channel/index.m3u8";
+
+    @Param({"10", "1000"})
+    public int segments;
+
+    private final HttpProxyStreamServer server = new HttpProxyStreamServer();
+    private byte[] playlist;
+
+    @Setup(Level.Trial)
+    public void createPlaylist() {
+        playlist = BenchmarkFixtures.hlsMediaPlaylist(segments).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] rewritePlaylist() {
+        return server.rewriteHlsPlaylist(playlist, PLAYLIST_URL);
+    }
+}
@@ -0,0 +1,63 @@
+package com.uiptv.util;
+
+import com.uiptv.benchmark.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cost of logging one get_all_channels response, with and without a listening log sink. Compare the
+ * {@code gc.alloc.rate.norm} column of the two {@code listening} values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpLogBenchmark {
+    @Param({"false", "true"})
+    public boolean listening;
+
+    private final Map<String, String> params = Map.of("type", "itv", "action", "get_all_channels", "JsHttpRequest", "1-xml");
+    private HttpUtil.HttpResult response;
+    private Consumer<String> sink;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        response = new HttpUtil.HttpResult("GET", BenchmarkFixtures.PROVIDER_URL + "portal.php", 200,
+                BenchmarkFixtures.xtremeLiveStreamsJson(20_000),
+                Map.of("User-Agent", List.of("Mozilla/5.0"), "Cookie", List.of("mac=00:1A:79:00:00:01")),
+                Map.of("Content-Type", List.of("application/json")));
+        sink = blackhole::consume;
+        if (listening) {
+            AppLog.registerListener(sink);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AppLog.unregisterListener(sink);
+    }
+
+    @Benchmark
+    public void httpLog() {
+        LogUtil.httpLog(BenchmarkFixtures.PROVIDER_URL + "portal.php", response, params);
+    }
+}
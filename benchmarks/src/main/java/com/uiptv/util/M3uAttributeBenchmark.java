@@ -0,0 +1,33 @@
+package com.uiptv.util;
+
+import com.uiptv.benchmark.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class M3uAttributeBenchmark {
+    private final String line = BenchmarkFixtures.extinfLine(12_345, new Random(BenchmarkFixtures.SEED));
+
+    @Benchmark
+    public void parseExtinfAttributes(Blackhole blackhole) {
+        blackhole.consume(M3uPlaylistUtils.parseAttribute(line, "tvg-id"));
+        blackhole.consume(M3uPlaylistUtils.parseAttribute(line, "tvg-logo"));
+        blackhole.consume(M3uPlaylistUtils.parseAttribute(line, "group-title"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.uiptv.util;
+
+import com.uiptv.benchmark.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class M3uParserBenchmark {
+    @Param({"10000", "100000", "500000"})
+    public int entries;
+
+    private Path playlist;
+
+    @Setup(Level.Trial)
+    public void writePlaylist() throws IOException {
+        playlist = BenchmarkFixtures.writeM3uPlaylist(entries);
+    }
+
+    @Benchmark
+    public void parsePlaylist(Blackhole blackhole) {
+        M3U8Parser.forEachChannelPathM3U8(playlist.toString(), blackhole::consume);
+    }
+}
@@ -0,0 +1,42 @@
+package com.uiptv.util;
+
+import com.uiptv.benchmark.BenchmarkFixtures;
+import com.uiptv.model.Channel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServerUtilsBenchmark {
+    @Param({"1000", "10000"})
+    public int channels;
+
+    private List<Channel> rows;
+
+    @Setup(Level.Trial)
+    public void createChannels() {
+        rows = BenchmarkFixtures.channels(channels);
+    }
+
+    @Benchmark
+    public String channelsToJson() {
+        return ServerUtils.objectToJson(rows);
+    }
+}
@@ -0,0 +1,45 @@
+package com.uiptv.util;
+
+import com.uiptv.benchmark.BenchmarkFixtures;
+import com.uiptv.model.Account;
+import com.uiptv.model.Channel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XtremeApiParserBenchmark {
+    @Param({"10000", "100000"})
+    public int entries;
+
+    private String json;
+    private Account account;
+
+    @Setup(Level.Trial)
+    public void createPayload() {
+        json = BenchmarkFixtures.xtremeLiveStreamsJson(entries);
+        account = BenchmarkFixtures.xtremeAccount("bench-xtreme", Account.AccountAction.itv);
+    }
+
+    @Benchmark
+    public List<Channel> parseLiveStreams() {
+        return XtremeApiParser.doParseChannels(json, account);
+    }
+}
@@ -13,9 +13,13 @@ import com.uiptv.model.CategoryType;
 import com.uiptv.model.Channel;
 import com.uiptv.model.SeriesWatchState;
 import com.uiptv.service.AccountService;
+import com.uiptv.service.CatalogCacheResult;
+import com.uiptv.service.CatalogRefreshService;
 import com.uiptv.service.CategoryResolver;
 import com.uiptv.service.CategoryService;
 import com.uiptv.service.ChannelService;
+import com.uiptv.service.CompactChannelStore;
+import com.uiptv.service.CompactChannelTable;
 import com.uiptv.service.ConfigurationService;
 import com.uiptv.service.HandshakeService;
 import com.uiptv.service.ImdbMetadataService;
@@ -73,28 +77,55 @@ public class CatalogApplicationService {
         return new CategoryResolver().resolveCategories(account, categories);
     }
 
+    /**
+     * Same rows as {@link #listCategories}, but an expired VOD/Series cache is served immediately and
+     * revalidated in the background instead of blocking on the provider.
+     */
+    public CatalogReadResult<Category> readCategories(String accountId, CatalogMode mode) {
+        long revision = CatalogRefreshService.getInstance().getRevision();
+        Account account = resolveAccount(accountId, mode);
+        if (account == null) {
+            return new CatalogReadResult<>(List.of(), false, revision);
+        }
+        CatalogCacheResult<Category> categories = CategoryService.getInstance().getStaleWhileRevalidate(account);
+        return new CatalogReadResult<>(new CategoryResolver().resolveCategories(account, categories.items()), categories.stale(), revision);
+    }
+
     public List<Channel> listChannels(CatalogChannelsQuery query) throws IOException {
+        return readChannels(query, false).items();
+    }
+
+    /**
+     * Same rows as {@link #listChannels}, but expired VOD/Series category caches are served immediately and
+     * revalidated in the background.
+     */
+    public CatalogReadResult<Channel> readChannels(CatalogChannelsQuery query) throws IOException {
+        return readChannels(query, true);
+    }
+
+    private CatalogReadResult<Channel> readChannels(CatalogChannelsQuery query, boolean serveStale) throws IOException {
+        long revision = CatalogRefreshService.getInstance().getRevision();
         Account account = query == null ? null : resolveAccount(query.accountId(), query.mode());
         if (account == null) {
-            return List.of();
+            return new CatalogReadResult<>(List.of(), false, revision);
         }
         String categoryId = safe(query.categoryId());
         String movieId = safe(query.movieId());
 
-        List<Channel> channels;
+        CatalogCacheResult<Channel> channels;
         if (shouldServeSeriesEpisodes(account, categoryId, movieId)) {
-            channels = getStalkerSeriesEpisodes(account, categoryId, movieId);
+            channels = CatalogCacheResult.fresh(getStalkerSeriesEpisodes(account, categoryId, movieId));
         } else if (ALL_CATEGORY.equalsIgnoreCase(categoryId)) {
-            channels = readAllCategoryChannels(account);
+            channels = readAllCategoryChannels(account, serveStale);
         } else {
-            channels = readSingleCategoryChannels(account, categoryId);
+            channels = readSingleCategoryChannels(account, categoryId, serveStale);
         }
 
         if (account.getAction() == Account.AccountAction.series && isBlank(movieId)) {
             String categoryApiId = ALL_CATEGORY.equalsIgnoreCase(categoryId) ? "" : resolveCategoryApiId(account, categoryId);
-            applySeriesRowsWatched(account, categoryApiId, channels);
+            applySeriesRowsWatched(account, categoryApiId, channels.items());
         }
-        return dedupeChannels(channels);
+        return new CatalogReadResult<>(dedupeChannels(channels.items()), channels.stale(), revision);
     }
 
     public List<Channel> listSeriesEpisodes(CatalogSeriesEpisodesQuery query) {
@@ -150,8 +181,11 @@ public class CatalogApplicationService {
             return buildStalkerPagedResponse(account, categoryId, movieId, query.page(), query.pageSize(), query.prefetchPages(), query.apiOffset());
         }
 
-        List<Channel> all = listChannels(new CatalogChannelsQuery(account.getDbId(), query.mode(), categoryId, movieId));
-        return sliceChannels(all, query.page(), query.pageSize(), query.prefetchPages());
+        // Later pages of the same listing are cut from the compact table instead of re-reading the category.
+        CompactChannelTable table = CompactChannelStore.getInstance().table(account.getDbId(), String.valueOf(account.getAction()),
+                categoryId + "|" + movieId,
+                () -> listChannels(new CatalogChannelsQuery(account.getDbId(), query.mode(), categoryId, movieId)));
+        return sliceChannels(table, query.page(), query.pageSize(), query.prefetchPages());
     }
 
     public CatalogVodDetailsResult getVodDetails(CatalogVodDetailsQuery query) {
@@ -285,25 +319,28 @@ public class CatalogApplicationService {
         return episodes;
     }
 
-    private List<Channel> readSingleCategoryChannels(Account account, String categoryId) throws IOException {
+    private CatalogCacheResult<Channel> readSingleCategoryChannels(Account account, String categoryId, boolean serveStale) throws IOException {
         Category category = resolveCategoryByDbId(account, categoryId);
         if (category == null) {
-            return List.of();
+            return CatalogCacheResult.fresh(List.of());
         }
-        return readChannelsForCategory(account, category);
+        return readChannelsForCategory(account, category, serveStale);
     }
 
-    private List<Channel> readAllCategoryChannels(Account account) throws IOException {
+    private CatalogCacheResult<Channel> readAllCategoryChannels(Account account, boolean serveStale) throws IOException {
         List<Channel> merged = new ArrayList<>();
+        boolean stale = false;
         for (Category category : resolveRequestedCategories(resolveCategoriesForAccount(account))) {
-            merged.addAll(readChannelsForCategory(account, category));
+            CatalogCacheResult<Channel> channels = readChannelsForCategory(account, category, serveStale);
+            merged.addAll(channels.items());
+            stale |= channels.stale();
         }
-        return merged;
+        return new CatalogCacheResult<>(merged, stale);
     }
 
-    private List<Channel> readChannelsForCategory(Account account, Category category) throws IOException {
+    private CatalogCacheResult<Channel> readChannelsForCategory(Account account, Category category, boolean serveStale) throws IOException {
         if (category == null || account == null) {
-            return List.of();
+            return CatalogCacheResult.fresh(List.of());
         }
         String categoryIdToUse;
         if (account.getType() == AccountType.STALKER_PORTAL || account.getType() == AccountType.XTREME_API) {
@@ -311,8 +348,12 @@ public class CatalogApplicationService {
         } else {
             categoryIdToUse = category.getTitle();
         }
+        if (serveStale) {
+            CatalogCacheResult<Channel> channels = ChannelService.getInstance().getStaleWhileRevalidate(categoryIdToUse, account, category.getDbId());
+            return channels == null || channels.items() == null ? CatalogCacheResult.fresh(List.of()) : channels;
+        }
         List<Channel> channels = ChannelService.getInstance().get(categoryIdToUse, account, category.getDbId());
-        return channels == null ? List.of() : channels;
+        return CatalogCacheResult.fresh(channels == null ? List.of() : channels);
     }
 
     private List<Category> resolveRequestedCategories(List<Category> categories) {
@@ -508,6 +549,15 @@ public class CatalogApplicationService {
         return new CatalogPagedChannelsResult(new ArrayList<>(all.subList(start, end)), page + Math.max(prefetchPages, 1), end < all.size(), 0);
     }
 
+    private CatalogPagedChannelsResult sliceChannels(CompactChannelTable table, int page, int pageSize, int prefetchPages) {
+        int start = page * pageSize;
+        if (start >= table.size()) {
+            return new CatalogPagedChannelsResult(List.of(), page + Math.max(prefetchPages, 1), false, 0);
+        }
+        int end = Math.min(table.size(), start + (pageSize * prefetchPages));
+        return new CatalogPagedChannelsResult(table.rows(start, end), page + Math.max(prefetchPages, 1), end < table.size(), 0);
+    }
+
     private StalkerPageResult fetchStalkerPage(Account account, String categoryApiId, String movieId, int pageNumber, int pageSize) {
         Map<String, String> params = ChannelService.getChannelOrSeriesParams(categoryApiId, pageNumber, account.getAction(), movieId, "0");
         params.put("per_page", String.valueOf(pageSize));
@@ -0,0 +1,10 @@
+package com.uiptv.application;
+
+import java.util.List;
+
+/**
+ * Catalog rows for the web API. {@code stale} is set when any part was served from an expired cache while a
+ * background refresh runs; {@code revision} is the refresh revision clients can long-poll from.
+ */
+public record CatalogReadResult<T>(List<T> items, boolean stale, long revision) {
+}
@@ -3,6 +3,7 @@ package com.uiptv.application;
 import com.uiptv.db.SQLConnection;
 import com.uiptv.model.Configuration;
 import com.uiptv.service.ConfigurationService;
+import com.uiptv.service.DatabaseMaintenanceService;
 import com.uiptv.service.SeriesWatchStateService;
 import com.uiptv.service.SeriesWatchingNowSnapshotService;
 import com.uiptv.service.VodWatchStateService;
@@ -37,6 +38,18 @@ public class ConfigurationApplicationService {
         SQLConnection.releaseMemory();
     }
 
+    public DatabaseMaintenanceService.MaintenanceReport runDatabaseMaintenance() {
+        return DatabaseMaintenanceService.getInstance().runMaintenance();
+    }
+
+    public DatabaseMaintenanceService.StorageStats getDatabaseStorageStats() {
+        return DatabaseMaintenanceService.getInstance().stats();
+    }
+
+    public long getLastDatabaseMaintenanceMs() {
+        return DatabaseMaintenanceService.getInstance().lastRunMs();
+    }
+
     public boolean isServerRunning() {
         return ServerUrlUtil.isServerRunning();
     }
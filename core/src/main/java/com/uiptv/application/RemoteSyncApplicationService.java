@@ -1,5 +1,6 @@
 package com.uiptv.application;
 
+import com.uiptv.service.DatabaseSyncService;
 import com.uiptv.service.remotesync.RemoteSyncExecutionResult;
 import com.uiptv.service.remotesync.RemoteSyncRequest;
 import com.uiptv.service.remotesync.RemoteSyncSessionService;
@@ -33,6 +34,26 @@ public class RemoteSyncApplicationService {
         return remoteSyncSessionService.acceptUpload(sessionId, requestBody);
     }
 
+    public long getUploadedBytes(String sessionId) {
+        return remoteSyncSessionService.getUploadedBytes(sessionId);
+    }
+
+    public long acceptUploadSegment(String sessionId, long offset, InputStream requestBody) throws IOException {
+        return remoteSyncSessionService.acceptUploadSegment(sessionId, offset, requestBody);
+    }
+
+    public RemoteSyncExecutionResult completeUpload(String sessionId) throws IOException, SQLException {
+        return remoteSyncSessionService.completeUpload(sessionId);
+    }
+
+    public DatabaseSyncService.DeltaSyncSummary getDeltaSummary(String sessionId) throws SQLException {
+        return remoteSyncSessionService.getDeltaSummary(sessionId);
+    }
+
+    public RemoteSyncSessionState acceptDeltaSummary(String sessionId, DatabaseSyncService.DeltaSyncSummary targetSummary) {
+        return remoteSyncSessionService.acceptDeltaSummary(sessionId, targetSummary);
+    }
+
     public Path getDownloadSnapshot(String sessionId) {
         return remoteSyncSessionService.getDownloadSnapshot(sessionId);
     }
@@ -7,6 +7,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
 
 import static com.uiptv.db.DatabaseUtils.DbTable.ACCOUNT_TABLE;
@@ -61,26 +62,7 @@ public class AccountDb extends BaseDb {
         boolean accountExist = dbAccount != null;
         String saveQuery = accountExist ? updateTableSql(ACCOUNT_TABLE) : insertTableSql(ACCOUNT_TABLE);
         try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(saveQuery)) {
-            statement.setString(1, account.getAccountName());
-            statement.setString(2, account.getUsername());
-            statement.setString(3, account.getPassword());
-            statement.setString(4, account.getXtremeCredentialsJson());
-            statement.setString(5, account.getUrl());
-            statement.setString(6, account.getMacAddress());
-            statement.setString(7, account.getMacAddressList());
-            statement.setString(8, account.getSerialNumber());
-            statement.setString(9, account.getDeviceId1());
-            statement.setString(10, account.getDeviceId2());
-            statement.setString(11, account.getSignature());
-            statement.setString(12, account.getEpg());
-            statement.setString(13, account.getM3u8Path());
-            statement.setString(14, account.getType().name());
-            statement.setString(15, account.getServerPortalUrl());
-            statement.setString(16, account.isPinToTop() ? "1" : "0");
-            statement.setString(17, account.isResolveChainAndDeepRedirects() ? "1" : "0");
-            statement.setString(18, account.getHttpMethod());
-            statement.setString(19, account.getTimezone());
-
+            bindAccount(statement, account);
             if (accountExist) {
                 statement.setInt(20, Integer.valueOf(dbAccount.getDbId()));
             }
@@ -90,6 +72,69 @@ public class AccountDb extends BaseDb {
         }
     }
 
+    /**
+     * Saves many accounts in one transaction: accounts with a database id are updated, the others inserted and given
+     * the id they were stored under. Either every account is written or none is.
+     */
+    public void saveAll(List<Account> accounts) {
+        if (accounts == null || accounts.isEmpty()) {
+            return;
+        }
+        try (Connection conn = connect();
+             PreparedStatement insert = conn.prepareStatement(insertTableSql(ACCOUNT_TABLE), Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement update = conn.prepareStatement(updateTableSql(ACCOUNT_TABLE))) {
+            boolean originalAutoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                for (Account account : accounts) {
+                    if (isNotBlank(account.getDbId())) {
+                        bindAccount(update, account);
+                        update.setInt(20, Integer.parseInt(account.getDbId()));
+                        update.executeUpdate();
+                    } else {
+                        bindAccount(insert, account);
+                        insert.executeUpdate();
+                        try (ResultSet keys = insert.getGeneratedKeys()) {
+                            if (keys.next()) {
+                                account.setDbId(keys.getString(1));
+                            }
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(originalAutoCommit);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to save accounts", e);
+        }
+    }
+
+    private static void bindAccount(PreparedStatement statement, Account account) throws SQLException {
+        statement.setString(1, account.getAccountName());
+        statement.setString(2, account.getUsername());
+        statement.setString(3, account.getPassword());
+        statement.setString(4, account.getXtremeCredentialsJson());
+        statement.setString(5, account.getUrl());
+        statement.setString(6, account.getMacAddress());
+        statement.setString(7, account.getMacAddressList());
+        statement.setString(8, account.getSerialNumber());
+        statement.setString(9, account.getDeviceId1());
+        statement.setString(10, account.getDeviceId2());
+        statement.setString(11, account.getSignature());
+        statement.setString(12, account.getEpg());
+        statement.setString(13, account.getM3u8Path());
+        statement.setString(14, account.getType().name());
+        statement.setString(15, account.getServerPortalUrl());
+        statement.setString(16, account.isPinToTop() ? "1" : "0");
+        statement.setString(17, account.isResolveChainAndDeepRedirects() ? "1" : "0");
+        statement.setString(18, account.getHttpMethod());
+        statement.setString(19, account.getTimezone());
+    }
+
     public void saveServerPortalUrl(Account account) {
         if (isBlank(account.getDbId())) {
             return;
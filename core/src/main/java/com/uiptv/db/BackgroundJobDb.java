@@ -0,0 +1,126 @@
+package com.uiptv.db;
+
+import com.uiptv.model.BackgroundJob;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+import static com.uiptv.db.DatabaseUtils.DbTable.BACKGROUND_JOB_TABLE;
+import static com.uiptv.db.DatabaseUtils.insertTableSql;
+import static com.uiptv.db.SQLConnection.connect;
+
+public class BackgroundJobDb extends BaseDb {
+    private static BackgroundJobDb instance;
+
+    public BackgroundJobDb() {
+        super(BACKGROUND_JOB_TABLE);
+    }
+
+    public static synchronized BackgroundJobDb get() {
+        if (instance == null) {
+            instance = new BackgroundJobDb();
+        }
+        return instance;
+    }
+
+    public BackgroundJob getByJobId(String jobId) {
+        List<BackgroundJob> rows = getAll(" WHERE jobId=?", new String[]{jobId});
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    public List<BackgroundJob> getByUniqueKeyAndStatus(String uniqueKey, String... statuses) {
+        String[] parameters = new String[statuses.length + 1];
+        parameters[0] = uniqueKey;
+        System.arraycopy(statuses, 0, parameters, 1, statuses.length);
+        return getAll(" WHERE uniqueKey=? AND status IN (" + placeholders(statuses.length) + ") ORDER BY createdAt", parameters);
+    }
+
+    public List<BackgroundJob> getByStatus(String... statuses) {
+        return getAll(" WHERE status IN (" + placeholders(statuses.length) + ") ORDER BY createdAt", statuses);
+    }
+
+    public void insert(BackgroundJob job) {
+        try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(insertTableSql(BACKGROUND_JOB_TABLE))) {
+            statement.setString(1, job.getJobId());
+            statement.setString(2, job.getJobName());
+            statement.setString(3, job.getUniqueKey());
+            statement.setString(4, job.getParametersJson());
+            statement.setInt(5, job.isRequiresNetwork() ? 1 : 0);
+            statement.setString(6, job.getStatus());
+            statement.setInt(7, job.getProgressPercent());
+            statement.setString(8, job.getMessage());
+            statement.setLong(9, job.getCreatedAt());
+            statement.setLong(10, job.getUpdatedAt());
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to save background job", e);
+        }
+    }
+
+    /**
+     * Moves a job to {@code status} unless it already reached one of {@code terminalStatuses}.
+     *
+     * @return {@code true} when the row was updated
+     */
+    public boolean updateState(String jobId, String status, int progressPercent, String message, String... terminalStatuses) {
+        String sql = "UPDATE " + BACKGROUND_JOB_TABLE.getTableName()
+                + " SET status=?, progressPercent=?, message=?, updatedAt=? WHERE jobId=?"
+                + (terminalStatuses.length == 0 ? "" : " AND status NOT IN (" + placeholders(terminalStatuses.length) + ")");
+        try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setString(1, status);
+            statement.setInt(2, progressPercent);
+            statement.setString(3, message);
+            statement.setLong(4, System.currentTimeMillis());
+            statement.setString(5, jobId);
+            for (int i = 0; i < terminalStatuses.length; i++) {
+                statement.setString(6 + i, terminalStatuses[i]);
+            }
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to update background job", e);
+        }
+    }
+
+    public int deleteFinishedBefore(long cutoffEpochMs, String... finishedStatuses) {
+        String sql = "DELETE FROM " + BACKGROUND_JOB_TABLE.getTableName()
+                + " WHERE updatedAt<? AND status IN (" + placeholders(finishedStatuses.length) + ")";
+        try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setLong(1, cutoffEpochMs);
+            for (int i = 0; i < finishedStatuses.length; i++) {
+                statement.setString(2 + i, finishedStatuses[i]);
+            }
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to prune background jobs", e);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(Math.max(1, count), "?"));
+    }
+
+    @Override
+    BackgroundJob populate(ResultSet resultSet) {
+        BackgroundJob job = new BackgroundJob();
+        job.setDbId(nullSafeString(resultSet, "id"));
+        job.setJobId(nullSafeString(resultSet, "jobId"));
+        job.setJobName(nullSafeString(resultSet, "jobName"));
+        job.setUniqueKey(nullSafeString(resultSet, "uniqueKey"));
+        job.setParametersJson(nullSafeString(resultSet, "parametersJson"));
+        job.setRequiresNetwork(safeBoolean(resultSet, "requiresNetwork"));
+        job.setStatus(nullSafeString(resultSet, "status"));
+        job.setProgressPercent(safeInteger(resultSet, "progressPercent"));
+        job.setMessage(nullSafeString(resultSet, "message"));
+        try {
+            job.setCreatedAt(resultSet.getLong("createdAt"));
+            job.setUpdatedAt(resultSet.getLong("updatedAt"));
+        } catch (SQLException _) {
+            job.setUpdatedAt(0L);
+        }
+        return job;
+    }
+}
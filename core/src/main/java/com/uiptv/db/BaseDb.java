@@ -1,6 +1,7 @@
 package com.uiptv.db;
 
 import com.uiptv.api.JsonCompliant;
+import com.uiptv.util.MetricsRegistry;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -17,10 +18,28 @@ import static com.uiptv.util.StringUtils.SPACE;
 import static com.uiptv.util.StringUtils.isBlank;
 
 public abstract class BaseDb {
+    private static final MetricsRegistry.Family<MetricsRegistry.Histogram> QUERY_LATENCY = MetricsRegistry.getInstance().histogram(
+            "uiptv_db_query_duration_seconds", "SQLite statement time, including row mapping, by table and operation.",
+            "table", "operation");
+
     private final DatabaseUtils.DbTable table;
+    private final MetricsRegistry.Histogram getAllLatency;
+    private final MetricsRegistry.Histogram getByIdLatency;
+    private final MetricsRegistry.Histogram deleteLatency;
 
     protected BaseDb(DatabaseUtils.DbTable table) {
         this.table = table;
+        this.getAllLatency = queryLatency("getAll");
+        this.getByIdLatency = queryLatency("getById");
+        this.deleteLatency = queryLatency("delete");
+    }
+
+    /**
+     * Latency histogram for one operation on this table, for statements issued outside the generic helpers. Resolve it
+     * once and keep it in a field.
+     */
+    protected final MetricsRegistry.Histogram queryLatency(String operation) {
+        return QUERY_LATENCY.labels(table.getTableName(), operation);
     }
 
     abstract <T extends JsonCompliant> T populate(ResultSet resultSet);
@@ -28,6 +47,7 @@ public abstract class BaseDb {
     public <T extends JsonCompliant> List<T> getAll(String extendedSql, String[] parameters) {
         ArrayList<T> t = new ArrayList<>();
         String sql = selectAllSql(table) + SPACE + extendedSql;
+        long started = System.nanoTime();
         try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
             AtomicInteger i = new AtomicInteger(1);
             Arrays.stream(parameters).forEach(s -> {
@@ -44,6 +64,8 @@ public abstract class BaseDb {
             resultSet.close();
         } catch (SQLException sqlException) {
             throw new IllegalStateException("Unable to execute query", sqlException);
+        } finally {
+            getAllLatency.observeSince(started);
         }
         return t;
     }
@@ -55,6 +77,7 @@ public abstract class BaseDb {
     public <T extends JsonCompliant> T getById(String id) {
         T t = null;
         String sql = selectByIdSql(table);
+        long started = System.nanoTime();
         try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
             statement.setString(1, id);
             ResultSet resultSet = statement.executeQuery();
@@ -64,17 +87,22 @@ public abstract class BaseDb {
             resultSet.close();
         } catch (SQLException sqlException) {
             throw new IllegalStateException("Unable to execute query", sqlException);
+        } finally {
+            getByIdLatency.observeSince(started);
         }
         return t;
     }
 
     public void delete(String id) {
         String sql = deleteByIdSql(table);
+        long started = System.nanoTime();
         try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
             statement.setString(1, id);
             statement.executeUpdate();
         } catch (SQLException sqlException) {
             throw new IllegalStateException("Unable to execute delete query", sqlException);
+        } finally {
+            deleteLatency.observeSince(started);
         }
     }
 
@@ -3,6 +3,7 @@ package com.uiptv.db;
 import com.uiptv.model.Account;
 import com.uiptv.model.Category;
 import com.uiptv.model.Channel;
+import com.uiptv.util.MetricsRegistry;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -24,7 +25,7 @@ import static com.uiptv.db.SQLConnection.connect;
 public class ChannelDb extends BaseDb {
     private static ChannelDb instance;
     private static final int BATCH_SIZE = 1000;
-
+    private final MetricsRegistry.Histogram saveAllLatency = queryLatency("saveAll");
 
     public ChannelDb() {
         super(CHANNEL_TABLE);
@@ -56,6 +57,7 @@ public class ChannelDb extends BaseDb {
             statement.setString(15, channel.getClearKeysJson());
             statement.setString(16, channel.getInputstreamaddon());
             statement.setString(17, channel.getManifestType());
+            statement.setString(18, channel.getExtraJson());
             statement.execute();
         } catch (SQLException e) {
             throw new DatabaseAccessException("Unable to execute query", e);
@@ -156,6 +158,7 @@ public class ChannelDb extends BaseDb {
     @SuppressWarnings("java:S1141")
     public void saveAll(List<Channel> channels, String dbCategoryId, Account account) {
         Category category = new CategoryDb().getCategoryByDbId(dbCategoryId, account);
+        long started = System.nanoTime();
         deleteAll(category.getDbId());
         Collection<Channel> dedupedChannels = dedupeChannelsCaseInsensitive(channels);
         try (Connection conn = connect()) {
@@ -180,6 +183,7 @@ public class ChannelDb extends BaseDb {
                     statement.setString(15, channel.getClearKeysJson());
                     statement.setString(16, channel.getInputstreamaddon());
                     statement.setString(17, channel.getManifestType());
+                    statement.setString(18, channel.getExtraJson());
                     statement.addBatch();
                     if (++count % BATCH_SIZE == 0) {
                         statement.executeBatch();
@@ -195,6 +199,8 @@ public class ChannelDb extends BaseDb {
             }
         } catch (SQLException e) {
             throw new DatabaseAccessException("Unable to connect to database", e);
+        } finally {
+            saveAllLatency.observeSince(started);
         }
     }
 
@@ -266,6 +272,7 @@ public class ChannelDb extends BaseDb {
         c.setDbId(nullSafeString(resultSet, "id"));
         c.setCategoryId(nullSafeString(resultSet, "categoryId"));
         c.setClearKeysJson(nullSafeString(resultSet, "clearKeysJson"));
+        c.setExtraJson(nullSafeString(resultSet, "extraJson"));
         return c;
     }
 
@@ -16,8 +16,10 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 
 public class DatabasePatchesUtils {
     private static final String MIGRATIONS_LIST_RESOURCE = "db/migrations/migrations.txt";
@@ -27,8 +29,10 @@ public class DatabasePatchesUtils {
     public static void applyPatches(Connection conn) throws SQLException {
         createSchemaMigrationsTable(conn);
         List<String> migrationNames = readMigrationNames(MIGRATIONS_LIST_RESOURCE);
+        // One query for the whole history instead of one per migration; this runs on every start.
+        Map<String, MigrationRecord> applied = findMigrationRecords(conn);
         for (String migrationName : migrationNames) {
-            applyMigration(conn, migrationName);
+            applyMigration(conn, migrationName, applied.get(migrationName));
         }
     }
 
@@ -62,12 +66,11 @@ public class DatabasePatchesUtils {
         return Integer.parseInt(currentSchemaVersion());
     }
 
-    private static void applyMigration(Connection conn, String migrationName) throws SQLException {
+    private static void applyMigration(Connection conn, String migrationName, MigrationRecord existing) throws SQLException {
         String resourcePath = MIGRATIONS_DIR_RESOURCE + migrationName;
         String migrationSql = readResource(resourcePath);
         String checksum = checksum(migrationSql);
 
-        MigrationRecord existing = findMigrationRecord(conn, migrationName);
         if (existing != null && "success".equalsIgnoreCase(existing.status) && checksum.equals(existing.checksum)) {
             return;
         }
@@ -284,17 +287,15 @@ public class DatabasePatchesUtils {
         }
     }
 
-    private static MigrationRecord findMigrationRecord(Connection conn, String name) throws SQLException {
-        String sql = "SELECT checksum, status FROM schema_migrations WHERE name = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, name);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (!rs.next()) {
-                    return null;
-                }
-                return new MigrationRecord(rs.getString("checksum"), rs.getString("status"));
+    private static Map<String, MigrationRecord> findMigrationRecords(Connection conn) throws SQLException {
+        Map<String, MigrationRecord> records = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name, checksum, status FROM schema_migrations")) {
+            while (rs.next()) {
+                records.put(rs.getString("name"), new MigrationRecord(rs.getString("checksum"), rs.getString("status")));
             }
         }
+        return records;
     }
 
     private static void upsertMigrationRecord(Connection conn, String name, String checksum, String status, String errorMessage) throws SQLException {
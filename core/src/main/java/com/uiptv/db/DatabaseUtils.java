@@ -17,7 +17,13 @@ public class DatabaseUtils {
             DbTable.ACCOUNT_INFO_TABLE,
             DbTable.BOOKMARK_TABLE,
             DbTable.BOOKMARK_CATEGORY_TABLE,
-            DbTable.BOOKMARK_ORDER_TABLE
+            DbTable.BOOKMARK_ORDER_TABLE,
+            DbTable.VOD_WATCH_STATE_TABLE,
+            DbTable.SERIES_WATCH_STATE_TABLE,
+            DbTable.SERIES_WATCHING_NOW_SNAPSHOT_TABLE,
+            DbTable.PUBLISHED_M3U_SELECTION_TABLE,
+            DbTable.PUBLISHED_M3U_CATEGORY_SELECTION_TABLE,
+            DbTable.PUBLISHED_M3U_CHANNEL_SELECTION_TABLE
     ));
     private static final String INTEGER_PRIMARY_KEY = "INTEGER PRIMARY KEY";
     private static final String INTEGER_TYPE = "INTEGER";
@@ -31,6 +37,8 @@ public class DatabaseUtils {
     private static final String COLUMN_CACHED_AT = "cachedAt";
     private static final String COLUMN_CATEGORY_ID = "categoryId";
     private static final String COLUMN_CHANNEL_ID = "channelId";
+    private static final String COLUMN_CHANNEL_KEY = "channelKey";
+    private static final String COLUMN_GUIDE_KEY = "guideKey";
     private static final String COLUMN_CLEAR_KEYS_JSON = "clearKeysJson";
     private static final String COLUMN_CENSORED = "censored";
     private static final String COLUMN_CMD_1 = "cmd_1";
@@ -177,7 +185,8 @@ public class DatabaseUtils {
                 new DataColumn(COLUMN_DRM_LICENSE_URL, "TEXT"),
                 new DataColumn(COLUMN_CLEAR_KEYS_JSON, "TEXT"),
                 new DataColumn(COLUMN_INPUTSTREAM_ADDON, "TEXT"),
-                new DataColumn(COLUMN_MANIFEST_TYPE, "TEXT")
+                new DataColumn(COLUMN_MANIFEST_TYPE, "TEXT"),
+                new DataColumn(COLUMN_EXTRA_JSON, "TEXT")
         )));
         dbStructure.put(DbTable.VOD_CATEGORY_TABLE.getTableName(), new ArrayList<>(Arrays.asList(
                 new DataColumn("id", INTEGER_PRIMARY_KEY),
@@ -333,6 +342,48 @@ public class DatabaseUtils {
                 new DataColumn("category_id", "TEXT"), // Can be null for "All"
                 new DataColumn("display_order", INTEGER_TYPE)
         )));
+        dbStructure.put(DbTable.BACKGROUND_JOB_TABLE.getTableName(), new ArrayList<>(Arrays.asList(
+                new DataColumn("id", INTEGER_PRIMARY_KEY),
+                new DataColumn("jobId", TEXT_NOT_NULL_UNIQUE),
+                new DataColumn("jobName", TEXT_NOT_NULL),
+                new DataColumn("uniqueKey", "TEXT"),
+                new DataColumn("parametersJson", "TEXT"),
+                new DataColumn("requiresNetwork", INTEGER_TYPE),
+                new DataColumn(COLUMN_STATUS, "TEXT"),
+                new DataColumn("progressPercent", INTEGER_TYPE),
+                new DataColumn("message", "TEXT"),
+                new DataColumn("createdAt", INTEGER_TYPE),
+                new DataColumn(COLUMN_UPDATED_AT, INTEGER_TYPE)
+        )));
+        dbStructure.put(DbTable.EPG_CHANNEL_TABLE.getTableName(), new ArrayList<>(Arrays.asList(
+                new DataColumn("id", INTEGER_PRIMARY_KEY),
+                new DataColumn(COLUMN_ACCOUNT_ID, TEXT_NOT_NULL),
+                new DataColumn(COLUMN_GUIDE_KEY, TEXT_NOT_NULL),
+                new DataColumn(COLUMN_CHANNEL_KEY, TEXT_NOT_NULL),
+                new DataColumn("displayName", "TEXT"),
+                new DataColumn("nameKey", "TEXT")
+        )));
+        dbStructure.put(DbTable.EPG_PROGRAMME_TABLE.getTableName(), new ArrayList<>(Arrays.asList(
+                new DataColumn("id", INTEGER_PRIMARY_KEY),
+                new DataColumn(COLUMN_ACCOUNT_ID, TEXT_NOT_NULL),
+                new DataColumn(COLUMN_GUIDE_KEY, TEXT_NOT_NULL),
+                new DataColumn(COLUMN_CHANNEL_KEY, TEXT_NOT_NULL),
+                new DataColumn("startMs", "INTEGER NOT NULL"),
+                new DataColumn("stopMs", "INTEGER NOT NULL"),
+                new DataColumn(COLUMN_TITLE, "TEXT"),
+                new DataColumn("subTitle", "TEXT"),
+                new DataColumn("description", "TEXT"),
+                new DataColumn("category", "TEXT")
+        )));
+        dbStructure.put(DbTable.EPG_GUIDE_TABLE.getTableName(), new ArrayList<>(Arrays.asList(
+                new DataColumn("id", INTEGER_PRIMARY_KEY),
+                new DataColumn(COLUMN_ACCOUNT_ID, TEXT_NOT_NULL_UNIQUE),
+                new DataColumn(COLUMN_GUIDE_KEY, TEXT_NOT_NULL)
+        )));
+        dbStructure.put(DbTable.DATABASE_MAINTENANCE_TABLE.getTableName(), new ArrayList<>(Arrays.asList(
+                new DataColumn("id", INTEGER_PRIMARY_KEY),
+                new DataColumn("lastRunAt", INTEGER_TYPE)
+        )));
         KNOWN_TABLE_NAMES.addAll(dbStructure.keySet());
     }
 
@@ -424,7 +475,12 @@ public class DatabaseUtils {
         PUBLISHED_M3U_CATEGORY_SELECTION_TABLE("PublishedM3uCategorySelection"),
         PUBLISHED_M3U_CHANNEL_SELECTION_TABLE("PublishedM3uChannelSelection"),
         BOOKMARK_CATEGORY_TABLE("BookmarkCategory"),
-        BOOKMARK_ORDER_TABLE("BookmarkOrder"); // Added new table
+        BOOKMARK_ORDER_TABLE("BookmarkOrder"), // Added new table
+        BACKGROUND_JOB_TABLE("BackgroundJob"),
+        EPG_CHANNEL_TABLE("EpgChannel"),
+        EPG_PROGRAMME_TABLE("EpgProgramme"),
+        EPG_GUIDE_TABLE("EpgGuide"),
+        DATABASE_MAINTENANCE_TABLE("DatabaseMaintenance");
 
         private final String tableName;
 
@@ -0,0 +1,360 @@
+package com.uiptv.db;
+
+import com.uiptv.model.EpgProgramme;
+import com.uiptv.util.MetricsRegistry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.uiptv.db.DatabaseUtils.DbTable.EPG_CHANNEL_TABLE;
+import static com.uiptv.db.DatabaseUtils.DbTable.EPG_GUIDE_TABLE;
+import static com.uiptv.db.DatabaseUtils.DbTable.EPG_PROGRAMME_TABLE;
+import static com.uiptv.db.DatabaseUtils.insertTableSql;
+import static com.uiptv.db.SQLConnection.connect;
+
+/**
+ * Stored XMLTV guide data. Programmes are looked up through the {@code (accountId, guideKey, channelKey, stopMs)}
+ * index: the first row ending after a point in time is the programme airing then, so now/next and time-window reads
+ * are a single index seek.
+ * <p>
+ * Each stored guide is a generation: its rows carry the account id and a generation key in {@code guideKey}, and
+ * {@code EpgGuide} points every account at its live generation. Rows of other generations are never read.
+ */
+public class EpgDb extends BaseDb {
+    private static EpgDb instance;
+    private static final int BATCH_SIZE = 1000;
+    // Rows of the live guide generation of an account; takes the account id twice.
+    private static final String LIVE_GUIDE_ROWS = " WHERE accountId=? AND guideKey=(SELECT guideKey FROM "
+            + EPG_GUIDE_TABLE.getTableName() + " WHERE accountId=?)";
+    private static final String PROGRAMMES_ENDING_AFTER = LIVE_GUIDE_ROWS + " AND channelKey=? AND stopMs>? ORDER BY stopMs";
+    private static final AtomicLong LAST_GENERATION = new AtomicLong();
+    private static final Set<String> ACCOUNTS_BEING_REPLACED = ConcurrentHashMap.newKeySet();
+    private final MetricsRegistry.Histogram lookupLatency = queryLatency("lookup");
+    private final MetricsRegistry.Histogram replaceLatency = queryLatency("replaceGuide");
+
+    public EpgDb() {
+        super(EPG_PROGRAMME_TABLE);
+    }
+
+    public static synchronized EpgDb get() {
+        if (instance == null) {
+            instance = new EpgDb();
+        }
+        return instance;
+    }
+
+    /**
+     * Opens a writer that stores a new guide generation for {@code accountId}. Rows are committed a batch at a time, so
+     * the database write lock is only held per batch while the document is still downloading. Readers keep seeing the
+     * previous guide until {@link GuideWriter#commit()} repoints the account in one short transaction; closing without
+     * committing drops the new rows. Only one writer per account may be open at a time.
+     */
+    public GuideWriter replaceGuide(String accountId) {
+        return new GuideWriter(accountId);
+    }
+
+    /**
+     * Programmes of a channel that end after {@code fromMs} and start before {@code toMs}, in airing order, at most
+     * {@code limit}.
+     */
+    public List<EpgProgramme> getProgrammes(String accountId, String channelKey, long fromMs, long toMs, int limit) {
+        String sql = "SELECT * FROM " + EPG_PROGRAMME_TABLE.getTableName() + PROGRAMMES_ENDING_AFTER + " LIMIT ?";
+        List<EpgProgramme> programmes = new ArrayList<>();
+        long started = System.nanoTime();
+        try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setString(1, accountId);
+            statement.setString(2, accountId);
+            statement.setString(3, channelKey);
+            statement.setLong(4, fromMs);
+            statement.setInt(5, Math.max(1, limit));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    EpgProgramme programme = populate(resultSet);
+                    if (programme.getStartMs() >= toMs) {
+                        break;
+                    }
+                    programmes.add(programme);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to read guide programmes", e);
+        } finally {
+            lookupLatency.observeSince(started);
+        }
+        return programmes;
+    }
+
+    public boolean hasProgrammes(String accountId, String channelKey) {
+        String sql = "SELECT 1 FROM " + EPG_PROGRAMME_TABLE.getTableName() + LIVE_GUIDE_ROWS + " AND channelKey=? LIMIT 1";
+        try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setString(1, accountId);
+            statement.setString(2, accountId);
+            statement.setString(3, channelKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to read guide programmes", e);
+        }
+    }
+
+    /**
+     * The guide channel whose normalized display name is {@code nameKey}, or {@code null}.
+     */
+    public String findChannelKeyByName(String accountId, String nameKey) {
+        String sql = "SELECT channelKey FROM " + EPG_CHANNEL_TABLE.getTableName() + LIVE_GUIDE_ROWS + " AND nameKey=? LIMIT 1";
+        try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setString(1, accountId);
+            statement.setString(2, accountId);
+            statement.setString(3, nameKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to read guide channels", e);
+        }
+    }
+
+    public int countProgrammes(String accountId) {
+        String sql = "SELECT COUNT(*) FROM " + EPG_PROGRAMME_TABLE.getTableName() + LIVE_GUIDE_ROWS;
+        try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setString(1, accountId);
+            statement.setString(2, accountId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to count guide programmes", e);
+        }
+    }
+
+    public void deleteByAccount(String accountId) {
+        try (Connection conn = connect()) {
+            deleteGuides(conn, accountId, null);
+            try (PreparedStatement statement = conn.prepareStatement("DELETE FROM " + EPG_GUIDE_TABLE.getTableName() + " WHERE accountId=?")) {
+                statement.setString(1, accountId);
+                statement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to delete guide", e);
+        }
+    }
+
+    private static String liveGuideKey(Connection conn, String accountId) throws SQLException {
+        String sql = "SELECT guideKey FROM " + EPG_GUIDE_TABLE.getTableName() + " WHERE accountId=?";
+        try (PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setString(1, accountId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Deletes every guide generation of {@code accountId} except {@code keep}, {@link #BATCH_SIZE} rows per statement
+     * so that no single write holds the lock for long. Commits after each statement when auto-commit is off.
+     */
+    private static void deleteGuides(Connection conn, String accountId, String keep) throws SQLException {
+        for (DatabaseUtils.DbTable table : List.of(EPG_PROGRAMME_TABLE, EPG_CHANNEL_TABLE)) {
+            String sql = "DELETE FROM " + table.getTableName() + " WHERE id IN (SELECT id FROM " + table.getTableName()
+                    + " WHERE accountId=? AND guideKey<>? LIMIT " + BATCH_SIZE + ")";
+            try (PreparedStatement statement = conn.prepareStatement(sql)) {
+                statement.setString(1, accountId);
+                statement.setString(2, keep == null ? "" : keep);
+                deleteInBatches(conn, statement);
+            }
+        }
+    }
+
+    private static void deleteInBatches(Connection conn, PreparedStatement statement) throws SQLException {
+        int deleted;
+        do {
+            deleted = statement.executeUpdate();
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
+        } while (deleted >= BATCH_SIZE);
+    }
+
+    private static String nextGuideKey() {
+        long now = System.currentTimeMillis();
+        long generation = LAST_GENERATION.updateAndGet(last -> Math.max(last + 1, now));
+        return Long.toString(generation, 36);
+    }
+
+    @Override
+    EpgProgramme populate(ResultSet resultSet) {
+        EpgProgramme programme = new EpgProgramme();
+        programme.setDbId(nullSafeString(resultSet, "id"));
+        programme.setAccountId(nullSafeString(resultSet, "accountId"));
+        programme.setChannelKey(nullSafeString(resultSet, "channelKey"));
+        programme.setTitle(nullSafeString(resultSet, "title"));
+        programme.setSubTitle(nullSafeString(resultSet, "subTitle"));
+        programme.setDescription(nullSafeString(resultSet, "description"));
+        programme.setCategory(nullSafeString(resultSet, "category"));
+        try {
+            programme.setStartMs(resultSet.getLong("startMs"));
+            programme.setStopMs(resultSet.getLong("stopMs"));
+        } catch (SQLException _) {
+            programme.setStopMs(0L);
+        }
+        return programme;
+    }
+
+    /**
+     * Batched replacement of one account's guide through a new generation. Not thread-safe; feed it from one thread.
+     */
+    public final class GuideWriter implements AutoCloseable {
+        private final String accountId;
+        private final String guideKey;
+        private final long started = System.nanoTime();
+        private final Connection conn;
+        private final PreparedStatement channelInsert;
+        private final PreparedStatement programmeInsert;
+        private int pendingChannels;
+        private int pendingProgrammes;
+        private boolean committed;
+
+        private GuideWriter(String accountId) {
+            if (!ACCOUNTS_BEING_REPLACED.add(accountId)) {
+                throw new IllegalStateException("The guide of account " + accountId + " is already being replaced");
+            }
+            this.accountId = accountId;
+            this.guideKey = nextGuideKey();
+            Connection opened = null;
+            boolean ready = false;
+            try {
+                opened = connect();
+                opened.setAutoCommit(false);
+                // Generations left behind by an interrupted refresh.
+                deleteGuides(opened, accountId, liveGuideKey(opened, accountId));
+                this.channelInsert = opened.prepareStatement(insertTableSql(EPG_CHANNEL_TABLE));
+                this.programmeInsert = opened.prepareStatement(insertTableSql(EPG_PROGRAMME_TABLE));
+                this.conn = opened;
+                ready = true;
+            } catch (SQLException e) {
+                throw new DatabaseAccessException("Unable to start guide replacement", e);
+            } finally {
+                if (!ready) {
+                    if (opened != null) {
+                        closeQuietly(opened);
+                    }
+                    ACCOUNTS_BEING_REPLACED.remove(accountId);
+                }
+            }
+        }
+
+        public void addChannel(String channelKey, String displayName, String nameKey) {
+            try {
+                channelInsert.setString(1, accountId);
+                channelInsert.setString(2, guideKey);
+                channelInsert.setString(3, channelKey);
+                channelInsert.setString(4, displayName);
+                channelInsert.setString(5, nameKey);
+                channelInsert.addBatch();
+                if (++pendingChannels >= BATCH_SIZE) {
+                    flush(channelInsert);
+                    pendingChannels = 0;
+                }
+            } catch (SQLException e) {
+                throw new DatabaseAccessException("Unable to save guide channel", e);
+            }
+        }
+
+        public void addProgramme(String channelKey, long startMs, long stopMs, String title, String subTitle,
+                                 String description, String category) {
+            try {
+                programmeInsert.setString(1, accountId);
+                programmeInsert.setString(2, guideKey);
+                programmeInsert.setString(3, channelKey);
+                programmeInsert.setLong(4, startMs);
+                programmeInsert.setLong(5, stopMs);
+                programmeInsert.setString(6, title);
+                programmeInsert.setString(7, subTitle);
+                programmeInsert.setString(8, description);
+                programmeInsert.setString(9, category);
+                programmeInsert.addBatch();
+                if (++pendingProgrammes >= BATCH_SIZE) {
+                    flush(programmeInsert);
+                    pendingProgrammes = 0;
+                }
+            } catch (SQLException e) {
+                throw new DatabaseAccessException("Unable to save guide programme", e);
+            }
+        }
+
+        /**
+         * Makes the written generation the account's guide. The generation it replaces is deleted on {@link #close()}.
+         */
+        public void commit() {
+            try {
+                flush(channelInsert);
+                flush(programmeInsert);
+                String upsert = "INSERT INTO " + EPG_GUIDE_TABLE.getTableName() + " (accountId, guideKey) VALUES (?, ?)"
+                        + " ON CONFLICT(accountId) DO UPDATE SET guideKey=excluded.guideKey";
+                try (PreparedStatement statement = conn.prepareStatement(upsert)) {
+                    statement.setString(1, accountId);
+                    statement.setString(2, guideKey);
+                    statement.executeUpdate();
+                }
+                conn.commit();
+                committed = true;
+            } catch (SQLException e) {
+                throw new DatabaseAccessException("Unable to save guide", e);
+            }
+        }
+
+        private void flush(PreparedStatement insert) throws SQLException {
+            insert.executeBatch();
+            conn.commit();
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (committed) {
+                    deleteGuides(conn, accountId, guideKey);
+                } else {
+                    conn.rollback();
+                    discardGeneration();
+                }
+                conn.setAutoCommit(true);
+            } catch (SQLException _) {
+                // Rows left behind are removed by the next writer for this account.
+            } finally {
+                closeQuietly(channelInsert);
+                closeQuietly(programmeInsert);
+                closeQuietly(conn);
+                ACCOUNTS_BEING_REPLACED.remove(accountId);
+                replaceLatency.observeSince(started);
+            }
+        }
+
+        private void discardGeneration() throws SQLException {
+            for (DatabaseUtils.DbTable table : List.of(EPG_PROGRAMME_TABLE, EPG_CHANNEL_TABLE)) {
+                String sql = "DELETE FROM " + table.getTableName() + " WHERE id IN (SELECT id FROM " + table.getTableName()
+                        + " WHERE accountId=? AND guideKey=? LIMIT " + BATCH_SIZE + ")";
+                try (PreparedStatement statement = conn.prepareStatement(sql)) {
+                    statement.setString(1, accountId);
+                    statement.setString(2, guideKey);
+                    deleteInBatches(conn, statement);
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception _) {
+            // Nothing left to release.
+        }
+    }
+}
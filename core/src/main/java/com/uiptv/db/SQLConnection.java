@@ -1,6 +1,7 @@
 package com.uiptv.db;
 
 import com.uiptv.util.ConfigFileReader;
+import com.uiptv.util.StartupProfile;
 import org.apache.commons.io.FileUtils;
 
 import java.io.File;
@@ -9,6 +10,8 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Locale;
+import java.util.Set;
 
 import static com.uiptv.util.Platform.getUserHomeDirPath;
 import static com.uiptv.util.StringUtils.isNotBlank;
@@ -17,6 +20,15 @@ public class SQLConnection {
     private static final int BUSY_TIMEOUT_MS = Math.max(1, Integer.getInteger("uiptv.sql.busy.timeout.ms", 10_000));
     private static final int INIT_RETRY_ATTEMPTS = Math.max(1, Integer.getInteger("uiptv.sql.init.retry.attempts", 6));
     private static final long INIT_RETRY_DELAY_MS = Math.max(0L, Long.getLong("uiptv.sql.init.retry.delay.ms", 250L));
+    // Storage profile applied to every connection. Channel lists are read far more than written, so memory-mapped
+    // reads pay off; temp tables of big sorts stay in memory; the WAL is folded back into the database every
+    // uiptv.sql.wal.autocheckpoint pages. There is no larger cache_size: connect() opens a connection per call, so its
+    // page cache is dropped on close before it could warm up, while the OS page cache and mmap survive.
+    private static final long MMAP_BYTES = Math.max(0L, Long.getLong("uiptv.sql.mmap.mb", 256L)) * 1024 * 1024;
+    private static final String TEMP_STORE = tempStore(System.getProperty("uiptv.sql.temp.store", "MEMORY"));
+    private static final long SQLITE_WAL_AUTOCHECKPOINT_PAGES = 1000L;
+    private static final long WAL_AUTOCHECKPOINT_PAGES = Math.max(0L, Long.getLong("uiptv.sql.wal.autocheckpoint", SQLITE_WAL_AUTOCHECKPOINT_PAGES));
+    private static volatile long lastActivityMs = System.currentTimeMillis();
 
     private static String databasePathFromConfigFile = ConfigFileReader.getDbPathFromConfigFile();
     private static String dbPath = isNotBlank(databasePathFromConfigFile) ? databasePathFromConfigFile : getUserHomeDirPath() + File.separator + "uiptv.db";
@@ -30,7 +42,7 @@ public class SQLConnection {
 
     @SuppressWarnings("java:S1141")
     public static synchronized void init() {
-        try {
+        try (StartupProfile.Phase _ = StartupProfile.getInstance().begin("database-migrations")) {
             FileUtils.touch(new File(dbPath));
             for (int attempt = 1; attempt <= INIT_RETRY_ATTEMPTS; attempt++) {
                 try (Connection conn = openConnection()) {
@@ -71,6 +83,7 @@ public class SQLConnection {
     }
 
     public static Connection connect() {
+        lastActivityMs = System.currentTimeMillis();
         try {
             return openConnection();
         } catch (SQLException e) {
@@ -92,10 +105,28 @@ public class SQLConnection {
             statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
             statement.execute("PRAGMA journal_mode = WAL");
             statement.execute("PRAGMA synchronous = NORMAL");
+            statement.execute("PRAGMA mmap_size = " + MMAP_BYTES);
+            statement.execute("PRAGMA temp_store = " + TEMP_STORE);
+            if (WAL_AUTOCHECKPOINT_PAGES != SQLITE_WAL_AUTOCHECKPOINT_PAGES) {
+                statement.execute("PRAGMA wal_autocheckpoint = " + WAL_AUTOCHECKPOINT_PAGES);
+            }
         }
         return conn;
     }
 
+    /**
+     * Wall-clock time of the most recent {@link #connect()}, so background maintenance can wait until the app leaves
+     * the database alone.
+     */
+    public static long lastActivityMs() {
+        return lastActivityMs;
+    }
+
+    private static String tempStore(String configured) {
+        String value = configured == null ? "" : configured.trim().toUpperCase(Locale.ROOT);
+        return Set.of("DEFAULT", "FILE", "MEMORY").contains(value) ? value : "MEMORY";
+    }
+
     private static boolean isBusy(SQLException exception) {
         SQLException current = exception;
         while (current != null) {
@@ -72,6 +72,27 @@ public class SeriesChannelDb extends BaseDb {
         return false;
     }
 
+    /**
+     * Category db ids that have cached rows for the account, all older than {@code maxAgeMs}.
+     */
+    public List<String> getStaleCategoryIds(Account account, long maxAgeMs) {
+        List<String> categoryIds = new ArrayList<>();
+        String sql = "SELECT categoryId FROM " + SERIES_CHANNEL_TABLE.getTableName()
+                + " WHERE accountId=? GROUP BY categoryId HAVING MAX(cachedAt) < ?";
+        try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setString(1, account.getDbId());
+            statement.setLong(2, System.currentTimeMillis() - Math.max(0, maxAgeMs));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    categoryIds.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to read stale cached categories", e);
+        }
+        return categoryIds;
+    }
+
     public void saveAll(List<Channel> channels, String categoryId, Account account) {
         deleteByAccountAndCategory(account.getDbId(), categoryId);
         long cachedAt = System.currentTimeMillis();
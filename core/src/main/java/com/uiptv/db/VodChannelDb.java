@@ -7,6 +7,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.uiptv.db.DatabaseUtils.DbTable.VOD_CHANNEL_TABLE;
@@ -40,6 +41,25 @@ public class VodChannelDb extends BaseDb {
         return (channels != null && !channels.isEmpty()) ? channels.get(0) : null;
     }
 
+    public List<Channel> getChannelsByVodIds(Account account, List<String> vodIds) {
+        if (account == null || vodIds == null || vodIds.isEmpty()) {
+            return List.of();
+        }
+        List<String> filtered = vodIds.stream()
+                .filter(id -> id != null && !id.isBlank())
+                .distinct()
+                .toList();
+        if (filtered.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", java.util.Collections.nCopies(filtered.size(), "?"));
+        String where = " WHERE accountId=? AND channelId IN (" + placeholders + ")";
+        List<String> params = new ArrayList<>(filtered.size() + 1);
+        params.add(account.getDbId());
+        params.addAll(filtered);
+        return getAll(where, params.toArray(new String[0]));
+    }
+
     public Channel getChannelByChannelIdAndAccount(String channelId, String accountId) {
         List<Channel> channels = getAll(
                 " WHERE channelId=? AND accountId=?",
@@ -68,6 +88,27 @@ public class VodChannelDb extends BaseDb {
         return false;
     }
 
+    /**
+     * Category db ids that have cached rows for the account, all older than {@code maxAgeMs}.
+     */
+    public List<String> getStaleCategoryIds(Account account, long maxAgeMs) {
+        List<String> categoryIds = new ArrayList<>();
+        String sql = "SELECT categoryId FROM " + VOD_CHANNEL_TABLE.getTableName()
+                + " WHERE accountId=? GROUP BY categoryId HAVING MAX(cachedAt) < ?";
+        try (Connection conn = connect(); PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setString(1, account.getDbId());
+            statement.setLong(2, System.currentTimeMillis() - Math.max(0, maxAgeMs));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    categoryIds.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to read stale cached categories", e);
+        }
+        return categoryIds;
+    }
+
     public void saveAll(List<Channel> channels, String categoryId, Account account) {
         deleteByAccountAndCategory(account.getDbId(), categoryId);
         long cachedAt = System.currentTimeMillis();
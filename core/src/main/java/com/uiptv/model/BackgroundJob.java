@@ -0,0 +1,23 @@
+package com.uiptv.model;
+
+import com.uiptv.shared.BaseJson;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+public class BackgroundJob extends BaseJson {
+    private String dbId;
+    private String jobId;
+    private String jobName;
+    private String uniqueKey;
+    private String parametersJson;
+    private boolean requiresNetwork;
+    private String status;
+    private int progressPercent;
+    private String message;
+    private long createdAt;
+    private long updatedAt;
+}
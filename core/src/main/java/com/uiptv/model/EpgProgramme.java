@@ -0,0 +1,25 @@
+package com.uiptv.model;
+
+import com.uiptv.shared.BaseJson;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+public class EpgProgramme extends BaseJson {
+    private String dbId;
+    private String accountId;
+    private String channelKey;
+    private long startMs;
+    private long stopMs;
+    private String title;
+    private String subTitle;
+    private String description;
+    private String category;
+
+    public boolean isAiringAt(long epochMs) {
+        return startMs <= epochMs && epochMs < stopMs;
+    }
+}
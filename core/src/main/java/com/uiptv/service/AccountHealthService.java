@@ -0,0 +1,92 @@
+package com.uiptv.service;
+
+import com.uiptv.model.Account;
+import com.uiptv.util.HostCircuitBreaker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * Health of each account's provider, read from the {@link HostCircuitBreaker} window of the host the account talks to.
+ * Accounts without a remote host (local M3U files) always report healthy.
+ */
+public class AccountHealthService {
+    static final int DEGRADED_BELOW_SCORE = 70;
+
+    public enum HealthStatus {
+        HEALTHY,
+        DEGRADED,
+        RECOVERING,
+        DOWN
+    }
+
+    public record AccountHealth(String accountId,
+                                String accountName,
+                                String host,
+                                HealthStatus status,
+                                int score,
+                                long retryAfterSeconds) {
+    }
+
+    private AccountHealthService() {
+    }
+
+    private static class SingletonHelper {
+        private static final AccountHealthService INSTANCE = new AccountHealthService();
+    }
+
+    public static AccountHealthService getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    public AccountHealth health(Account account) {
+        if (account == null) {
+            return new AccountHealth("", "", "", HealthStatus.HEALTHY, 100, 0);
+        }
+        String host = providerHost(account);
+        HostCircuitBreaker.HostHealth hostHealth = HostCircuitBreaker.getInstance().health(host);
+        return new AccountHealth(account.getDbId(), account.getAccountName(), host,
+                status(hostHealth), hostHealth.score(), hostHealth.retryAfterSeconds());
+    }
+
+    /**
+     * A copy of {@code accounts}, healthiest first, so a batch reaches working providers before waiting on failing
+     * ones. Accounts with equal scores keep their relative order.
+     */
+    public List<Account> orderByHealth(Collection<Account> accounts) {
+        List<Account> ordered = new ArrayList<>(accounts == null ? List.of() : accounts);
+        ordered.removeIf(Objects::isNull);
+        Map<Account, Integer> scores = new IdentityHashMap<>();
+        ordered.forEach(account -> scores.put(account, health(account).score()));
+        ordered.sort(Comparator.comparingInt((Account account) -> scores.get(account)).reversed());
+        return ordered;
+    }
+
+    static String providerHost(Account account) {
+        if (account.getType() == null) {
+            return "";
+        }
+        return switch (account.getType()) {
+            case STALKER_PORTAL -> HostCircuitBreaker.hostKey(
+                    isBlank(account.getServerPortalUrl()) ? account.getUrl() : account.getServerPortalUrl());
+            case XTREME_API -> HostCircuitBreaker.hostKey(account.getUrl());
+            case M3U8_URL -> HostCircuitBreaker.hostKey(account.getM3u8Path());
+            default -> "";
+        };
+    }
+
+    private static HealthStatus status(HostCircuitBreaker.HostHealth health) {
+        return switch (health.state()) {
+            case OPEN -> HealthStatus.DOWN;
+            case HALF_OPEN -> HealthStatus.RECOVERING;
+            case CLOSED -> health.score() < DEGRADED_BELOW_SCORE ? HealthStatus.DEGRADED : HealthStatus.HEALTHY;
+        };
+    }
+}
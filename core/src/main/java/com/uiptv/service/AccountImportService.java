@@ -0,0 +1,411 @@
+package com.uiptv.service;
+
+import com.uiptv.model.Account;
+import com.uiptv.util.AccountCopyUtil;
+import com.uiptv.util.AccountParser;
+import com.uiptv.util.AccountType;
+import com.uiptv.util.AppLog;
+import com.uiptv.util.HostCircuitBreaker;
+import com.uiptv.util.HttpUtil;
+import com.uiptv.util.TextParserService;
+import com.uiptv.util.XtremeApiParser;
+import com.uiptv.util.XtremeCredentialsJson;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.uiptv.util.StringUtils.isBlank;
+import static com.uiptv.util.StringUtils.isNotBlank;
+
+/**
+ * Imports pasted account lists with a fixed number of database round trips. Existing accounts are read with one query
+ * and the parsers resolve names and merges against that snapshot; new accounts already present (same portal and MAC,
+ * same server and credentials, or same playlist) are skipped, grouped accounts lose the MACs or credentials already
+ * stored, and everything else is written in one transaction.
+ * <p>
+ * The new accounts can then be validated: a handshake for Stalker portals, a {@code player_api.php} login for Xtreme
+ * accounts and a request for playlists. Checks run on at most {@code uiptv.import.validate.concurrency} threads
+ * (default 8), with at most {@code uiptv.import.validate.per.host} (default 2) in flight per server, and each result
+ * is reported as it lands.
+ */
+public class AccountImportService {
+    private static final int MAX_CONCURRENCY = Math.clamp(Integer.getInteger("uiptv.import.validate.concurrency", 8), 1, 32);
+    private static final int MAX_PER_HOST = Math.clamp(Integer.getInteger("uiptv.import.validate.per.host", 2), 1, 16);
+    private static final int PLAYLIST_CHECK_TIMEOUT_SECONDS = 10;
+    private static final ImportListener NO_LISTENER = new ImportListener() {
+    };
+
+    private final AccountCheck check;
+    private final int maxPerHost;
+    private final ExecutorService executor;
+
+    public enum Phase {
+        PARSING, SAVING, VALIDATING
+    }
+
+    public enum Status {
+        VALID, INVALID, UNREACHABLE
+    }
+
+    public enum Problem {
+        DUPLICATE, INVALID, UNREACHABLE
+    }
+
+    /**
+     * Receives the progress of an import. Validation events arrive on worker threads.
+     */
+    public interface ImportListener {
+        default void onProgress(Phase phase, int done, int total) {
+        }
+
+        default void onIssue(ImportIssue issue) {
+        }
+
+        default void onValidated(ValidationResult result) {
+        }
+
+        /**
+         * Polled between validations; returning true skips the checks not yet started.
+         */
+        default boolean isCancelled() {
+            return false;
+        }
+    }
+
+    /**
+     * One validation of an imported account; an {@link IOException} means the server could not be reached.
+     */
+    @FunctionalInterface
+    interface AccountCheck {
+        Status check(Account account) throws IOException;
+    }
+
+    /**
+     * @param executor runs the validation checks; its thread count bounds how many run at once
+     */
+    AccountImportService(AccountCheck check, ExecutorService executor, int maxPerHost) {
+        this.check = check;
+        this.maxPerHost = maxPerHost;
+        this.executor = executor;
+    }
+
+    private static class SingletonHelper {
+        private static final AccountImportService INSTANCE = new AccountImportService(AccountImportService::checkAgainstProvider,
+                Executors.newFixedThreadPool(MAX_CONCURRENCY, runnable -> {
+                    Thread thread = new Thread(runnable, "uiptv-account-import");
+                    thread.setDaemon(true);
+                    return thread;
+                }), MAX_PER_HOST);
+    }
+
+    public static AccountImportService getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    /**
+     * Parses {@code text} in the given {@link TextParserService} mode, saves the result and, with {@code validate},
+     * checks every new account before returning.
+     *
+     * @param listener may be {@code null}
+     * @throws com.uiptv.db.DatabaseAccessException when the accounts cannot be saved; nothing is written then
+     */
+    public ImportReport importAccounts(String text, String mode, boolean groupAccounts, boolean convertM3uToXtreme,
+                                       boolean validate, ImportListener listener) {
+        ImportListener events = listener != null ? listener : NO_LISTENER;
+        List<ImportIssue> issues = Collections.synchronizedList(new ArrayList<>());
+        Consumer<ImportIssue> report = issue -> {
+            issues.add(issue);
+            events.onIssue(issue);
+        };
+
+        events.onProgress(Phase.PARSING, 0, 1);
+        Map<String, Account> existing = AccountService.getInstance().getAll();
+        List<Account> parsed = new ArrayList<>();
+        Set<Account> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        AccountParser parser = TextParserService.createParser(mode, existing::get, account -> {
+            if (seen.add(account)) {
+                parsed.add(account);
+            }
+        });
+        List<Account> created = new ArrayList<>(parser.parseAndSave(text == null ? "" : text, groupAccounts, convertM3uToXtreme));
+        events.onProgress(Phase.PARSING, 1, 1);
+
+        Set<String> knownIdentities = new HashSet<>();
+        existing.values().forEach(account -> knownIdentities.addAll(identities(account)));
+        List<Account> toSave = new ArrayList<>();
+        int updated = 0;
+        int duplicates = 0;
+        for (Account account : parsed) {
+            if (isNotBlank(account.getDbId())) {
+                toSave.add(account);
+                updated++;
+                continue;
+            }
+            Set<String> keys = identities(account);
+            if (!keys.isEmpty() && knownIdentities.containsAll(keys)) {
+                created.removeIf(candidate -> candidate == account);
+                duplicates++;
+                report.accept(new ImportIssue(account.getAccountName(), Problem.DUPLICATE, null));
+                continue;
+            }
+            List<String> stripped = stripKnownIdentities(account, knownIdentities);
+            if (!stripped.isEmpty()) {
+                duplicates++;
+                report.accept(new ImportIssue(account.getAccountName(), Problem.DUPLICATE, String.join(", ", stripped)));
+            }
+            knownIdentities.addAll(identities(account));
+            toSave.add(account);
+        }
+
+        events.onProgress(Phase.SAVING, 0, toSave.size());
+        AccountService.getInstance().saveAll(toSave);
+        events.onProgress(Phase.SAVING, toSave.size(), toSave.size());
+        AppLog.addInfoLog(AccountImportService.class, "Imported " + created.size() + " new and " + updated
+                + " updated accounts; skipped " + duplicates + " already present.");
+
+        List<ValidationResult> validations = validate && !created.isEmpty()
+                ? validateAll(created, events, report)
+                : List.of();
+        return new ImportReport(created, updated, duplicates, List.copyOf(issues), validations);
+    }
+
+    private List<ValidationResult> validateAll(List<Account> accounts, ImportListener events, Consumer<ImportIssue> report) {
+        Map<String, Queue<Account>> byHost = new LinkedHashMap<>();
+        for (Account account : accounts) {
+            byHost.computeIfAbsent(HostCircuitBreaker.hostKey(location(account)), _ -> new ConcurrentLinkedQueue<>()).add(account);
+        }
+        List<ValidationResult> results = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger done = new AtomicInteger();
+        int total = accounts.size();
+        events.onProgress(Phase.VALIDATING, 0, total);
+        List<Future<?>> workers = new ArrayList<>();
+        for (Queue<Account> queue : byHost.values()) {
+            int workersForHost = Math.min(maxPerHost, queue.size());
+            for (int i = 0; i < workersForHost; i++) {
+                workers.add(executor.submit(() -> {
+                    Account account;
+                    while (!events.isCancelled() && (account = queue.poll()) != null) {
+                        ValidationResult result = runCheck(account);
+                        results.add(result);
+                        if (result.status() != Status.VALID) {
+                            report.accept(new ImportIssue(account.getAccountName(), Problem.valueOf(result.status().name()), result.detail()));
+                        }
+                        events.onValidated(result);
+                        events.onProgress(Phase.VALIDATING, done.incrementAndGet(), total);
+                    }
+                }));
+            }
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+                workers.forEach(pending -> pending.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                AppLog.addWarningLog(AccountImportService.class, "Account validation worker failed: " + e.getCause());
+            }
+        }
+        synchronized (results) {
+            return List.copyOf(results);
+        }
+    }
+
+    private ValidationResult runCheck(Account account) {
+        try {
+            Status status = check.check(account);
+            return new ValidationResult(account, status != null ? status : Status.INVALID, null);
+        } catch (IOException e) {
+            return new ValidationResult(account, Status.UNREACHABLE, e.getMessage());
+        } catch (RuntimeException e) {
+            AppLog.addWarningLog(AccountImportService.class, "Validation of " + account.getAccountName() + " failed: " + e.getMessage());
+            return new ValidationResult(account, Status.INVALID, e.getMessage());
+        }
+    }
+
+    static Status checkAgainstProvider(Account account) throws IOException {
+        switch (account.getType()) {
+            case STALKER_PORTAL -> {
+                // The handshake sets a token on the account it is given, so it works on a copy.
+                Account worker = AccountCopyUtil.copyForMac(account, account.getMacAddress());
+                if (isBlank(AccountService.getInstance().ensureServerPortalUrl(worker))) {
+                    return Status.UNREACHABLE;
+                }
+                HandshakeService.getInstance().fetchAccountInfo(worker);
+                return worker.isNotConnected() ? Status.INVALID : Status.VALID;
+            }
+            case XTREME_API -> {
+                return XtremeApiParser.authenticate(account) ? Status.VALID : Status.INVALID;
+            }
+            default -> {
+                return checkPlaylist(location(account));
+            }
+        }
+    }
+
+    private static Status checkPlaylist(String location) throws IOException {
+        if (isBlank(location)) {
+            return Status.INVALID;
+        }
+        if (!location.regionMatches(true, 0, "http", 0, 4)) {
+            return Files.isReadable(Path.of(location)) ? Status.VALID : Status.UNREACHABLE;
+        }
+        HttpUtil.HttpResult response = HttpUtil.sendRequest(location, null, "GET", null, new HttpUtil.RequestOptions(true, false,
+                PLAYLIST_CHECK_TIMEOUT_SECONDS, PLAYLIST_CHECK_TIMEOUT_SECONDS, PLAYLIST_CHECK_TIMEOUT_SECONDS));
+        return response.statusCode() >= 200 && response.statusCode() < 300 ? Status.VALID : Status.INVALID;
+    }
+
+    /**
+     * What makes an account the same as another for de-duplication: one key per MAC of a Stalker portal, per
+     * credential pair of an Xtreme server, or the playlist location.
+     */
+    static Set<String> identities(Account account) {
+        Set<String> keys = new HashSet<>();
+        if (account == null || account.getType() == null) {
+            return keys;
+        }
+        switch (account.getType()) {
+            case STALKER_PORTAL -> {
+                for (String mac : macAddresses(account)) {
+                    keys.add(stalkerIdentity(account, mac));
+                }
+            }
+            case XTREME_API -> {
+                List<XtremeCredentialsJson.Entry> entries = XtremeCredentialsJson.parse(account.getXtremeCredentialsJson());
+                for (XtremeCredentialsJson.Entry entry : entries) {
+                    keys.add(xtremeIdentity(account, entry.username(), entry.password()));
+                }
+                if (isNotBlank(account.getUsername()) && isNotBlank(account.getPassword())) {
+                    keys.add(xtremeIdentity(account, account.getUsername(), account.getPassword()));
+                }
+            }
+            default -> {
+                String playlist = normalizeLocation(location(account));
+                if (!playlist.isEmpty()) {
+                    keys.add("playlist|" + playlist);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Removes the MACs or credentials of a grouped account that are already stored elsewhere, so only the new ones are
+     * saved with it; returns what was removed.
+     */
+    static List<String> stripKnownIdentities(Account account, Set<String> knownIdentities) {
+        List<String> stripped = new ArrayList<>();
+        if (account.getType() == AccountType.STALKER_PORTAL) {
+            Map<String, String> remaining = new LinkedHashMap<>();
+            Map<String, String> known = new LinkedHashMap<>();
+            String list = isNotBlank(account.getMacAddressList()) ? account.getMacAddressList() : "";
+            for (String mac : (list + "," + (account.getMacAddress() == null ? "" : account.getMacAddress())).split(",")) {
+                String normalized = normalizeMac(mac);
+                if (!normalized.isEmpty()) {
+                    (knownIdentities.contains(stalkerIdentity(account, normalized)) ? known : remaining)
+                            .putIfAbsent(normalized, mac.trim());
+                }
+            }
+            stripped.addAll(known.values());
+            if (!stripped.isEmpty() && !remaining.isEmpty()) {
+                account.setMacAddressList(String.join(",", remaining.values()));
+                if (!remaining.containsKey(normalizeMac(account.getMacAddress()))) {
+                    account.setMacAddress(remaining.values().iterator().next());
+                }
+            }
+        } else if (account.getType() == AccountType.XTREME_API) {
+            List<XtremeCredentialsJson.Entry> remaining = new ArrayList<>();
+            for (XtremeCredentialsJson.Entry entry : XtremeCredentialsJson.parse(account.getXtremeCredentialsJson())) {
+                if (knownIdentities.contains(xtremeIdentity(account, entry.username(), entry.password()))) {
+                    stripped.add(entry.username());
+                } else {
+                    remaining.add(entry);
+                }
+            }
+            if (!stripped.isEmpty()) {
+                account.setXtremeCredentialsJson(XtremeCredentialsJson.toJson(remaining));
+                if (knownIdentities.contains(xtremeIdentity(account, account.getUsername(), account.getPassword()))) {
+                    XtremeCredentialsJson.Entry primary = XtremeCredentialsJson.resolveDefault(
+                            XtremeCredentialsJson.parse(account.getXtremeCredentialsJson()));
+                    account.setUsername(primary.username());
+                    account.setPassword(primary.password());
+                }
+            }
+        }
+        return stripped;
+    }
+
+    private static String stalkerIdentity(Account account, String mac) {
+        return "stalker|" + normalizeLocation(account.getUrl()) + "|" + mac;
+    }
+
+    private static String xtremeIdentity(Account account, String username, String password) {
+        return "xtreme|" + normalizeLocation(account.getUrl()) + "|" + username + "|" + password;
+    }
+
+    private static Set<String> macAddresses(Account account) {
+        Set<String> macs = new HashSet<>();
+        String list = isNotBlank(account.getMacAddressList()) ? account.getMacAddressList() : "";
+        for (String mac : (list + "," + (account.getMacAddress() == null ? "" : account.getMacAddress())).split(",")) {
+            String normalized = normalizeMac(mac);
+            if (!normalized.isEmpty()) {
+                macs.add(normalized);
+            }
+        }
+        return macs;
+    }
+
+    private static String normalizeMac(String mac) {
+        return mac == null ? "" : mac.replace(" ", "").toLowerCase();
+    }
+
+    private static String location(Account account) {
+        return isNotBlank(account.getM3u8Path()) && account.getType() != AccountType.STALKER_PORTAL
+                ? account.getM3u8Path()
+                : account.getUrl();
+    }
+
+    private static String normalizeLocation(String location) {
+        if (isBlank(location)) {
+            return "";
+        }
+        String trimmed = location.trim();
+        int end = trimmed.length();
+        while (end > 0 && trimmed.charAt(end - 1) == '/') {
+            end--;
+        }
+        return trimmed.substring(0, end);
+    }
+
+    public record ImportIssue(String accountName, Problem problem, String detail) {
+    }
+
+    public record ValidationResult(Account account, Status status, String detail) {
+    }
+
+    /**
+     * @param created the accounts added by the import, with their database ids
+     * @param updated existing accounts that received new MACs or credentials
+     */
+    public record ImportReport(List<Account> created, int updated, int duplicates, List<ImportIssue> issues,
+                               List<ValidationResult> validations) {
+    }
+}
@@ -37,6 +37,9 @@ public class AccountResolver {
         row.setPinSvgHeadFill(PIN_SVG_HEAD_FILL);
         row.setPinSvgViewBox(PIN_SVG_VIEW_BOX);
         row.setPinSvgScale(PIN_SVG_SCALE);
+        AccountHealthService.AccountHealth health = AccountHealthService.getInstance().health(account);
+        row.setHealthStatus(health.status().name());
+        row.setHealthScore(health.score());
         return row;
     }
 
@@ -51,6 +54,8 @@ public class AccountResolver {
         private String pinSvgHeadFill;
         private String pinSvgViewBox;
         private double pinSvgScale;
+        private String healthStatus;
+        private int healthScore;
 
         public String getAccountName() {
             return accountName;
@@ -131,5 +136,21 @@ public class AccountResolver {
         public void setPinSvgScale(double pinSvgScale) {
             this.pinSvgScale = pinSvgScale;
         }
+
+        public String getHealthStatus() {
+            return healthStatus;
+        }
+
+        public void setHealthStatus(String healthStatus) {
+            this.healthStatus = healthStatus;
+        }
+
+        public int getHealthScore() {
+            return healthScore;
+        }
+
+        public void setHealthScore(int healthScore) {
+            this.healthScore = healthScore;
+        }
     }
 }
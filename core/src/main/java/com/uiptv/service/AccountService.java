@@ -33,15 +33,23 @@ public class AccountService {
     }
 
     public void save(Account account) {
-        sanitizeAccountFields(account);
-        if ((account.getType() == STALKER_PORTAL) && !account.getUrl().endsWith("/")) {
-            account.setUrl(account.getUrl() + "/");
-        }
-        sessionTokenByAccountKey.remove(getSessionAccountKey(account));
+        prepareForSave(account);
         AccountDb.get().save(account);
         touchChange();
     }
 
+    /**
+     * Saves {@code accounts} in a single transaction and notifies listeners once; new accounts get their database id.
+     */
+    public void saveAll(List<Account> accounts) {
+        if (accounts == null || accounts.isEmpty()) {
+            return;
+        }
+        accounts.forEach(this::prepareForSave);
+        AccountDb.get().saveAll(accounts);
+        touchChange();
+    }
+
     public void delete(final String accountId) {
         Account account = AccountDb.get().getAccountById(accountId);
         deleteAccountData(accountId, account);
@@ -106,7 +114,10 @@ public class AccountService {
         if (isNotBlank(account.getServerPortalUrl())) {
             return account.getServerPortalUrl();
         }
-        String resolved = PingStalkerPortal.ping(account);
+        String resolved = findServerPortalUrlOnSamePortal(account);
+        if (isBlank(resolved)) {
+            resolved = PingStalkerPortal.ping(account);
+        }
         if (isNotBlank(resolved)) {
             account.setServerPortalUrl(resolved);
             AccountDb.get().saveServerPortalUrl(account);
@@ -114,6 +125,20 @@ public class AccountService {
         return account.getServerPortalUrl();
     }
 
+    private String findServerPortalUrlOnSamePortal(Account account) {
+        String portalKey = PingStalkerPortal.portalKey(account.getUrl());
+        if (isBlank(portalKey)) {
+            return "";
+        }
+        for (Account other : AccountDb.get().getAccounts()) {
+            if (other != null && other.getType() == account.getType() && isNotBlank(other.getServerPortalUrl())
+                    && portalKey.equals(PingStalkerPortal.portalKey(other.getUrl()))) {
+                return other.getServerPortalUrl();
+            }
+        }
+        return "";
+    }
+
     public void syncSessionToken(Account account) {
         if (account == null) {
             return;
@@ -168,6 +193,7 @@ public class AccountService {
         SeriesWatchStateDb.get().deleteByAccount(accountId);
         SeriesWatchingNowSnapshotDb.get().deleteByAccount(accountId);
         VodWatchStateDb.get().deleteByAccount(accountId);
+        EpgDb.get().deleteByAccount(accountId);
         ChannelDb.get().deleteByAccount(accountId);
         CategoryDb.get().deleteByAccount(account);
         AccountDb.get().delete(accountId);
@@ -185,6 +211,17 @@ public class AccountService {
         }
     }
 
+    /**
+     * Normalizes {@code account} for storage and drops its cached session token, which the saved fields may invalidate.
+     */
+    private void prepareForSave(Account account) {
+        sanitizeAccountFields(account);
+        if ((account.getType() == STALKER_PORTAL) && !account.getUrl().endsWith("/")) {
+            account.setUrl(account.getUrl() + "/");
+        }
+        sessionTokenByAccountKey.remove(getSessionAccountKey(account));
+    }
+
     private void sanitizeAccountFields(Account account) {
         if (account == null) {
             return;
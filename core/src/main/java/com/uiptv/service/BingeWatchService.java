@@ -5,9 +5,14 @@ import com.uiptv.model.AccountMediaContext;
 import com.uiptv.model.Channel;
 import com.uiptv.model.PlayerResponse;
 import com.uiptv.model.SeriesWatchState;
+import com.uiptv.util.HlsPlaylistResolver;
+import com.uiptv.util.HttpUtil;
+import com.uiptv.util.MetricsRegistry;
 import com.uiptv.util.ServerUrlUtil;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -16,6 +21,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static com.uiptv.util.StringUtils.isBlank;
 
@@ -27,9 +34,27 @@ public class BingeWatchService {
     @SuppressWarnings("java:S1075")
     private static final String ENTRY_PATH = "/bingwatch?token=";
     private static final String EPISODE_ID_QUERY = "&episodeId=";
+    private static final boolean PREFETCH_ENABLED =
+            Boolean.parseBoolean(System.getProperty("uiptv.binge.prefetch.enabled", "true"));
+    private static final long PREFETCH_LEAD_MS =
+            TimeUnit.SECONDS.toMillis(Math.max(0, Long.getLong("uiptv.binge.prefetch.lead.seconds", 120L)));
+    private static final long PREFETCH_TTL_MS =
+            TimeUnit.SECONDS.toMillis(Math.max(1, Long.getLong("uiptv.binge.prefetch.ttl.seconds", 300L)));
+    private static final int PREFETCH_MAX_REFRESHES = Math.max(0, Integer.getInteger("uiptv.binge.prefetch.max.refreshes", 3));
+    private static final long PREFETCH_WAIT_MS = 3_000L;
+    private static final int MAX_HLS_RESOLUTION_DEPTH = 3;
+    private static final int WARM_SEGMENT_BYTES = 256 * 1024;
+    private static final MetricsRegistry.CacheCounters PREFETCH = MetricsRegistry.getInstance().cacheCounters("binge_prefetch");
     private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final NextEpisodePrefetcher prefetcher;
 
     private BingeWatchService() {
+        prefetcher = new NextEpisodePrefetcher(Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "uiptv-binge-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        }), System::currentTimeMillis, PREFETCH_TTL_MS, PREFETCH_MAX_REFRESHES,
+                BingeWatchService::warmHls);
     }
 
     private static final class SingletonHelper {
@@ -139,6 +164,15 @@ public class BingeWatchService {
         return playlist.toString();
     }
 
+    /**
+     * Resolves the playback URL of an episode and marks it as watched. Once resolved, the following episode of the
+     * session is resolved in the background {@code uiptv.binge.prefetch.lead.seconds} (default 120) before this one is
+     * expected to end, judged by its duration, and its HLS playlist and first segment are fetched so the provider has
+     * them warm. Episodes without a known duration are not prefetched. A prefetched URL is never handed to the player
+     * once it is older than {@code uiptv.binge.prefetch.ttl.seconds} (default 300); until it is played it is resolved
+     * again shortly before that, up to {@code uiptv.binge.prefetch.max.refreshes} (default 3) times, so a paused
+     * episode still finds a fresh link for the next one.
+     */
     public ResolvedEpisode resolveEpisode(String token, String episodeId) throws IOException {
         Session session = sessions.get(token);
         if (session == null || isBlank(episodeId)) {
@@ -170,6 +204,23 @@ public class BingeWatchService {
                 episode.episodeNumber()
         );
 
+        String url = PREFETCH_ENABLED ? prefetcher.take(prefetchKey(token, episode.episodeId()), PREFETCH_WAIT_MS) : null;
+        if (url != null) {
+            PREFETCH.hits().inc();
+        } else {
+            if (PREFETCH_ENABLED) {
+                PREFETCH.misses().inc();
+            }
+            url = resolvePlaybackUrl(account, session, channel, episode);
+        }
+        if (isBlank(url)) {
+            return null;
+        }
+        schedulePrefetchOfNext(token, session, episode, channel);
+        return new ResolvedEpisode(url, episode.episodeName(), episode.season(), episode.episodeNumber());
+    }
+
+    private String resolvePlaybackUrl(Account account, Session session, Channel channel, SessionEpisode episode) throws IOException {
         PlayerResponse response = PlayerService.getInstance().get(
                 account,
                 channel,
@@ -177,10 +228,101 @@ public class BingeWatchService {
                 session.seriesId(),
                 session.seriesCategoryId()
         );
-        if (response == null || isBlank(response.getUrl())) {
-            return null;
+        return response == null || isBlank(response.getUrl()) ? null : response.getUrl();
+    }
+
+    private void schedulePrefetchOfNext(String token, Session session, SessionEpisode current, Channel currentChannel) {
+        if (!PREFETCH_ENABLED) {
+            return;
+        }
+        SessionEpisode next = session.nextEpisode(current.episodeId());
+        if (next == null) {
+            return;
+        }
+        long durationMs = durationMs(currentChannel.getDuration());
+        if (durationMs <= 0) {
+            // No end to count back from: a link resolved now would likely lapse before it is needed.
+            return;
         }
-        return new ResolvedEpisode(response.getUrl(), episode.episodeName(), episode.season(), episode.episodeNumber());
+        long delayMs = Math.max(0, durationMs - PREFETCH_LEAD_MS);
+        prefetcher.schedule(prefetchKey(token, next.episodeId()), delayMs, () -> {
+            Account account = AccountService.getInstance().getById(session.accountId());
+            Channel channel = Channel.fromJson(next.channelJson());
+            if (account == null || channel == null) {
+                return null;
+            }
+            return resolvePlaybackUrl(AccountMediaContext.from(account, Account.AccountAction.series).toAccount(), session, channel, next);
+        });
+    }
+
+    /**
+     * Parses an episode duration as providers report it: {@code HH:MM:SS}, {@code MM:SS}, or a plain number of minutes.
+     *
+     * @return the duration in milliseconds, or 0 when unknown
+     */
+    static long durationMs(String raw) {
+        if (isBlank(raw)) {
+            return 0;
+        }
+        String[] parts = raw.trim().split(":");
+        try {
+            if (parts.length == 1) {
+                return TimeUnit.MINUTES.toMillis(Math.max(0, Long.parseLong(parts[0].trim())));
+            }
+            if (parts.length > 3) {
+                return 0;
+            }
+            long seconds = 0;
+            for (String part : parts) {
+                seconds = seconds * 60 + Long.parseLong(part.trim());
+            }
+            return TimeUnit.SECONDS.toMillis(Math.max(0, seconds));
+        } catch (NumberFormatException _) {
+            return 0;
+        }
+    }
+
+    /**
+     * Fetches the media playlist and the start of the first segment of an HLS URL. Progressive links are left alone:
+     * many providers allow one connection per token, so opening one early could cost the real playback.
+     */
+    private static void warmHls(String url) {
+        if (!url.split("\\?")[0].toLowerCase().endsWith(".m3u8")) {
+            return;
+        }
+        try {
+            String mediaPlaylist = HlsPlaylistResolver.resolveHlsPlaylistChain(url, null, MAX_HLS_RESOLUTION_DEPTH);
+            HttpUtil.HttpResult playlist = HttpUtil.sendRequest(mediaPlaylist, null, "GET");
+            if (playlist == null || playlist.statusCode() != HttpUtil.STATUS_OK || isBlank(playlist.body())) {
+                return;
+            }
+            String segment = firstSegment(isBlank(playlist.requestUri()) ? mediaPlaylist : playlist.requestUri(), playlist.body());
+            if (segment == null) {
+                return;
+            }
+            try (HttpUtil.StreamResult response = HttpUtil.openStream(segment, null, "GET", null, HttpUtil.RequestOptions.defaults());
+                 InputStream body = response.bodyStream()) {
+                body.readNBytes(WARM_SEGMENT_BYTES);
+            }
+        } catch (Exception _) {
+            // Warming only shortens the start of the next episode; the player fetches the same URLs regardless.
+        }
+    }
+
+    private static String firstSegment(String playlistUrl, String body) {
+        for (String line : body.split("\\r?\\n")) {
+            String candidate = line.trim();
+            if (!candidate.isEmpty() && !candidate.startsWith("#")) {
+                URI base = URI.create(playlistUrl);
+                String resolved = base.resolve(candidate).toString();
+                return base.getQuery() != null && !resolved.contains("?") ? resolved + "?" + base.getQuery() : resolved;
+            }
+        }
+        return null;
+    }
+
+    private static String prefetchKey(String token, String episodeId) {
+        return token + '\n' + episodeId;
     }
 
     List<SessionEpisode> orderSeasonEpisodes(String season, List<Channel> episodes, SeriesWatchState watchState) {
@@ -294,6 +436,15 @@ public class BingeWatchService {
             }
             return null;
         }
+
+        private SessionEpisode nextEpisode(String episodeId) {
+            for (int i = 0; i < episodes.size() - 1; i++) {
+                if (episodes.get(i).episodeId().equals(episodeId)) {
+                    return episodes.get(i + 1);
+                }
+            }
+            return null;
+        }
     }
 
     record SessionEpisode(String episodeId, String episodeName, String season, String episodeNumber, String channelJson) {
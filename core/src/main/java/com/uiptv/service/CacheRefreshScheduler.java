@@ -0,0 +1,266 @@
+package com.uiptv.service;
+
+import com.uiptv.db.SeriesCategoryDb;
+import com.uiptv.db.SeriesChannelDb;
+import com.uiptv.db.SeriesEpisodeDb;
+import com.uiptv.db.VodCategoryDb;
+import com.uiptv.db.VodChannelDb;
+import com.uiptv.model.Account;
+import com.uiptv.model.AccountMediaContext;
+import com.uiptv.model.Category;
+import com.uiptv.model.SeriesWatchState;
+import com.uiptv.service.jobs.BackgroundJobContext;
+import com.uiptv.service.jobs.JvmBackgroundJobService;
+import com.uiptv.shared.platform.BackgroundJobException;
+import com.uiptv.shared.platform.BackgroundJobRequest;
+import com.uiptv.shared.platform.BackgroundJobUniqueness;
+import com.uiptv.util.AppLog;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+import static com.uiptv.model.Account.AccountAction.series;
+import static com.uiptv.model.Account.AccountAction.vod;
+import static com.uiptv.util.AccountType.STALKER_PORTAL;
+import static com.uiptv.util.AccountType.XTREME_API;
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * Keeps VOD/Series caches warm so browsing rarely waits on a provider.
+ * <p>
+ * Once a day, at a random time inside the off-peak window ({@code uiptv.cache.refresh.window}, default
+ * {@code 03:00-05:00} local time), every Stalker/Xtreme account gets an account refresh job. That job reloads
+ * expired category lists and fans out one job per expired, previously browsed category and one per series on
+ * the Watching Now list. Every account with a programme guide also gets a guide refresh job. All work goes through {@link JvmBackgroundJobService}, which bounds concurrency and
+ * de-duplicates jobs that are still queued. Set {@code uiptv.cache.refresh.enabled=false} to turn it off.
+ */
+public class CacheRefreshScheduler {
+    static final String JOB_REFRESH_ACCOUNT = "cache.refresh.account";
+    static final String JOB_REFRESH_CATEGORY = "cache.refresh.category";
+    static final String JOB_REFRESH_EPISODES = "cache.refresh.episodes";
+    static final String JOB_REFRESH_GUIDE = "cache.refresh.guide";
+    private static final String PARAM_ACCOUNT_ID = "accountId";
+    private static final String PARAM_MODE = "mode";
+    private static final String PARAM_CATEGORY_DB_ID = "categoryDbId";
+    private static final String PARAM_CATEGORY_ID = "categoryId";
+    private static final String PARAM_SERIES_ID = "seriesId";
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("uiptv.cache.refresh.enabled", "true"));
+    private static final String WINDOW = System.getProperty("uiptv.cache.refresh.window", "03:00-05:00");
+
+    private final JvmBackgroundJobService jobService;
+    private ScheduledExecutorService timer;
+
+    CacheRefreshScheduler(JvmBackgroundJobService jobService) {
+        this.jobService = jobService;
+        jobService.registerHandler(JOB_REFRESH_ACCOUNT, this::refreshAccount);
+        jobService.registerHandler(JOB_REFRESH_CATEGORY, this::refreshCategory);
+        jobService.registerHandler(JOB_REFRESH_EPISODES, this::refreshEpisodes);
+        jobService.registerHandler(JOB_REFRESH_GUIDE, this::refreshGuide);
+    }
+
+    private static class SingletonHelper {
+        private static final CacheRefreshScheduler INSTANCE = new CacheRefreshScheduler(JvmBackgroundJobService.getInstance());
+    }
+
+    public static CacheRefreshScheduler getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (!ENABLED || timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "uiptv-cache-refresh-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.execute(jobService::resumePending);
+        scheduleNextPass();
+    }
+
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    /**
+     * Queues an account refresh for every Stalker/Xtreme account and a guide refresh for every account with a
+     * programme guide, healthiest providers first, and returns how many accounts got an account refresh.
+     */
+    public int enqueueRefreshPass() {
+        int queued = 0;
+        for (Account account : AccountHealthService.getInstance().orderByHealth(AccountService.getInstance().getAll().values())) {
+            if (EpgService.getInstance().hasGuide(account)) {
+                enqueueGuideRefresh(account);
+            }
+            if (account.getType() != STALKER_PORTAL && account.getType() != XTREME_API) {
+                continue;
+            }
+            if (enqueue(JOB_REFRESH_ACCOUNT, Map.of(PARAM_ACCOUNT_ID, account.getDbId()))) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Queues a download of the account's programme guide unless one is already queued or running.
+     *
+     * @return {@code false} when the account has no guide or the job could not be queued
+     */
+    public boolean enqueueGuideRefresh(Account account) {
+        if (!EpgService.getInstance().hasGuide(account)) {
+            return false;
+        }
+        return enqueue(JOB_REFRESH_GUIDE, Map.of(PARAM_ACCOUNT_ID, account.getDbId()));
+    }
+
+    /**
+     * Delay from {@code now} to a uniformly random instant in the next {@code start}-{@code end} window.
+     * Inside the window the instant is picked from the remainder of it. Windows may span midnight.
+     */
+    static Duration delayUntilNextRun(LocalDateTime now, LocalTime start, LocalTime end, RandomGenerator random) {
+        LocalDateTime windowStart = now.toLocalDate().atTime(start);
+        LocalDateTime windowEnd = end.isAfter(start) ? now.toLocalDate().atTime(end) : now.toLocalDate().plusDays(1).atTime(end);
+        if (!end.isAfter(start) && now.toLocalTime().isBefore(end)) {
+            windowStart = windowStart.minusDays(1);
+            windowEnd = windowEnd.minusDays(1);
+        }
+        if (!now.isBefore(windowEnd)) {
+            windowStart = windowStart.plusDays(1);
+            windowEnd = windowEnd.plusDays(1);
+        }
+        LocalDateTime from = now.isAfter(windowStart) ? now : windowStart;
+        long spanMs = Math.max(1, Duration.between(from, windowEnd).toMillis());
+        return Duration.between(now, from).plusMillis(random.nextLong(spanMs));
+    }
+
+    private synchronized void scheduleNextPass() {
+        if (timer == null) {
+            return;
+        }
+        LocalTime[] window = parseWindow(WINDOW);
+        Duration delay = delayUntilNextRun(LocalDateTime.now(), window[0], window[1], ThreadLocalRandom.current());
+        timer.schedule(this::runScheduledPass, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runScheduledPass() {
+        try {
+            int queued = enqueueRefreshPass();
+            AppLog.addInfoLog(CacheRefreshScheduler.class, "Queued background cache refresh for " + queued + " account(s).");
+        } catch (RuntimeException e) {
+            AppLog.addWarningLog(CacheRefreshScheduler.class, "Background cache refresh pass failed: " + e.getMessage());
+        } finally {
+            scheduleNextPass();
+        }
+    }
+
+    private void refreshAccount(BackgroundJobRequest request, BackgroundJobContext context) {
+        Account account = AccountService.getInstance().getById(request.parameters().get(PARAM_ACCOUNT_ID));
+        if (account == null) {
+            return;
+        }
+        long cacheTtlMs = ConfigurationService.getInstance().getCacheExpiryMs();
+        for (Account.AccountAction action : List.of(vod, series)) {
+            Account scoped = scopedAccount(account, action);
+            if (context.isCancelled() || scoped == null) {
+                return;
+            }
+            CategoryService.getInstance().refreshVodSeriesCategoriesIfStale(scoped);
+            List<String> staleCategoryIds = action == vod
+                    ? VodChannelDb.get().getStaleCategoryIds(scoped, cacheTtlMs)
+                    : SeriesChannelDb.get().getStaleCategoryIds(scoped, cacheTtlMs);
+            for (String categoryDbId : staleCategoryIds) {
+                enqueue(JOB_REFRESH_CATEGORY, Map.of(PARAM_ACCOUNT_ID, account.getDbId(), PARAM_MODE, action.name(),
+                        PARAM_CATEGORY_DB_ID, categoryDbId));
+            }
+        }
+        for (SeriesWatchState state : SeriesWatchStateService.getInstance().getAllSeriesLastWatchedByAccount(account.getDbId())) {
+            if (state == null || isBlank(state.getSeriesId())) {
+                continue;
+            }
+            enqueue(JOB_REFRESH_EPISODES, Map.of(PARAM_ACCOUNT_ID, account.getDbId(),
+                    PARAM_CATEGORY_ID, isBlank(state.getCategoryId()) ? "" : state.getCategoryId(),
+                    PARAM_SERIES_ID, state.getSeriesId()));
+        }
+    }
+
+    private void refreshCategory(BackgroundJobRequest request, BackgroundJobContext context) {
+        Account.AccountAction action = series.name().equals(request.parameters().get(PARAM_MODE)) ? series : vod;
+        Account scoped = scopedAccount(AccountService.getInstance().getById(request.parameters().get(PARAM_ACCOUNT_ID)), action);
+        String categoryDbId = request.parameters().get(PARAM_CATEGORY_DB_ID);
+        if (scoped == null || context.isCancelled()) {
+            return;
+        }
+        Category category = action == vod ? VodCategoryDb.get().getById(categoryDbId) : SeriesCategoryDb.get().getById(categoryDbId);
+        if (category == null) {
+            return;
+        }
+        int stored = ChannelService.getInstance().refreshVodSeriesChannelsIfStale(category.getCategoryId(), scoped, categoryDbId);
+        context.progress(100, "Stored " + stored + " channels");
+    }
+
+    private void refreshEpisodes(BackgroundJobRequest request, BackgroundJobContext context) {
+        Account scoped = scopedAccount(AccountService.getInstance().getById(request.parameters().get(PARAM_ACCOUNT_ID)), series);
+        String categoryId = request.parameters().get(PARAM_CATEGORY_ID);
+        String seriesId = request.parameters().get(PARAM_SERIES_ID);
+        if (scoped == null || context.isCancelled()
+                || SeriesEpisodeDb.get().isFresh(scoped, categoryId, seriesId, ConfigurationService.getInstance().getCacheExpiryMs())) {
+            return;
+        }
+        SeriesEpisodeService.getInstance().reloadEpisodesFromPortal(scoped, categoryId, seriesId, context::isCancelled);
+    }
+
+    private void refreshGuide(BackgroundJobRequest request, BackgroundJobContext context) throws IOException {
+        Account account = AccountService.getInstance().getById(request.parameters().get(PARAM_ACCOUNT_ID));
+        if (account == null || context.isCancelled() || !EpgService.getInstance().hasGuide(account)) {
+            return;
+        }
+        try {
+            EpgService.GuideIngestResult result = EpgService.getInstance().refresh(account, context::isCancelled);
+            context.progress(100, "Stored " + result.programmes() + " programmes");
+        } catch (CancellationException _) {
+            // The previous guide stays in place.
+        }
+    }
+
+    private boolean enqueue(String jobName, Map<String, String> parameters) {
+        try {
+            jobService.enqueue(new BackgroundJobRequest(jobName, parameters, true, BackgroundJobUniqueness.KEEP_EXISTING));
+            return true;
+        } catch (BackgroundJobException e) {
+            AppLog.addWarningLog(CacheRefreshScheduler.class, e.getMessage());
+            return false;
+        }
+    }
+
+    private static Account scopedAccount(Account account, Account.AccountAction action) {
+        if (account == null || (account.getType() != STALKER_PORTAL && account.getType() != XTREME_API)) {
+            return null;
+        }
+        AccountMediaContext context = AccountMediaContext.from(account, action);
+        return context == null ? null : context.toAccount();
+    }
+
+    private static LocalTime[] parseWindow(String window) {
+        try {
+            String[] parts = window.split("-");
+            return new LocalTime[]{LocalTime.parse(parts[0].trim()), LocalTime.parse(parts[1].trim())};
+        } catch (RuntimeException _) {
+            return new LocalTime[]{LocalTime.of(3, 0), LocalTime.of(5, 0)};
+        }
+    }
+}
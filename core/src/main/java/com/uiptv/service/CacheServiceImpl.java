@@ -18,7 +18,7 @@ import static com.uiptv.model.Account.AccountAction.itv;
 public class CacheServiceImpl implements CacheService {
     private final AccountCacheReloaderFactory reloaderFactory = new AccountCacheReloaderFactory();
 
-    private static Map<String, String> getCategoryParams(Account.AccountAction accountAction) {
+    public static Map<String, String> getCategoryParams(Account.AccountAction accountAction) {
         final Map<String, String> params = new HashMap<>();
         params.put("JsHttpRequest", new Date().getTime() + "-xml");
         params.put("type", accountAction.name());
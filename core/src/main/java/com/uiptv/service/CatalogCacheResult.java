@@ -0,0 +1,18 @@
+package com.uiptv.service;
+
+import java.util.List;
+
+/**
+ * Rows served from the local catalog cache. {@code stale} means the rows are past the cache expiry and a
+ * background refresh has been scheduled through {@link CatalogRefreshService}.
+ */
+public record CatalogCacheResult<T>(List<T> items, boolean stale) {
+
+    public static <T> CatalogCacheResult<T> fresh(List<T> items) {
+        return new CatalogCacheResult<>(items, false);
+    }
+
+    public static <T> CatalogCacheResult<T> stale(List<T> items) {
+        return new CatalogCacheResult<>(items, true);
+    }
+}
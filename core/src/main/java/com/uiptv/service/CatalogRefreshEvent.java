@@ -0,0 +1,14 @@
+package com.uiptv.service;
+
+/**
+ * Published once a background revalidation has written fresh rows to the local cache.
+ * {@code categoryDbId} is blank for category-list refreshes.
+ */
+public record CatalogRefreshEvent(long revision, Kind kind, String accountId, String mode, String categoryDbId,
+                                  int itemCount, long completedEpochMs) {
+
+    public enum Kind {
+        CATEGORIES,
+        CHANNELS
+    }
+}
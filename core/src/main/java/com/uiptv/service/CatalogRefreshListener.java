@@ -0,0 +1,6 @@
+package com.uiptv.service;
+
+@FunctionalInterface
+public interface CatalogRefreshListener {
+    void onCatalogRefreshed(CatalogRefreshEvent event);
+}
@@ -0,0 +1,182 @@
+package com.uiptv.service;
+
+import com.uiptv.util.AppLog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * Background revalidation of stale catalog caches.
+ * <p>
+ * Callers serve whatever is cached and hand the provider fetch to {@link #schedule}. Requests for the same
+ * account, mode and category share one in-flight refresh. Each refresh that stores rows bumps the revision
+ * and is kept in a short history so web clients can long-poll {@link #eventsAfter} for updates.
+ */
+public class CatalogRefreshService {
+    private static final int REFRESH_THREADS = Math.max(1, Integer.getInteger("uiptv.catalog.refresh.threads", 2));
+    private static final int EVENT_HISTORY = 128;
+
+    private final ExecutorService executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<CatalogRefreshListener> listeners = new CopyOnWriteArraySet<>();
+    private final AtomicLong revision = new AtomicLong();
+    private final Deque<CatalogRefreshEvent> recentEvents = new ArrayDeque<>();
+    private final List<EventWaiter> waiters = new ArrayList<>();
+    private final Object eventLock = new Object();
+
+    CatalogRefreshService(int threads) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "uiptv-catalog-refresh-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    private static class SingletonHelper {
+        private static final CatalogRefreshService INSTANCE = new CatalogRefreshService(REFRESH_THREADS);
+    }
+
+    public static CatalogRefreshService getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    /**
+     * Runs {@code refresh} in the background unless an identical refresh is already queued or running.
+     * The task returns the number of rows it stored; a positive count publishes a {@link CatalogRefreshEvent}.
+     *
+     * @return {@code true} when a new refresh was queued
+     */
+    public boolean schedule(CatalogRefreshEvent.Kind kind, String accountId, String mode, String categoryDbId,
+                            Callable<Integer> refresh) {
+        String key = refreshKey(kind, accountId, mode, categoryDbId);
+        if (!inFlight.add(key)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> runRefresh(key, kind, accountId, mode, categoryDbId, refresh));
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+            return false;
+        }
+    }
+
+    public boolean isRefreshing(CatalogRefreshEvent.Kind kind, String accountId, String mode, String categoryDbId) {
+        return inFlight.contains(refreshKey(kind, accountId, mode, categoryDbId));
+    }
+
+    public long getRevision() {
+        return revision.get();
+    }
+
+    /**
+     * Completes once a refresh newer than {@code sinceRevision} lands, or with an empty list after {@code timeoutMs},
+     * without holding a thread while it waits. The result is every retained event newer than {@code sinceRevision}.
+     */
+    public CompletableFuture<List<CatalogRefreshEvent>> eventsAfter(long sinceRevision, long timeoutMs) {
+        CompletableFuture<List<CatalogRefreshEvent>> pending = new CompletableFuture<>();
+        synchronized (eventLock) {
+            if (revision.get() > sinceRevision || timeoutMs <= 0) {
+                pending.complete(retainedEventsAfter(sinceRevision));
+                return pending;
+            }
+            waiters.add(new EventWaiter(sinceRevision, pending));
+        }
+        pending.completeOnTimeout(List.of(), timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((_, _) -> {
+                    synchronized (eventLock) {
+                        waiters.removeIf(waiter -> waiter.pending() == pending);
+                    }
+                });
+        return pending;
+    }
+
+    public void addListener(CatalogRefreshListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(CatalogRefreshListener listener) {
+        if (listener != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    private static String refreshKey(CatalogRefreshEvent.Kind kind, String accountId, String mode, String categoryDbId) {
+        return kind + "|" + accountId + "|" + mode + "|" + (isBlank(categoryDbId) ? "" : categoryDbId);
+    }
+
+    private void runRefresh(String key, CatalogRefreshEvent.Kind kind, String accountId, String mode, String categoryDbId,
+                            Callable<Integer> refresh) {
+        try {
+            Integer stored = refresh.call();
+            if (stored != null && stored > 0) {
+                publish(kind, accountId, mode, categoryDbId, stored);
+            }
+        } catch (Exception e) {
+            AppLog.addWarningLog(CatalogRefreshService.class, "Background catalog refresh failed for " + key + ": " + e.getMessage());
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private void publish(CatalogRefreshEvent.Kind kind, String accountId, String mode, String categoryDbId, int itemCount) {
+        CatalogRefreshEvent event;
+        List<Map.Entry<CompletableFuture<List<CatalogRefreshEvent>>, List<CatalogRefreshEvent>>> woken = new ArrayList<>();
+        synchronized (eventLock) {
+            event = new CatalogRefreshEvent(revision.incrementAndGet(), kind, accountId, mode,
+                    isBlank(categoryDbId) ? "" : categoryDbId, itemCount, System.currentTimeMillis());
+            recentEvents.addLast(event);
+            while (recentEvents.size() > EVENT_HISTORY) {
+                recentEvents.removeFirst();
+            }
+            for (EventWaiter waiter : waiters) {
+                woken.add(Map.entry(waiter.pending(), retainedEventsAfter(waiter.sinceRevision())));
+            }
+            waiters.clear();
+        }
+        // Completed outside the lock: a waiter's callback may write its response on this thread.
+        woken.forEach(entry -> entry.getKey().complete(entry.getValue()));
+        for (CatalogRefreshListener listener : listeners) {
+            try {
+                listener.onCatalogRefreshed(event);
+            } catch (Exception _) {
+                // Listener failures must never break the refresh worker.
+            }
+        }
+    }
+
+    private List<CatalogRefreshEvent> retainedEventsAfter(long sinceRevision) {
+        List<CatalogRefreshEvent> events = new ArrayList<>();
+        for (CatalogRefreshEvent event : recentEvents) {
+            if (event.revision() > sinceRevision) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private record EventWaiter(long sinceRevision, CompletableFuture<List<CatalogRefreshEvent>> pending) {
+    }
+}
@@ -30,6 +30,7 @@ import static com.uiptv.util.M3U8Parser.parseSourceCategory;
 
 public class CategoryService {
     private final ContentFilterService contentFilterService;
+    private final SingleFlight<Category, Void> categoryFetches = new SingleFlight<>();
 
     private CategoryService() {
         this.contentFilterService = ContentFilterService.getInstance();
@@ -86,11 +87,14 @@ public class CategoryService {
                 }
 
                 log(logger, "No cached categories found. Fetching from portal/provider...");
-                List<Category> fetchedCategories = fetchCategoriesFromBackend(account, logger);
-                if (!fetchedCategories.isEmpty()) {
-                    CategoryDb.get().saveAll(fetchedCategories, account);
-                    log(logger, "Saved " + fetchedCategories.size() + " categories to local cache.");
-                }
+                List<Category> fetchedCategories = categoryFetches.run(categoriesFlightKey(account), () -> {
+                    List<Category> fetched = fetchCategoriesFromBackend(account, logger);
+                    if (!fetched.isEmpty()) {
+                        CategoryDb.get().saveAll(fetched, account);
+                        log(logger, "Saved " + fetched.size() + " categories to local cache.");
+                    }
+                    return fetched;
+                });
                 return maybeFilterCategories(fetchedCategories, censor);
             }
 
@@ -107,6 +111,56 @@ public class CategoryService {
         return maybeFilterCategories(cachedCategories, censor);
     }
 
+    /**
+     * Web variant of {@link #get(Account)}: an expired VOD/Series category cache is returned as-is, flagged
+     * stale, while the provider fetch runs in the background. An empty cache still loads synchronously.
+     */
+    public CatalogCacheResult<Category> getStaleWhileRevalidate(Account account) {
+        if (account == null || !usesVodSeriesCategoryCache(account)) {
+            return CatalogCacheResult.fresh(account == null ? Collections.emptyList() : get(account));
+        }
+        List<Category> cached = getVodSeriesCachedCategories(account);
+        if (cached.isEmpty()) {
+            return CatalogCacheResult.fresh(get(account));
+        }
+        if (isVodSeriesCategoriesFresh(account)) {
+            return CatalogCacheResult.fresh(maybeFilterCategories(cached, true));
+        }
+        CatalogRefreshService.getInstance().schedule(CatalogRefreshEvent.Kind.CATEGORIES, account.getDbId(),
+                account.getAction().name(), null, () -> refreshVodSeriesCategories(account));
+        return CatalogCacheResult.stale(maybeFilterCategories(cached, true));
+    }
+
+    /**
+     * Refetches the VOD/Series category list when the cached copy has expired or was never loaded.
+     *
+     * @return the number of categories stored, or 0 when nothing was refreshed
+     */
+    public int refreshVodSeriesCategoriesIfStale(Account account) {
+        if (account == null || !usesVodSeriesCategoryCache(account) || isVodSeriesCategoriesFresh(account)) {
+            return 0;
+        }
+        return refreshVodSeriesCategories(account);
+    }
+
+    private int refreshVodSeriesCategories(Account account) {
+        return fetchAndSaveVodSeriesCategories(account).size();
+    }
+
+    private List<Category> fetchAndSaveVodSeriesCategories(Account account) {
+        return categoryFetches.run(categoriesFlightKey(account), () -> {
+            List<Category> fetched = fetchCategoriesFromSource(account);
+            if (!fetched.isEmpty()) {
+                saveVodSeriesCategories(account, fetched);
+            }
+            return fetched;
+        });
+    }
+
+    private static String categoriesFlightKey(Account account) {
+        return SingleFlight.key(account.getDbId(), account.getAction(), "*", "categories");
+    }
+
     private boolean usesVodSeriesCategoryCache(Account account) {
         return (account.getAction() == vod || account.getAction() == series)
                 && (account.getType() == STALKER_PORTAL || account.getType() == XTREME_API);
@@ -119,9 +173,8 @@ public class CategoryService {
             return maybeFilterCategories(cached, censor);
         }
         log(logger, "No fresh cached categories found. Fetching from portal/provider...");
-        List<Category> fetched = fetchCategoriesFromSource(account);
+        List<Category> fetched = fetchAndSaveVodSeriesCategories(account);
         if (!fetched.isEmpty()) {
-            saveVodSeriesCategories(account, fetched);
             log(logger, "Saved " + fetched.size() + " categories to local VOD/Series cache.");
             List<Category> stored = getVodSeriesCachedCategories(account);
             return maybeFilterCategories(stored.isEmpty() ? fetched : stored, censor);
@@ -171,6 +224,8 @@ public class CategoryService {
         } else if (account.getAction() == series) {
             SeriesCategoryDb.get().saveAll(categories, account);
         }
+        WatchingNowReadModel.getInstance().invalidate(account.getDbId());
+        CompactChannelStore.getInstance().invalidate(account.getDbId());
     }
 
     private void hardReloadCategories(Account account, LoggerCallback logger) {
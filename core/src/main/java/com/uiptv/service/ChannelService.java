@@ -50,12 +50,11 @@ public class ChannelService {
     private static final Map<String, RequestThrottle> STALKER_THROTTLES = new java.util.concurrent.ConcurrentHashMap<>();
     private final CacheService cacheService;
     private final ContentFilterService contentFilterService;
-    private final LogoResolverService logoResolverService;
+    private final SingleFlight<Channel, PageProgress> providerFetches = new SingleFlight<>();
 
     private ChannelService() {
         this.cacheService = new CacheServiceImpl();
         this.contentFilterService = ContentFilterService.getInstance();
-        this.logoResolverService = LogoResolverService.getInstance();
     }
 
     public static Map<String, String> getChannelOrSeriesParams(String category, int pageNumber, Account.AccountAction accountAction, String movieId, String seriesId) {
@@ -120,6 +119,50 @@ public class ChannelService {
         return publishChannels(result, callback);
     }
 
+    /**
+     * Web variant of {@link #get(String, Account, String)}: an expired VOD/Series channel cache is returned
+     * as-is, flagged stale, while all provider pages are fetched in the background. Live TV and empty caches
+     * take the regular blocking path.
+     */
+    public CatalogCacheResult<Channel> getStaleWhileRevalidate(String categoryId, Account account, String dbId) throws IOException {
+        if (!shouldUseVodSeriesDbCache(account)) {
+            return CatalogCacheResult.fresh(get(categoryId, account, dbId));
+        }
+        List<Channel> cachedChannels = getVodSeriesFromDbCache(account, dbId);
+        if (cachedChannels.isEmpty()) {
+            return CatalogCacheResult.fresh(get(categoryId, account, dbId));
+        }
+        List<Channel> visible = maybeFilterChannels(dedupeChannels(cachedChannels), true);
+        if (isVodSeriesChannelsFresh(account, dbId)) {
+            return CatalogCacheResult.fresh(visible);
+        }
+        CatalogRefreshService.getInstance().schedule(CatalogRefreshEvent.Kind.CHANNELS, account.getDbId(),
+                account.getAction().name(), dbId, () -> refreshVodSeriesChannels(categoryId, account, dbId));
+        return CatalogCacheResult.stale(visible);
+    }
+
+    /**
+     * Refetches all provider pages of a VOD/Series category when its cached rows have expired.
+     *
+     * @return the number of channels stored, or 0 when nothing was refreshed
+     */
+    public int refreshVodSeriesChannelsIfStale(String categoryId, Account account, String dbId) {
+        if (account == null || !shouldUseVodSeriesDbCache(account) || isVodSeriesChannelsFresh(account, dbId)) {
+            return 0;
+        }
+        return refreshVodSeriesChannels(categoryId, account, dbId);
+    }
+
+    private int refreshVodSeriesChannels(String categoryId, Account account, String dbId) {
+        ensureStalkerSession(account, null);
+        List<Channel> fetchedChannels = fetchVodSeriesFromProviderAllPages(categoryId, account, null, null, null, null);
+        if (fetchedChannels.isEmpty()) {
+            return 0;
+        }
+        saveVodSeriesToDbCache(account, dbId, fetchedChannels);
+        return fetchedChannels.size();
+    }
+
     private List<Channel> loadCachedLiveChannels(String categoryId, String dbId, Account account, LoggerCallback logger) throws IOException {
         List<Channel> channels = resolveCachedLiveChannels(categoryId, dbId, account);
         if (!channels.isEmpty()) {
@@ -157,6 +200,19 @@ public class ChannelService {
         }
         log(logger, "No fresh cache found for category " + categoryId + ". Fetching from portal...");
         boolean streamingCallback = callback != null && (account.getType() == STALKER_PORTAL || account.getType() == XTREME_API);
+        String flightKey = SingleFlight.key(account.getDbId(), account.getAction(), categoryId, "all");
+        if (providerFetches.isInFlight(flightKey)) {
+            log(logger, "Joining the portal fetch already running for category " + categoryId + ".");
+        }
+        List<Channel> fetchedChannels = providerFetches.run(flightKey, callback, progressCallback, isCancelled,
+                (pageSink, progressSink, flightCancelled) -> fetchAndSaveVodSeriesChannels(categoryId, account, dbId, flightCancelled, logger, pageSink, progressSink));
+        List<Channel> resolved = !fetchedChannels.isEmpty() ? fetchedChannels : cachedChannels;
+        return publishChannels(maybeFilterChannels(dedupeChannels(resolved), true), streamingCallback ? null : callback);
+    }
+
+    private List<Channel> fetchAndSaveVodSeriesChannels(String categoryId, Account account, String dbId, Supplier<Boolean> isCancelled,
+                                                        LoggerCallback logger, Consumer<List<Channel>> callback,
+                                                        Consumer<PageProgress> progressCallback) {
         List<Channel> fetchedChannels = fetchVodSeriesFromProviderAllPages(categoryId, account, isCancelled, logger, callback, progressCallback);
         boolean cancelled = Thread.currentThread().isInterrupted() || (isCancelled != null && isCancelled.get());
         if (!fetchedChannels.isEmpty() && !cancelled) {
@@ -169,19 +225,22 @@ public class ChannelService {
         } else if (cancelled) {
             log(logger, "Channel fetch cancelled before cache save for category " + categoryId + ".");
         }
-        List<Channel> resolved = !fetchedChannels.isEmpty() ? fetchedChannels : cachedChannels;
-        return publishChannels(maybeFilterChannels(dedupeChannels(resolved), true), streamingCallback ? null : callback);
+        return fetchedChannels;
     }
 
     private void fetchAndCacheMissingLiveChannels(String categoryId, Account account, String dbId, Consumer<List<Channel>> callback,
                                                   Supplier<Boolean> isCancelled, LoggerCallback logger, List<Channel> channels) {
         log(logger, "No cached live channels for category " + categoryId + ". Fetching from portal...");
-        List<Channel> fetchedChannels = getStalkerPortalChOrSeries(categoryId, account, null, "0", callback, isCancelled, false, logger);
-        if (!fetchedChannels.isEmpty()) {
-            ChannelDb.get().saveAll(fetchedChannels, dbId, account);
-            channels.addAll(fetchedChannels);
-            log(logger, "Saved " + fetchedChannels.size() + " live channels to local cache.");
-        }
+        List<Channel> fetchedChannels = providerFetches.run(SingleFlight.key(account.getDbId(), itv, categoryId, "all"), callback, null, isCancelled,
+                (pageSink, progressSink, flightCancelled) -> {
+                    List<Channel> fetched = getStalkerPortalChOrSeries(categoryId, account, null, "0", pageSink, flightCancelled, false, logger);
+                    if (!fetched.isEmpty()) {
+                        ChannelDb.get().saveAll(fetched, dbId, account);
+                        log(logger, "Saved " + fetched.size() + " live channels to local cache.");
+                    }
+                    return fetched;
+                });
+        channels.addAll(fetchedChannels);
     }
 
     private List<Channel> publishChannels(List<Channel> channels, Consumer<List<Channel>> callback) {
@@ -302,11 +361,11 @@ public class ChannelService {
     private void saveVodSeriesToDbCache(Account account, String dbCategoryId, List<Channel> channels) {
         if (account.getAction() == vod) {
             VodChannelDb.get().saveAll(channels, dbCategoryId, account);
-            return;
-        }
-        if (account.getAction() == series) {
+        } else if (account.getAction() == series) {
             SeriesChannelDb.get().saveAll(channels, dbCategoryId, account);
         }
+        WatchingNowReadModel.getInstance().invalidate(account.getDbId());
+        CompactChannelStore.getInstance().invalidate(account.getDbId());
     }
 
     @SuppressWarnings("java:S4276")
@@ -746,7 +805,9 @@ public class ChannelService {
     public List<Channel> getSeries(String categoryId, String movieId, Account account, Consumer<List<Channel>> callback, Supplier<Boolean> isCancelled) {
         // This method does not seem to be part of the caching logic, so it can stay here.
         // If it needs to be cached, it should be moved to CacheServiceImpl.
-        return maybeFilterChannels(getStalkerPortalChOrSeries(categoryId, account, movieId, "0", callback, isCancelled), true);
+        List<Channel> episodes = providerFetches.run(SingleFlight.key(account.getDbId(), series, categoryId, "movie:" + movieId), callback, null, isCancelled,
+                (pageSink, progressSink, flightCancelled) -> getStalkerPortalChOrSeries(categoryId, account, movieId, "0", pageSink, flightCancelled));
+        return maybeFilterChannels(episodes, true);
     }
 
     public String readToJson(Category category, Account account) throws IOException {
@@ -955,7 +1016,7 @@ public class ChannelService {
         if (hasAbsoluteLogo) {
             return;
         }
-        String resolved = logoResolverService.resolve(channel.getName(), currentLogo);
+        String resolved = LogoResolverService.getInstance().resolve(channel.getName(), currentLogo);
         if (isNotBlank(resolved)) {
             channel.setLogo(resolved);
         }
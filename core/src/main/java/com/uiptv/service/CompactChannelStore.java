@@ -0,0 +1,123 @@
+package com.uiptv.service;
+
+import com.uiptv.db.SQLConnection;
+import com.uiptv.model.Channel;
+import com.uiptv.util.MetricsRegistry;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * Keeps recently listed channel categories as {@link CompactChannelTable}s so paged reads materialize only the rows
+ * they return.
+ * <p>
+ * At most {@code uiptv.channel.store.maxTables} tables (default 16) are kept, least recently used first out, each
+ * for up to {@code uiptv.channel.store.maxAge.ms} (default 10 minutes) so provider-side expiry still applies. An
+ * account's tables are dropped on a catalog refresh, a series watch-state change or a cache write/clear for it; all
+ * tables are dropped on account or configuration changes. A load that races with an invalidation is returned but
+ * not kept.
+ */
+public class CompactChannelStore {
+    private static final int MAX_TABLES = Math.max(1, Integer.getInteger("uiptv.channel.store.maxTables", 16));
+    private static final long MAX_AGE_MS = Math.max(0, Long.getLong("uiptv.channel.store.maxAge.ms", 10 * 60_000L));
+    private static final String KEY_SEPARATOR = "|";
+    private static final MetricsRegistry.CacheCounters CACHE = MetricsRegistry.getInstance().cacheCounters("channel_store");
+
+    private final Map<String, Entry> tables = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_TABLES;
+        }
+    };
+    private final AtomicLong version = new AtomicLong();
+    private String databasePath;
+
+    @FunctionalInterface
+    public interface ChannelLoader {
+        List<Channel> load() throws IOException;
+    }
+
+    private CompactChannelStore() {
+        CatalogRefreshService.getInstance().addListener(event -> invalidate(event.accountId()));
+        SeriesWatchStateService.getInstance().addChangeListener((accountId, _) -> invalidate(accountId));
+        AccountService.getInstance().addChangeListener(_ -> invalidateAll());
+        ConfigurationService.getInstance().addChangeListener(_ -> invalidateAll());
+    }
+
+    private static class SingletonHelper {
+        private static final CompactChannelStore INSTANCE = new CompactChannelStore();
+    }
+
+    public static CompactChannelStore getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    /**
+     * The table for one account, mode and category, loading it with {@code loader} when it is not held.
+     */
+    public CompactChannelTable table(String accountId, String mode, String categoryId, ChannelLoader loader) throws IOException {
+        if (isBlank(accountId)) {
+            return CompactChannelTable.of(loader.load());
+        }
+        String key = accountId + KEY_SEPARATOR + mode + KEY_SEPARATOR + (categoryId == null ? "" : categoryId);
+        long seen;
+        synchronized (this) {
+            checkDatabase();
+            Entry cached = tables.get(key);
+            if (cached != null && System.currentTimeMillis() - cached.loadedAtMs() <= MAX_AGE_MS) {
+                CACHE.hits().inc();
+                return cached.table();
+            }
+            seen = version.get();
+        }
+        CACHE.misses().inc();
+        CompactChannelTable loaded = CompactChannelTable.of(loader.load());
+        synchronized (this) {
+            if (version.get() == seen) {
+                tables.put(key, new Entry(loaded, System.currentTimeMillis()));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the tables of one account; a blank id drops every table.
+     */
+    public void invalidate(String accountId) {
+        if (isBlank(accountId)) {
+            invalidateAll();
+            return;
+        }
+        String prefix = accountId + KEY_SEPARATOR;
+        synchronized (this) {
+            version.incrementAndGet();
+            tables.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        version.incrementAndGet();
+        tables.clear();
+    }
+
+    synchronized int tableCount() {
+        return tables.size();
+    }
+
+    private record Entry(CompactChannelTable table, long loadedAtMs) {
+    }
+
+    private void checkDatabase() {
+        String current = SQLConnection.getDatabasePath();
+        if (!Objects.equals(current, databasePath)) {
+            invalidateAll();
+            databasePath = current;
+        }
+    }
+}
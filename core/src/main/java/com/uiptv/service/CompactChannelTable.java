@@ -0,0 +1,250 @@
+package com.uiptv.service;
+
+import com.uiptv.model.Channel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, column-oriented copy of a channel list.
+ * <p>
+ * Instead of one {@link Channel} with ~25 references per row, every field is a column: low-cardinality strings
+ * (category, season, DRM and manifest types, ...) are dictionary codes, URLs (cmd, cmd_1..3, logo, licence URL)
+ * are a dictionary-encoded prefix up to the last {@code '/'} plus the remaining suffix, and the censored, status and
+ * hd flags are plain {@code int} arrays. Rows are materialized into fresh {@link Channel} objects only when asked for,
+ * so callers may mutate what they get back.
+ */
+public final class CompactChannelTable {
+    private static final int NULL_CODE = -1;
+
+    private final int size;
+    private final String[] dictionary;
+
+    private final String[] dbIds;
+    private final String[] channelIds;
+    private final String[] names;
+    private final String[] numbers;
+    private final String[] descriptions;
+    private final String[] extraJsons;
+    private final String[] clearKeysJsons;
+
+    private final int[] categoryIds;
+    private final int[] seasons;
+    private final int[] episodeNums;
+    private final int[] releaseDates;
+    private final int[] ratings;
+    private final int[] durations;
+    private final int[] drmTypes;
+    private final int[] inputstreamaddons;
+    private final int[] manifestTypes;
+
+    private final UrlColumn cmd;
+    private final UrlColumn cmd1;
+    private final UrlColumn cmd2;
+    private final UrlColumn cmd3;
+    private final UrlColumn logo;
+    private final UrlColumn drmLicenseUrl;
+
+    private final int[] censored;
+    private final int[] status;
+    private final int[] hd;
+    private final BitSet watched;
+
+    private CompactChannelTable(List<Channel> channels) {
+        size = channels.size();
+        Dictionary dict = new Dictionary();
+        dbIds = new String[size];
+        channelIds = new String[size];
+        names = new String[size];
+        numbers = new String[size];
+        descriptions = new String[size];
+        extraJsons = new String[size];
+        clearKeysJsons = new String[size];
+        categoryIds = new int[size];
+        seasons = new int[size];
+        episodeNums = new int[size];
+        releaseDates = new int[size];
+        ratings = new int[size];
+        durations = new int[size];
+        drmTypes = new int[size];
+        inputstreamaddons = new int[size];
+        manifestTypes = new int[size];
+        cmd = new UrlColumn(size);
+        cmd1 = new UrlColumn(size);
+        cmd2 = new UrlColumn(size);
+        cmd3 = new UrlColumn(size);
+        logo = new UrlColumn(size);
+        drmLicenseUrl = new UrlColumn(size);
+        censored = new int[size];
+        status = new int[size];
+        hd = new int[size];
+        watched = new BitSet(size);
+
+        for (int row = 0; row < size; row++) {
+            Channel channel = channels.get(row);
+            if (channel == null) {
+                channel = new Channel();
+            }
+            dbIds[row] = canonical(channel.getDbId());
+            channelIds[row] = canonical(channel.getChannelId());
+            names[row] = canonical(channel.getName());
+            numbers[row] = canonical(channel.getNumber());
+            descriptions[row] = canonical(channel.getDescription());
+            extraJsons[row] = canonical(channel.getExtraJson());
+            clearKeysJsons[row] = canonical(channel.getClearKeysJson());
+            categoryIds[row] = dict.code(channel.getCategoryId());
+            seasons[row] = dict.code(channel.getSeason());
+            episodeNums[row] = dict.code(channel.getEpisodeNum());
+            releaseDates[row] = dict.code(channel.getReleaseDate());
+            ratings[row] = dict.code(channel.getRating());
+            durations[row] = dict.code(channel.getDuration());
+            drmTypes[row] = dict.code(channel.getDrmType());
+            inputstreamaddons[row] = dict.code(channel.getInputstreamaddon());
+            manifestTypes[row] = dict.code(channel.getManifestType());
+            cmd.set(row, channel.getCmd(), dict);
+            cmd1.set(row, channel.getCmd_1(), dict);
+            cmd2.set(row, channel.getCmd_2(), dict);
+            cmd3.set(row, channel.getCmd_3(), dict);
+            logo.set(row, channel.getLogo(), dict);
+            drmLicenseUrl.set(row, channel.getDrmLicenseUrl(), dict);
+            censored[row] = channel.getCensored();
+            status[row] = channel.getStatus();
+            hd[row] = channel.getHd();
+            if (channel.isWatched()) {
+                watched.set(row);
+            }
+        }
+        dictionary = dict.values();
+    }
+
+    public static CompactChannelTable of(List<Channel> channels) {
+        return new CompactChannelTable(channels == null ? List.of() : channels);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Distinct dictionary entries shared by the coded and URL-prefix columns.
+     */
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    public Channel get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+        Channel channel = new Channel();
+        channel.setDbId(dbIds[row]);
+        channel.setChannelId(channelIds[row]);
+        channel.setCategoryId(decode(categoryIds[row]));
+        channel.setName(names[row]);
+        channel.setNumber(numbers[row]);
+        channel.setCmd(cmd.get(row, dictionary));
+        channel.setCmd_1(cmd1.get(row, dictionary));
+        channel.setCmd_2(cmd2.get(row, dictionary));
+        channel.setCmd_3(cmd3.get(row, dictionary));
+        channel.setLogo(logo.get(row, dictionary));
+        channel.setDescription(descriptions[row]);
+        channel.setSeason(decode(seasons[row]));
+        channel.setEpisodeNum(decode(episodeNums[row]));
+        channel.setReleaseDate(decode(releaseDates[row]));
+        channel.setRating(decode(ratings[row]));
+        channel.setDuration(decode(durations[row]));
+        channel.setExtraJson(extraJsons[row]);
+        channel.setCensored(censored[row]);
+        channel.setStatus(status[row]);
+        channel.setHd(hd[row]);
+        channel.setWatched(watched.get(row));
+        channel.setDrmType(decode(drmTypes[row]));
+        channel.setDrmLicenseUrl(drmLicenseUrl.get(row, dictionary));
+        channel.setClearKeysJson(clearKeysJsons[row]);
+        channel.setInputstreamaddon(decode(inputstreamaddons[row]));
+        channel.setManifestType(decode(manifestTypes[row]));
+        return channel;
+    }
+
+    /**
+     * Materializes rows {@code [from, to)}, clamped to the table.
+     */
+    public List<Channel> rows(int from, int to) {
+        int start = Math.clamp(from, 0, size);
+        int end = Math.clamp(to, start, size);
+        List<Channel> rows = new ArrayList<>(end - start);
+        for (int row = start; row < end; row++) {
+            rows.add(get(row));
+        }
+        return rows;
+    }
+
+    /**
+     * Shares the empty string; other free-text values are kept as they are.
+     */
+    private static String canonical(String value) {
+        return value != null && value.isEmpty() ? "" : value;
+    }
+
+    private String decode(int code) {
+        return code == NULL_CODE ? null : dictionary[code];
+    }
+
+    private static final class UrlColumn {
+        private final int[] prefixes;
+        private final String[] suffixes;
+
+        private UrlColumn(int size) {
+            prefixes = new int[size];
+            suffixes = new String[size];
+        }
+
+        private void set(int row, String value, Dictionary dict) {
+            if (value == null) {
+                prefixes[row] = NULL_CODE;
+                return;
+            }
+            int cut = value.lastIndexOf('/') + 1;
+            prefixes[row] = dict.code(value.substring(0, cut));
+            suffixes[row] = canonical(value.substring(cut));
+        }
+
+        private String get(int row, String[] dictionary) {
+            int prefix = prefixes[row];
+            if (prefix == NULL_CODE) {
+                return null;
+            }
+            String suffix = suffixes[row];
+            return suffix.isEmpty() ? dictionary[prefix] : dictionary[prefix] + suffix;
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] values = new String[16];
+
+        private int code(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = codes.size();
+                if (code == values.length) {
+                    values = Arrays.copyOf(values, code * 2);
+                }
+                values[code] = value;
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        private String[] values() {
+            return Arrays.copyOf(values, codes.size());
+        }
+    }
+}
@@ -33,9 +33,13 @@ public class ConfigurationService {
     }
     public void clearCache(Account account) {
         ConfigurationDb.get().clearCache(account);
+        WatchingNowReadModel.getInstance().invalidate(account == null ? "" : account.getDbId());
+        CompactChannelStore.getInstance().invalidate(account == null ? "" : account.getDbId());
     }
     public void clearAllCache() {
         ConfigurationDb.get().clearAllCache();
+        WatchingNowReadModel.getInstance().invalidateAll();
+        CompactChannelStore.getInstance().invalidateAll();
     }
 
     public void save(Configuration configuration) {
@@ -1,7 +1,7 @@
 package com.uiptv.service;
 
 import com.uiptv.db.DatabasePatchesUtils;
-import com.uiptv.service.remotesync.SecureTempFileSupport;
+import com.uiptv.util.SecureTempFileSupport;
 import org.json.JSONObject;
 
 import java.io.BufferedInputStream;
@@ -0,0 +1,217 @@
+package com.uiptv.service;
+
+import com.uiptv.db.DatabaseAccessException;
+import com.uiptv.db.SQLConnection;
+import com.uiptv.util.AppLog;
+import com.uiptv.util.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.uiptv.db.DatabaseUtils.DbTable.DATABASE_MAINTENANCE_TABLE;
+
+/**
+ * Keeps the SQLite file healthy under the constant row churn of cache reloads. A maintenance pass refreshes planner
+ * statistics ({@code ANALYZE} the first time, {@code PRAGMA optimize} afterwards), returns free pages to the file system
+ * through incremental vacuum, and checkpoints and truncates the WAL.
+ * <p>
+ * Databases created before incremental vacuum was enabled are converted with one full {@code VACUUM} once at least
+ * {@value #VACUUM_CONVERSION_FREE_PERCENT}% of their pages are free. Passes run every
+ * {@code uiptv.sql.maintenance.interval.minutes} (default 360), but only after the database has been left alone for
+ * {@code uiptv.sql.maintenance.idle.seconds} (default 120); {@code uiptv.sql.maintenance.enabled=false} turns them off.
+ * The time of the last pass is kept in the database, so the interval carries across restarts.
+ */
+public class DatabaseMaintenanceService {
+    static final int VACUUM_CONVERSION_FREE_PERCENT = 20;
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("uiptv.sql.maintenance.enabled", "true"));
+    private static final long INTERVAL_MS = TimeUnit.MINUTES.toMillis(Math.max(1, Long.getLong("uiptv.sql.maintenance.interval.minutes", 360L)));
+    private static final long IDLE_MS = TimeUnit.SECONDS.toMillis(Math.max(1, Long.getLong("uiptv.sql.maintenance.idle.seconds", 120L)));
+    private static final long IDLE_RECHECK_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private ScheduledExecutorService timer;
+    private long lastRunMs = -1; // -1 until read from the database
+
+    private DatabaseMaintenanceService() {
+        MetricsRegistry.getInstance().sampled("uiptv_db_storage_bytes", MetricsRegistry.Type.GAUGE,
+                "Size of the SQLite database files on disk, by part (database, wal).",
+                this::sampleStorage, "part");
+    }
+
+    private static class SingletonHelper {
+        private static final DatabaseMaintenanceService INSTANCE = new DatabaseMaintenanceService();
+    }
+
+    public static DatabaseMaintenanceService getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (!ENABLED || timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "uiptv-db-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::runIfDue, IDLE_RECHECK_MS, IDLE_RECHECK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    /**
+     * Whether a scheduled pass should run now: the interval since the last pass has elapsed and nothing has used the
+     * database for the idle period.
+     */
+    static boolean isDue(long nowMs, long lastRunMs, long lastActivityMs, long intervalMs, long idleMs) {
+        return nowMs - lastRunMs >= intervalMs && nowMs - lastActivityMs >= idleMs;
+    }
+
+    private void runIfDue() {
+        // Read before the pass opens connections of its own.
+        long lastActivity = SQLConnection.lastActivityMs();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (!isDue(now, lastRunMs(), lastActivity, INTERVAL_MS, IDLE_MS)) {
+                return;
+            }
+            // Not retried before the next interval should the pass fail; a successful pass stores its own start time.
+            lastRunMs = now;
+        }
+        try {
+            MaintenanceReport report = runMaintenance();
+            AppLog.addInfoLog(DatabaseMaintenanceService.class, "Database maintenance finished in " + report.durationMs()
+                    + " ms: " + report.before() + " -> " + report.after());
+        } catch (RuntimeException e) {
+            AppLog.addWarningLog(DatabaseMaintenanceService.class, "Database maintenance failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a maintenance pass now, regardless of schedule and activity.
+     */
+    public synchronized MaintenanceReport runMaintenance() {
+        long startedAt = System.currentTimeMillis();
+        StorageStats before = stats();
+        try (Connection conn = SQLConnection.connect(); Statement statement = conn.createStatement()) {
+            if (hasPlannerStatistics(statement)) {
+                statement.execute("PRAGMA optimize");
+            } else {
+                statement.execute("ANALYZE");
+            }
+            if (queryLong(statement, "PRAGMA auto_vacuum") == AUTO_VACUUM_INCREMENTAL) {
+                statement.execute("PRAGMA incremental_vacuum");
+            } else if (before.pageCount() > 0 && before.freePages() * 100 >= before.pageCount() * VACUUM_CONVERSION_FREE_PERCENT) {
+                // auto_vacuum can only change on a rebuild; this one-time VACUUM also drops the current free pages.
+                // VACUUM builds a transient copy of the whole database; keep it on disk rather than in the MEMORY
+                // temp store the connection profile uses for sorts.
+                statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                statement.execute("PRAGMA temp_store = FILE");
+                statement.execute("VACUUM");
+            }
+            saveLastRunMs(conn, startedAt);
+            statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to run database maintenance", e);
+        }
+        lastRunMs = startedAt;
+        return new MaintenanceReport(before, stats(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * When the last maintenance pass started, in epoch milliseconds; 0 when none has run on this database.
+     */
+    public synchronized long lastRunMs() {
+        if (lastRunMs < 0) {
+            lastRunMs = readLastRunMs();
+        }
+        return lastRunMs;
+    }
+
+    public StorageStats stats() {
+        String databasePath = SQLConnection.getDatabasePath();
+        try (Connection conn = SQLConnection.connect(); Statement statement = conn.createStatement()) {
+            return new StorageStats(
+                    fileSize(Path.of(databasePath)),
+                    fileSize(Path.of(databasePath + "-wal")),
+                    queryLong(statement, "PRAGMA page_size"),
+                    queryLong(statement, "PRAGMA page_count"),
+                    queryLong(statement, "PRAGMA freelist_count"));
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to read database storage statistics", e);
+        }
+    }
+
+    private static long readLastRunMs() {
+        String sql = "SELECT lastRunAt FROM " + DATABASE_MAINTENANCE_TABLE.getTableName() + " WHERE id=1";
+        try (Connection conn = SQLConnection.connect(); Statement statement = conn.createStatement()) {
+            return queryLong(statement, sql);
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Unable to read the last database maintenance time", e);
+        }
+    }
+
+    private static void saveLastRunMs(Connection conn, long runMs) throws SQLException {
+        String upsert = "INSERT INTO " + DATABASE_MAINTENANCE_TABLE.getTableName() + " (id, lastRunAt) VALUES (1, ?)"
+                + " ON CONFLICT(id) DO UPDATE SET lastRunAt=excluded.lastRunAt";
+        try (PreparedStatement statement = conn.prepareStatement(upsert)) {
+            statement.setLong(1, runMs);
+            statement.executeUpdate();
+        }
+    }
+
+    private Map<List<String>, Number> sampleStorage() {
+        // File sizes only: opening a connection per scrape would count as activity and keep maintenance from running.
+        String databasePath = SQLConnection.getDatabasePath();
+        return Map.of(
+                List.of("database"), fileSize(Path.of(databasePath)),
+                List.of("wal"), fileSize(Path.of(databasePath + "-wal")));
+    }
+
+    private static boolean hasPlannerStatistics(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'sqlite_stat1'")) {
+            return rs.next();
+        }
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    private static long fileSize(Path path) {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0L;
+        } catch (IOException _) {
+            return 0L;
+        }
+    }
+
+    public record StorageStats(long fileBytes, long walBytes, long pageSize, long pageCount, long freePages) {
+        @Override
+        public String toString() {
+            return "file " + fileBytes + " B, WAL " + walBytes + " B, " + freePages + "/" + pageCount + " pages free";
+        }
+    }
+
+    public record MaintenanceReport(StorageStats before, StorageStats after, long durationMs) {
+    }
+}
@@ -1,9 +1,10 @@
 package com.uiptv.service;
 
 import com.uiptv.db.DatabaseUtils;
-import com.uiptv.service.remotesync.SecureTempFileSupport;
+import com.uiptv.util.SecureTempFileSupport;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -11,14 +12,23 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import static com.uiptv.util.SQLiteTableSync.ensureDatabaseReady;
@@ -30,6 +40,46 @@ public class DatabaseSyncService {
     private static final String ORDER_BY_SQL = " ORDER BY ";
     private static final String LIMIT_ONE_SQL = " LIMIT 1";
     private static final String CONFIGURATION_TABLE = DatabaseUtils.DbTable.CONFIGURATION_TABLE.getTableName();
+    private static final String ACCOUNT_TABLE = DatabaseUtils.DbTable.ACCOUNT_TABLE.getTableName();
+    private static final int DELTA_BUCKETS = 64;
+    private static final String DELTA_BUCKET_TABLE = "uiptv_delta_bucket";
+    private static final byte[] NULL_MARKER = {0};
+    private static final byte[] FIELD_SEPARATOR = {0x1f};
+    private static final byte[] ROW_SEPARATOR = {0x1e};
+    private static final String CHANNEL_TABLE = DatabaseUtils.DbTable.CHANNEL_TABLE.getTableName();
+    private static final Set<String> ACCOUNT_SCOPED_CACHE_TABLES = DatabaseUtils.Cacheable.stream()
+            .filter(table -> table != DatabaseUtils.DbTable.CHANNEL_TABLE)
+            .map(DatabaseUtils.DbTable::getTableName)
+            .collect(Collectors.toUnmodifiableSet());
+    private static final String ID_COLUMN = "id";
+    /**
+     * Tables a delta sync can carry, in dependency order, with the columns that identify a row on every device.
+     * Which of them a sync actually carries is decided by {@link DatabaseUtils#Syncable}.
+     */
+    private static final List<DeltaTable> DELTA_TABLES = List.of(
+            new DeltaTable(DatabaseUtils.DbTable.CONFIGURATION_TABLE, List.of(), Map.of()),
+            new DeltaTable(DatabaseUtils.DbTable.ACCOUNT_TABLE, List.of("accountName"), Map.of()),
+            new DeltaTable(DatabaseUtils.DbTable.ACCOUNT_INFO_TABLE, List.of("accountId"),
+                    Map.of("accountId", DatabaseUtils.DbTable.ACCOUNT_TABLE)),
+            new DeltaTable(DatabaseUtils.DbTable.BOOKMARK_CATEGORY_TABLE, List.of("name"), Map.of()),
+            new DeltaTable(DatabaseUtils.DbTable.BOOKMARK_TABLE, List.of("accountName", "categoryTitle", "channelId", "channelName"),
+                    Map.of("categoryId", DatabaseUtils.DbTable.BOOKMARK_CATEGORY_TABLE)),
+            new DeltaTable(DatabaseUtils.DbTable.BOOKMARK_ORDER_TABLE, List.of("bookmark_db_id", "category_id"),
+                    Map.of("bookmark_db_id", DatabaseUtils.DbTable.BOOKMARK_TABLE, "category_id", DatabaseUtils.DbTable.BOOKMARK_CATEGORY_TABLE)),
+            new DeltaTable(DatabaseUtils.DbTable.VOD_WATCH_STATE_TABLE, List.of("accountId", "categoryId", "vodId"),
+                    Map.of("accountId", DatabaseUtils.DbTable.ACCOUNT_TABLE)),
+            new DeltaTable(DatabaseUtils.DbTable.SERIES_WATCH_STATE_TABLE, List.of("accountId", "mode", "categoryId", "seriesId"),
+                    Map.of("accountId", DatabaseUtils.DbTable.ACCOUNT_TABLE)),
+            new DeltaTable(DatabaseUtils.DbTable.SERIES_WATCHING_NOW_SNAPSHOT_TABLE, List.of("accountId", "categoryId", "seriesId"),
+                    Map.of("accountId", DatabaseUtils.DbTable.ACCOUNT_TABLE)),
+            new DeltaTable(DatabaseUtils.DbTable.PUBLISHED_M3U_SELECTION_TABLE, List.of("accountId"),
+                    Map.of("accountId", DatabaseUtils.DbTable.ACCOUNT_TABLE)),
+            new DeltaTable(DatabaseUtils.DbTable.PUBLISHED_M3U_CATEGORY_SELECTION_TABLE, List.of("accountId", "categoryName"),
+                    Map.of("accountId", DatabaseUtils.DbTable.ACCOUNT_TABLE)),
+            new DeltaTable(DatabaseUtils.DbTable.PUBLISHED_M3U_CHANNEL_SELECTION_TABLE, List.of("accountId", "categoryName", "channelId"),
+                    Map.of("accountId", DatabaseUtils.DbTable.ACCOUNT_TABLE))
+    );
+    private static final Set<String> ACCOUNT_IDENTITY_COLUMNS = Set.of("accountName", "type", "url", "username", "macAddress", "m3u8Path");
     private static final Set<String> EXTERNAL_PLAYER_PATH_COLUMNS = Set.of(
             "playerPath1",
             "playerPath2",
@@ -75,6 +125,122 @@ public class DatabaseSyncService {
         }
     }
 
+    /**
+     * Per-table Merkle summary of the tables a delta sync carries. Each table's rows are split into
+     * {@link #DELTA_BUCKETS} buckets by their {@link DeltaTable} key; a bucket hash covers its rows regardless of
+     * local ids and the table root covers the bucket hashes. Cache tables are never summarized; the receiver
+     * rebuilds them from providers.
+     */
+    public DeltaSyncSummary summarizeForDeltaSync(String dbPath, boolean includeConfiguration) throws SQLException {
+        Map<String, TableDigest> tables = new LinkedHashMap<>();
+        try (Connection conn = DriverManager.getConnection(SQLITE_PREFIX + dbPath)) {
+            for (KeyedTable table : readKeyedTables(conn, includeConfiguration)) {
+                tables.put(table.spec().tableName(), digestTable(table));
+            }
+        }
+        return new DeltaSyncSummary(tables);
+    }
+
+    /**
+     * Writes a small SQLite file holding only the buckets of {@code sourceDB} whose hashes differ from
+     * {@code targetSummary}, plus a {@value #DELTA_BUCKET_TABLE} table listing which buckets it replaces. Rows are
+     * written without their {@code id} and with every reference column holding the referenced row's key.
+     */
+    public Path createDeltaSnapshot(String sourceDB, DeltaSyncSummary targetSummary, boolean includeConfiguration) throws SQLException {
+        Path deltaPath = null;
+        try (Connection sourceConn = DriverManager.getConnection(SQLITE_PREFIX + sourceDB)) {
+            List<KeyedTable> sourceTables = readKeyedTables(sourceConn, includeConfiguration);
+            deltaPath = SecureTempFileSupport.createTempFile("uiptv-db-delta-", ".db");
+            try (Connection deltaConn = DriverManager.getConnection(SQLITE_PREFIX + deltaPath);
+                 Statement statement = deltaConn.createStatement()) {
+                executeSchemaStatement(statement, "CREATE TABLE " + quoteIdentifier(DELTA_BUCKET_TABLE)
+                        + " (tableName TEXT NOT NULL, bucket INTEGER NOT NULL)");
+                for (KeyedTable table : sourceTables) {
+                    String tableName = table.spec().tableName();
+                    List<Integer> buckets = digestTable(table).changedBuckets(targetSummary == null ? null : targetSummary.tables().get(tableName));
+                    if (buckets.isEmpty()) {
+                        continue;
+                    }
+                    writeDeltaTable(deltaConn, statement, table, Set.copyOf(buckets));
+                    try (PreparedStatement insert = prepareSchemaStatement(deltaConn,
+                            "INSERT INTO " + quoteIdentifier(DELTA_BUCKET_TABLE) + " (tableName, bucket) VALUES (?, ?)")) {
+                        for (Integer bucket : buckets) {
+                            insert.setString(1, tableName);
+                            insert.setInt(2, bucket);
+                            insert.addBatch();
+                        }
+                        insert.executeBatch();
+                    }
+                }
+            }
+            return deltaPath;
+        } catch (IOException ex) {
+            throw new SQLException("Unable to create database delta snapshot", ex);
+        } catch (SQLException ex) {
+            deleteIfExists(deltaPath);
+            throw ex;
+        }
+    }
+
+    /**
+     * Applies a snapshot from {@link #createDeltaSnapshot} in place. Within every listed bucket, delta rows update the
+     * local row with the same key or are inserted under a new local id, and local rows whose key the delta lacks are
+     * deleted. Reference columns are mapped back to local ids through the referenced row's key. Other rows and all
+     * cache tables are left alone, except that cached provider data of accounts whose identity changed is dropped so
+     * it is refetched for the new account.
+     */
+    public DatabaseSyncReport applyDeltaWithReport(String deltaDB,
+                                                   String targetDB,
+                                                   boolean syncConfiguration,
+                                                   boolean syncExternalPlayerPaths,
+                                                   SyncProgressListener progressListener) throws SQLException {
+        notifyProgress(progressListener, 0, 3, "Preparing target database");
+        ensureDatabaseReady(targetDB);
+        Map<String, Object> preservedPlayerPaths = syncConfiguration && !syncExternalPlayerPaths
+                ? readFirstConfigurationValues(targetDB, EXTERNAL_PLAYER_PATH_COLUMNS)
+                : Map.of();
+
+        notifyProgress(progressListener, 1, 3, "Applying changed rows");
+        List<TableSyncResult> tableResults = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection(SQLITE_PREFIX + targetDB);
+             Statement statement = conn.createStatement()) {
+            executeSchemaStatement(statement, "ATTACH DATABASE '" + escapeSqlLiteral(deltaDB) + "' AS delta");
+            boolean originalAutoCommit = conn.getAutoCommit();
+            try {
+                Map<String, List<Integer>> bucketsByTable = readDeltaBuckets(conn);
+                conn.setAutoCommit(false);
+                Map<Long, String> accountsBefore = readAccountIdentities(conn);
+                Map<DatabaseUtils.DbTable, Map<String, String>> keysById = new EnumMap<>(DatabaseUtils.DbTable.class);
+                for (DeltaTable table : deltaSyncTables(syncConfiguration)) {
+                    if (!tableExists(conn, "main", table.tableName())) {
+                        continue;
+                    }
+                    List<Integer> buckets = bucketsByTable.get(table.tableName());
+                    if (buckets != null && tableExists(conn, "delta", table.tableName())) {
+                        tableResults.add(new TableSyncResult(table.tableName(), applyBuckets(conn, table, Set.copyOf(buckets), keysById)));
+                    }
+                    keysById.put(table.table(), keysById(readKeyedRows(conn, "main", table, keysById)));
+                }
+                invalidateCachesForChangedAccounts(statement, accountsBefore, readAccountIdentities(conn));
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(originalAutoCommit);
+                executeSchemaStatement(statement, "DETACH DATABASE delta");
+            }
+        }
+
+        notifyProgress(progressListener, 2, 3, "Restoring local settings");
+        if (!preservedPlayerPaths.isEmpty()) {
+            restoreFirstConfigurationValues(targetDB, preservedPlayerPaths);
+        }
+        boolean configurationCopied = syncConfiguration && hasConfigurationRows(targetDB);
+        notifyProgress(progressListener, 3, 3, null);
+        return new DatabaseSyncReport(tableResults, syncConfiguration, configurationCopied, syncExternalPlayerPaths);
+    }
+
     private DatabaseSyncReport cloneDatabaseWithConfigurationPolicy(Path sourceSnapshot,
                                                                     String targetDB,
                                                                     boolean syncConfiguration,
@@ -110,6 +276,256 @@ public class DatabaseSyncService {
         return new DatabaseSyncReport(tableResults, syncConfiguration, configurationCopied, syncExternalPlayerPaths);
     }
 
+    private List<DeltaTable> deltaSyncTables(boolean includeConfiguration) {
+        return DELTA_TABLES.stream()
+                .filter(table -> DatabaseUtils.Syncable.contains(table.table())
+                        || (includeConfiguration && table.table() == DatabaseUtils.DbTable.CONFIGURATION_TABLE))
+                .toList();
+    }
+
+    private List<KeyedTable> readKeyedTables(Connection conn, boolean includeConfiguration) throws SQLException {
+        List<KeyedTable> tables = new ArrayList<>();
+        Map<DatabaseUtils.DbTable, Map<String, String>> keysById = new EnumMap<>(DatabaseUtils.DbTable.class);
+        for (DeltaTable table : deltaSyncTables(includeConfiguration)) {
+            if (tableExists(conn, "main", table.tableName())) {
+                KeyedTable keyedTable = readKeyedRows(conn, "main", table, keysById);
+                keysById.put(table.table(), keysById(keyedTable));
+                tables.add(keyedTable);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Reads every row of {@code table} in {@code schema} without its {@code id}. When {@code keysById} is given the
+     * reference columns hold local ids and are replaced by the referenced row's key; rows whose reference points at
+     * nothing are skipped. Without it the rows come from a delta snapshot and already hold keys.
+     */
+    private KeyedTable readKeyedRows(Connection conn,
+                                     String schema,
+                                     DeltaTable table,
+                                     Map<DatabaseUtils.DbTable, Map<String, String>> keysById) throws SQLException {
+        List<String> allColumns = getTableColumns(conn, schema, table.tableName());
+        List<String> columns = allColumns.stream().filter(column -> !ID_COLUMN.equals(column)).sorted().toList();
+        boolean hasId = allColumns.contains(ID_COLUMN);
+        List<KeyedRow> rows = new ArrayList<>();
+        try (Statement statement = conn.createStatement();
+             ResultSet resultSet = executeSchemaQuery(statement, SELECT_SQL + (hasId ? quoteIdentifier(ID_COLUMN) + ", " : "")
+                     + "* " + FROM_SQL + schema + "." + quoteIdentifier(table.tableName())
+                     + ORDER_BY_SQL + (hasId ? quoteIdentifier(ID_COLUMN) : "rowid"))) {
+            while (resultSet.next()) {
+                Map<String, Object> values = new LinkedHashMap<>();
+                for (String column : columns) {
+                    values.put(column, resultSet.getObject(column));
+                }
+                if (keysById == null || replaceReferences(values, table, keysById)) {
+                    rows.add(new KeyedRow(hasId ? resultSet.getString(1) : null, table.keyOf(values), values));
+                }
+            }
+        }
+        return new KeyedTable(table, columns, rows);
+    }
+
+    /**
+     * Replaces every non-null reference in {@code values} using {@code lookup}, which maps the referenced table to
+     * a value-to-replacement map. Returns false when a reference has no replacement.
+     */
+    private static boolean replaceReferences(Map<String, Object> values,
+                                             DeltaTable table,
+                                             Map<DatabaseUtils.DbTable, Map<String, String>> lookup) {
+        for (Map.Entry<String, DatabaseUtils.DbTable> reference : table.references().entrySet()) {
+            Object value = values.get(reference.getKey());
+            if (value == null) {
+                continue;
+            }
+            String replacement = lookup.getOrDefault(reference.getValue(), Map.of()).get(String.valueOf(value));
+            if (replacement == null) {
+                return false;
+            }
+            values.put(reference.getKey(), replacement);
+        }
+        return true;
+    }
+
+    private static Map<String, String> keysById(KeyedTable table) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        for (KeyedRow row : table.rows()) {
+            keys.put(row.id(), row.key());
+        }
+        return keys;
+    }
+
+    private TableDigest digestTable(KeyedTable table) {
+        List<List<String>> rowHashes = new ArrayList<>(DELTA_BUCKETS);
+        for (int i = 0; i < DELTA_BUCKETS; i++) {
+            rowHashes.add(new ArrayList<>());
+        }
+        for (KeyedRow row : table.rows()) {
+            MessageDigest digest = sha256();
+            for (Object value : row.values().values()) {
+                digest.update(value == null ? NULL_MARKER : ("v" + value).getBytes(StandardCharsets.UTF_8));
+                digest.update(FIELD_SEPARATOR);
+            }
+            rowHashes.get(bucketOf(row.key())).add(HexFormat.of().formatHex(digest.digest()));
+        }
+        MessageDigest root = sha256();
+        List<String> buckets = new ArrayList<>(DELTA_BUCKETS);
+        for (List<String> bucketRows : rowHashes) {
+            MessageDigest bucketDigest = sha256();
+            Collections.sort(bucketRows);
+            for (String rowHash : bucketRows) {
+                bucketDigest.update(rowHash.getBytes(StandardCharsets.US_ASCII));
+                bucketDigest.update(ROW_SEPARATOR);
+            }
+            String bucketHash = HexFormat.of().formatHex(bucketDigest.digest());
+            buckets.add(bucketHash);
+            root.update(bucketHash.getBytes(StandardCharsets.US_ASCII));
+        }
+        return new TableDigest(HexFormat.of().formatHex(root.digest()), buckets);
+    }
+
+    private static int bucketOf(String key) {
+        return Math.floorMod(key.hashCode(), DELTA_BUCKETS);
+    }
+
+    private void writeDeltaTable(Connection deltaConn, Statement statement, KeyedTable table, Set<Integer> buckets) throws SQLException {
+        String quotedTable = quoteIdentifier(table.spec().tableName());
+        String columnList = table.columns().stream().map(this::quoteIdentifier).collect(Collectors.joining(", "));
+        executeSchemaStatement(statement, "CREATE TABLE " + quotedTable + " (" + columnList + ")");
+        List<Map<String, Object>> rows = table.rows().stream()
+                .filter(row -> buckets.contains(bucketOf(row.key())))
+                .map(KeyedRow::values)
+                .toList();
+        insertRows(deltaConn, table.spec().tableName(), table.columns(), rows);
+    }
+
+    private Map<String, List<Integer>> readDeltaBuckets(Connection conn) throws SQLException {
+        Map<String, List<Integer>> bucketsByTable = new LinkedHashMap<>();
+        try (Statement statement = conn.createStatement();
+             ResultSet resultSet = executeSchemaQuery(statement, "SELECT tableName, bucket FROM delta." + quoteIdentifier(DELTA_BUCKET_TABLE)
+                     + " ORDER BY rowid")) {
+            while (resultSet.next()) {
+                bucketsByTable.computeIfAbsent(resultSet.getString(1), _ -> new ArrayList<>()).add(resultSet.getInt(2));
+            }
+        }
+        return bucketsByTable;
+    }
+
+    private int applyBuckets(Connection conn,
+                             DeltaTable table,
+                             Set<Integer> buckets,
+                             Map<DatabaseUtils.DbTable, Map<String, String>> keysById) throws SQLException {
+        KeyedTable local = readKeyedRows(conn, "main", table, keysById);
+        KeyedTable incoming = readKeyedRows(conn, "delta", table, null);
+        List<String> columns = incoming.columns().stream().filter(local.columns()::contains).toList();
+        if (columns.isEmpty()) {
+            return 0;
+        }
+        Map<String, Deque<String>> localIdsByKey = new HashMap<>();
+        for (KeyedRow row : local.rows()) {
+            if (buckets.contains(bucketOf(row.key()))) {
+                localIdsByKey.computeIfAbsent(row.key(), _ -> new ArrayDeque<>()).add(row.id());
+            }
+        }
+        Map<DatabaseUtils.DbTable, Map<String, String>> idsByKey = new EnumMap<>(DatabaseUtils.DbTable.class);
+        for (DatabaseUtils.DbTable referenced : table.references().values()) {
+            Map<String, String> ids = new HashMap<>();
+            keysById.getOrDefault(referenced, Map.of()).forEach((id, key) -> ids.putIfAbsent(key, id));
+            idsByKey.put(referenced, ids);
+        }
+
+        String quotedTable = "main." + quoteIdentifier(table.tableName());
+        String assignments = columns.stream().map(column -> quoteIdentifier(column) + " = ?").collect(Collectors.joining(", "));
+        String columnList = columns.stream().map(this::quoteIdentifier).collect(Collectors.joining(", "));
+        String placeholders = columns.stream().map(_ -> "?").collect(Collectors.joining(", "));
+        int applied = 0;
+        try (PreparedStatement update = prepareSchemaStatement(conn, "UPDATE " + quotedTable + " SET " + assignments
+                + " WHERE " + quoteIdentifier(ID_COLUMN) + " = ?");
+             PreparedStatement insert = prepareSchemaStatement(conn, "INSERT INTO " + quotedTable + " (" + columnList
+                     + ") VALUES (" + placeholders + ")")) {
+            for (KeyedRow row : incoming.rows()) {
+                Map<String, Object> values = new LinkedHashMap<>(row.values());
+                if (!replaceReferences(values, table, idsByKey)) {
+                    continue;
+                }
+                Deque<String> localIds = localIdsByKey.get(row.key());
+                String localId = localIds == null ? null : localIds.poll();
+                PreparedStatement target = localId == null ? insert : update;
+                for (int i = 0; i < columns.size(); i++) {
+                    target.setObject(i + 1, values.get(columns.get(i)));
+                }
+                if (localId != null) {
+                    update.setString(columns.size() + 1, localId);
+                }
+                target.executeUpdate();
+                applied++;
+            }
+        }
+        try (PreparedStatement delete = prepareSchemaStatement(conn, "DELETE FROM " + quotedTable
+                + " WHERE " + quoteIdentifier(ID_COLUMN) + " = ?")) {
+            for (Deque<String> staleIds : localIdsByKey.values()) {
+                for (String staleId : staleIds) {
+                    delete.setString(1, staleId);
+                    delete.addBatch();
+                }
+            }
+            delete.executeBatch();
+        }
+        return applied;
+    }
+
+    private Map<Long, String> readAccountIdentities(Connection conn) throws SQLException {
+        List<String> columns = getTableColumns(conn, ACCOUNT_TABLE).stream()
+                .filter(ACCOUNT_IDENTITY_COLUMNS::contains)
+                .toList();
+        Map<Long, String> identities = new LinkedHashMap<>();
+        String columnList = columns.isEmpty() ? "" : ", " + columns.stream().map(this::quoteIdentifier).collect(Collectors.joining(", "));
+        try (Statement statement = conn.createStatement();
+             ResultSet resultSet = executeSchemaQuery(statement, SELECT_SQL + quoteIdentifier(ID_COLUMN) + columnList + FROM_SQL
+                     + "main." + quoteIdentifier(ACCOUNT_TABLE))) {
+            while (resultSet.next()) {
+                StringBuilder identity = new StringBuilder();
+                for (int i = 2; i <= columns.size() + 1; i++) {
+                    identity.append(resultSet.getString(i)).append('\u001f');
+                }
+                identities.put(resultSet.getLong(1), identity.toString());
+            }
+        }
+        return identities;
+    }
+
+    private void invalidateCachesForChangedAccounts(Statement statement, Map<Long, String> before, Map<Long, String> after) throws SQLException {
+        Set<Long> changed = new TreeSet<>();
+        before.forEach((id, identity) -> {
+            if (!identity.equals(after.get(id))) {
+                changed.add(id);
+            }
+        });
+        after.forEach((id, identity) -> {
+            if (!before.containsKey(id)) {
+                changed.add(id);
+            }
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+        String ids = changed.stream().map(id -> "'" + id + "'").collect(Collectors.joining(", "));
+        executeSchemaUpdate(statement, "DELETE FROM main." + quoteIdentifier(CHANNEL_TABLE)
+                + " WHERE categoryId IN (SELECT CAST(id AS TEXT) FROM main." + quoteIdentifier(DatabaseUtils.DbTable.CATEGORY_TABLE.getTableName())
+                + " WHERE accountId IN (" + ids + "))");
+        for (String cacheTable : ACCOUNT_SCOPED_CACHE_TABLES) {
+            executeSchemaUpdate(statement, "DELETE FROM main." + quoteIdentifier(cacheTable) + " WHERE accountId IN (" + ids + ")");
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private Path createSourceSnapshot(String sourceDB) throws SQLException {
         Path snapshotPath = null;
         try {
@@ -335,8 +751,12 @@ public class DatabaseSyncService {
     }
 
     private boolean tableExists(Connection conn, String tableName) throws SQLException {
-        try (PreparedStatement statement = conn.prepareStatement(
-                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+        return tableExists(conn, "main", tableName);
+    }
+
+    private boolean tableExists(Connection conn, String schema, String tableName) throws SQLException {
+        try (PreparedStatement statement = prepareSchemaStatement(conn,
+                "SELECT 1 FROM " + schema + ".sqlite_master WHERE type = 'table' AND name = ?")) {
             statement.setString(1, tableName);
             try (ResultSet resultSet = statement.executeQuery()) {
                 return resultSet.next();
@@ -345,11 +765,15 @@ public class DatabaseSyncService {
     }
 
     private List<String> getTableColumns(Connection conn, String tableName) throws SQLException {
+        return getTableColumns(conn, "main", tableName);
+    }
+
+    private List<String> getTableColumns(Connection conn, String schema, String tableName) throws SQLException {
         List<String> columns = new ArrayList<>();
         try (Statement statement = conn.createStatement();
              ResultSet resultSet = executeSchemaQuery(
                      statement,
-                     "PRAGMA table_info(" + quoteIdentifier(tableName) + ")")) {
+                     "PRAGMA " + schema + ".table_info(" + quoteIdentifier(tableName) + ")")) {
             while (resultSet.next()) {
                 columns.add(resultSet.getString("name"));
             }
@@ -448,6 +872,63 @@ public class DatabaseSyncService {
         }
     }
 
+    /**
+     * Table name to {@link TableDigest} for every table a delta sync covers.
+     */
+    public record DeltaSyncSummary(Map<String, TableDigest> tables) {
+        public DeltaSyncSummary {
+            tables = tables == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(tables));
+        }
+    }
+
+    public record TableDigest(String root, List<String> buckets) {
+        public TableDigest {
+            buckets = buckets == null ? List.of() : List.copyOf(buckets);
+        }
+
+        /**
+         * Buckets whose hash differs from {@code other}; all of them when {@code other} is missing or differently shaped.
+         */
+        public List<Integer> changedBuckets(TableDigest other) {
+            if (other != null && Objects.equals(root, other.root())) {
+                return List.of();
+            }
+            List<Integer> changed = new ArrayList<>();
+            for (int i = 0; i < buckets.size(); i++) {
+                if (other == null || other.buckets().size() != buckets.size() || !buckets.get(i).equals(other.buckets().get(i))) {
+                    changed.add(i);
+                }
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * Natural key of a delta sync table. Columns in {@code references} hold the local {@code id} of a row of another
+     * table and take part in the key, the digest and the delta snapshot as that row's key, so rows inserted
+     * independently on two devices never collide on their autoincrement ids.
+     */
+    private record DeltaTable(DatabaseUtils.DbTable table, List<String> keyColumns, Map<String, DatabaseUtils.DbTable> references) {
+        private String tableName() {
+            return table.getTableName();
+        }
+
+        private String keyOf(Map<String, Object> values) {
+            StringBuilder key = new StringBuilder();
+            for (String column : keyColumns) {
+                Object value = values.get(column);
+                key.append(value == null ? "\u0000" : "v" + value).append('\u001f');
+            }
+            return key.toString();
+        }
+    }
+
+    private record KeyedRow(String id, String key, Map<String, Object> values) {
+    }
+
+    private record KeyedTable(DeltaTable spec, List<String> columns, List<KeyedRow> rows) {
+    }
+
     private record ConfigurationRows(List<String> columns, List<Map<String, Object>> rows) {
         private boolean hasRows() {
             return !rows.isEmpty();
@@ -0,0 +1,230 @@
+package com.uiptv.service;
+
+import com.uiptv.db.EpgDb;
+import com.uiptv.model.Account;
+import com.uiptv.model.Channel;
+import com.uiptv.model.EpgProgramme;
+import com.uiptv.util.AppLog;
+import com.uiptv.util.HttpUtil;
+import com.uiptv.util.XmltvParser;
+import com.uiptv.util.XtremeApiParser;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+
+import static com.uiptv.util.AccountType.XTREME_API;
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * Programme guides from XMLTV. An account's guide comes from its {@code epg} URL or file, or for Xtreme accounts
+ * without one from the provider's {@code xmltv.php}. Ingestion streams the document (plain or gzip) straight into
+ * {@link EpgDb}, keeping only programmes that end after {@code uiptv.epg.past.hours} ago (default 6) and start within
+ * {@code uiptv.epg.future.days} (default 7), and replaces the stored guide only once the whole document was read.
+ * <p>
+ * A channel is matched to the guide by its Xtreme {@code epg_channel_id}, else its channel id (the M3U
+ * {@code tvg-id}), else its name against the guide's display names.
+ */
+public class EpgService {
+    private static final long PAST_RETENTION_MS = TimeUnit.HOURS.toMillis(Math.max(0, Integer.getInteger("uiptv.epg.past.hours", 6)));
+    private static final long FUTURE_LIMIT_MS = TimeUnit.DAYS.toMillis(Math.max(1, Integer.getInteger("uiptv.epg.future.days", 7)));
+    private static final int MAX_WINDOW_PROGRAMMES = 500;
+
+    public record GuideIngestResult(int channels, int programmes, int skippedProgrammes) {
+    }
+
+    public record NowNext(EpgProgramme now, EpgProgramme next) {
+        public static final NowNext EMPTY = new NowNext(null, null);
+
+        public boolean isEmpty() {
+            return now == null && next == null;
+        }
+    }
+
+    private EpgService() {
+    }
+
+    private static class SingletonHelper {
+        private static final EpgService INSTANCE = new EpgService();
+    }
+
+    public static EpgService getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    /**
+     * Where the account's guide is read from: its {@code epg} setting, else {@code xmltv.php} for Xtreme accounts.
+     *
+     * @return a URL or file path, or an empty string when the account has no guide
+     */
+    public static String guideSource(Account account) {
+        if (account == null) {
+            return "";
+        }
+        if (!isBlank(account.getEpg())) {
+            return account.getEpg().trim();
+        }
+        return account.getType() == XTREME_API ? XtremeApiParser.buildXmltvUrl(account) : "";
+    }
+
+    public boolean hasGuide(Account account) {
+        return !isBlank(guideSource(account));
+    }
+
+    /**
+     * Downloads and stores the account's guide, replacing the previous one.
+     */
+    public GuideIngestResult refresh(Account account, BooleanSupplier isCancelled) throws IOException {
+        String source = guideSource(account);
+        if (isBlank(source)) {
+            throw new IOException("Account " + account.getAccountName() + " has no programme guide source");
+        }
+        long started = System.nanoTime();
+        GuideIngestResult result;
+        if (isHttpSource(source)) {
+            try (HttpUtil.StreamResult response = HttpUtil.openStream(source, null, "GET", null, HttpUtil.RequestOptions.defaults())) {
+                if (response.statusCode() != HttpUtil.STATUS_OK) {
+                    throw new IOException("Guide download failed with HTTP " + response.statusCode());
+                }
+                result = ingest(account.getDbId(), response.bodyStream(), System.currentTimeMillis(), isCancelled);
+            }
+        } else {
+            try (InputStream in = Files.newInputStream(Path.of(source))) {
+                result = ingest(account.getDbId(), in, System.currentTimeMillis(), isCancelled);
+            }
+        }
+        AppLog.addInfoLog(EpgService.class, "Stored guide for " + account.getAccountName() + ": " + result.channels()
+                + " channels, " + result.programmes() + " programmes in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms.");
+        return result;
+    }
+
+    /**
+     * Reads an XMLTV document (plain or gzip) and replaces the stored guide of {@code accountId} with it.
+     */
+    GuideIngestResult ingest(String accountId, InputStream in, long nowMs, BooleanSupplier isCancelled) throws IOException {
+        long keepEndingAfter = nowMs - PAST_RETENTION_MS;
+        long keepStartingBefore = nowMs + FUTURE_LIMIT_MS;
+        AtomicInteger channels = new AtomicInteger();
+        AtomicInteger programmes = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        try (EpgDb.GuideWriter writer = EpgDb.get().replaceGuide(accountId)) {
+            XmltvParser.parse(decompressed(in),
+                    channel -> {
+                        channels.incrementAndGet();
+                        for (String name : channel.displayNames()) {
+                            writer.addChannel(channel.id(), name, nameKey(name));
+                        }
+                    },
+                    programme -> {
+                        if (programme.stopMs() <= keepEndingAfter || programme.startMs() >= keepStartingBefore) {
+                            skipped.incrementAndGet();
+                            return;
+                        }
+                        programmes.incrementAndGet();
+                        writer.addProgramme(programme.channelId(), programme.startMs(), programme.stopMs(), programme.title(),
+                                programme.subTitle(), programme.description(), programme.category());
+                    },
+                    isCancelled);
+            writer.commit();
+        }
+        return new GuideIngestResult(channels.get(), programmes.get(), skipped.get());
+    }
+
+    public NowNext nowNext(Account account, Channel channel) {
+        return nowNext(account, channel, System.currentTimeMillis());
+    }
+
+    NowNext nowNext(Account account, Channel channel, long nowMs) {
+        String channelKey = channelKey(account, channel);
+        if (channelKey == null) {
+            return NowNext.EMPTY;
+        }
+        List<EpgProgramme> upcoming = EpgDb.get().getProgrammes(account.getDbId(), channelKey, nowMs, Long.MAX_VALUE, 2);
+        if (upcoming.isEmpty()) {
+            return NowNext.EMPTY;
+        }
+        EpgProgramme first = upcoming.getFirst();
+        if (!first.isAiringAt(nowMs)) {
+            return new NowNext(null, first);
+        }
+        return new NowNext(first, upcoming.size() > 1 ? upcoming.get(1) : null);
+    }
+
+    /**
+     * Programmes of the channel overlapping {@code [fromMs, toMs)}, in airing order.
+     */
+    public List<EpgProgramme> programmes(Account account, Channel channel, long fromMs, long toMs) {
+        String channelKey = channelKey(account, channel);
+        if (channelKey == null || toMs <= fromMs) {
+            return List.of();
+        }
+        return EpgDb.get().getProgrammes(account.getDbId(), channelKey, fromMs, toMs, MAX_WINDOW_PROGRAMMES);
+    }
+
+    /**
+     * The guide channel id the channel is listed under, or {@code null} when the guide has no match for it.
+     */
+    String channelKey(Account account, Channel channel) {
+        if (account == null || channel == null || isBlank(account.getDbId())) {
+            return null;
+        }
+        EpgDb db = EpgDb.get();
+        String epgChannelId = account.getType() == XTREME_API ? xtremeEpgChannelId(channel) : null;
+        if (!isBlank(epgChannelId) && db.hasProgrammes(account.getDbId(), epgChannelId)) {
+            return epgChannelId;
+        }
+        if (!isBlank(channel.getChannelId()) && db.hasProgrammes(account.getDbId(), channel.getChannelId())) {
+            return channel.getChannelId();
+        }
+        String nameKey = nameKey(channel.getName());
+        return nameKey.isEmpty() ? null : db.findChannelKeyByName(account.getDbId(), nameKey);
+    }
+
+    static String nameKey(String name) {
+        if (isBlank(name)) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder(name.length());
+        name.toLowerCase(Locale.ROOT).codePoints()
+                .filter(Character::isLetterOrDigit)
+                .forEach(key::appendCodePoint);
+        return key.toString();
+    }
+
+    private static String xtremeEpgChannelId(Channel channel) {
+        if (isBlank(channel.getExtraJson())) {
+            return null;
+        }
+        try {
+            return new JSONObject(channel.getExtraJson()).optString("epg_channel_id", null);
+        } catch (JSONException _) {
+            return null;
+        }
+    }
+
+    private static InputStream decompressed(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, 64 * 1024);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        boolean gzip = first == 0x1f && second == 0x8b;
+        return gzip ? new BufferedInputStream(new GZIPInputStream(buffered, 64 * 1024), 64 * 1024) : buffered;
+    }
+
+    private static boolean isHttpSource(String source) {
+        String lower = source.toLowerCase(Locale.ROOT);
+        return lower.startsWith("http://") || lower.startsWith("https://");
+    }
+}
@@ -4,6 +4,8 @@ import com.uiptv.model.Account;
 import com.uiptv.model.AccountInfo;
 import com.uiptv.model.AccountStatus;
 import com.uiptv.service.AccountInfoService;
+import com.uiptv.util.FetchAPI;
+import com.uiptv.util.PingStalkerPortal;
 import com.uiptv.util.StringUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -157,6 +159,7 @@ public class HandshakeService {
         account.setToken(parseJasonToken(json));
         AccountService.getInstance().syncSessionToken(account);
         if (account.isNotConnected()) {
+            PingStalkerPortal.forgetEndpoint(account.getUrl(), account.getServerPortalUrl());
             String finalJson = json;
             com.uiptv.util.AppLog.addWarningLog(HandshakeService.class, MSG_UNABLE_TOKEN + finalJson);
             return;
@@ -185,6 +188,7 @@ public class HandshakeService {
         String json = fetch(getHandshakeParams(), account);
         account.setToken(parseJasonToken(json));
         if (account.isNotConnected()) {
+            PingStalkerPortal.forgetEndpoint(account.getUrl(), account.getServerPortalUrl());
             String finalJson = json;
             com.uiptv.util.AppLog.addWarningLog(HandshakeService.class, MSG_UNABLE_TOKEN + finalJson);
             return null;
@@ -199,6 +203,34 @@ public class HandshakeService {
         return updated ? info : null;
     }
 
+    /**
+     * One handshake and profile call for {@code account}, typically a copy carrying a MAC that is not the account's
+     * own. Nothing is stored: the token stays on {@code account} and the MAC's details, fetched only when
+     * {@code includeAccountInfo} is set, are returned with the HTTP status of the last portal call.
+     */
+    public PortalProbe probe(Account account, boolean includeAccountInfo) {
+        account.setToken(null);
+        if (isBlank(AccountService.getInstance().ensureServerPortalUrl(account))) {
+            com.uiptv.util.AppLog.addWarningLog(HandshakeService.class, MSG_UNABLE_RESOLVE_URL + account.getAccountName());
+            return new PortalProbe(false, 0, null);
+        }
+        FetchAPI.FetchResult handshake = FetchAPI.fetchResult(getHandshakeParams(), account);
+        account.setToken(parseJasonToken(handshake.body()));
+        if (account.isNotConnected()) {
+            PingStalkerPortal.forgetEndpoint(account.getUrl(), account.getServerPortalUrl());
+            return new PortalProbe(false, handshake.statusCode(), null);
+        }
+        FetchAPI.FetchResult profile = FetchAPI.fetchResult(getProfileParams(account), account);
+        if (!includeAccountInfo || isBlank(profile.body())) {
+            return new PortalProbe(true, profile.statusCode(), null);
+        }
+        AccountInfo info = createTransientAccountInfo(account);
+        boolean updated = applyProfileDetails(info, profile.body());
+        FetchAPI.FetchResult accountInfo = FetchAPI.fetchResult(getAccountParams(), account);
+        updated = applyAccountInfoDetails(info, accountInfo.body()) || updated;
+        return new PortalProbe(true, accountInfo.statusCode(), updated ? info : null);
+    }
+
     public void hardTokenRefresh(Account account) {
         account.setToken(null);
         AccountService.getInstance().syncSessionToken(account);
@@ -210,6 +242,7 @@ public class HandshakeService {
         account.setToken(parseJasonToken(json));
         AccountService.getInstance().syncSessionToken(account);
         if (account.isNotConnected()) {
+            PingStalkerPortal.forgetEndpoint(account.getUrl(), account.getServerPortalUrl());
             String finalJson = json;
             com.uiptv.util.AppLog.addWarningLog(HandshakeService.class, MSG_UNABLE_TOKEN + finalJson);
         }
@@ -678,4 +711,10 @@ public class HandshakeService {
         }
         return info;
     }
+
+    /**
+     * Outcome of {@link #probe}: whether the portal issued a token, the last HTTP status and the MAC's details.
+     */
+    public record PortalProbe(boolean connected, int statusCode, AccountInfo accountInfo) {
+    }
 }
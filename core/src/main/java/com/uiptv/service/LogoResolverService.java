@@ -36,10 +36,10 @@ public class LogoResolverService {
     private final File localCacheFile;
     private volatile long lastCatalogRefreshAt = 0L;
     private volatile boolean refreshInProgress = false;
+    private volatile boolean localCacheLoaded = false;
 
     private LogoResolverService() {
         this.localCacheFile = new File(System.getProperty("java.io.tmpdir"), "uiptv-logo-cache.json");
-        loadLocalCache();
     }
 
     private static class SingletonHelper {
@@ -63,6 +63,7 @@ public class LogoResolverService {
             return "";
         }
 
+        ensureLocalCacheLoaded();
         String cached = localCache.get(key);
         if (isNotBlank(cached)) {
             return cached;
@@ -315,6 +316,22 @@ public class LogoResolverService {
         return "";
     }
 
+    /**
+     * Reads the on-disk logo cache on the first lookup rather than at construction, so services that hold this
+     * resolver do not pay for the file while the app starts.
+     */
+    private void ensureLocalCacheLoaded() {
+        if (localCacheLoaded) {
+            return;
+        }
+        synchronized (localCache) {
+            if (!localCacheLoaded) {
+                loadLocalCache();
+                localCacheLoaded = true;
+            }
+        }
+    }
+
     private void loadLocalCache() {
         if (!localCacheFile.exists()) {
             return;
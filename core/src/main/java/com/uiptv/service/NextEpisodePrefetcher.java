@@ -0,0 +1,160 @@
+package com.uiptv.service;
+
+import com.uiptv.util.AppLog;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Playback URLs resolved ahead of time. A resolution is scheduled with a delay, runs on the given executor, and is
+ * handed out once by {@link #take}; provider links carry short-lived tokens, so a resolution older than {@code ttlMs}
+ * is never handed out. While nobody has taken it, a URL is resolved again once four fifths of its TTL have passed, up
+ * to {@code maxRefreshes} times, so a viewer who pauses past the TTL still gets a fresh one; after the last refresh
+ * it is dropped from memory once it lapses.
+ */
+final class NextEpisodePrefetcher {
+    private final ScheduledExecutorService executor;
+    private final LongSupplier clock;
+    private final long ttlMs;
+    private final int maxRefreshes;
+    private final Consumer<String> warmer;
+    private final Map<String, Prefetch> prefetches = new ConcurrentHashMap<>();
+
+    NextEpisodePrefetcher(ScheduledExecutorService executor, LongSupplier clock, long ttlMs, int maxRefreshes,
+                          Consumer<String> warmer) {
+        this.executor = executor;
+        this.clock = clock;
+        this.ttlMs = ttlMs;
+        this.maxRefreshes = Math.max(0, maxRefreshes);
+        this.warmer = warmer;
+    }
+
+    /**
+     * Resolves {@code key} after {@code delayMs} unless a prefetch for it is already pending, then passes the URL to
+     * the warmer.
+     */
+    void schedule(String key, long delayMs, Callable<String> resolver) {
+        Prefetch prefetch = new Prefetch();
+        if (prefetches.putIfAbsent(key, prefetch) != null) {
+            return;
+        }
+        prefetch.task = executor.schedule(() -> run(key, prefetch, resolver), Math.max(0, delayMs), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The prefetched URL of {@code key}, waiting up to {@code waitMs} for a resolution already under way.
+     *
+     * @return the URL, or {@code null} when nothing usable was prefetched
+     */
+    String take(String key, long waitMs) {
+        Prefetch prefetch = prefetches.remove(key);
+        if (prefetch == null) {
+            return null;
+        }
+        if (!prefetch.started.get()) {
+            // Resolving now is as fast as waiting for a task that has not begun.
+            prefetch.cancel();
+            return null;
+        }
+        try {
+            prefetch.result.get(Math.max(0, waitMs), TimeUnit.MILLISECONDS);
+            Resolved resolved = prefetch.latest;
+            if (resolved == null || clock.getAsLong() - resolved.resolvedAtMs() >= ttlMs) {
+                return null;
+            }
+            return resolved.url();
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException _) {
+            return null;
+        }
+    }
+
+    int pending() {
+        return prefetches.size();
+    }
+
+    private void run(String key, Prefetch prefetch, Callable<String> resolver) {
+        if (!prefetch.started.compareAndSet(false, true)) {
+            return;
+        }
+        Resolved resolved = resolve(resolver);
+        prefetch.latest = resolved;
+        prefetch.result.complete(resolved);
+        if (resolved == null) {
+            prefetches.remove(key, prefetch);
+            return;
+        }
+        keepFresh(key, prefetch, resolver, 0);
+    }
+
+    private void refresh(String key, Prefetch prefetch, Callable<String> resolver, int refreshes) {
+        if (prefetches.get(key) != prefetch) {
+            return;
+        }
+        Resolved resolved = resolve(resolver);
+        if (resolved == null) {
+            // Keep the URL already resolved until it lapses.
+            long remainingMs = Math.max(0, prefetch.latest.resolvedAtMs() + ttlMs - clock.getAsLong());
+            executor.schedule(() -> prefetches.remove(key, prefetch), remainingMs, TimeUnit.MILLISECONDS);
+            return;
+        }
+        prefetch.latest = resolved;
+        keepFresh(key, prefetch, resolver, refreshes);
+    }
+
+    private void keepFresh(String key, Prefetch prefetch, Callable<String> resolver, int refreshes) {
+        if (refreshes < maxRefreshes) {
+            executor.schedule(() -> refresh(key, prefetch, resolver, refreshes + 1), ttlMs - ttlMs / 5, TimeUnit.MILLISECONDS);
+        } else {
+            executor.schedule(() -> prefetches.remove(key, prefetch), ttlMs, TimeUnit.MILLISECONDS);
+        }
+        if (warmer != null) {
+            try {
+                warmer.accept(prefetch.latest.url());
+            } catch (RuntimeException _) {
+                // Warming only shortens start-up; playback resolves the same URL without it.
+            }
+        }
+    }
+
+    private Resolved resolve(Callable<String> resolver) {
+        try {
+            String url = resolver.call();
+            return url == null || url.isBlank() ? null : new Resolved(url, clock.getAsLong());
+        } catch (Exception e) {
+            AppLog.addWarningLog(NextEpisodePrefetcher.class, "Episode prefetch failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private record Resolved(String url, long resolvedAtMs) {
+    }
+
+    private static final class Prefetch {
+        private final AtomicBoolean started = new AtomicBoolean();
+        // Completes with the first resolution; latest then follows every refresh.
+        private final CompletableFuture<Resolved> result = new CompletableFuture<>();
+        private volatile Resolved latest;
+        private volatile ScheduledFuture<?> task;
+
+        private void cancel() {
+            started.set(true);
+            ScheduledFuture<?> scheduled = task;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+}
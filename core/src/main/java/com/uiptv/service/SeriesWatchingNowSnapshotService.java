@@ -109,6 +109,7 @@ public class SeriesWatchingNowSnapshotService {
         snapshot.setEpisodesJson(episodesPayload.toString());
         snapshot.setUpdatedAt(System.currentTimeMillis());
         SeriesWatchingNowSnapshotDb.get().upsert(snapshot);
+        WatchingNowReadModel.getInstance().invalidate(account.getDbId());
     }
 
     public void saveChannels(Account account,
@@ -144,10 +145,12 @@ public class SeriesWatchingNowSnapshotService {
                 }
             }
         }
+        WatchingNowReadModel.getInstance().invalidate(accountId);
     }
 
     public void clearAll() {
         SeriesWatchingNowSnapshotDb.get().clearAll();
+        WatchingNowReadModel.getInstance().invalidateAll();
     }
 
     private Channel toChannel(Episode episode) {
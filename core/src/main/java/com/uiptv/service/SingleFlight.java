@@ -0,0 +1,223 @@
+package com.uiptv.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical provider fetches.
+ * <p>
+ * The first caller for a key runs the fetch on its own thread. Callers arriving while it is in flight attach to
+ * it instead of starting another one: pages streamed so far are replayed to their callback, later pages and
+ * progress are delivered live, and every caller gets a copy of the final list. The shared fetch only sees a
+ * cancellation once every attached caller has cancelled; a joiner that cancels simply detaches and stops
+ * receiving pages.
+ *
+ * @param <T> item type streamed through the page callbacks
+ * @param <P> progress type, {@link Void} when the fetch reports none
+ */
+final class SingleFlight<T, P> {
+    private static final long JOIN_POLL_MS = 100;
+
+    private final Map<String, Flight<T, P>> inFlight = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    interface Fetch<T, P> {
+        List<T> run(Consumer<List<T>> pageSink, Consumer<P> progressSink, Supplier<Boolean> isCancelled);
+    }
+
+    static String key(String accountId, Object action, String categoryId, String scope) {
+        return accountId + "|" + action + "|" + categoryId + "|" + scope;
+    }
+
+    List<T> run(String key, Supplier<List<T>> fetch) {
+        return run(key, null, null, null, (pages, progress, cancelled) -> fetch.get());
+    }
+
+    List<T> run(String key, Consumer<List<T>> callback, Consumer<P> progressCallback, Supplier<Boolean> isCancelled,
+                Fetch<T, P> fetch) {
+        Caller<T, P> caller = new Caller<>(callback, progressCallback, isCancelled);
+        Flight<T, P> flight = new Flight<>();
+        flight.attach(caller);
+        Flight<T, P> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return join(existing, caller);
+        }
+        try {
+            List<T> result = fetch.run(flight::publishPage, flight::publishProgress, flight::allCancelled);
+            List<T> shared = result == null ? Collections.emptyList() : result;
+            flight.result.complete(shared);
+            return new ArrayList<>(shared);
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    boolean isInFlight(String key) {
+        return inFlight.containsKey(key);
+    }
+
+    private List<T> join(Flight<T, P> flight, Caller<T, P> caller) {
+        flight.attach(caller);
+        try {
+            while (true) {
+                if (caller.cancelled() || Thread.currentThread().isInterrupted()) {
+                    return Collections.emptyList();
+                }
+                try {
+                    List<T> shared = flight.result.get(JOIN_POLL_MS, TimeUnit.MILLISECONDS);
+                    // The fetch may have finished because this caller's cancel was the last one.
+                    return caller.cancelled() ? Collections.emptyList() : new ArrayList<>(shared);
+                } catch (TimeoutException _) {
+                    // Re-check the caller's own cancellation.
+                } catch (InterruptedException _) {
+                    Thread.currentThread().interrupt();
+                    return Collections.emptyList();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    if (e.getCause() instanceof Error error) {
+                        throw error;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            flight.detach(caller);
+        }
+    }
+
+    /**
+     * Shared state of one fetch. The lock only guards the page history and the caller list; callbacks and
+     * cancellation checks run outside it, so a slow or re-entrant caller cannot stall the fetch or the others.
+     */
+    private static final class Flight<T, P> {
+        private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+        private final List<List<T>> pages = new ArrayList<>();
+        private final List<Caller<T, P>> callers = new ArrayList<>();
+        private P lastProgress;
+
+        private void attach(Caller<T, P> caller) {
+            synchronized (this) {
+                for (List<T> page : pages) {
+                    caller.enqueuePage(page);
+                }
+                if (lastProgress != null) {
+                    caller.enqueueProgress(lastProgress);
+                }
+                callers.add(caller);
+            }
+            caller.drain();
+        }
+
+        private synchronized void detach(Caller<T, P> caller) {
+            callers.remove(caller);
+        }
+
+        private void publishPage(List<T> page) {
+            if (page == null) {
+                return;
+            }
+            List<Caller<T, P>> recipients;
+            synchronized (this) {
+                pages.add(page);
+                for (Caller<T, P> caller : callers) {
+                    caller.enqueuePage(page);
+                }
+                recipients = List.copyOf(callers);
+            }
+            recipients.forEach(Caller::drain);
+        }
+
+        private void publishProgress(P progress) {
+            List<Caller<T, P>> recipients;
+            synchronized (this) {
+                lastProgress = progress;
+                for (Caller<T, P> caller : callers) {
+                    caller.enqueueProgress(progress);
+                }
+                recipients = List.copyOf(callers);
+            }
+            recipients.forEach(Caller::drain);
+        }
+
+        private boolean allCancelled() {
+            List<Caller<T, P>> attached;
+            synchronized (this) {
+                attached = List.copyOf(callers);
+            }
+            for (Caller<T, P> caller : attached) {
+                if (!caller.cancelled()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * One attached caller. Deliveries are queued in publication order while the flight lock is held and run by
+     * whichever thread drains first, one at a time, so each caller sees pages in order without anyone blocking.
+     */
+    private static final class Caller<T, P> {
+        private final Consumer<List<T>> callback;
+        private final Consumer<P> progressCallback;
+        private final Supplier<Boolean> isCancelled;
+        private final Queue<Runnable> deliveries = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Caller(Consumer<List<T>> callback, Consumer<P> progressCallback, Supplier<Boolean> isCancelled) {
+            this.callback = callback;
+            this.progressCallback = progressCallback;
+            this.isCancelled = isCancelled;
+        }
+
+        private boolean cancelled() {
+            return isCancelled != null && Boolean.TRUE.equals(isCancelled.get());
+        }
+
+        private void enqueuePage(List<T> page) {
+            if (callback != null) {
+                deliveries.add(() -> callback.accept(page));
+            }
+        }
+
+        private void enqueueProgress(P progress) {
+            if (progressCallback != null) {
+                deliveries.add(() -> progressCallback.accept(progress));
+            }
+        }
+
+        private void drain() {
+            while (!deliveries.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    Runnable delivery;
+                    while ((delivery = deliveries.poll()) != null) {
+                        try {
+                            delivery.run();
+                        } catch (RuntimeException _) {
+                            // One caller's UI callback must not break the fetch shared with the others.
+                        }
+                    }
+                } finally {
+                    draining.set(false);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.uiptv.service;
+
+import com.uiptv.db.SQLConnection;
+import com.uiptv.model.Account;
+import com.uiptv.util.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * In-memory projection of the Watching Now rows, already joined with title, poster and category, per account.
+ * <p>
+ * Rows are resolved once and served from memory until something they were built from changes: a series or VOD
+ * watch-state change, an account change, a saved Watching Now snapshot, or a cache write/clear for the account.
+ * A resolve that races with an invalidation is returned but not kept.
+ */
+public class WatchingNowReadModel {
+    private static final MetricsRegistry.CacheCounters CACHE = MetricsRegistry.getInstance().cacheCounters("watching_now");
+    private final Map<String, List<WatchingNowSeriesResolver.SeriesRow>> seriesRows = new ConcurrentHashMap<>();
+    private final Map<String, List<WatchingNowVodResolver.VodRow>> vodRows = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile String databasePath;
+
+    private WatchingNowReadModel() {
+        SeriesWatchStateService.getInstance().addChangeListener((accountId, _) -> invalidate(accountId));
+        VodWatchStateService.getInstance().addChangeListener((accountId, _) -> invalidate(accountId));
+        AccountService.getInstance().addChangeListener(_ -> invalidateAll());
+    }
+
+    private static class SingletonHelper {
+        private static final WatchingNowReadModel INSTANCE = new WatchingNowReadModel();
+    }
+
+    public static WatchingNowReadModel getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    List<WatchingNowSeriesResolver.SeriesRow> seriesRows(Account account,
+                                                         Function<Account, List<WatchingNowSeriesResolver.SeriesRow>> loader) {
+        return rows(seriesRows, account, loader, WatchingNowSeriesResolver.SeriesRow::withAccount);
+    }
+
+    List<WatchingNowVodResolver.VodRow> vodRows(Account account,
+                                                Function<Account, List<WatchingNowVodResolver.VodRow>> loader) {
+        return rows(vodRows, account, loader, WatchingNowVodResolver.VodRow::withAccount);
+    }
+
+    /**
+     * Drops the rows of one account; a blank id drops every account.
+     */
+    public void invalidate(String accountId) {
+        if (isBlank(accountId)) {
+            invalidateAll();
+            return;
+        }
+        version.incrementAndGet();
+        seriesRows.remove(accountId);
+        vodRows.remove(accountId);
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+        seriesRows.clear();
+        vodRows.clear();
+    }
+
+    private <T> List<T> rows(Map<String, List<T>> cache, Account account, Function<Account, List<T>> loader,
+                             BiFunction<T, Account, T> rebind) {
+        if (account == null || isBlank(account.getDbId())) {
+            return new ArrayList<>();
+        }
+        checkDatabase();
+        List<T> cached = cache.get(account.getDbId());
+        if (cached != null) {
+            CACHE.hits().inc();
+        } else {
+            CACHE.misses().inc();
+            long seen = version.get();
+            cached = List.copyOf(loader.apply(account));
+            // Publish first, then re-check: an invalidation that slipped in between either removes the entry
+            // itself or is seen here, so stale rows never stay behind.
+            cache.put(account.getDbId(), cached);
+            if (version.get() != seen) {
+                cache.remove(account.getDbId(), cached);
+            }
+        }
+        // Cached rows carry the Account they were built with; hand them out with the caller's instance.
+        List<T> rows = new ArrayList<>(cached.size());
+        for (T row : cached) {
+            rows.add(rebind.apply(row, account));
+        }
+        return rows;
+    }
+
+    private void checkDatabase() {
+        String current = SQLConnection.getDatabasePath();
+        if (!Objects.equals(current, databasePath)) {
+            invalidateAll();
+            databasePath = current;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -31,13 +32,15 @@ public class WatchingNowSeriesResolver {
     }
 
     public List<SeriesRow> resolveForAccount(Account account) {
+        return WatchingNowReadModel.getInstance().seriesRows(account, this::loadRowsForAccount);
+    }
+
+    private List<SeriesRow> loadRowsForAccount(Account account) {
         List<SeriesRow> rows = new ArrayList<>();
-        if (account == null || isBlank(account.getDbId())) {
-            return rows;
-        }
         Map<String, SeriesWatchState> deduped = dedupeSeriesStates(account.getDbId());
+        SeriesLookup lookup = new SeriesLookup(account);
         for (SeriesWatchState state : deduped.values()) {
-            SeriesRow row = buildRow(account, state);
+            SeriesRow row = buildRow(lookup, state);
             if (row != null) {
                 rows.add(row);
             }
@@ -60,10 +63,11 @@ public class WatchingNowSeriesResolver {
         return deduped;
     }
 
-    private SeriesRow buildRow(Account account, SeriesWatchState state) {
+    private SeriesRow buildRow(SeriesLookup lookup, SeriesWatchState state) {
+        Account account = lookup.account;
         SnapshotScope scope = resolveSnapshotScope(state);
         SeriesWatchState scopedState = copyStateWithScope(state, scope.categoryId, scope.parentChannelId);
-        SeriesCacheInfo cacheInfo = resolveSeriesInfoFromCache(account, scopedState);
+        SeriesCacheInfo cacheInfo = resolveSeriesInfoFromCache(lookup, scopedState);
         SeriesWatchingNowSnapshot snapshot = SeriesWatchingNowSnapshotService.getInstance()
                 .getSnapshot(account.getDbId(), scopedState.getCategoryId(), scopedState.getSeriesId());
         if (!isBlank(scope.seriesTitle)) {
@@ -81,7 +85,7 @@ public class WatchingNowSeriesResolver {
         if (!cacheInfo.resolvedFromCache && isAllDigits(scopedState.getSeriesId())) {
             return null;
         }
-        String categoryDbId = resolveSeriesCategoryDbId(account, scopedState.getCategoryId());
+        String categoryDbId = resolveSeriesCategoryDbId(lookup, scopedState.getCategoryId());
         if (isBlank(categoryDbId) && snapshot != null) {
             categoryDbId = safe(snapshot.getCategoryDbId());
         }
@@ -91,16 +95,16 @@ public class WatchingNowSeriesResolver {
         return new SeriesRow(account, scopedState, cacheInfo.seriesTitle, cacheInfo.seriesPoster, categoryDbId, cacheInfo.resolvedFromCache);
     }
 
-    private SeriesCacheInfo resolveSeriesInfoFromCache(Account account, SeriesWatchState state) {
-        SeriesCacheInfo directMatch = resolveSeriesInfoFromCandidateCategories(account, state);
+    private SeriesCacheInfo resolveSeriesInfoFromCache(SeriesLookup lookup, SeriesWatchState state) {
+        SeriesCacheInfo directMatch = resolveSeriesInfoFromCandidateCategories(lookup, state);
         if (!needsSeriesCacheFallback(directMatch, state)) {
             return directMatch;
         }
-        SeriesCacheInfo fallbackMatch = resolveSeriesInfoFromAllCategories(account, state, directMatch);
+        SeriesCacheInfo fallbackMatch = resolveSeriesInfoFromAllCategories(lookup, state, directMatch);
         return fallbackMatch != null ? fallbackMatch : directMatch;
     }
 
-    private SeriesCacheInfo resolveSeriesInfoFromCandidateCategories(Account account, SeriesWatchState state) {
+    private SeriesCacheInfo resolveSeriesInfoFromCandidateCategories(SeriesLookup lookup, SeriesWatchState state) {
         String rawSeriesId = safe(state.getSeriesId());
         String defaultTitle = rawSeriesId;
         String normalizedSeriesId = normalizeSeriesIdentity(rawSeriesId);
@@ -108,8 +112,8 @@ public class WatchingNowSeriesResolver {
             defaultTitle = normalizedSeriesId;
         }
         List<String> seriesIdCandidates = buildSeriesIdCandidates(rawSeriesId);
-        for (String categoryCandidate : buildSeriesCategoryCandidates(account, state)) {
-            Channel match = findSeriesChannel(account, categoryCandidate, seriesIdCandidates);
+        for (String categoryCandidate : buildSeriesCategoryCandidates(lookup, state)) {
+            Channel match = findSeriesChannel(lookup, categoryCandidate, seriesIdCandidates);
             if (match != null) {
                 return buildSeriesCacheInfo(match, defaultTitle, true);
             }
@@ -117,8 +121,8 @@ public class WatchingNowSeriesResolver {
         return new SeriesCacheInfo(firstNonBlank(defaultTitle, rawSeriesId), "", false);
     }
 
-    private List<String> buildSeriesCategoryCandidates(Account account, SeriesWatchState state) {
-        String categoryDbId = resolveSeriesCategoryDbId(account, state.getCategoryId());
+    private List<String> buildSeriesCategoryCandidates(SeriesLookup lookup, SeriesWatchState state) {
+        String categoryDbId = resolveSeriesCategoryDbId(lookup, state.getCategoryId());
         List<String> categoryCandidates = new ArrayList<>();
         categoryCandidates.add(safe(state.getCategoryId()));
         if (!isBlank(categoryDbId)) {
@@ -133,11 +137,10 @@ public class WatchingNowSeriesResolver {
                 || cacheInfo.seriesTitle.equals(state.getSeriesId());
     }
 
-    private SeriesCacheInfo resolveSeriesInfoFromAllCategories(Account account, SeriesWatchState state, SeriesCacheInfo current) {
+    private SeriesCacheInfo resolveSeriesInfoFromAllCategories(SeriesLookup lookup, SeriesWatchState state, SeriesCacheInfo current) {
         List<String> seriesIdCandidates = buildSeriesIdCandidates(state.getSeriesId());
-        List<Category> categories = SeriesCategoryDb.get().getAll(" WHERE accountId=?", new String[]{account.getDbId()});
-        for (Category category : categories) {
-            Channel match = findSeriesChannel(account, category.getDbId(), seriesIdCandidates);
+        for (Category category : lookup.categories()) {
+            Channel match = findSeriesChannel(lookup, category.getDbId(), seriesIdCandidates);
             if (match != null) {
                 String defaultTitle = current == null ? state.getSeriesId() : current.seriesTitle;
                 return buildSeriesCacheInfo(match, defaultTitle, true);
@@ -146,11 +149,11 @@ public class WatchingNowSeriesResolver {
         return null;
     }
 
-    private Channel findSeriesChannel(Account account, String categoryId, List<String> seriesIds) {
+    private Channel findSeriesChannel(SeriesLookup lookup, String categoryId, List<String> seriesIds) {
         if (isBlank(categoryId) || seriesIds == null || seriesIds.isEmpty()) {
             return null;
         }
-        List<Channel> channels = SeriesChannelDb.get().getChannels(account, categoryId);
+        List<Channel> channels = lookup.channels(categoryId);
         for (String seriesId : seriesIds) {
             String target = safe(seriesId);
             if (isBlank(target)) {
@@ -235,13 +238,12 @@ public class WatchingNowSeriesResolver {
         return scoped;
     }
 
-    private String resolveSeriesCategoryDbId(Account account, String apiCategoryId) {
-        if (account == null || isBlank(account.getDbId()) || isBlank(apiCategoryId)) {
+    private String resolveSeriesCategoryDbId(SeriesLookup lookup, String apiCategoryId) {
+        if (isBlank(apiCategoryId)) {
             return "";
         }
         String target = safe(apiCategoryId);
-        List<Category> categories = SeriesCategoryDb.get().getAll(" WHERE accountId=?", new String[]{account.getDbId()});
-        for (Category category : categories) {
+        for (Category category : lookup.categories()) {
             if (target.equals(safe(category.getCategoryId())) || target.equals(safe(category.getDbId()))) {
                 return safe(category.getDbId());
             }
@@ -437,6 +439,34 @@ public class WatchingNowSeriesResolver {
         public boolean isResolvedFromCache() {
             return resolvedFromCache;
         }
+
+        SeriesRow withAccount(Account owner) {
+            return owner == account ? this : new SeriesRow(owner, state, seriesTitle, seriesPoster, categoryDbId, resolvedFromCache);
+        }
+    }
+
+    /**
+     * Category and channel reads of one account pass, so states sharing a category hit the database once.
+     */
+    private static final class SeriesLookup {
+        private final Account account;
+        private final Map<String, List<Channel>> channelsByCategory = new HashMap<>();
+        private List<Category> categories;
+
+        private SeriesLookup(Account account) {
+            this.account = account;
+        }
+
+        private List<Category> categories() {
+            if (categories == null) {
+                categories = SeriesCategoryDb.get().getAll(" WHERE accountId=?", new String[]{account.getDbId()});
+            }
+            return categories;
+        }
+
+        private List<Channel> channels(String categoryId) {
+            return channelsByCategory.computeIfAbsent(categoryId, id -> SeriesChannelDb.get().getChannels(account, id));
+        }
     }
 
     private static final class SeriesCacheInfo {
@@ -6,7 +6,9 @@ import com.uiptv.model.Channel;
 import com.uiptv.model.VodWatchState;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.uiptv.util.StringUtils.isBlank;
 
@@ -21,12 +23,15 @@ public class WatchingNowVodResolver {
     }
 
     public List<VodRow> resolveForAccount(Account account) {
+        return WatchingNowReadModel.getInstance().vodRows(account, this::loadRowsForAccount);
+    }
+
+    private List<VodRow> loadRowsForAccount(Account account) {
         List<VodRow> rows = new ArrayList<>();
-        if (account == null || isBlank(account.getDbId())) {
-            return rows;
-        }
-        for (VodWatchState state : VodWatchStateService.getInstance().getAllByAccount(account.getDbId())) {
-            VodRow row = buildRow(account, state);
+        List<VodWatchState> states = VodWatchStateService.getInstance().getAllByAccount(account.getDbId());
+        Map<String, List<Channel>> providersByVodId = loadProviderChannels(account, states);
+        for (VodWatchState state : states) {
+            VodRow row = buildRow(account, state, providersByVodId);
             if (row != null) {
                 rows.add(row);
             }
@@ -34,11 +39,11 @@ public class WatchingNowVodResolver {
         return rows;
     }
 
-    private VodRow buildRow(Account account, VodWatchState state) {
+    private VodRow buildRow(Account account, VodWatchState state, Map<String, List<Channel>> providersByVodId) {
         if (account == null || state == null || isBlank(state.getVodId())) {
             return null;
         }
-        Channel provider = resolveProviderChannel(account, state);
+        Channel provider = resolveProviderChannel(state, providersByVodId.getOrDefault(state.getVodId(), List.of()));
         VodMetadata providerMetadata = resolveMetadataFromProvider(provider);
         String title = firstNonBlank(state.getVodName(), providerMetadata.name, state.getVodId());
         String logo = firstNonBlank(state.getVodLogo(), providerMetadata.logo);
@@ -113,15 +118,30 @@ public class WatchingNowVodResolver {
         );
     }
 
-    private Channel resolveProviderChannel(Account account, VodWatchState state) {
-        Channel direct = VodChannelDb.get().getChannelByChannelId(state.getVodId(), safe(state.getCategoryId()), account.getDbId());
-        if (direct != null) {
-            return direct;
+    /**
+     * Cached provider rows for every watched VOD of the account in one query, grouped by VOD id.
+     */
+    private Map<String, List<Channel>> loadProviderChannels(Account account, List<VodWatchState> states) {
+        List<String> vodIds = new ArrayList<>();
+        for (VodWatchState state : states) {
+            if (state != null && !isBlank(state.getVodId())) {
+                vodIds.add(state.getVodId());
+            }
+        }
+        Map<String, List<Channel>> byVodId = new HashMap<>();
+        for (Channel channel : VodChannelDb.get().getChannelsByVodIds(account, vodIds)) {
+            byVodId.computeIfAbsent(channel.getChannelId(), _ -> new ArrayList<>()).add(channel);
+        }
+        return byVodId;
+    }
+
+    private Channel resolveProviderChannel(VodWatchState state, List<Channel> matches) {
+        String categoryId = safe(state.getCategoryId());
+        for (Channel match : matches) {
+            if (categoryId.equals(match.getCategoryId())) {
+                return match;
+            }
         }
-        List<Channel> matches = VodChannelDb.get().getAll(
-                " WHERE accountId=? AND channelId=?",
-                new String[]{account.getDbId(), state.getVodId()}
-        );
         return matches.isEmpty() ? null : matches.getFirst();
     }
 
@@ -225,6 +245,10 @@ public class WatchingNowVodResolver {
         public VodMetadata getMetadata() {
             return metadata;
         }
+
+        VodRow withAccount(Account owner) {
+            return owner == account ? this : new VodRow(owner, state, playbackChannel, displayTitle, metadata);
+        }
     }
 
     public static final class VodMetadata {
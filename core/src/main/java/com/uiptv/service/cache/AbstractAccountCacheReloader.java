@@ -10,8 +10,10 @@ import com.uiptv.model.CategoryType;
 import com.uiptv.model.Channel;
 import com.uiptv.model.Configuration;
 import com.uiptv.service.CategoryService;
+import com.uiptv.service.CompactChannelStore;
 import com.uiptv.service.ConfigurationService;
 import com.uiptv.service.ContentFilterService;
+import com.uiptv.service.WatchingNowReadModel;
 import com.uiptv.shared.PlaylistEntry;
 import com.uiptv.util.AccountType;
 import com.uiptv.util.M3U8Parser;
@@ -152,6 +154,8 @@ abstract class AbstractAccountCacheReloader implements AccountCacheReloader {
         } else if (account.getAction() == series) {
             SeriesCategoryDb.get().saveAll(normalizedCategories, account);
         }
+        WatchingNowReadModel.getInstance().invalidate(account.getDbId());
+        CompactChannelStore.getInstance().invalidate(account.getDbId());
     }
 
     protected CategoryNormalization normalizeCategoriesByTitle(List<Category> categories) {
@@ -0,0 +1,13 @@
+package com.uiptv.service.jobs;
+
+/**
+ * Handed to a running {@link BackgroundJobHandler}. Handlers should poll {@link #isCancelled()} between
+ * provider calls; cancellation also interrupts the worker thread.
+ */
+public interface BackgroundJobContext {
+    String jobId();
+
+    boolean isCancelled();
+
+    void progress(int percent, String message);
+}
@@ -0,0 +1,8 @@
+package com.uiptv.service.jobs;
+
+import com.uiptv.shared.platform.BackgroundJobRequest;
+
+@FunctionalInterface
+public interface BackgroundJobHandler {
+    void run(BackgroundJobRequest request, BackgroundJobContext context) throws Exception;
+}
@@ -0,0 +1,264 @@
+package com.uiptv.service.jobs;
+
+import com.uiptv.db.BackgroundJobDb;
+import com.uiptv.model.BackgroundJob;
+import com.uiptv.shared.platform.BackgroundJobException;
+import com.uiptv.shared.platform.BackgroundJobPort;
+import com.uiptv.shared.platform.BackgroundJobRequest;
+import com.uiptv.shared.platform.BackgroundJobState;
+import com.uiptv.shared.platform.BackgroundJobStatus;
+import com.uiptv.shared.platform.BackgroundJobUniqueness;
+import com.uiptv.util.AppLog;
+import org.json.JSONObject;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.uiptv.shared.platform.BackgroundJobStatus.CANCELLED;
+import static com.uiptv.shared.platform.BackgroundJobStatus.FAILED;
+import static com.uiptv.shared.platform.BackgroundJobStatus.QUEUED;
+import static com.uiptv.shared.platform.BackgroundJobStatus.RUNNING;
+import static com.uiptv.shared.platform.BackgroundJobStatus.SUCCEEDED;
+
+/**
+ * Desktop/server implementation of {@link BackgroundJobPort}.
+ * <p>
+ * Jobs are rows in the {@code BackgroundJob} table, so their state survives restarts and
+ * {@link #resumePending()} picks up work that was queued or running at shutdown. Work runs on a small daemon
+ * pool ({@code uiptv.jobs.threads}, default 2). The uniqueness key is the job name plus its sorted parameters.
+ */
+public class JvmBackgroundJobService implements BackgroundJobPort {
+    private static final int JOB_THREADS = Math.max(1, Integer.getInteger("uiptv.jobs.threads", 2));
+    private static final long FINISHED_RETENTION_MS = TimeUnit.DAYS.toMillis(Math.max(1, Integer.getInteger("uiptv.jobs.retention.days", 7)));
+    private static final String[] ACTIVE = {QUEUED.name(), RUNNING.name()};
+    private static final String[] FINISHED = {SUCCEEDED.name(), FAILED.name(), CANCELLED.name()};
+
+    private final BackgroundJobDb jobDb;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, BackgroundJobHandler> handlers = new ConcurrentHashMap<>();
+    private final Map<String, JobRun> runs = new ConcurrentHashMap<>();
+
+    JvmBackgroundJobService(BackgroundJobDb jobDb, int threads) {
+        this.jobDb = jobDb;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "uiptv-background-job-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    private static class SingletonHelper {
+        private static final JvmBackgroundJobService INSTANCE = new JvmBackgroundJobService(BackgroundJobDb.get(), JOB_THREADS);
+    }
+
+    public static JvmBackgroundJobService getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    public void registerHandler(String jobName, BackgroundJobHandler handler) {
+        if (jobName != null && handler != null) {
+            handlers.put(jobName, handler);
+        }
+    }
+
+    @Override
+    public synchronized String enqueue(BackgroundJobRequest request) throws BackgroundJobException {
+        if (!handlers.containsKey(request.jobName())) {
+            throw new BackgroundJobException("No handler registered for background job " + request.jobName());
+        }
+        String uniqueKey = uniqueKey(request);
+        try {
+            if (request.uniqueness() != BackgroundJobUniqueness.ALLOW_PARALLEL) {
+                List<BackgroundJob> active = jobDb.getByUniqueKeyAndStatus(uniqueKey, ACTIVE);
+                if (!active.isEmpty() && request.uniqueness() == BackgroundJobUniqueness.KEEP_EXISTING) {
+                    return active.getFirst().getJobId();
+                }
+                for (BackgroundJob existing : active) {
+                    cancel(existing.getJobId());
+                }
+            }
+            long now = System.currentTimeMillis();
+            BackgroundJob job = new BackgroundJob();
+            job.setJobId(UUID.randomUUID().toString());
+            job.setJobName(request.jobName());
+            job.setUniqueKey(uniqueKey);
+            job.setParametersJson(new JSONObject(request.parameters()).toString());
+            job.setRequiresNetwork(request.requiresNetwork());
+            job.setStatus(QUEUED.name());
+            job.setCreatedAt(now);
+            job.setUpdatedAt(now);
+            jobDb.insert(job);
+            submit(job.getJobId(), request);
+            return job.getJobId();
+        } catch (RuntimeException e) {
+            throw new BackgroundJobException("Unable to enqueue background job " + request.jobName(), e);
+        }
+    }
+
+    @Override
+    public BackgroundJobState state(String jobId) throws BackgroundJobException {
+        try {
+            BackgroundJob job = jobDb.getByJobId(jobId);
+            if (job == null) {
+                return new BackgroundJobState(jobId, BackgroundJobStatus.UNKNOWN, 0, "");
+            }
+            return new BackgroundJobState(jobId, parseStatus(job.getStatus()), Math.clamp(job.getProgressPercent(), 0, 100), job.getMessage());
+        } catch (RuntimeException e) {
+            throw new BackgroundJobException("Unable to read background job " + jobId, e);
+        }
+    }
+
+    @Override
+    public void cancel(String jobId) throws BackgroundJobException {
+        try {
+            jobDb.updateState(jobId, CANCELLED.name(), 0, "Cancelled", FINISHED);
+        } catch (RuntimeException e) {
+            throw new BackgroundJobException("Unable to cancel background job " + jobId, e);
+        }
+        JobRun run = runs.get(jobId);
+        if (run != null) {
+            run.cancel();
+            if (!run.started) {
+                runs.remove(jobId, run);
+            }
+        }
+    }
+
+    /**
+     * Prunes old finished rows and re-submits jobs left queued or running by a previous process.
+     * Jobs whose handler has not been registered yet are left untouched.
+     */
+    public synchronized int resumePending() {
+        int resumed = 0;
+        try {
+            jobDb.deleteFinishedBefore(System.currentTimeMillis() - FINISHED_RETENTION_MS, FINISHED);
+            for (BackgroundJob job : jobDb.getByStatus(ACTIVE)) {
+                if (runs.containsKey(job.getJobId()) || !handlers.containsKey(job.getJobName())) {
+                    continue;
+                }
+                jobDb.updateState(job.getJobId(), QUEUED.name(), 0, "Resumed", FINISHED);
+                submit(job.getJobId(), new BackgroundJobRequest(job.getJobName(), parseParameters(job.getParametersJson()),
+                        job.isRequiresNetwork(), BackgroundJobUniqueness.KEEP_EXISTING));
+                resumed++;
+            }
+        } catch (RuntimeException e) {
+            AppLog.addWarningLog(JvmBackgroundJobService.class, "Unable to resume background jobs: " + e.getMessage());
+        }
+        return resumed;
+    }
+
+    public int activeCount() {
+        return runs.size();
+    }
+
+    static String uniqueKey(BackgroundJobRequest request) {
+        return request.jobName() + "|" + new TreeMap<>(request.parameters());
+    }
+
+    private void submit(String jobId, BackgroundJobRequest request) {
+        JobRun run = new JobRun(jobId);
+        runs.put(jobId, run);
+        run.future = executor.submit(() -> execute(run, request));
+    }
+
+    private void execute(JobRun run, BackgroundJobRequest request) {
+        String jobId = run.jobId();
+        run.started = true;
+        try {
+            if (run.isCancelled() || !jobDb.updateState(jobId, RUNNING.name(), 0, "", FINISHED)) {
+                return;
+            }
+            handlers.get(request.jobName()).run(request, run);
+            if (run.isCancelled()) {
+                return;
+            }
+            jobDb.updateState(jobId, SUCCEEDED.name(), 100, "", FINISHED);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+            if (!run.isCancelled()) {
+                markFailed(jobId, request, "Interrupted");
+            }
+        } catch (Exception e) {
+            markFailed(jobId, request, e.getMessage());
+        } finally {
+            runs.remove(jobId, run);
+        }
+    }
+
+    private void markFailed(String jobId, BackgroundJobRequest request, String message) {
+        AppLog.addWarningLog(JvmBackgroundJobService.class, "Background job " + request.jobName() + " failed: " + message);
+        try {
+            jobDb.updateState(jobId, FAILED.name(), 0, message, FINISHED);
+        } catch (RuntimeException _) {
+            // The failure was already logged; a stale RUNNING row is resumed on next start.
+        }
+    }
+
+    private static BackgroundJobStatus parseStatus(String status) {
+        try {
+            return BackgroundJobStatus.valueOf(status);
+        } catch (Exception _) {
+            return BackgroundJobStatus.UNKNOWN;
+        }
+    }
+
+    private static Map<String, String> parseParameters(String json) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (json == null || json.isBlank()) {
+            return parameters;
+        }
+        JSONObject object = new JSONObject(json);
+        for (String key : object.keySet()) {
+            parameters.put(key, object.optString(key, ""));
+        }
+        return parameters;
+    }
+
+    private final class JobRun implements BackgroundJobContext {
+        private final String jobId;
+        private volatile boolean cancelled;
+        private volatile boolean started;
+        private volatile Future<?> future;
+
+        private JobRun(String jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public String jobId() {
+            return jobId;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void progress(int percent, String message) {
+            if (!cancelled) {
+                jobDb.updateState(jobId, RUNNING.name(), Math.clamp(percent, 0, 100), message, FINISHED);
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            Future<?> running = future;
+            if (running != null) {
+                running.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.uiptv.service.macverify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A running bulk MAC verification. Results are appended in completion order, pushed to the listener given to
+ * {@link MacVerificationService#verify} and kept here so polling clients can read them with
+ * {@link #resultsAfter(int, long)}.
+ */
+public final class MacVerificationJob {
+    private final String id;
+    private final String accountId;
+    private final int total;
+    private final Consumer<MacVerificationResult> listener;
+    private final List<MacVerificationResult> results = new ArrayList<>();
+    private final List<ResultWaiter> waiters = new ArrayList<>();
+    private final CompletableFuture<List<MacVerificationResult>> completion = new CompletableFuture<>();
+    private volatile boolean cancelled;
+    private long finishedAtMs;
+
+    MacVerificationJob(String id, String accountId, int total, Consumer<MacVerificationResult> listener) {
+        this.id = id;
+        this.accountId = accountId;
+        this.total = total;
+        this.listener = listener;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String accountId() {
+        return accountId;
+    }
+
+    public int total() {
+        return total;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+     * Stops handing out MACs. Checks already talking to the portal finish and are still reported.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Completes with every result once all workers have stopped, including after {@link #cancel()}.
+     */
+    public CompletableFuture<List<MacVerificationResult>> completion() {
+        return completion;
+    }
+
+    public synchronized List<MacVerificationResult> results() {
+        return List.copyOf(results);
+    }
+
+    /**
+     * Results from position {@code index} on, without waiting.
+     */
+    public synchronized List<MacVerificationResult> resultsFrom(int index) {
+        int from = Math.max(0, index);
+        return results.size() <= from ? List.of() : List.copyOf(results.subList(from, results.size()));
+    }
+
+    /**
+     * Completes once a result past position {@code index} lands or the job finishes, or after {@code timeoutMs},
+     * without holding a thread while it waits. The value is {@link #resultsFrom} at that moment.
+     */
+    public CompletableFuture<List<MacVerificationResult>> resultsAfter(int index, long timeoutMs) {
+        CompletableFuture<List<MacVerificationResult>> pending = new CompletableFuture<>();
+        synchronized (this) {
+            if (results.size() > Math.max(0, index) || completion.isDone() || timeoutMs <= 0) {
+                pending.complete(resultsFrom(index));
+                return pending;
+            }
+            waiters.add(new ResultWaiter(index, pending));
+        }
+        pending.completeOnTimeout(List.of(), timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((_, _) -> {
+                    synchronized (this) {
+                        waiters.removeIf(waiter -> waiter.pending() == pending);
+                    }
+                });
+        return pending;
+    }
+
+    void publish(MacVerificationResult result) {
+        List<Runnable> woken;
+        synchronized (this) {
+            results.add(result);
+            woken = takeWaiters();
+        }
+        woken.forEach(Runnable::run);
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.accept(result);
+        } catch (RuntimeException _) {
+            // A failing UI callback must not stop the remaining checks.
+        }
+    }
+
+    void finish() {
+        List<Runnable> woken;
+        synchronized (this) {
+            finishedAtMs = System.currentTimeMillis();
+            // Completed under the lock so a poller never sees the wake-up before isDone() turns true.
+            completion.complete(List.copyOf(results));
+            woken = takeWaiters();
+        }
+        woken.forEach(Runnable::run);
+    }
+
+    /**
+     * Detaches every waiting poll with its snapshot; the caller completes them outside the lock.
+     */
+    private List<Runnable> takeWaiters() {
+        List<Runnable> woken = new ArrayList<>(waiters.size());
+        for (ResultWaiter waiter : waiters) {
+            List<MacVerificationResult> snapshot = resultsFrom(waiter.index());
+            woken.add(() -> waiter.pending().complete(snapshot));
+        }
+        waiters.clear();
+        return woken;
+    }
+
+    synchronized boolean finishedBefore(long epochMs) {
+        return completion.isDone() && finishedAtMs < epochMs;
+    }
+
+    private record ResultWaiter(int index, CompletableFuture<List<MacVerificationResult>> pending) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.uiptv.service.macverify;
+
+import com.uiptv.model.AccountInfo;
+
+/**
+ * Outcome of verifying one MAC address against a portal.
+ *
+ * @param macAddress  the MAC that was checked
+ * @param status      {@link Status#THROTTLED} when the portal kept answering 429/5xx until the attempts ran out
+ * @param accountInfo status/expiry reported by the portal, or {@code null} when not requested or not available
+ * @param attempts    how many times the MAC was tried
+ */
+public record MacVerificationResult(String macAddress, Status status, AccountInfo accountInfo, int attempts) {
+
+    public enum Status {
+        VALID,
+        INVALID,
+        THROTTLED
+    }
+
+    public boolean valid() {
+        return status == Status.VALID;
+    }
+
+    MacVerificationResult withAttempts(int attempts) {
+        return new MacVerificationResult(macAddress, status, accountInfo, attempts);
+    }
+}
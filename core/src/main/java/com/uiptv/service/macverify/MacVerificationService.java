@@ -0,0 +1,240 @@
+package com.uiptv.service.macverify;
+
+import com.uiptv.model.Account;
+import com.uiptv.service.AccountService;
+import com.uiptv.service.CacheServiceImpl;
+import com.uiptv.service.CategoryService;
+import com.uiptv.service.HandshakeService;
+import com.uiptv.util.AccountCopyUtil;
+import com.uiptv.util.AccountType;
+import com.uiptv.util.AppLog;
+import com.uiptv.util.FetchAPI;
+import com.uiptv.util.HostCircuitBreaker;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * Verifies many MAC addresses of a Stalker account concurrently.
+ * <p>
+ * Each portal host gets at most {@code uiptv.mac.verify.concurrency} checks in flight (default 4), shared by every
+ * job on that host. When the portal answers 429 or 5xx all workers on the host back off together, doubling from
+ * {@code uiptv.mac.verify.backoff.ms} (default 2s), and the MAC is retried up to {@code uiptv.mac.verify.attempts}
+ * times (default 3) before it is reported as {@link MacVerificationResult.Status#THROTTLED}.
+ */
+public class MacVerificationService {
+    private static final int MAX_PER_PORTAL = Math.clamp(Integer.getInteger("uiptv.mac.verify.concurrency", 4), 1, 16);
+    private static final int MAX_ATTEMPTS = Math.max(1, Integer.getInteger("uiptv.mac.verify.attempts", 3));
+    private static final long BACKOFF_MS = Math.max(100, Long.getLong("uiptv.mac.verify.backoff.ms", 2_000));
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final long PAUSE_SLICE_MS = 100;
+    private static final long FINISHED_JOB_RETENTION_MS = 10 * 60_000L;
+
+    private final MacCheck check;
+    private final long backoffMs;
+    private final ExecutorService executor;
+    private final Map<String, PortalGate> gates = new ConcurrentHashMap<>();
+    private final Map<String, MacVerificationJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * One verification attempt of a MAC; implementations report {@code THROTTLED} for 429/5xx answers.
+     */
+    @FunctionalInterface
+    interface MacCheck {
+        MacVerificationResult check(Account account, String macAddress, boolean includeAccountInfo);
+    }
+
+    MacVerificationService(MacCheck check, long backoffMs) {
+        this.check = check;
+        this.backoffMs = backoffMs;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "uiptv-mac-verify");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static class SingletonHelper {
+        private static final MacVerificationService INSTANCE = new MacVerificationService(
+                MacVerificationService::checkAgainstPortal, BACKOFF_MS);
+    }
+
+    public static MacVerificationService getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    /**
+     * Starts verifying {@code macAddresses} for a Stalker portal account and returns at once.
+     *
+     * @param includeAccountInfo also fetch status/expiry for each MAC
+     * @param listener           called from worker threads as each result lands; may be {@code null}
+     * @throws IllegalArgumentException when the account is not a Stalker portal account
+     */
+    public MacVerificationJob verify(Account account, List<String> macAddresses, boolean includeAccountInfo,
+                                     Consumer<MacVerificationResult> listener) {
+        if (account == null || account.getType() != AccountType.STALKER_PORTAL) {
+            throw new IllegalArgumentException("MAC verification needs a Stalker portal account");
+        }
+        Set<String> distinct = new LinkedHashSet<>();
+        if (macAddresses != null) {
+            for (String mac : macAddresses) {
+                if (!isBlank(mac)) {
+                    distinct.add(mac.trim());
+                }
+            }
+        }
+        pruneFinishedJobs();
+        MacVerificationJob job = new MacVerificationJob(UUID.randomUUID().toString(), account.getDbId(), distinct.size(), listener);
+        jobs.put(job.id(), job);
+        if (distinct.isEmpty()) {
+            job.finish();
+            return job;
+        }
+        Queue<String> pending = new ConcurrentLinkedQueue<>(distinct);
+        PortalGate gate = gates.computeIfAbsent(HostCircuitBreaker.hostKey(account.getUrl()), _ -> new PortalGate());
+        int workers = Math.min(MAX_PER_PORTAL, distinct.size());
+        AtomicInteger running = new AtomicInteger(workers);
+        executor.execute(() -> {
+            // Resolve the portal endpoint once so the workers don't each run discovery.
+            try {
+                AccountService.getInstance().ensureServerPortalUrl(account);
+            } catch (RuntimeException e) {
+                AppLog.addWarningLog(MacVerificationService.class, "Unable to resolve portal endpoint before MAC verification: " + e.getMessage());
+            }
+            for (int i = 0; i < workers; i++) {
+                executor.execute(() -> drain(job, account, pending, gate, includeAccountInfo, running));
+            }
+        });
+        return job;
+    }
+
+    public MacVerificationJob getJob(String jobId) {
+        return isBlank(jobId) ? null : jobs.get(jobId);
+    }
+
+    private void drain(MacVerificationJob job, Account account, Queue<String> pending, PortalGate gate,
+                       boolean includeAccountInfo, AtomicInteger running) {
+        try {
+            String mac;
+            while (!job.isCancelled() && (mac = pending.poll()) != null) {
+                MacVerificationResult result = verifyWithBackoff(job, account, mac, gate, includeAccountInfo);
+                if (result != null) {
+                    job.publish(result);
+                }
+            }
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (running.decrementAndGet() == 0) {
+                job.finish();
+            }
+        }
+    }
+
+    private MacVerificationResult verifyWithBackoff(MacVerificationJob job, Account account, String mac, PortalGate gate,
+                                                    boolean includeAccountInfo) throws InterruptedException {
+        MacVerificationResult result = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            if (!gate.awaitPause(job)) {
+                return result;
+            }
+            gate.permits.acquire();
+            try {
+                result = runCheck(account, mac, includeAccountInfo).withAttempts(attempt);
+            } finally {
+                gate.permits.release();
+            }
+            if (result.status() != MacVerificationResult.Status.THROTTLED) {
+                return result;
+            }
+            long delay = Math.min(MAX_BACKOFF_MS, backoffMs << (attempt - 1));
+            gate.pauseFor(delay + ThreadLocalRandom.current().nextLong(delay / 4 + 1));
+        }
+        AppLog.addWarningLog(MacVerificationService.class, "Portal kept throttling MAC verification for " + mac);
+        return result;
+    }
+
+    private MacVerificationResult runCheck(Account account, String mac, boolean includeAccountInfo) {
+        try {
+            MacVerificationResult result = check.check(account, mac, includeAccountInfo);
+            return result != null ? result : new MacVerificationResult(mac, MacVerificationResult.Status.INVALID, null, 0);
+        } catch (RuntimeException e) {
+            AppLog.addWarningLog(MacVerificationService.class, "MAC verification failed for " + mac + ": " + e.getMessage());
+            return new MacVerificationResult(mac, MacVerificationResult.Status.INVALID, null, 0);
+        }
+    }
+
+    /**
+     * One handshake per MAC: the profile call it needs anyway also supplies the account details, and a category
+     * fetch confirms the MAC can browse. A 429/5xx on the failing call reports {@code THROTTLED}.
+     */
+    static MacVerificationResult checkAgainstPortal(Account account, String mac, boolean includeAccountInfo) {
+        Account worker = AccountCopyUtil.copyForMac(account, mac);
+        HandshakeService.PortalProbe probe = HandshakeService.getInstance().probe(worker, includeAccountInfo);
+        if (!probe.connected()) {
+            return new MacVerificationResult(mac, isThrottled(probe.statusCode())
+                    ? MacVerificationResult.Status.THROTTLED
+                    : MacVerificationResult.Status.INVALID, null, 0);
+        }
+        FetchAPI.FetchResult categories = FetchAPI.fetchResult(CacheServiceImpl.getCategoryParams(worker.getAction()), worker);
+        if (isThrottled(categories.statusCode())) {
+            return new MacVerificationResult(mac, MacVerificationResult.Status.THROTTLED, null, 0);
+        }
+        boolean valid = !CategoryService.getInstance().parseCategories(categories.body(), false).isEmpty();
+        return new MacVerificationResult(mac, valid ? MacVerificationResult.Status.VALID : MacVerificationResult.Status.INVALID,
+                probe.accountInfo(), 0);
+    }
+
+    static boolean isThrottled(int statusCode) {
+        return statusCode == 429 || (statusCode >= 500 && statusCode <= 599);
+    }
+
+    private void pruneFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - FINISHED_JOB_RETENTION_MS;
+        List<String> expired = new ArrayList<>();
+        jobs.forEach((id, job) -> {
+            if (job.finishedBefore(cutoff)) {
+                expired.add(id);
+            }
+        });
+        expired.forEach(jobs::remove);
+    }
+
+    private static final class PortalGate {
+        private final Semaphore permits = new Semaphore(MAX_PER_PORTAL, true);
+        private volatile long pausedUntilMs;
+
+        private synchronized void pauseFor(long delayMs) {
+            pausedUntilMs = Math.max(pausedUntilMs, System.currentTimeMillis() + delayMs);
+        }
+
+        /**
+         * Sleeps out a backoff set by any worker on this portal; returns false when the job was cancelled meanwhile.
+         */
+        private boolean awaitPause(MacVerificationJob job) throws InterruptedException {
+            long remaining;
+            while ((remaining = pausedUntilMs - System.currentTimeMillis()) > 0) {
+                if (job.isCancelled()) {
+                    return false;
+                }
+                Thread.sleep(Math.min(remaining, PAUSE_SLICE_MS));
+            }
+            return !job.isCancelled();
+        }
+    }
+}
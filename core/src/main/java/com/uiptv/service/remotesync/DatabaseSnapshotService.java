@@ -1,6 +1,7 @@
 package com.uiptv.service.remotesync;
 
 import com.uiptv.service.DatabaseBackupArchiveService;
+import com.uiptv.util.SecureTempFileSupport;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -3,6 +3,7 @@ package com.uiptv.service.remotesync;
 import com.uiptv.db.SQLConnection;
 import com.uiptv.service.DatabaseSyncService;
 import com.uiptv.util.AppLog;
+import com.uiptv.util.SecureTempFileSupport;
 
 import java.io.IOException;
 import java.net.InetAddress;
@@ -51,11 +52,16 @@ public class RemoteSyncClientService {
         AppLog.addInfoLog(RemoteSyncClientService.class, "Waiting for session approval...");        RemoteSyncOptions transferOptions = session.options();
 
         notifyProgress(progressListener, RemoteSyncProgressStep.CREATING_SNAPSHOT, null);
-        AppLog.addInfoLog(RemoteSyncClientService.class, "Creating snapshot payload...");        Path payloadPath = createTransferPayload(SQLConnection.getDatabasePath(), transferOptions);
+        AppLog.addInfoLog(RemoteSyncClientService.class, "Creating snapshot payload...");        Path payloadPath = transferOptions.deltaTransfer()
+                ? databaseSyncService.createDeltaSnapshot(
+                SQLConnection.getDatabasePath(),
+                httpClient.fetchSummary(baseUrl, session.sessionId()),
+                transferOptions.syncConfiguration())
+                : createTransferPayload(SQLConnection.getDatabasePath(), transferOptions);
         AppLog.addInfoLog(RemoteSyncClientService.class, "Payload created");        Path uploadPath = prepareOutboundTransfer(payloadPath, session.sessionId(), verificationCode, transferOptions);
         AppLog.addInfoLog(RemoteSyncClientService.class, "Prepared outbound transfer");        try {
             notifyProgress(progressListener, RemoteSyncProgressStep.UPLOADING, null);
-        AppLog.addInfoLog(RemoteSyncClientService.class, "Uploading...");            RemoteSyncExecutionResult result = uploadSnapshotWithRemoteFailureContext(baseUrl, session.sessionId(), uploadPath);
+        AppLog.addInfoLog(RemoteSyncClientService.class, "Uploading...");            RemoteSyncExecutionResult result = uploadSnapshotWithRemoteFailureContext(baseUrl, session.sessionId(), uploadPath, transferOptions);
         AppLog.addInfoLog(RemoteSyncClientService.class, "Upload completed");            notifyProgress(progressListener, RemoteSyncProgressStep.FINISHED, null);
             return result;
         } finally {
@@ -68,9 +74,12 @@ public class RemoteSyncClientService {
 
     private RemoteSyncExecutionResult uploadSnapshotWithRemoteFailureContext(String baseUrl,
                                                                             String sessionId,
-                                                                            Path uploadPath) throws IOException {
+                                                                            Path uploadPath,
+                                                                            RemoteSyncOptions options) throws IOException {
         try {
-            return httpClient.uploadSnapshot(baseUrl, sessionId, uploadPath);
+            return options.chunkedTransfer()
+                    ? httpClient.uploadSnapshotResumable(baseUrl, sessionId, uploadPath)
+                    : httpClient.uploadSnapshot(baseUrl, sessionId, uploadPath);
         } catch (IOException uploadFailure) {
             RemoteSyncSessionState remoteState = readRemoteStateAfterUploadFailure(baseUrl, sessionId);
             if (remoteState != null && remoteState.status() == RemoteSyncStatus.FAILED
@@ -99,17 +108,37 @@ public class RemoteSyncClientService {
 
         String verificationCode = VerificationCodeGenerator.createFourDigitCode();
         RemoteSyncSessionState session = httpClient.createSession(baseUrl, buildRequest(RemoteSyncDirection.IMPORT_FROM_REMOTE, verificationCode, options));
-        awaitReadyState(baseUrl, session.sessionId(), RemoteSyncStatus.READY_FOR_DOWNLOAD, verificationCode, progressListener);
+        boolean delta = session.options().deltaTransfer();
+        if (delta) {
+            awaitReadyState(baseUrl, session.sessionId(), RemoteSyncStatus.APPROVED, verificationCode, progressListener);
+            RemoteSyncSessionState prepared = httpClient.submitSummary(baseUrl, session.sessionId(),
+                    databaseSyncService.summarizeForDeltaSync(SQLConnection.getDatabasePath(), session.options().syncConfiguration()));
+            if (prepared.status() != RemoteSyncStatus.READY_FOR_DOWNLOAD) {
+                throw new IOException(prepared.message());
+            }
+        } else {
+            awaitReadyState(baseUrl, session.sessionId(), RemoteSyncStatus.READY_FOR_DOWNLOAD, verificationCode, progressListener);
+        }
 
         notifyProgress(progressListener, RemoteSyncProgressStep.DOWNLOADING, null);
-        Path downloadedTransfer = httpClient.downloadSnapshot(baseUrl, session.sessionId());
+        Path downloadedTransfer = session.options().chunkedTransfer()
+                ? httpClient.downloadSnapshotResumable(baseUrl, session.sessionId())
+                : httpClient.downloadSnapshot(baseUrl, session.sessionId());
         Path payloadPath = null;
         Path downloadedSnapshot = null;
         try {
             payloadPath = prepareInboundPayload(downloadedTransfer, session.sessionId(), verificationCode, session.options());
             downloadedSnapshot = extractTransferSnapshot(payloadPath, session.options());
             notifyProgress(progressListener, RemoteSyncProgressStep.APPLYING_SYNC, null);
-            DatabaseSyncService.DatabaseSyncReport report = databaseSyncService.syncDatabasesWithReport(
+            DatabaseSyncService.DatabaseSyncReport report = delta
+                    ? databaseSyncService.applyDeltaWithReport(
+                    downloadedSnapshot.toAbsolutePath().toString(),
+                    SQLConnection.getDatabasePath(),
+                    options.syncConfiguration(),
+                    options.syncExternalPlayerPaths(),
+                    null
+            )
+                    : databaseSyncService.syncDatabasesWithReport(
                     downloadedSnapshot.toAbsolutePath().toString(),
                     SQLConnection.getDatabasePath(),
                     options.syncConfiguration(),
@@ -152,7 +181,12 @@ public class RemoteSyncClientService {
         }
         Path encryptedPath = SecureTempFileSupport.createTempFile("uiptv-remote-sync-", ".bin");
         try {
-            RemoteSyncTransferCipher.encrypt(payloadPath, encryptedPath, verificationCode, sessionId);
+            if (options.chunkedTransfer()) {
+                RemoteSyncTransferCipher.encryptChunked(payloadPath, encryptedPath, verificationCode, sessionId,
+                        !options.archiveTransfer() || options.deltaTransfer());
+            } else {
+                RemoteSyncTransferCipher.encrypt(payloadPath, encryptedPath, verificationCode, sessionId);
+            }
             return encryptedPath;
         } catch (IOException ex) {
             Files.deleteIfExists(encryptedPath);
@@ -178,7 +212,7 @@ public class RemoteSyncClientService {
     }
 
     private Path extractTransferSnapshot(Path payloadPath, RemoteSyncOptions options) throws IOException, SQLException {
-        if (options.archiveTransfer()) {
+        if (options.archiveTransfer() && !options.deltaTransfer()) {
             return snapshotService.extractSnapshotDatabase(payloadPath);
         }
         return payloadPath;
@@ -1,13 +1,19 @@
 package com.uiptv.service.remotesync;
 
+import com.uiptv.service.DatabaseSyncService;
 import com.uiptv.util.HttpUtil;
+import com.uiptv.util.SecureTempFileSupport;
 import org.apache.hc.core5.http.ContentType;
 import org.json.JSONObject;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Map;
 
 public class RemoteSyncHttpClient {
@@ -15,6 +21,10 @@ public class RemoteSyncHttpClient {
     private static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT_SECONDS = Integer.getInteger("uiptv.remote.sync.http.connection.request.timeout.seconds", 10);
     private static final int DEFAULT_RESPONSE_TIMEOUT_SECONDS = Integer.getInteger("uiptv.remote.sync.http.response.timeout.seconds", 120);
     private static final Map<String, String> JSON_HEADERS = Map.of("Content-Type", "application/json");
+    private static final int SEGMENT_BYTES = Math.max(64 * 1024, Integer.getInteger("uiptv.remote.sync.segment.bytes", 4 * 1024 * 1024));
+    private static final int MAX_RESUME_ATTEMPTS = Integer.getInteger("uiptv.remote.sync.resume.attempts", 5);
+    private static final long RESUME_BACKOFF_MS = Long.getLong("uiptv.remote.sync.resume.backoff.ms", 1_000L);
+    public static final String TOTAL_BYTES_HEADER = "X-Remote-Sync-Total-Bytes";
     private static final HttpUtil.RequestOptions REQUEST_OPTIONS = new HttpUtil.RequestOptions(
             false,
             true,
@@ -52,6 +62,28 @@ public class RemoteSyncHttpClient {
         return RemoteSyncJson.toSessionState(response);
     }
 
+    public DatabaseSyncService.DeltaSyncSummary fetchSummary(String baseUrl, String sessionId) throws IOException {
+        JSONObject response = executeJson(HttpUtil.sendRequest(
+                baseUrl + "/remote-sync/summary?sessionId=" + sessionId,
+                null,
+                "GET",
+                null,
+                REQUEST_OPTIONS
+        ));
+        return RemoteSyncJson.toDeltaSyncSummary(response);
+    }
+
+    public RemoteSyncSessionState submitSummary(String baseUrl, String sessionId, DatabaseSyncService.DeltaSyncSummary summary) throws IOException {
+        JSONObject response = executeJson(HttpUtil.sendRequest(
+                baseUrl + "/remote-sync/summary?sessionId=" + sessionId,
+                JSON_HEADERS,
+                "POST",
+                RemoteSyncJson.toJson(summary).toString(),
+                REQUEST_OPTIONS
+        ));
+        return RemoteSyncJson.toSessionState(response);
+    }
+
     public RemoteSyncExecutionResult uploadSnapshot(String baseUrl, String sessionId, Path snapshotPath) throws IOException {
         return RemoteSyncJson.toExecutionResult(executeJson(HttpUtil.sendFileRequest(
                 baseUrl + "/remote-sync/upload?sessionId=" + sessionId,
@@ -63,6 +95,89 @@ public class RemoteSyncHttpClient {
         )));
     }
 
+    /**
+     * Uploads {@code snapshotPath} in segments of {@code uiptv.remote.sync.segment.bytes} (4 MB by default). The server only appends a
+     * segment once it has been received completely, so after a failure the upload resumes from the byte count
+     * the server reports instead of starting over.
+     */
+    public RemoteSyncExecutionResult uploadSnapshotResumable(String baseUrl, String sessionId, Path snapshotPath) throws IOException {
+        long size = Files.size(snapshotPath);
+        long offset = 0;
+        int failures = 0;
+        while (true) {
+            long end = Math.min(size, offset + SEGMENT_BYTES);
+            boolean complete = end == size;
+            Path segment = copySegment(snapshotPath, offset, end);
+            try {
+                JSONObject response = executeJson(HttpUtil.sendFileRequest(
+                        baseUrl + "/remote-sync/upload?sessionId=" + sessionId + "&offset=" + offset + "&complete=" + complete,
+                        null,
+                        "PUT",
+                        segment,
+                        ContentType.APPLICATION_OCTET_STREAM,
+                        REQUEST_OPTIONS
+                ));
+                if (complete) {
+                    return RemoteSyncJson.toExecutionResult(response);
+                }
+                offset = response.optLong("receivedBytes", end);
+                failures = 0;
+            } catch (IOException ex) {
+                if (++failures > MAX_RESUME_ATTEMPTS) {
+                    throw ex;
+                }
+                RemoteSyncSessionState state = resumableState(baseUrl, sessionId, ex);
+                if (state != null && state.status() == RemoteSyncStatus.COMPLETED) {
+                    return new RemoteSyncExecutionResult(null, state.message());
+                }
+                offset = getUploadedBytes(baseUrl, sessionId, offset);
+            } finally {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    /**
+     * Downloads the prepared transfer, resuming from the bytes already on disk when the connection drops.
+     */
+    public Path downloadSnapshotResumable(String baseUrl, String sessionId) throws IOException {
+        Path snapshotPath = SecureTempFileSupport.createTempFile("uiptv-remote-download-", ".bin");
+        int failures = 0;
+        try {
+            while (true) {
+                long offset = Files.size(snapshotPath);
+                try (HttpUtil.StreamResult response = HttpUtil.openStream(
+                        baseUrl + "/remote-sync/download?sessionId=" + sessionId + "&offset=" + offset,
+                        null,
+                        "GET",
+                        null,
+                        REQUEST_OPTIONS
+                )) {
+                    if (response.statusCode() >= 300) {
+                        throw new IOException("Remote sync request failed with status " + response.statusCode());
+                    }
+                    long total = totalBytes(response);
+                    try (InputStream body = response.bodyStream();
+                         OutputStream output = Files.newOutputStream(snapshotPath, StandardOpenOption.APPEND)) {
+                        body.transferTo(output);
+                    }
+                    if (total < 0 || Files.size(snapshotPath) >= total) {
+                        return snapshotPath;
+                    }
+                    throw new IOException("Remote sync download ended early at " + Files.size(snapshotPath) + " of " + total + " bytes");
+                } catch (IOException ex) {
+                    if (++failures > MAX_RESUME_ATTEMPTS) {
+                        throw ex;
+                    }
+                    resumableState(baseUrl, sessionId, ex);
+                }
+            }
+        } catch (IOException ex) {
+            Files.deleteIfExists(snapshotPath);
+            throw ex;
+        }
+    }
+
     public Path downloadSnapshot(String baseUrl, String sessionId) throws IOException {
         try (HttpUtil.StreamResult response = HttpUtil.openStream(
                 baseUrl + "/remote-sync/download?sessionId=" + sessionId,
@@ -96,6 +211,73 @@ public class RemoteSyncHttpClient {
         ));
     }
 
+    private long getUploadedBytes(String baseUrl, String sessionId, long fallback) {
+        try {
+            return executeJson(HttpUtil.sendRequest(
+                    baseUrl + "/remote-sync/upload?sessionId=" + sessionId,
+                    null,
+                    "GET",
+                    null,
+                    REQUEST_OPTIONS
+            )).optLong("receivedBytes", fallback);
+        } catch (IOException _) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Waits out the resume backoff and returns the session state, or rethrows {@code failure} when the session
+     * can no longer accept a retry.
+     */
+    private RemoteSyncSessionState resumableState(String baseUrl, String sessionId, IOException failure) throws IOException {
+        try {
+            Thread.sleep(RESUME_BACKOFF_MS);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+        RemoteSyncSessionState state;
+        try {
+            state = getSessionState(baseUrl, sessionId);
+        } catch (IOException _) {
+            return null;
+        }
+        if (state.status() == RemoteSyncStatus.FAILED
+                || state.status() == RemoteSyncStatus.REJECTED
+                || state.status() == RemoteSyncStatus.EXPIRED) {
+            throw failure;
+        }
+        return state;
+    }
+
+    private Path copySegment(Path source, long start, long end) throws IOException {
+        Path segment = SecureTempFileSupport.createTempFile("uiptv-remote-segment-", ".bin");
+        try (FileChannel input = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = start;
+            while (position < end) {
+                position += input.transferTo(position, end - position, output);
+            }
+            return segment;
+        } catch (IOException ex) {
+            Files.deleteIfExists(segment);
+            throw ex;
+        }
+    }
+
+    private long totalBytes(HttpUtil.StreamResult response) {
+        for (Map.Entry<String, List<String>> header : response.responseHeaders().entrySet()) {
+            if (TOTAL_BYTES_HEADER.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                try {
+                    return Long.parseLong(header.getValue().getFirst().trim());
+                } catch (NumberFormatException _) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
     private JSONObject executeJson(HttpUtil.HttpResult response) throws IOException {
         String body = response.body();
         if (response.statusCode() >= 300) {
@@ -5,7 +5,9 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class RemoteSyncJson {
     private static final String DIRECTION = "direction";
@@ -16,6 +18,8 @@ public final class RemoteSyncJson {
     private static final String CONFIGURATION_PROFILE = "configurationProfile";
     private static final String ARCHIVE_TRANSFER = "archiveTransfer";
     private static final String ENCRYPTED_TRANSFER = "encryptedTransfer";
+    private static final String DELTA_TRANSFER = "deltaTransfer";
+    private static final String CHUNKED_TRANSFER = "chunkedTransfer";
     private static final String MESSAGE = "message";
 
     private RemoteSyncJson() {
@@ -30,7 +34,9 @@ public final class RemoteSyncJson {
                 .put(SYNC_EXTERNAL_PLAYER_PATHS, request.options().syncExternalPlayerPaths())
                 .put(CONFIGURATION_PROFILE, request.options().configurationProfile().name())
                 .put(ARCHIVE_TRANSFER, request.options().archiveTransfer())
-                .put(ENCRYPTED_TRANSFER, request.options().encryptedTransfer());
+                .put(ENCRYPTED_TRANSFER, request.options().encryptedTransfer())
+                .put(DELTA_TRANSFER, request.options().deltaTransfer())
+                .put(CHUNKED_TRANSFER, request.options().chunkedTransfer());
     }
 
     public static RemoteSyncRequest toRequest(JSONObject json) {
@@ -43,7 +49,9 @@ public final class RemoteSyncJson {
                         json.optBoolean(SYNC_EXTERNAL_PLAYER_PATHS, false),
                         parseConfigurationProfile(json.optString(CONFIGURATION_PROFILE, "")),
                         json.optBoolean(ARCHIVE_TRANSFER, false),
-                        json.optBoolean(ENCRYPTED_TRANSFER, false)
+                        json.optBoolean(ENCRYPTED_TRANSFER, false),
+                        json.optBoolean(DELTA_TRANSFER, false),
+                        json.optBoolean(CHUNKED_TRANSFER, false)
                 )
         );
     }
@@ -61,6 +69,8 @@ public final class RemoteSyncJson {
                 .put(CONFIGURATION_PROFILE, state.options().configurationProfile().name())
                 .put(ARCHIVE_TRANSFER, state.options().archiveTransfer())
                 .put(ENCRYPTED_TRANSFER, state.options().encryptedTransfer())
+                .put(DELTA_TRANSFER, state.options().deltaTransfer())
+                .put(CHUNKED_TRANSFER, state.options().chunkedTransfer())
                 .put(MESSAGE, state.message());
     }
 
@@ -77,7 +87,9 @@ public final class RemoteSyncJson {
                         json.optBoolean(SYNC_EXTERNAL_PLAYER_PATHS, false),
                         parseConfigurationProfile(json.optString(CONFIGURATION_PROFILE, "")),
                         json.optBoolean(ARCHIVE_TRANSFER, false),
-                        json.optBoolean(ENCRYPTED_TRANSFER, false)
+                        json.optBoolean(ENCRYPTED_TRANSFER, false),
+                        json.optBoolean(DELTA_TRANSFER, false),
+                        json.optBoolean(CHUNKED_TRANSFER, false)
                 ),
                 json.optString(MESSAGE, "")
         );
@@ -131,6 +143,36 @@ public final class RemoteSyncJson {
         return new RemoteSyncExecutionResult(report, json.optString(MESSAGE, ""));
     }
 
+    public static JSONObject toJson(DatabaseSyncService.DeltaSyncSummary summary) {
+        JSONObject tables = new JSONObject();
+        summary.tables().forEach((tableName, digest) -> tables.put(tableName, new JSONObject()
+                .put("root", digest.root())
+                .put("buckets", new JSONArray(digest.buckets()))));
+        return new JSONObject().put("tables", tables);
+    }
+
+    public static DatabaseSyncService.DeltaSyncSummary toDeltaSyncSummary(JSONObject json) {
+        Map<String, DatabaseSyncService.TableDigest> digests = new LinkedHashMap<>();
+        JSONObject tables = json.optJSONObject("tables");
+        if (tables != null) {
+            for (String tableName : tables.keySet()) {
+                JSONObject digestJson = tables.optJSONObject(tableName);
+                if (digestJson == null) {
+                    continue;
+                }
+                List<String> buckets = new ArrayList<>();
+                JSONArray bucketsJson = digestJson.optJSONArray("buckets");
+                if (bucketsJson != null) {
+                    for (int i = 0; i < bucketsJson.length(); i++) {
+                        buckets.add(bucketsJson.optString(i, ""));
+                    }
+                }
+                digests.put(tableName, new DatabaseSyncService.TableDigest(digestJson.optString("root", ""), buckets));
+            }
+        }
+        return new DatabaseSyncService.DeltaSyncSummary(digests);
+    }
+
     private static ConfigurationSyncProfile parseConfigurationProfile(String value) {
         if (value == null || value.isBlank()) {
             return ConfigurationSyncProfile.DESKTOP_FULL;
@@ -4,7 +4,9 @@ public record RemoteSyncOptions(boolean syncConfiguration,
                                 boolean syncExternalPlayerPaths,
                                 ConfigurationSyncProfile configurationProfile,
                                 boolean archiveTransfer,
-                                boolean encryptedTransfer) {
+                                boolean encryptedTransfer,
+                                boolean deltaTransfer,
+                                boolean chunkedTransfer) {
     public RemoteSyncOptions(boolean syncConfiguration, boolean syncExternalPlayerPaths) {
         this(syncConfiguration, syncExternalPlayerPaths, ConfigurationSyncProfile.DESKTOP_FULL);
     }
@@ -15,12 +17,47 @@ public record RemoteSyncOptions(boolean syncConfiguration,
         this(syncConfiguration, syncExternalPlayerPaths, configurationProfile, true, true);
     }
 
+    public RemoteSyncOptions(boolean syncConfiguration,
+                             boolean syncExternalPlayerPaths,
+                             ConfigurationSyncProfile configurationProfile,
+                             boolean archiveTransfer,
+                             boolean encryptedTransfer) {
+        this(syncConfiguration, syncExternalPlayerPaths, configurationProfile, archiveTransfer, encryptedTransfer, false);
+    }
+
+    public RemoteSyncOptions(boolean syncConfiguration,
+                             boolean syncExternalPlayerPaths,
+                             ConfigurationSyncProfile configurationProfile,
+                             boolean archiveTransfer,
+                             boolean encryptedTransfer,
+                             boolean deltaTransfer) {
+        this(syncConfiguration, syncExternalPlayerPaths, configurationProfile, archiveTransfer, encryptedTransfer, deltaTransfer, false);
+    }
+
     public RemoteSyncOptions {
         if (configurationProfile == null) {
             configurationProfile = ConfigurationSyncProfile.DESKTOP_FULL;
         }
     }
 
+    /**
+     * Asks the peer to exchange table summaries first and transfer only changed rows. Peers that do not echo
+     * the flag back in the session state get a full snapshot as before.
+     */
+    public RemoteSyncOptions withDeltaTransfer(boolean deltaTransfer) {
+        return new RemoteSyncOptions(syncConfiguration, syncExternalPlayerPaths, configurationProfile, archiveTransfer, encryptedTransfer,
+                deltaTransfer, chunkedTransfer);
+    }
+
+    /**
+     * Asks the peer for the chunked {@code UIPTVRS2} container with resumable segment uploads and downloads.
+     * Like {@link #withDeltaTransfer}, it only takes effect when the peer echoes it back.
+     */
+    public RemoteSyncOptions withChunkedTransfer(boolean chunkedTransfer) {
+        return new RemoteSyncOptions(syncConfiguration, syncExternalPlayerPaths, configurationProfile, archiveTransfer, encryptedTransfer,
+                deltaTransfer, chunkedTransfer);
+    }
+
     public static RemoteSyncOptions legacyRawTransfer(boolean syncConfiguration,
                                                       boolean syncExternalPlayerPaths,
                                                       ConfigurationSyncProfile configurationProfile) {
@@ -4,12 +4,15 @@ import com.uiptv.db.SQLConnection;
 import com.uiptv.service.AppDataRefreshService;
 import com.uiptv.service.DatabaseSyncService;
 import com.uiptv.util.AppLog;
+import com.uiptv.util.SecureTempFileSupport;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.sql.SQLException;
 import java.time.Clock;
 import java.time.Duration;
@@ -26,6 +29,8 @@ public class RemoteSyncSessionService {
     private static final String REMOTE_SYNC_COMPLETED_MESSAGE = "Remote database sync completed.";
     private static final String REMOTE_SYNC_FAILED_MESSAGE = "Remote database sync failed.";
     private static final String I18N_REMOTE_SYNC_REMOTE_FAILED_MESSAGE = "remoteSyncRemoteFailedMessage";
+    private static final boolean DELTA_ENABLED = Boolean.parseBoolean(System.getProperty("uiptv.remote.sync.delta.enabled", "true"));
+    private static final boolean CHUNKED_ENABLED = Boolean.parseBoolean(System.getProperty("uiptv.remote.sync.chunked.enabled", "true"));
 
     private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
     private final DatabaseSnapshotService snapshotService;
@@ -67,7 +72,7 @@ public class RemoteSyncSessionService {
                 request.verificationCode(),
                 blankToFallback(request.requesterName(), requesterAddress),
                 blankToFallback(requesterAddress, "unknown"),
-                request.options(),
+                negotiatedOptions(request.options()),
                 clock.instant().plus(APPROVAL_TTL)
         );
         sessions.put(session.sessionId, session);
@@ -85,9 +90,7 @@ public class RemoteSyncSessionService {
 
     public RemoteSyncExecutionResult acceptUpload(String sessionId, InputStream requestBody) throws IOException, SQLException {
         SessionState session = requireSession(sessionId);
-        Path uploadedTransfer = null;
-        Path payloadPath = null;
-        Path uploadedSnapshot = null;
+        Path uploadedTransfer;
         synchronized (session.monitor) {
             expireIfNeeded(session);
             // Accept uploads for either direction - the remote will process as import
@@ -102,11 +105,104 @@ public class RemoteSyncSessionService {
                 throw ex;
             }
         }
+        return applyUploadedTransfer(session, uploadedTransfer);
+    }
+
+    /**
+     * Bytes of the current segmented upload received so far; a client resumes from here after a failure.
+     */
+    public long getUploadedBytes(String sessionId) {
+        SessionState session = requireSession(sessionId);
+        synchronized (session.monitor) {
+            expireIfNeeded(session);
+            session.ensureStatus(session.direction, RemoteSyncStatus.APPROVED);
+            return session.uploadedBytes;
+        }
+    }
+
+    /**
+     * Appends one upload segment starting at {@code offset}. The segment is staged first and only appended once
+     * it has arrived completely, so an interrupted request leaves nothing half-written behind.
+     */
+    public long acceptUploadSegment(String sessionId, long offset, InputStream requestBody) throws IOException {
+        SessionState session = requireSession(sessionId);
+        synchronized (session.monitor) {
+            expireIfNeeded(session);
+            session.ensureStatus(session.direction, RemoteSyncStatus.APPROVED);
+        }
+        Path segment = SecureTempFileSupport.createTempFile("uiptv-remote-segment-", ".bin");
+        try {
+            try (InputStream inputStream = requestBody) {
+                Files.copy(inputStream, segment, StandardCopyOption.REPLACE_EXISTING);
+            }
+            synchronized (session.monitor) {
+                expireIfNeeded(session);
+                session.ensureStatus(session.direction, RemoteSyncStatus.APPROVED);
+                if (offset != session.uploadedBytes) {
+                    throw new IllegalStateException("Remote sync upload expected offset " + session.uploadedBytes);
+                }
+                if (session.uploadPath == null) {
+                    session.uploadPath = SecureTempFileSupport.createTempFile("uiptv-remote-upload-", ".bin");
+                }
+                appendSegment(session, segment);
+                return session.uploadedBytes;
+            }
+        } finally {
+            deleteIfExists(segment);
+        }
+    }
+
+    /**
+     * Applies a segmented upload once its last segment has been appended.
+     */
+    public RemoteSyncExecutionResult completeUpload(String sessionId) throws IOException, SQLException {
+        SessionState session = requireSession(sessionId);
+        Path uploadedTransfer;
+        synchronized (session.monitor) {
+            expireIfNeeded(session);
+            session.ensureStatus(session.direction, RemoteSyncStatus.APPROVED);
+            if (session.uploadPath == null) {
+                throw new IllegalStateException("Remote sync upload has not started");
+            }
+            uploadedTransfer = session.uploadPath;
+            session.uploadPath = null;
+            session.uploadedBytes = 0;
+        }
+        return applyUploadedTransfer(session, uploadedTransfer);
+    }
+
+    private void appendSegment(SessionState session, Path segment) throws IOException {
+        try (FileChannel output = FileChannel.open(session.uploadPath, StandardOpenOption.WRITE);
+             FileChannel input = FileChannel.open(segment, StandardOpenOption.READ)) {
+            try {
+                long size = input.size();
+                long written = 0;
+                while (written < size) {
+                    written += output.transferFrom(input, session.uploadedBytes + written, size - written);
+                }
+                session.uploadedBytes += size;
+            } catch (IOException ex) {
+                output.truncate(session.uploadedBytes);
+                throw ex;
+            }
+        }
+    }
 
+    private RemoteSyncExecutionResult applyUploadedTransfer(SessionState session, Path uploadedTransfer) throws IOException, SQLException {
+        Path payloadPath = null;
+        Path uploadedSnapshot = null;
         try {
             payloadPath = prepareInboundPayload(uploadedTransfer, session);
             uploadedSnapshot = extractTransferSnapshot(payloadPath, session.options);
-            DatabaseSyncService.DatabaseSyncReport report = databaseSyncService.syncDatabasesWithReport(
+            DatabaseSyncService.DatabaseSyncReport report = session.options.deltaTransfer()
+                    ? databaseSyncService.applyDeltaWithReport(
+                    uploadedSnapshot.toAbsolutePath().toString(),
+                    SQLConnection.getDatabasePath(),
+                    session.options.syncConfiguration(),
+                    session.options.syncExternalPlayerPaths(),
+                    null
+            )
+                    : databaseSyncService.syncDatabasesWithReport(
                     uploadedSnapshot.toAbsolutePath().toString(),
                     SQLConnection.getDatabasePath(),
                     session.options.syncConfiguration(),
@@ -138,6 +234,36 @@ public class RemoteSyncSessionService {
         }
     }
 
+    /**
+     * Summary of this database for a delta export: the requester diffs it against its own tables and uploads
+     * only the buckets that differ.
+     */
+    public DatabaseSyncService.DeltaSyncSummary getDeltaSummary(String sessionId) throws SQLException {
+        SessionState session = requireSession(sessionId);
+        synchronized (session.monitor) {
+            expireIfNeeded(session);
+            session.ensureStatus(RemoteSyncDirection.EXPORT_TO_REMOTE, RemoteSyncStatus.APPROVED);
+            session.ensureDeltaTransfer();
+        }
+        return databaseSyncService.summarizeForDeltaSync(SQLConnection.getDatabasePath(), session.options.syncConfiguration());
+    }
+
+    /**
+     * Takes the requester's summary for a delta import and prepares a download holding only the rows it lacks.
+     */
+    public RemoteSyncSessionState acceptDeltaSummary(String sessionId, DatabaseSyncService.DeltaSyncSummary targetSummary) {
+        Objects.requireNonNull(targetSummary, "targetSummary");
+        SessionState session = requireSession(sessionId);
+        synchronized (session.monitor) {
+            expireIfNeeded(session);
+            session.ensureStatus(RemoteSyncDirection.IMPORT_FROM_REMOTE, RemoteSyncStatus.APPROVED);
+            session.ensureDeltaTransfer();
+            session.startPreparingDownload();
+        }
+        prepareDownloadSnapshot(session, targetSummary);
+        return getSessionState(sessionId);
+    }
+
     public Path getDownloadSnapshot(String sessionId) {
         SessionState session = requireSession(sessionId);
         synchronized (session.monitor) {
@@ -194,22 +320,27 @@ public class RemoteSyncSessionService {
             }
             session.status = RemoteSyncStatus.APPROVED;
             session.message = session.direction == RemoteSyncDirection.IMPORT_FROM_REMOTE
-                    ? "Approved. Preparing snapshot."
+                    ? (session.options.deltaTransfer() ? "Approved. Waiting for summary." : "Approved. Preparing snapshot.")
                     : "Approved. Ready for upload.";
             session.expiresAt = clock.instant().plus(TRANSFER_TTL);
-            prepareDownload = session.direction == RemoteSyncDirection.IMPORT_FROM_REMOTE;
+            prepareDownload = session.direction == RemoteSyncDirection.IMPORT_FROM_REMOTE && !session.options.deltaTransfer();
+            if (prepareDownload) {
+                session.startPreparingDownload();
+            }
         }
 
         if (prepareDownload) {
-            prepareDownloadSnapshot(session);
+            prepareDownloadSnapshot(session, null);
         }
     }
 
-    private void prepareDownloadSnapshot(SessionState session) {
+    private void prepareDownloadSnapshot(SessionState session, DatabaseSyncService.DeltaSyncSummary targetSummary) {
         Path payloadPath = null;
         Path outboundPath = null;
         try {
-            payloadPath = createTransferPayload(SQLConnection.getDatabasePath(), session.options);
+            payloadPath = targetSummary == null
+                    ? createTransferPayload(SQLConnection.getDatabasePath(), session.options)
+                    : databaseSyncService.createDeltaSnapshot(SQLConnection.getDatabasePath(), targetSummary, session.options.syncConfiguration());
             outboundPath = prepareOutboundTransfer(payloadPath, session);
             if (!outboundPath.equals(payloadPath)) {
                 deleteIfExists(payloadPath);
@@ -248,7 +379,12 @@ public class RemoteSyncSessionService {
         }
         Path encryptedPath = SecureTempFileSupport.createTempFile("uiptv-remote-download-", ".bin");
         try {
-            RemoteSyncTransferCipher.encrypt(payloadPath, encryptedPath, session.verificationCode, session.sessionId);
+            if (session.options.chunkedTransfer()) {
+                RemoteSyncTransferCipher.encryptChunked(payloadPath, encryptedPath, session.verificationCode, session.sessionId,
+                        !session.options.archiveTransfer() || session.options.deltaTransfer());
+            } else {
+                RemoteSyncTransferCipher.encrypt(payloadPath, encryptedPath, session.verificationCode, session.sessionId);
+            }
             return encryptedPath;
         } catch (IOException ex) {
             Files.deleteIfExists(encryptedPath);
@@ -274,7 +410,7 @@ public class RemoteSyncSessionService {
     }
 
     private Path extractTransferSnapshot(Path payloadPath, RemoteSyncOptions options) throws IOException, SQLException {
-        if (options.archiveTransfer()) {
+        if (options.archiveTransfer() && !options.deltaTransfer()) {
             return snapshotService.extractSnapshotDatabase(payloadPath);
         }
         return payloadPath;
@@ -315,6 +451,14 @@ public class RemoteSyncSessionService {
     private void cleanupSnapshot(SessionState session) {
         deleteIfExists(session.snapshotPath);
         session.snapshotPath = null;
+        deleteIfExists(session.uploadPath);
+        session.uploadPath = null;
+        session.uploadedBytes = 0;
+    }
+
+    private RemoteSyncOptions negotiatedOptions(RemoteSyncOptions requested) {
+        RemoteSyncOptions options = DELTA_ENABLED ? requested : requested.withDeltaTransfer(false);
+        return CHUNKED_ENABLED ? options : options.withChunkedTransfer(false);
     }
 
     private void deleteIfExists(Path path) {
@@ -344,6 +488,9 @@ public class RemoteSyncSessionService {
         private String message;
         private Instant expiresAt;
         private Path snapshotPath;
+        private Path uploadPath;
+        private long uploadedBytes;
+        private boolean preparingDownload;
 
         private SessionState(String sessionId,
                              RemoteSyncDirection direction,
@@ -396,6 +543,23 @@ public class RemoteSyncSessionService {
             }
         }
 
+        private void ensureDeltaTransfer() {
+            if (!options.deltaTransfer()) {
+                throw new IllegalStateException("Remote sync session does not use delta transfer");
+            }
+        }
+
+        /**
+         * Claims the download preparation of an approved import so a repeated summary cannot start a second one.
+         */
+        private void startPreparingDownload() {
+            if (preparingDownload) {
+                throw new IllegalStateException("Remote sync session is already preparing a download");
+            }
+            preparingDownload = true;
+            message = "Approved. Preparing snapshot.";
+        }
+
         private void complete(String message) {
             this.status = RemoteSyncStatus.COMPLETED;
             this.message = message;
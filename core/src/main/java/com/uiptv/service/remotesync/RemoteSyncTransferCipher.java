@@ -9,18 +9,49 @@ import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
+/**
+ * Encrypts remote sync payloads with a key derived from the verification code and session id.
+ * <p>
+ * Two container formats exist. {@code UIPTVRS1} is one AES/GCM stream over the whole payload; it is still what
+ * mobile peers and older desktops speak, but GCM only authenticates at the end, so decryption cannot stream
+ * safely. {@code UIPTVRS2} splits the payload into independently authenticated chunks: each chunk is optionally
+ * deflated, sealed with a nonce derived from its index and tagged as final or not, with the container header as associated data, so reordering, truncation and
+ * tampering are all detected chunk by chunk while both sides stay in constant memory. Chunks are compressed and
+ * sealed in parallel. {@link #decrypt} accepts either format.
+ */
 final class RemoteSyncTransferCipher {
     private static final byte[] MAGIC = "UIPTVRS1".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHUNKED_MAGIC = "UIPTVRS2".getBytes(StandardCharsets.US_ASCII);
+    private static final int CHUNK_BYTES = Math.clamp(Integer.getInteger("uiptv.remote.sync.chunk.bytes", 1024 * 1024), 4096, 4 * 1024 * 1024);
+    private static final int MAX_SEALED_CHUNK_BYTES = 8 * 1024 * 1024;
+    private static final int FINAL_CHUNK_FLAG = 0x8000_0000;
+    private static final int NONCE_PREFIX_BYTES = 4;
+    private static final byte FLAG_COMPRESSED = 1;
+    private static final int PARALLELISM = Math.clamp(Runtime.getRuntime().availableProcessors(), 1, 4);
     private static final String KEY_ALGORITHM = "PBKDF2WithHmacSHA1";
     private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
     private static final int ITERATIONS = 120_000;
@@ -49,10 +80,51 @@ final class RemoteSyncTransferCipher {
         }
     }
 
+    /**
+     * Writes a {@code UIPTVRS2} container. {@code compress} should be off for payloads that are already zipped.
+     */
+    static void encryptChunked(Path source, Path destination, String verificationCode, String sessionId, boolean compress) throws IOException {
+        byte[] salt = randomBytes(SALT_BYTES);
+        byte[] noncePrefix = randomBytes(NONCE_PREFIX_BYTES);
+        SecretKeySpec key = deriveSecretKey(verificationCode, sessionId, salt);
+        ExecutorService workers = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "uiptv-remote-sync-cipher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(source));
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(destination)))) {
+            byte[] header = chunkedHeader(salt, noncePrefix, compress ? FLAG_COMPRESSED : 0);
+            output.write(header);
+
+            Deque<Future<byte[]>> pending = new ArrayDeque<>();
+            byte[] next = input.readNBytes(CHUNK_BYTES);
+            long index = 0;
+            boolean last;
+            do {
+                byte[] chunk = next;
+                next = chunk.length < CHUNK_BYTES ? new byte[0] : input.readNBytes(CHUNK_BYTES);
+                last = next.length == 0;
+                long chunkIndex = index++;
+                boolean finalChunk = last;
+                pending.add(workers.submit(() -> sealChunk(key, header, noncePrefix, chunkIndex, finalChunk, compress ? deflate(chunk) : chunk)));
+                while (pending.size() > PARALLELISM * 2 || (last && !pending.isEmpty())) {
+                    writeSealedChunk(output, await(pending.removeFirst()), last && pending.isEmpty());
+                }
+            } while (!last);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
     static void decrypt(Path source, Path destination, String verificationCode, String sessionId) throws IOException {
         try (InputStream fileInput = Files.newInputStream(source);
              BufferedInputStream bufferedInput = new BufferedInputStream(fileInput)) {
             byte[] magic = bufferedInput.readNBytes(MAGIC.length);
+            if (Arrays.equals(CHUNKED_MAGIC, magic)) {
+                decryptChunked(bufferedInput, destination, verificationCode, sessionId);
+                return;
+            }
             if (!Arrays.equals(MAGIC, magic)) {
                 throw new IOException("Remote sync transfer is not encrypted.");
             }
@@ -66,6 +138,140 @@ final class RemoteSyncTransferCipher {
         }
     }
 
+    private static void decryptChunked(InputStream rawInput, Path destination, String verificationCode, String sessionId) throws IOException {
+        DataInputStream input = new DataInputStream(rawInput);
+        byte[] salt = readExact(input, SALT_BYTES, "salt");
+        byte[] noncePrefix = readExact(input, NONCE_PREFIX_BYTES, "nonce");
+        int flags = input.read();
+        if (flags < 0) {
+            throw new IOException("Remote sync encrypted transfer is missing flags.");
+        }
+        boolean compressed = (flags & FLAG_COMPRESSED) != 0;
+        byte[] containerHeader = chunkedHeader(salt, noncePrefix, (byte) flags);
+        SecretKeySpec key = deriveSecretKey(verificationCode, sessionId, salt);
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(destination))) {
+            long index = 0;
+            boolean finalChunk = false;
+            while (!finalChunk) {
+                int header;
+                try {
+                    header = input.readInt();
+                } catch (EOFException _) {
+                    throw new IOException("Remote sync encrypted transfer is truncated.");
+                }
+                finalChunk = (header & FINAL_CHUNK_FLAG) != 0;
+                int sealedLength = header & ~FINAL_CHUNK_FLAG;
+                if (sealedLength > MAX_SEALED_CHUNK_BYTES) {
+                    throw new IOException("Remote sync encrypted chunk is too large.");
+                }
+                byte[] plain = openChunk(key, containerHeader, noncePrefix, index++, finalChunk, readExact(input, sealedLength, "chunk"));
+                output.write(compressed ? inflate(plain) : plain);
+            }
+            if (input.read() != -1) {
+                throw new IOException("Remote sync encrypted transfer has trailing data.");
+            }
+        }
+    }
+
+    /**
+     * The container header every chunk authenticates, so a changed flag or salt fails the first chunk.
+     */
+    private static byte[] chunkedHeader(byte[] salt, byte[] noncePrefix, byte flags) {
+        return ByteBuffer.allocate(CHUNKED_MAGIC.length + salt.length + noncePrefix.length + 1)
+                .put(CHUNKED_MAGIC)
+                .put(salt)
+                .put(noncePrefix)
+                .put(flags)
+                .array();
+    }
+
+    private static byte[] sealChunk(SecretKeySpec key, byte[] header, byte[] noncePrefix, long index, boolean finalChunk, byte[] plain) throws IOException {
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, chunkNonce(noncePrefix, index)));
+            cipher.updateAAD(header);
+            cipher.updateAAD(new byte[]{(byte) (finalChunk ? 1 : 0)});
+            return cipher.doFinal(plain);
+        } catch (GeneralSecurityException ex) {
+            throw new IOException("Unable to encrypt remote sync transfer chunk.", ex);
+        }
+    }
+
+    private static byte[] openChunk(SecretKeySpec key, byte[] header, byte[] noncePrefix, long index, boolean finalChunk, byte[] sealed) throws IOException {
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, chunkNonce(noncePrefix, index)));
+            cipher.updateAAD(header);
+            cipher.updateAAD(new byte[]{(byte) (finalChunk ? 1 : 0)});
+            return cipher.doFinal(sealed);
+        } catch (GeneralSecurityException ex) {
+            throw new IOException("Remote sync transfer chunk " + index + " failed authentication.", ex);
+        }
+    }
+
+    private static byte[] chunkNonce(byte[] noncePrefix, long index) {
+        return ByteBuffer.allocate(NONCE_BYTES).put(noncePrefix).putLong(index).array();
+    }
+
+    private static void writeSealedChunk(DataOutputStream output, byte[] sealed, boolean finalChunk) throws IOException {
+        output.writeInt(finalChunk ? sealed.length | FINAL_CHUNK_FLAG : sealed.length);
+        output.write(sealed);
+    }
+
+    private static byte[] await(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encrypting remote sync transfer.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Unable to encrypt remote sync transfer.", ex.getCause());
+        }
+    }
+
+    private static byte[] deflate(byte[] plain) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(plain);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, plain.length / 2));
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream plain = new ByteArrayOutputStream(CHUNK_BYTES);
+            byte[] buffer = new byte[64 * 1024];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Remote sync transfer chunk is not valid compressed data.");
+                }
+                plain.write(buffer, 0, inflated);
+                if (plain.size() > MAX_SEALED_CHUNK_BYTES) {
+                    throw new IOException("Remote sync transfer chunk expands beyond the chunk limit.");
+                }
+            }
+            return plain.toByteArray();
+        } catch (DataFormatException ex) {
+            throw new IOException("Remote sync transfer chunk is not valid compressed data.", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
     private static byte[] randomBytes(int size) {
         byte[] bytes = new byte[size];
         SECURE_RANDOM.nextBytes(bytes);
@@ -80,13 +286,21 @@ final class RemoteSyncTransferCipher {
         return bytes;
     }
 
+    private static SecretKeySpec deriveSecretKey(String verificationCode, String sessionId, byte[] salt) throws IOException {
+        try {
+            return new SecretKeySpec(deriveKey(verificationCode, sessionId, salt), "AES");
+        } catch (GeneralSecurityException ex) {
+            throw new IOException("Unable to prepare remote sync transfer cipher.", ex);
+        }
+    }
+
     private static Cipher initCipher(int mode,
                                      String verificationCode,
                                      String sessionId,
                                      byte[] salt,
                                      byte[] nonce) throws IOException {
         try {
-            SecretKeySpec key = new SecretKeySpec(deriveKey(verificationCode, sessionId, salt), "AES");
+            SecretKeySpec key = deriveSecretKey(verificationCode, sessionId, salt);
             Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
             cipher.init(mode, key, new GCMParameterSpec(TAG_BITS, nonce));
             return cipher;
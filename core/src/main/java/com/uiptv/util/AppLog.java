@@ -2,20 +2,51 @@ package com.uiptv.util;
 
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Application log fanned out to the terminal (when {@code uiptv.showLogs} is on) and to registered listeners.
+ * <p>
+ * Every listener has a minimum level and, optionally, a condition under which it is listening (the log panel only
+ * listens while it is shown). The {@link Supplier} overloads build their message only when the terminal or a listening
+ * sink accepts the level, so expensive diagnostics such as HTTP dumps cost nothing while nobody reads them.
+ */
 public final class AppLog {
-    private static final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private static final List<Sink> listeners = new CopyOnWriteArrayList<>();
     private static final int MAX_LOG_LENGTH = 4000;
     private static final String SHOW_LOGS_PROPERTY = "uiptv.showLogs";
+    private static final BooleanSupplier ALWAYS = () -> true;
     private static volatile boolean terminalLoggingEnabled =
             Boolean.parseBoolean(System.getProperty(SHOW_LOGS_PROPERTY, "false"));
 
     private AppLog() {
     }
 
+    public enum LogLevel {
+        DEBUG,
+        INFO,
+        WARNING,
+        ERROR
+    }
+
+    private record Sink(Consumer<String> listener, LogLevel minLevel, BooleanSupplier active) {
+        boolean accepts(LogLevel level) {
+            return level.compareTo(minLevel) >= 0 && active.getAsBoolean();
+        }
+    }
+
+    public static void addDebugLog(Class<?> logSource, Supplier<String> log) {
+        logLazily(logSource, log, LogLevel.DEBUG);
+    }
+
+    public static void addInfoLog(Class<?> logSource, Supplier<String> log) {
+        logLazily(logSource, log, LogLevel.INFO);
+    }
+
     public static void addInfoLog(Class<?> logSource, String log) {
         logWithLevel(logSource, log, LogLevel.INFO);
     }
@@ -40,6 +71,30 @@ public final class AppLog {
         logWithLevel(logSource, log, level, null);
     }
 
+    /**
+     * Whether a message from {@code logSource} at {@code level} would reach the terminal or any listening sink.
+     */
+    public static boolean isEnabled(Class<?> logSource, LogLevel level) {
+        if (isTerminalLoggingEnabled() && isTerminalLevelEnabled(LoggerFactory.getLogger(logSource), level)) {
+            return true;
+        }
+        for (Sink sink : listeners) {
+            if (sink.accepts(level)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void logLazily(Class<?> logSource, Supplier<String> log, LogLevel level) {
+        if (logSource == null) {
+            throw new IllegalArgumentException("logSource cannot be null");
+        }
+        if (log != null && isEnabled(logSource, level)) {
+            logWithLevel(logSource, log.get(), level, null);
+        }
+    }
+
     private static void logWithLevel(Class<?> logSource, String log, LogLevel level, Throwable throwable) {
         if (logSource == null) {
             throw new IllegalArgumentException("logSource cannot be null");
@@ -57,11 +112,15 @@ public final class AppLog {
                 }
                 case WARNING -> logger.warn(safeLog);
                 case INFO -> logger.info(safeLog);
+                case DEBUG -> logger.debug(safeLog);
             }
         }
-        for (Consumer<String> listener : listeners) {
+        for (Sink sink : listeners) {
+            if (!sink.accepts(level)) {
+                continue;
+            }
             try {
-                listener.accept(safeLog);
+                sink.listener().accept(safeLog);
             } catch (Exception e) {
                 // Keep logging resilient if a listener fails.
                 Logger logger = LoggerFactory.getLogger(AppLog.class);
@@ -70,35 +129,68 @@ public final class AppLog {
         }
     }
 
+    private static boolean isTerminalLevelEnabled(Logger logger, LogLevel level) {
+        return switch (level) {
+            case ERROR -> logger.isErrorEnabled();
+            case WARNING -> logger.isWarnEnabled();
+            case INFO -> logger.isInfoEnabled();
+            case DEBUG -> logger.isDebugEnabled();
+        };
+    }
+
     public static String sanitizeValue(String value) {
         return sanitizeLogMessage(value);
     }
 
+    /**
+     * Replaces control characters, trims and caps the message, touching at most {@code MAX_LOG_LENGTH} characters
+     * past the leading whitespace so huge messages are never copied whole.
+     */
     private static String sanitizeLogMessage(String message) {
         if (message == null) {
             return "";
         }
-        StringBuilder normalizedBuilder = new StringBuilder(message.length());
-        for (int i = 0; i < message.length(); i++) {
+        int start = 0;
+        int end = message.length();
+        while (start < end && isTrimmed(message.charAt(start))) {
+            start++;
+        }
+        while (end > start && isTrimmed(message.charAt(end - 1))) {
+            end--;
+        }
+        boolean truncated = end - start > MAX_LOG_LENGTH;
+        int limit = truncated ? start + MAX_LOG_LENGTH : end;
+        StringBuilder normalizedBuilder = new StringBuilder(limit - start + (truncated ? 3 : 0));
+        for (int i = start; i < limit; i++) {
             char current = message.charAt(i);
             normalizedBuilder.append(Character.isISOControl(current) ? ' ' : current);
         }
-        String normalized = normalizedBuilder.toString().trim();
-        if (normalized.length() <= MAX_LOG_LENGTH) {
-            return normalized;
+        if (truncated) {
+            normalizedBuilder.append("...");
         }
-        return normalized.substring(0, MAX_LOG_LENGTH) + "...";
+        return normalizedBuilder.toString();
+    }
+
+    private static boolean isTrimmed(char value) {
+        return value <= ' ' || Character.isISOControl(value);
     }
 
     public static void registerListener(Consumer<String> listener) {
+        registerListener(listener, LogLevel.INFO, ALWAYS);
+    }
+
+    /**
+     * Registers a listener for messages at {@code minLevel} and above, delivered only while {@code active} holds.
+     */
+    public static void registerListener(Consumer<String> listener, LogLevel minLevel, BooleanSupplier active) {
         if (listener != null) {
-            listeners.add(listener);
+            listeners.add(new Sink(listener, minLevel == null ? LogLevel.INFO : minLevel, active == null ? ALWAYS : active));
         }
     }
 
     public static void unregisterListener(Consumer<String> listener) {
         if (listener != null) {
-            listeners.remove(listener);
+            listeners.removeIf(sink -> sink.listener().equals(listener));
         }
     }
 
@@ -110,10 +202,4 @@ public final class AppLog {
     public static boolean isTerminalLoggingEnabled() {
         return terminalLoggingEnabled || Boolean.parseBoolean(System.getProperty(SHOW_LOGS_PROPERTY, "false"));
     }
-
-    private enum LogLevel {
-        INFO,
-        WARNING,
-        ERROR
-    }
 }
@@ -0,0 +1,241 @@
+package com.uiptv.util;
+
+import com.uiptv.shared.net.AsyncHttpClientPort;
+import com.uiptv.shared.net.HttpRequestData;
+import com.uiptv.shared.net.HttpResponseData;
+import com.uiptv.shared.net.HttpStreamData;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link HttpUtil}, built on {@link HttpClient}. HTTPS requests negotiate HTTP/2 through
+ * ALPN, so concurrent requests to one provider share a multiplexed connection; plain-HTTP requests stay on HTTP/1.1
+ * because many panels reject the h2c upgrade.
+ * <p>
+ * Behaves like {@link HttpUtil}: cookies set by providers are kept in the jar both clients share, redirects are followed
+ * leniently up to {@code uiptv.http.max.redirects} (303, and 301/302 after a POST, continue as GET; 307/308 keep the
+ * method and body), a body without a Content-Type is sent as a form, and the same timeout properties apply. A redirect
+ * to another origin drops the caller's Cookie, Referer and Authorization headers. Headers
+ * the JDK client manages itself (Host, Connection, Content-Length, Expect, Upgrade) are dropped, and every hop goes
+ * through the host's {@link HostCircuitBreaker}. Response header names are lower-cased, as HTTP/2 sends them, with
+ * repeated values joined by {@code ", "}. Cancelling a returned future aborts the exchange in flight.
+ */
+public final class AsyncHttpClient implements AsyncHttpClientPort {
+    private static final Set<String> MANAGED_HEADERS = Set.of("host", "connection", "content-length", "expect", "upgrade");
+    private static final Set<String> CREDENTIAL_HEADERS = Set.of("cookie", "referer", "authorization");
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+
+    private final HttpClient client;
+
+    private AsyncHttpClient() {
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(HttpUtil.CONNECT_TIMEOUT_SECONDS))
+                .cookieHandler(new CookieStoreHandler(HttpUtil.COOKIE_STORE))
+                .executor(Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "uiptv-http-async");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+    }
+
+    private static class SingletonHelper {
+        private static final AsyncHttpClient INSTANCE = new AsyncHttpClient();
+    }
+
+    public static AsyncHttpClient getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    @Override
+    public HttpResponseData execute(HttpRequestData request) throws IOException {
+        return await(executeAsync(request));
+    }
+
+    @Override
+    public CompletableFuture<HttpResponseData> executeAsync(HttpRequestData request) {
+        return send(request, HttpResponse.BodyHandlers.ofByteArray(), response -> new HttpResponseData(
+                response.statusCode(), flatten(response.headers()), response.body(), response.uri().toString()));
+    }
+
+    @Override
+    public CompletableFuture<HttpStreamData> streamAsync(HttpRequestData request) {
+        return send(request, HttpResponse.BodyHandlers.ofInputStream(), response -> new HttpStreamData(
+                response.statusCode(), flatten(response.headers()), response.body(), response.uri().toString()));
+    }
+
+    /**
+     * Waits for a future returned by this client, rethrowing the {@link IOException} it failed with.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException _) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an HTTP response");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private <T, R> CompletableFuture<R> send(HttpRequestData request, HttpResponse.BodyHandler<T> handler, Function<HttpResponse<T>, R> mapper) {
+        HttpRequest first;
+        try {
+            URI uri = HttpUtil.toSafeUri(request.url());
+            first = buildRequest(uri, request.method(), request.headers(), request.body(), request.timeoutSeconds());
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new IOException("Invalid HTTP request for " + request.url() + ": " + e.getMessage(), e));
+        }
+        AtomicReference<CompletableFuture<?>> inFlight = new AtomicReference<>();
+        CompletableFuture<R> result = exchange(request, first, handler, 0, inFlight).thenApply(mapper);
+        result.whenComplete((_, failure) -> {
+            CompletableFuture<?> current = inFlight.get();
+            if (failure instanceof CancellationException && current != null) {
+                current.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> exchange(HttpRequestData original,
+                                                            HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> handler,
+                                                            int redirects,
+                                                            AtomicReference<CompletableFuture<?>> inFlight) {
+        // Intermediate redirect bodies are drained rather than handed to the caller's handler.
+        HttpResponse.BodyHandler<T> effective = handler;
+        if (original.followRedirects()) {
+            effective = info -> redirectLocation(info.statusCode(), info.headers()) == null
+                    ? handler.apply(info)
+                    : HttpResponse.BodySubscribers.replacing(null);
+        }
+        String rawAuthority = request.uri().getRawAuthority();
+        String scheme = request.uri().getScheme();
+        HttpUtil.Upstream upstream = HttpUtil.upstream(rawAuthority == null ? "" : rawAuthority,
+                key -> HostCircuitBreaker.hostKey(scheme + "://" + key));
+        try {
+            HostCircuitBreaker.getInstance().acquire(upstream.host());
+        } catch (ProviderUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long started = System.nanoTime();
+        CompletableFuture<HttpResponse<T>> sent = client.sendAsync(request, effective);
+        inFlight.set(sent);
+        return sent
+                .whenComplete((response, failure) -> HttpUtil.recordUpstream(
+                        upstream, started, response == null ? 0 : response.statusCode(), failure))
+                .thenCompose(response -> {
+                    String location = original.followRedirects() ? redirectLocation(response.statusCode(), response.headers()) : null;
+                    if (location == null) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    if (redirects >= HttpUtil.MAX_REDIRECTS) {
+                        return CompletableFuture.failedFuture(new IOException(
+                                "Maximum redirects (" + HttpUtil.MAX_REDIRECTS + ") exceeded for " + original.url()));
+                    }
+                    URI target = request.uri().resolve(HttpUtil.toSafeUri(location));
+                    return exchange(original, redirect(original, request, response.statusCode(), target), handler, redirects + 1, inFlight);
+                });
+    }
+
+    private static HttpRequest redirect(HttpRequestData original, HttpRequest previous, int statusCode, URI target) {
+        String method = previous.method();
+        Map<String, String> headers = sameOrigin(HttpUtil.toSafeUri(original.url()), target)
+                ? original.headers()
+                : withoutCredentials(original.headers());
+        boolean switchToGet = (statusCode == 303 && !"HEAD".equals(method))
+                || ((statusCode == 301 || statusCode == 302) && "POST".equals(method));
+        if (switchToGet) {
+            return buildRequest(target, "GET", headers, new byte[0], original.timeoutSeconds());
+        }
+        byte[] body = method.equals(original.method()) ? original.body() : new byte[0];
+        return buildRequest(target, method, headers, body, original.timeoutSeconds());
+    }
+
+    private static boolean sameOrigin(URI first, URI target) {
+        return String.valueOf(first.getScheme()).equalsIgnoreCase(String.valueOf(target.getScheme()))
+                && String.valueOf(first.getHost()).equalsIgnoreCase(String.valueOf(target.getHost()))
+                && effectivePort(first) == effectivePort(target);
+    }
+
+    private static int effectivePort(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private static Map<String, String> withoutCredentials(Map<String, String> headers) {
+        Map<String, String> kept = new LinkedHashMap<>();
+        headers.forEach((name, value) -> {
+            if (name != null && !CREDENTIAL_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                kept.put(name, value);
+            }
+        });
+        return kept;
+    }
+
+    private static HttpRequest buildRequest(URI uri, String method, Map<String, String> headers, byte[] body, int timeoutSeconds) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(timeoutSeconds > 0 ? timeoutSeconds : HttpUtil.RESPONSE_TIMEOUT_SECONDS));
+        if ("http".equalsIgnoreCase(uri.getScheme())) {
+            builder.version(HttpClient.Version.HTTP_1_1);
+        }
+        boolean hasContentType = false;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            String name = header.getKey();
+            if (name == null || header.getValue() == null || MANAGED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            hasContentType |= "Content-Type".equalsIgnoreCase(name);
+            builder.setHeader(name, header.getValue());
+        }
+        if (body.length == 0) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        if (!hasContentType) {
+            builder.setHeader("Content-Type", FORM_CONTENT_TYPE);
+        }
+        return builder.method(method, HttpRequest.BodyPublishers.ofByteArray(body)).build();
+    }
+
+    private static String redirectLocation(int statusCode, HttpHeaders headers) {
+        return switch (statusCode) {
+            case 301, 302, 303, 307, 308 -> headers.firstValue("Location").filter(value -> !value.isBlank()).orElse(null);
+            default -> null;
+        };
+    }
+
+    private static Map<String, String> flatten(HttpHeaders headers) {
+        Map<String, String> flat = new LinkedHashMap<>();
+        headers.map().forEach((name, values) -> flat.put(name.toLowerCase(Locale.ROOT), String.join(", ", values)));
+        return flat;
+    }
+}
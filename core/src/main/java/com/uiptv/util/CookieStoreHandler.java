@@ -0,0 +1,83 @@
+package com.uiptv.util;
+
+import org.apache.hc.client5.http.cookie.Cookie;
+import org.apache.hc.client5.http.cookie.CookieOrigin;
+import org.apache.hc.client5.http.cookie.CookiePriorityComparator;
+import org.apache.hc.client5.http.cookie.CookieSpec;
+import org.apache.hc.client5.http.cookie.CookieStore;
+import org.apache.hc.client5.http.cookie.MalformedCookieException;
+import org.apache.hc.client5.http.impl.cookie.RFC6265StrictSpec;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.message.BasicHeader;
+
+import java.net.CookieHandler;
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the {@link CookieStore} behind {@link HttpUtil} to the JDK {@link java.net.http.HttpClient}, so a session
+ * cookie set by a provider on one client is sent by the other. Cookies are parsed and matched with the same RFC 6265
+ * rules the Apache client applies by default.
+ */
+final class CookieStoreHandler extends CookieHandler {
+    private static final String SET_COOKIE = "Set-Cookie";
+
+    private final CookieStore store;
+    private final CookieSpec spec = new RFC6265StrictSpec();
+
+    CookieStoreHandler(CookieStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Map<String, List<String>> get(URI uri, Map<String, List<String>> requestHeaders) {
+        CookieOrigin origin = origin(uri);
+        if (origin == null) {
+            return Map.of();
+        }
+        Instant now = Instant.now();
+        List<Cookie> matching = store.getCookies().stream()
+                .filter(cookie -> !cookie.isExpired(now) && spec.match(cookie, origin))
+                .sorted(CookiePriorityComparator.INSTANCE)
+                .toList();
+        if (matching.isEmpty()) {
+            return Map.of();
+        }
+        return Map.of("Cookie", spec.formatCookies(matching).stream().map(Header::getValue).toList());
+    }
+
+    @Override
+    public void put(URI uri, Map<String, List<String>> responseHeaders) {
+        CookieOrigin origin = origin(uri);
+        if (origin == null) {
+            return;
+        }
+        responseHeaders.forEach((name, values) -> {
+            if (!SET_COOKIE.equalsIgnoreCase(name) || values == null) {
+                return;
+            }
+            for (String value : values) {
+                try {
+                    for (Cookie cookie : spec.parse(new BasicHeader(SET_COOKIE, value), origin)) {
+                        spec.validate(cookie, origin);
+                        store.addCookie(cookie);
+                    }
+                } catch (MalformedCookieException _) {
+                    // Rejected the same way HttpUtil drops a cookie it cannot accept.
+                }
+            }
+        });
+    }
+
+    private static CookieOrigin origin(URI uri) {
+        if (uri.getHost() == null) {
+            return null;
+        }
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        return new CookieOrigin(uri.getHost(), port, path, secure);
+    }
+}
@@ -7,6 +7,7 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static com.uiptv.util.LogUtil.httpLog;
@@ -15,12 +16,38 @@ import static com.uiptv.util.StringUtils.isNotBlank;
 
 public class FetchAPI {
     private static final String PORTAL_PHP = "portal.php";
+    private static final MetricsRegistry.Family<MetricsRegistry.Histogram> PROVIDER_LATENCY = MetricsRegistry.getInstance().histogram(
+            "uiptv_provider_request_duration_seconds", "Portal API round trip by account.", "account");
+    private static final MetricsRegistry.Family<MetricsRegistry.Counter> PROVIDER_FAILURES = MetricsRegistry.getInstance().counter(
+            "uiptv_provider_request_failures_total", "Portal API calls that failed or did not return HTTP 200, by account.", "account");
+    // Both series of an account, resolved once per account name instead of on every call.
+    private static final Map<String, ProviderSeries> PROVIDER_SERIES = new ConcurrentHashMap<>();
+
+    /**
+     * Portal response body, empty unless the status is 200, and the HTTP status, 0 when no response arrived.
+     */
+    public record FetchResult(int statusCode, String body) {
+    }
+
+    private record ProviderSeries(MetricsRegistry.Histogram latency, MetricsRegistry.Counter failures) {
+    }
 
     public static String fetch(Map<String, String> params, final Account account) {
         return fetch(params, account, HttpUtil.RequestOptions.defaults());
     }
 
     public static String fetch(Map<String, String> params, final Account account, HttpUtil.RequestOptions options) {
+        return fetchResult(params, account, options).body();
+    }
+
+    public static FetchResult fetchResult(Map<String, String> params, final Account account) {
+        return fetchResult(params, account, HttpUtil.RequestOptions.defaults());
+    }
+
+    /**
+     * Like {@link #fetch} but also reports the HTTP status, so callers can tell a throttling portal from a rejection.
+     */
+    public static FetchResult fetchResult(Map<String, String> params, final Account account, HttpUtil.RequestOptions options) {
         try {
             String baseUrl = resolveBaseUrl(account);
             if (isBlank(baseUrl)) {
@@ -36,16 +63,37 @@ public class FetchAPI {
             }
 
             Map<String, String> headers = headers(account, isPost);
-            HttpUtil.HttpResult response = HttpUtil.sendRequest(requestUrl, headers, httpMethod, isPost ? payload : null, options);
+            long started = System.nanoTime();
+            HttpUtil.HttpResult response;
+            try {
+                response = HttpUtil.sendRequest(requestUrl, headers, httpMethod, isPost ? payload : null, options);
+            } finally {
+                providerSeries(account).latency().observeSince(started);
+            }
 
             httpLog(requestUrl, response, params);
             if (response.statusCode() == HttpUtil.STATUS_OK) {
-                return response.body();
+                return new FetchResult(response.statusCode(), response.body());
             }
+            providerSeries(account).failures().inc();
+            return new FetchResult(response.statusCode(), StringUtils.EMPTY);
         } catch (Exception ex) {
+            if (account != null) {
+                providerSeries(account).failures().inc();
+            }
             com.uiptv.util.AppLog.addWarningLog(FetchAPI.class, "Network Error: " + ex.getMessage());
         }
-        return StringUtils.EMPTY;
+        return new FetchResult(0, StringUtils.EMPTY);
+    }
+
+    private static ProviderSeries providerSeries(Account account) {
+        String accountName = account.getAccountName() == null ? "" : account.getAccountName();
+        ProviderSeries series = PROVIDER_SERIES.get(accountName);
+        if (series != null) {
+            return series;
+        }
+        return PROVIDER_SERIES.computeIfAbsent(accountName,
+                name -> new ProviderSeries(PROVIDER_LATENCY.labels(name), PROVIDER_FAILURES.labels(name)));
     }
 
     private static String resolveBaseUrl(Account account) {
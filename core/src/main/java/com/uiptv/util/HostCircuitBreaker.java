@@ -0,0 +1,373 @@
+package com.uiptv.util;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * Per-host circuit breaker for outbound HTTP, and the health score derived from the same window.
+ * <p>
+ * Every call made through {@link HttpUtil} or {@link AsyncHttpClient} is recorded against its host ({@code host[:port]})
+ * in a rolling window of the last {@code uiptv.breaker.window.calls} calls (default 20) that are at most
+ * {@code uiptv.breaker.window.seconds} old (default 60). Connection failures, timeouts and HTTP 5xx count as failures;
+ * calls taking {@code uiptv.breaker.slow.call.ms} or longer (default 10000) count as slow. Once the window holds
+ * {@code uiptv.breaker.min.calls} calls (default 10) and failures reach {@code uiptv.breaker.failure.rate.percent}
+ * (default 50) or slow calls reach {@code uiptv.breaker.slow.rate.percent} (default 80), the circuit opens and calls
+ * fail at once with {@link ProviderUnavailableException} for {@code uiptv.breaker.open.seconds} (default 30). Then a
+ * single trial call is let through: success closes the circuit, failure opens it again. With
+ * {@code uiptv.breaker.enabled=false} health is still tracked but calls are never rejected.
+ * <p>
+ * The health score runs from 0 to 100: the success percentage of the window, minus up to 30 points as the median
+ * latency approaches the slow-call threshold. An open circuit scores 0 and a half-open one at most 25; a host without
+ * recent calls scores 100.
+ */
+public final class HostCircuitBreaker {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("uiptv.breaker.enabled", "true"));
+    private static final int WINDOW_CALLS = Math.max(1, Integer.getInteger("uiptv.breaker.window.calls", 20));
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(Math.max(1, Integer.getInteger("uiptv.breaker.window.seconds", 60)));
+    private static final int MIN_CALLS = Math.max(1, Integer.getInteger("uiptv.breaker.min.calls", 10));
+    private static final int FAILURE_RATE_PERCENT = Integer.getInteger("uiptv.breaker.failure.rate.percent", 50);
+    private static final int SLOW_RATE_PERCENT = Integer.getInteger("uiptv.breaker.slow.rate.percent", 80);
+    private static final long SLOW_CALL_NANOS = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, Long.getLong("uiptv.breaker.slow.call.ms", 10_000L)));
+    private static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(Math.max(1, Integer.getInteger("uiptv.breaker.open.seconds", 30)));
+    private static final int MAX_HOSTS = Math.max(16, Integer.getInteger("uiptv.breaker.max.hosts", 1000));
+    private static final int MAX_LATENCY_PENALTY = 30;
+    private static final int HALF_OPEN_MAX_SCORE = 25;
+    private static final MetricsRegistry.Family<MetricsRegistry.Counter> REJECTED = MetricsRegistry.getInstance().counter(
+            "uiptv_upstream_rejected_total", "Outbound calls failed fast because the host's circuit was open.", "host");
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    public record HostHealth(String host,
+                             State state,
+                             int score,
+                             int calls,
+                             int failures,
+                             long medianLatencyMillis,
+                             long retryAfterSeconds) {
+    }
+
+    private final LongSupplier clock;
+    private final boolean enabled;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    HostCircuitBreaker(LongSupplier clock, boolean enabled) {
+        this.clock = clock;
+        this.enabled = enabled;
+    }
+
+    private static class SingletonHelper {
+        private static final HostCircuitBreaker INSTANCE = new HostCircuitBreaker(System::nanoTime, ENABLED);
+
+        static {
+            MetricsRegistry registry = MetricsRegistry.getInstance();
+            registry.sampled("uiptv_upstream_health_score", MetricsRegistry.Type.GAUGE,
+                    "Health score (0-100) of each upstream host with recent calls.",
+                    () -> INSTANCE.sample(HostHealth::score), "host");
+            registry.sampled("uiptv_upstream_circuit_state", MetricsRegistry.Type.GAUGE,
+                    "Circuit state of each upstream host: 0 closed, 1 half-open, 2 open.",
+                    () -> INSTANCE.sample(health -> health.state().ordinal()), "host");
+        }
+    }
+
+    public static HostCircuitBreaker getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    /**
+     * Identifies the host a URL points at, as {@code host[:port]} with the host lower-cased and the scheme's default
+     * port dropped. This is the one key used for a provider host across the app: the breaker and the upstream metrics
+     * label calls with it, and per-host gates and caches group accounts by it. A URL without a scheme is taken as http.
+     *
+     * @return the key, or an empty string when the URL has no host
+     */
+    public static String hostKey(String url) {
+        if (isBlank(url)) {
+            return "";
+        }
+        String candidate = url.trim();
+        if (!candidate.contains("://")) {
+            candidate = "http://" + candidate;
+        }
+        try {
+            URI uri = URI.create(candidate);
+            if (isBlank(uri.getHost())) {
+                return "";
+            }
+            String host = uri.getHost().toLowerCase(Locale.ROOT);
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            boolean defaultPort = uri.getPort() == -1
+                    || ("http".equals(scheme) && uri.getPort() == 80)
+                    || ("https".equals(scheme) && uri.getPort() == 443);
+            return defaultPort ? host : host + ":" + uri.getPort();
+        } catch (IllegalArgumentException _) {
+            return "";
+        }
+    }
+
+    /**
+     * Lets a call to {@code host} proceed, or fails fast while its circuit is open. A call that proceeds must be
+     * followed by {@link #record}.
+     */
+    public void acquire(String host) throws ProviderUnavailableException {
+        if (!enabled || isBlank(host)) {
+            return;
+        }
+        Window window = windows.get(normalize(host));
+        if (window == null) {
+            return;
+        }
+        long retryAfterSeconds;
+        synchronized (window) {
+            retryAfterSeconds = window.tryAcquire(clock.getAsLong());
+        }
+        if (retryAfterSeconds >= 0) {
+            REJECTED.labels(host).inc();
+            throw new ProviderUnavailableException(host, retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Records the outcome of a call started after {@link #acquire}: {@code failure} when it threw, otherwise the HTTP
+     * status it got. Cancelled and interrupted calls say nothing about the host and are not counted.
+     */
+    public void record(String host, long latencyNanos, int statusCode, Throwable failure) {
+        if (isBlank(host)) {
+            return;
+        }
+        String key = normalize(host);
+        long now = clock.getAsLong();
+        if (failure != null && isAbandoned(failure)) {
+            Window window = windows.get(key);
+            if (window != null) {
+                synchronized (window) {
+                    window.release();
+                }
+            }
+            return;
+        }
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= MAX_HOSTS) {
+                windows.values().removeIf(existing -> existing.isIdle(now));
+            }
+            window = windows.computeIfAbsent(key, _ -> new Window());
+        }
+        boolean failed = failure != null || statusCode >= 500;
+        State before;
+        State after;
+        int[] counts;
+        synchronized (window) {
+            before = window.state;
+            window.add(now, Math.max(0L, latencyNanos), failed);
+            after = window.state;
+            counts = window.recentCounts(now);
+        }
+        if (before != State.OPEN && after == State.OPEN) {
+            AppLog.addWarningLog(HostCircuitBreaker.class, "Circuit opened for " + host + ": " + counts[1] + " of " + counts[0]
+                    + " recent calls failed or were slow. Failing fast for " + TimeUnit.NANOSECONDS.toSeconds(OPEN_NANOS) + "s.");
+        } else if (before == State.HALF_OPEN && after == State.CLOSED) {
+            AppLog.addInfoLog(HostCircuitBreaker.class, "Circuit closed for " + host + " after a successful trial call.");
+        }
+    }
+
+    public HostHealth health(String host) {
+        String key = isBlank(host) ? "" : normalize(host);
+        Window window = key.isEmpty() ? null : windows.get(key);
+        if (window == null) {
+            return new HostHealth(key, State.CLOSED, 100, 0, 0, 0, 0);
+        }
+        synchronized (window) {
+            return window.health(key, clock.getAsLong());
+        }
+    }
+
+    void reset() {
+        windows.clear();
+    }
+
+    private Map<List<String>, Number> sample(ToIntFunction<HostHealth> value) {
+        Map<List<String>, Number> samples = new LinkedHashMap<>();
+        for (String host : windows.keySet()) {
+            samples.put(List.of(host), value.applyAsInt(health(host)));
+        }
+        return samples;
+    }
+
+    private static String normalize(String host) {
+        return host.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAbandoned(Throwable failure) {
+        Throwable current = failure;
+        while ((current instanceof CompletionException || current instanceof ExecutionException) && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current instanceof CancellationException
+                || current instanceof ProviderUnavailableException
+                || (current instanceof InterruptedIOException && !(current instanceof SocketTimeoutException));
+    }
+
+    private static final class Window {
+        private final long[] at = new long[WINDOW_CALLS];
+        private final long[] latency = new long[WINDOW_CALLS];
+        private final boolean[] failed = new boolean[WINDOW_CALLS];
+        private int next;
+        private int size;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private boolean trialInFlight;
+        private long trialStartedAt;
+
+        /**
+         * @return -1 when the call may proceed, otherwise the seconds until it is worth retrying
+         */
+        long tryAcquire(long now) {
+            switch (state) {
+                case OPEN -> {
+                    if (now - openedAt < OPEN_NANOS) {
+                        return secondsUntil(openedAt + OPEN_NANOS, now);
+                    }
+                    state = State.HALF_OPEN;
+                    startTrial(now);
+                    return -1;
+                }
+                case HALF_OPEN -> {
+                    // A trial that never reported back is replaced after the open interval.
+                    if (trialInFlight && now - trialStartedAt < OPEN_NANOS) {
+                        return secondsUntil(trialStartedAt + OPEN_NANOS, now);
+                    }
+                    startTrial(now);
+                    return -1;
+                }
+                default -> {
+                    return -1;
+                }
+            }
+        }
+
+        void add(long now, long latencyNanos, boolean callFailed) {
+            at[next] = now;
+            latency[next] = latencyNanos;
+            failed[next] = callFailed;
+            next = (next + 1) % at.length;
+            size = Math.min(size + 1, at.length);
+            switch (state) {
+                case HALF_OPEN -> {
+                    if (callFailed) {
+                        open(now);
+                    } else {
+                        close();
+                    }
+                }
+                case CLOSED -> {
+                    int[] counts = recentCounts(now);
+                    int calls = counts[0];
+                    if (calls >= MIN_CALLS && (counts[2] * 100L >= (long) FAILURE_RATE_PERCENT * calls
+                            || counts[3] * 100L >= (long) SLOW_RATE_PERCENT * calls)) {
+                        open(now);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        void release() {
+            if (state == State.HALF_OPEN) {
+                trialInFlight = false;
+            }
+        }
+
+        boolean isIdle(long now) {
+            return state == State.CLOSED && (size == 0 || now - at[Math.floorMod(next - 1, at.length)] > WINDOW_NANOS);
+        }
+
+        /**
+         * Recent calls, failed-or-slow calls, failed calls and slow calls, in that order.
+         */
+        int[] recentCounts(long now) {
+            int[] counts = new int[4];
+            for (int i = 0; i < size; i++) {
+                if (now - at[i] > WINDOW_NANOS) {
+                    continue;
+                }
+                boolean slow = latency[i] >= SLOW_CALL_NANOS;
+                counts[0]++;
+                counts[1] += failed[i] || slow ? 1 : 0;
+                counts[2] += failed[i] ? 1 : 0;
+                counts[3] += slow ? 1 : 0;
+            }
+            return counts;
+        }
+
+        HostHealth health(String host, long now) {
+            long[] recentLatencies = new long[size];
+            int calls = 0;
+            int failures = 0;
+            for (int i = 0; i < size; i++) {
+                if (now - at[i] > WINDOW_NANOS) {
+                    continue;
+                }
+                recentLatencies[calls++] = latency[i];
+                failures += failed[i] ? 1 : 0;
+            }
+            long median = 0;
+            int score = 100;
+            if (calls > 0) {
+                Arrays.sort(recentLatencies, 0, calls);
+                median = recentLatencies[calls / 2];
+                int penalty = (int) Math.min(MAX_LATENCY_PENALTY, MAX_LATENCY_PENALTY * median / SLOW_CALL_NANOS);
+                score = Math.clamp(100L * (calls - failures) / calls - penalty, 0, 100);
+            }
+            long retryAfterSeconds = 0;
+            if (state == State.OPEN) {
+                score = 0;
+                retryAfterSeconds = secondsUntil(openedAt + OPEN_NANOS, now);
+            } else if (state == State.HALF_OPEN) {
+                score = Math.min(score, HALF_OPEN_MAX_SCORE);
+            }
+            return new HostHealth(host, state, score, calls, failures, TimeUnit.NANOSECONDS.toMillis(median), retryAfterSeconds);
+        }
+
+        private void startTrial(long now) {
+            trialInFlight = true;
+            trialStartedAt = now;
+        }
+
+        private void open(long now) {
+            state = State.OPEN;
+            openedAt = now;
+            trialInFlight = false;
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            trialInFlight = false;
+            next = 0;
+            size = 0;
+        }
+
+        private static long secondsUntil(long deadline, long now) {
+            return Math.max(1L, (deadline - now + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
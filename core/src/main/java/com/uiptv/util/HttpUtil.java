@@ -2,6 +2,8 @@ package com.uiptv.util;
 
 import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.cookie.BasicCookieStore;
+import org.apache.hc.client5.http.cookie.CookieStore;
 import org.apache.hc.client5.http.impl.LaxRedirectStrategy;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
@@ -31,12 +33,23 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("java:S1874")
 public class HttpUtil {
     private static final int MAX_LOG_BODY_CHARS = Integer.getInteger("uiptv.http.log.max.body.chars", 4000);
     private static final List<String> SENSITIVE_HEADERS = List.of("authorization", "cookie", "set-cookie", "proxy-authorization");
+    private static final MetricsRegistry.Family<MetricsRegistry.Histogram> UPSTREAM_LATENCY = MetricsRegistry.getInstance().histogram(
+            "uiptv_upstream_request_duration_seconds",
+            "Outbound HTTP round trip by upstream host, until the body is read (or the headers, for streams).",
+            "host");
+    private static final int MAX_CACHED_UPSTREAMS = 1024;
+    // Host label and latency series per request authority, so recording a call neither rebuilds the label nor
+    // resolves the series again.
+    private static final Map<Object, Upstream> UPSTREAMS = new ConcurrentHashMap<>();
 
     private HttpUtil() {
     }
@@ -45,10 +58,10 @@ public class HttpUtil {
     public static final int STATUS_NOT_ACCEPTABLE = 406;
 
     private static final int DEFAULT_TIMEOUT_SECONDS = Integer.getInteger("uiptv.http.timeout.seconds", 30);
-    private static final int CONNECT_TIMEOUT_SECONDS = Integer.getInteger("uiptv.http.connect.timeout.seconds", DEFAULT_TIMEOUT_SECONDS);
+    static final int CONNECT_TIMEOUT_SECONDS = Integer.getInteger("uiptv.http.connect.timeout.seconds", DEFAULT_TIMEOUT_SECONDS);
     private static final int CONNECTION_REQUEST_TIMEOUT_SECONDS = Integer.getInteger("uiptv.http.connection.request.timeout.seconds", DEFAULT_TIMEOUT_SECONDS);
-    private static final int RESPONSE_TIMEOUT_SECONDS = Integer.getInteger("uiptv.http.response.timeout.seconds", DEFAULT_TIMEOUT_SECONDS);
-    private static final int MAX_REDIRECTS = Integer.getInteger("uiptv.http.max.redirects", 5);
+    static final int RESPONSE_TIMEOUT_SECONDS = Integer.getInteger("uiptv.http.response.timeout.seconds", DEFAULT_TIMEOUT_SECONDS);
+    static final int MAX_REDIRECTS = Integer.getInteger("uiptv.http.max.redirects", 5);
     private static final int MAX_CONNECTIONS_TOTAL = Integer.getInteger("uiptv.http.max.connections.total", 50);
     private static final int MAX_CONNECTIONS_PER_ROUTE = Integer.getInteger("uiptv.http.max.connections.per.route", 10);
     private static final int IDLE_CONNECTION_EVICT_SECONDS = Integer.getInteger("uiptv.http.idle.connection.evict.seconds", 120);
@@ -57,8 +70,11 @@ public class HttpUtil {
                     .setMaxConnTotal(MAX_CONNECTIONS_TOTAL)
                     .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
                     .build();
+    /** Cookie jar shared with {@link AsyncHttpClient}, so both clients carry the same provider sessions. */
+    static final CookieStore COOKIE_STORE = new BasicCookieStore();
     private static final CloseableHttpClient HTTP_CLIENT = HttpClients.custom()
             .setConnectionManager(CONNECTION_MANAGER)
+            .setDefaultCookieStore(COOKIE_STORE)
             .setRedirectStrategy(new LaxRedirectStrategy())
             .disableAutomaticRetries()
             .evictExpiredConnections()
@@ -84,7 +100,7 @@ public class HttpUtil {
         HttpUriRequestBase request = buildRequest(url, headers, method, body, options);
         HttpClientContext context = HttpClientContext.create();
 
-        return HTTP_CLIENT.execute(request, context, response -> {
+        return callUpstream(request, () -> HTTP_CLIENT.execute(request, context, response -> {
             String responseBody = readResponseBody(response, options);
             return new HttpResult(
                     request.getMethod(),
@@ -94,7 +110,7 @@ public class HttpUtil {
                     headersToMap(request.getHeaders()),
                     headersToMap(response.getHeaders())
             );
-        });
+        }), HttpResult::statusCode);
     }
 
     public static HttpResult sendFileRequest(String url,
@@ -109,20 +125,20 @@ public class HttpUtil {
         }
         HttpClientContext context = HttpClientContext.create();
 
-        return HTTP_CLIENT.execute(request, context, response -> new HttpResult(
+        return callUpstream(request, () -> HTTP_CLIENT.execute(request, context, response -> new HttpResult(
                 request.getMethod(),
                 getFinalUri(request, context),
                 response.getCode(),
                 readResponseBody(response, options),
                 headersToMap(request.getHeaders()),
                 headersToMap(response.getHeaders())
-        ));
+        )), HttpResult::statusCode);
     }
 
     public static StreamResult openStream(String url, Map<String, String> headers, String method, String body, RequestOptions options) throws IOException {
         HttpUriRequestBase request = buildRequest(url, headers, method, body, options);
         HttpClientContext context = HttpClientContext.create();
-        CloseableHttpResponse response = HTTP_CLIENT.execute(request, context);
+        CloseableHttpResponse response = callUpstream(request, () -> HTTP_CLIENT.execute(request, context), CloseableHttpResponse::getCode);
         HttpEntity entity = response.getEntity();
         InputStream bodyStream = entity == null ? InputStream.nullInputStream() : entity.getContent();
         return new StreamResult(
@@ -136,6 +152,59 @@ public class HttpUtil {
         );
     }
 
+    @FunctionalInterface
+    private interface UpstreamCall<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * Runs one outbound call through the host's {@link HostCircuitBreaker}, recording its latency and outcome.
+     */
+    private static <T> T callUpstream(HttpUriRequestBase request, UpstreamCall<T> call, ToIntFunction<T> statusCode) throws IOException {
+        Object authority = request.getAuthority() == null ? "" : request.getAuthority();
+        String scheme = request.getScheme();
+        Upstream upstream = upstream(authority, key -> HostCircuitBreaker.hostKey(scheme + "://" + key));
+        HostCircuitBreaker.getInstance().acquire(upstream.host());
+        long started = System.nanoTime();
+        T result = null;
+        Throwable failure = null;
+        try {
+            result = call.call();
+            return result;
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            recordUpstream(upstream, started, result == null ? 0 : statusCode.applyAsInt(result), failure);
+        }
+    }
+
+    static void recordUpstream(Upstream upstream, long startedNanos, int statusCode, Throwable failure) {
+        long elapsed = System.nanoTime() - startedNanos;
+        upstream.latency().observeNanos(elapsed);
+        HostCircuitBreaker.getInstance().record(upstream.host(), elapsed, statusCode, failure);
+    }
+
+    /**
+     * The upstream for {@code authority}, any key that identifies a host and port; {@code hostOf} builds its
+     * {@link HostCircuitBreaker#hostKey host key} only the first time that authority is seen.
+     */
+    static <K> Upstream upstream(K authority, Function<K, String> hostOf) {
+        Upstream cached = UPSTREAMS.get(authority);
+        if (cached != null) {
+            return cached;
+        }
+        String host = hostOf.apply(authority);
+        Upstream upstream = new Upstream(host, UPSTREAM_LATENCY.labels(host));
+        if (UPSTREAMS.size() < MAX_CACHED_UPSTREAMS) {
+            UPSTREAMS.putIfAbsent(authority, upstream);
+        }
+        return upstream;
+    }
+
+    record Upstream(String host, MetricsRegistry.Histogram latency) {
+    }
+
     public static String formatHttpLog(String requestUrl, HttpResult response, Map<String, String> requestParams) {
         if (response == null) {
             return "HTTP request log unavailable: response was null";
@@ -206,24 +275,40 @@ public class HttpUtil {
         return SENSITIVE_HEADERS.contains(lower);
     }
 
+    /**
+     * Samples at most {@code uiptv.http.log.max.body.chars} characters of the body; the rest is only measured, never
+     * copied, so logging a multi-megabyte catalog response does not duplicate it. Binary detection looks at the sample.
+     */
     private static String abbreviateBody(String body) {
-        if (body == null || body.isBlank()) {
+        if (body == null) {
             return "<empty>";
         }
-        String normalized = body.replace("\r\n", "\n").replace('\r', '\n').trim();
-        if (looksBinary(normalized)) {
-            return "<binary " + normalized.getBytes(StandardCharsets.UTF_8).length + " bytes>";
+        int start = 0;
+        int end = body.length();
+        while (start < end && Character.isWhitespace(body.charAt(start))) {
+            start++;
         }
-        if (normalized.length() <= MAX_LOG_BODY_CHARS) {
-            return normalized;
+        while (end > start && Character.isWhitespace(body.charAt(end - 1))) {
+            end--;
         }
-        return normalized.substring(0, MAX_LOG_BODY_CHARS)
+        if (start == end) {
+            return "<empty>";
+        }
+        int sampleEnd = Math.min(end, start + MAX_LOG_BODY_CHARS);
+        if (looksBinary(body, start, sampleEnd)) {
+            return "<binary " + utf8Length(body) + " bytes>";
+        }
+        String sample = body.substring(start, sampleEnd).replace("\r\n", "\n").replace('\r', '\n');
+        if (sampleEnd == end) {
+            return sample;
+        }
+        return sample
                 + System.lineSeparator()
-                + "... [truncated " + (normalized.length() - MAX_LOG_BODY_CHARS) + " chars]";
+                + "... [truncated " + (end - sampleEnd) + " chars]";
     }
 
-    private static boolean looksBinary(String value) {
-        for (int i = 0; i < value.length(); i++) {
+    private static boolean looksBinary(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
             char c = value.charAt(i);
             if (Character.isISOControl(c) && !Character.isWhitespace(c)) {
                 return true;
@@ -232,6 +317,24 @@ public class HttpUtil {
         return false;
     }
 
+    private static long utf8Length(String value) {
+        long bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
     private static String indent(String value) {
         return value.lines()
                 .map(line -> "  " + line)
@@ -285,7 +388,7 @@ public class HttpUtil {
         return request;
     }
 
-    private static URI toSafeUri(String url) {
+    static URI toSafeUri(String url) {
         String normalized = url == null ? "" : url.trim();
         if (normalized.isEmpty()) {
             return URI.create("http://localhost/empty-url-fallback");
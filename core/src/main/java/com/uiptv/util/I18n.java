@@ -17,9 +17,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 public final class I18n {
@@ -60,8 +62,11 @@ public final class I18n {
 
     private static final Object LOCK = new Object();
     private static final Pattern TOKEN_ARTIFACT_PATTERN = Pattern.compile("(?:__\\s*T\\s*K\\d+_+|__\\d+__|ForTK\\d+__)");
+    // Bundles are parsed on first lookup and kept per locale; the app sets its locale before showing any text, so
+    // the default bundle is never read just to be replaced.
+    private static final Map<Locale, Optional<ResourceBundle>> LOADED_BUNDLES = new ConcurrentHashMap<>();
     private static Locale currentLocale = Locale.forLanguageTag(DEFAULT_LANGUAGE_TAG);
-    private static ResourceBundle bundle = loadBundle(currentLocale);
+    private static ResourceBundle bundle;
 
     private I18n() {}
 
@@ -74,10 +79,18 @@ public final class I18n {
             currentLocale = resolveLocale(languageTag);
             Locale.setDefault(currentLocale);
             ResourceBundle.clearCache();
-            bundle = loadBundle(currentLocale);
+            bundle = null;
         }
     }
 
+    /**
+     * Parses the bundle of {@code languageTag} ahead of {@link #initialize}, so a start-up thread can do it while the
+     * UI toolkit is still coming up. The current locale is left unchanged.
+     */
+    public static void preload(String languageTag) {
+        loadBundle(resolveLocale(languageTag));
+    }
+
     public static String getCurrentLanguageTag() {
         synchronized (LOCK) {
             return currentLocale.toLanguageTag();
@@ -203,6 +216,9 @@ public final class I18n {
     private static String lookupOrFallback(String key) {
         if (key == null || key.isBlank()) return "";
         synchronized (LOCK) {
+            if (bundle == null) {
+                bundle = loadBundle(currentLocale);
+            }
             if (bundle != null && bundle.containsKey(key)) {
                 return bundle.getString(key);
             }
@@ -257,6 +273,16 @@ public final class I18n {
 
     private static ResourceBundle loadBundle(Locale locale) {
         Locale requestedLocale = locale == null ? Locale.forLanguageTag(DEFAULT_LANGUAGE_TAG) : locale;
+        return LOADED_BUNDLES.computeIfAbsent(requestedLocale, I18n::readBundle).orElse(null);
+    }
+
+    private static Optional<ResourceBundle> readBundle(Locale locale) {
+        try (StartupProfile.Phase _ = StartupProfile.getInstance().begin("i18n-bundle " + locale.toLanguageTag())) {
+            return Optional.ofNullable(readBundleChain(locale));
+        }
+    }
+
+    private static ResourceBundle readBundleChain(Locale requestedLocale) {
         ResourceBundle requestedBundle = loadBundleWithoutDefaultLocaleFallback(requestedLocale);
         if (requestedBundle != null || DEFAULT_LANGUAGE_TAG.equalsIgnoreCase(requestedLocale.toLanguageTag())) {
             return requestedBundle;
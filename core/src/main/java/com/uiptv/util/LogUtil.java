@@ -5,7 +5,10 @@ public class LogUtil {
     private LogUtil() {
     }
 
+    /**
+     * Logs the request/response dump at INFO; it is only formatted when the terminal or a listening sink wants it.
+     */
     public static void httpLog(String url, HttpUtil.HttpResult response, Map<String, String> params) {
-        com.uiptv.util.AppLog.addInfoLog(LogUtil.class, HttpUtil.formatHttpLog(url, response, params));
+        com.uiptv.util.AppLog.addInfoLog(LogUtil.class, () -> HttpUtil.formatHttpLog(url, response, params));
     }
 }
@@ -4,7 +4,11 @@ import com.uiptv.model.Account;
 import com.uiptv.service.AccountService;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static com.uiptv.util.UiptUtils.*;
 import static com.uiptv.util.StringUtils.isNotBlank;
@@ -13,9 +17,22 @@ import static com.uiptv.util.StringUtils.isNotBlank;
  * Handles parsing of M3U playlist links.
  */
 public class M3uParser implements AccountParser {
+    private final Function<String, Account> accountProvider;
+    private final Consumer<Account> accountSaver;
+
+    public M3uParser() {
+        this(AccountService.getInstance()::getByName, AccountService.getInstance()::save);
+    }
+
+    public M3uParser(Function<String, Account> accountProvider, Consumer<Account> accountSaver) {
+        this.accountProvider = accountProvider;
+        this.accountSaver = accountSaver;
+    }
+
     @Override
     public List<Account> parseAndSave(String text, boolean groupAccountsByMac, boolean convertM3uToXtreme) {
         List<Account> createdAccounts = new ArrayList<>();
+        Set<String> processedNames = new HashSet<>();
         for (String line : text.split("\\R")) {
             for (final String potentialUrl : replaceAllNonPrintableChars(line).split(SPACER)) {
                 if (!isValidURL(potentialUrl)) continue;
@@ -32,7 +49,8 @@ public class M3uParser implements AccountParser {
                     m3uPlayLIstUrl = potentialUrl.split("get.php?")[0];
                 }
 
-                String uniqueName = getUniqueNameFromUrl(m3uPlayLIstUrl);
+                String uniqueName = getUniqueNameFromUrl(m3uPlayLIstUrl,
+                        name -> processedNames.contains(name) || accountProvider.apply(name) != null);
                 Account account = new Account(uniqueName, username, password, m3uPlayLIstUrl, null, null, null, null, null, null,
                         accountType, null, m3uPlayLIstUrl, false);
                 if (accountType == AccountType.XTREME_API && isNotBlank(username) && isNotBlank(password)) {
@@ -40,7 +58,8 @@ public class M3uParser implements AccountParser {
                             new XtremeCredentialsJson.Entry(username, password, true)
                     )));
                 }
-                AccountService.getInstance().save(account);
+                accountSaver.accept(account);
+                processedNames.add(uniqueName);
                 createdAccounts.add(account);
             }
         }
@@ -0,0 +1,375 @@
+package com.uiptv.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-process counters, gauges and latency histograms, rendered in the Prometheus text exposition format.
+ * <p>
+ * Instrumented code resolves its series once (e.g. into a static field) and then only touches {@link LongAdder}s, so
+ * recording is allocation-free on hot paths. Each family keeps at most {@code uiptv.metrics.maxSeries} label
+ * combinations (default 500); further combinations share one series whose labels are all {@code "other"}. Sampled
+ * families are computed from a callback at scrape time instead of being recorded.
+ */
+public final class MetricsRegistry {
+    private static final int MAX_SERIES = Math.max(1, Integer.getInteger("uiptv.metrics.maxSeries", 500));
+    private static final String OVERFLOW_LABEL = "other";
+    private static final String LABEL_SEPARATOR = "\u0000";
+    /**
+     * Upper bounds in seconds, from sub-millisecond DB lookups up to slow provider reloads.
+     */
+    static final double[] LATENCY_BUCKETS = {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+
+    private final Map<String, MetricFamily> families = new LinkedHashMap<>();
+
+    MetricsRegistry() {
+    }
+
+    private static class SingletonHelper {
+        private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    }
+
+    public static MetricsRegistry getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    public enum Type {
+        COUNTER,
+        GAUGE,
+        HISTOGRAM
+    }
+
+    /**
+     * Values of a sampled family at scrape time, keyed by label values in declaration order.
+     */
+    @FunctionalInterface
+    public interface Sampler {
+        Map<List<String>, Number> sample();
+    }
+
+    public Family<Counter> counter(String name, String help, String... labelNames) {
+        return register(name, help, Type.COUNTER, labelNames, _ -> new Counter());
+    }
+
+    public Family<Gauge> gauge(String name, String help, String... labelNames) {
+        return register(name, help, Type.GAUGE, labelNames, _ -> new Gauge());
+    }
+
+    public Family<Histogram> histogram(String name, String help, String... labelNames) {
+        return register(name, help, Type.HISTOGRAM, labelNames, _ -> new Histogram(LATENCY_BUCKETS));
+    }
+
+    /**
+     * Hit and miss counters of one in-memory cache, as {@code uiptv_cache_requests_total{cache, result}}; the hit
+     * ratio is {@code hit / (hit + miss)}.
+     */
+    public CacheCounters cacheCounters(String cache) {
+        Family<Counter> family = counter("uiptv_cache_requests_total", "In-memory cache lookups by cache and result.", "cache", "result");
+        return new CacheCounters(family.labels(cache, "hit"), family.labels(cache, "miss"));
+    }
+
+    public record CacheCounters(Counter hits, Counter misses) {
+    }
+
+    /**
+     * Registers a counter or gauge family whose values are read from {@code sampler} on every scrape.
+     */
+    public synchronized void sampled(String name, Type type, String help, Sampler sampler, String... labelNames) {
+        if (type == Type.HISTOGRAM) {
+            throw new IllegalArgumentException("Sampled histograms are not supported");
+        }
+        families.putIfAbsent(name, new SampledFamily(name, help, type, labelNames, sampler));
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> Family<T> register(String name, String help, Type type, String[] labelNames, Function<List<String>, T> factory) {
+        MetricFamily existing = families.get(name);
+        if (existing != null) {
+            if (!(existing instanceof Family<?> family) || family.type != type || !Arrays.equals(family.labelNames, labelNames)) {
+                throw new IllegalArgumentException("Metric " + name + " is already registered with another type or labels");
+            }
+            return (Family<T>) family;
+        }
+        Family<T> family = new Family<>(name, help, type, labelNames, factory);
+        families.put(name, family);
+        return family;
+    }
+
+    /**
+     * Every family in registration order, in Prometheus text format version 0.0.4.
+     */
+    public String scrape() {
+        List<MetricFamily> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(families.values());
+        }
+        StringBuilder out = new StringBuilder(4096);
+        for (MetricFamily family : snapshot) {
+            family.write(out);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Name, help, type and label names of a registered family, and how it renders on a scrape.
+     */
+    abstract static class MetricFamily {
+        final String name;
+        final String help;
+        final Type type;
+        final String[] labelNames;
+
+        private MetricFamily(String name, String help, Type type, String[] labelNames) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.labelNames = labelNames.clone();
+        }
+
+        abstract void write(StringBuilder out);
+    }
+
+    /**
+     * A recorded family: callers resolve a series per label combination and update it.
+     */
+    public static final class Family<T> extends MetricFamily {
+        private final Function<List<String>, T> factory;
+        private final Map<String, Series<T>> series = new ConcurrentHashMap<>();
+
+        private Family(String name, String help, Type type, String[] labelNames, Function<List<String>, T> factory) {
+            super(name, help, type, labelNames);
+            this.factory = factory;
+        }
+
+        /**
+         * The series for these label values, created on first use.
+         */
+        public T labels(String... values) {
+            if (values.length != labelNames.length) {
+                throw new IllegalArgumentException(name + " expects " + labelNames.length + " label values");
+            }
+            String key = values.length == 1 ? nonNull(values[0]) : String.join(LABEL_SEPARATOR, normalized(values));
+            Series<T> existing = series.get(key);
+            if (existing != null) {
+                return existing.value();
+            }
+            if (series.size() >= MAX_SERIES) {
+                String[] overflow = new String[values.length];
+                Arrays.fill(overflow, OVERFLOW_LABEL);
+                return series.computeIfAbsent(String.join(LABEL_SEPARATOR, overflow),
+                        _ -> newSeries(List.of(overflow))).value();
+            }
+            return series.computeIfAbsent(key, _ -> newSeries(List.of(normalized(values)))).value();
+        }
+
+        private Series<T> newSeries(List<String> values) {
+            return new Series<>(values, factory.apply(values));
+        }
+
+        @Override
+        void write(StringBuilder out) {
+            writeHeader(out, name, help, type);
+            List<Series<T>> rows = new ArrayList<>(series.values());
+            rows.sort((left, right) -> String.join(LABEL_SEPARATOR, left.labelValues())
+                    .compareTo(String.join(LABEL_SEPARATOR, right.labelValues())));
+            for (Series<T> row : rows) {
+                switch (row.value()) {
+                    case Counter counter -> writeSample(out, name, labelNames, row.labelValues(), null, null, counter.get());
+                    case Gauge gauge -> writeSample(out, name, labelNames, row.labelValues(), null, null, gauge.get());
+                    case Histogram histogram -> histogram.write(out, name, labelNames, row.labelValues());
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
+
+    private record Series<T>(List<String> labelValues, T value) {
+    }
+
+    /**
+     * A family computed from its {@link Sampler} at scrape time; it has no series to resolve.
+     */
+    private static final class SampledFamily extends MetricFamily {
+        private final Sampler sampler;
+
+        private SampledFamily(String name, String help, Type type, String[] labelNames, Sampler sampler) {
+            super(name, help, type, labelNames);
+            this.sampler = sampler;
+        }
+
+        @Override
+        void write(StringBuilder out) {
+            Map<List<String>, Number> values;
+            try {
+                values = sampler.sample();
+            } catch (RuntimeException _) {
+                return;
+            }
+            writeHeader(out, name, help, type);
+            if (values == null) {
+                return;
+            }
+            values.forEach((labels, value) -> {
+                if (labels != null && labels.size() == labelNames.length && value != null) {
+                    writeSample(out, name, labelNames, labels, null, null, value.doubleValue());
+                }
+            });
+        }
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void inc() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            if (amount > 0) {
+                value.add(amount);
+            }
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public static final class Gauge {
+        private final AtomicLong value = new AtomicLong();
+
+        public void inc() {
+            value.incrementAndGet();
+        }
+
+        public void dec() {
+            value.decrementAndGet();
+        }
+
+        public void set(long newValue) {
+            value.set(newValue);
+        }
+
+        public long get() {
+            return value.get();
+        }
+    }
+
+    public static final class Histogram {
+        private final long[] boundsNanos;
+        private final String[] boundLabels;
+        private final LongAdder[] buckets;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+
+        private Histogram(double[] boundsSeconds) {
+            boundsNanos = new long[boundsSeconds.length];
+            boundLabels = new String[boundsSeconds.length];
+            buckets = new LongAdder[boundsSeconds.length + 1];
+            for (int i = 0; i < boundsSeconds.length; i++) {
+                boundsNanos[i] = (long) (boundsSeconds[i] * 1_000_000_000d);
+                boundLabels[i] = BigDecimal.valueOf(boundsSeconds[i]).stripTrailingZeros().toPlainString();
+            }
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observeNanos(long nanos) {
+            long safe = Math.max(0L, nanos);
+            int bucket = 0;
+            while (bucket < boundsNanos.length && safe > boundsNanos[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            count.increment();
+            sumNanos.add(safe);
+        }
+
+        /**
+         * Records the time elapsed since {@code startedNanos}, a {@link System#nanoTime()} reading.
+         */
+        public void observeSince(long startedNanos) {
+            observeNanos(System.nanoTime() - startedNanos);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        private void write(StringBuilder out, String name, String[] labelNames, List<String> labelValues) {
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += buckets[i].sum();
+                String le = i < boundLabels.length ? boundLabels[i] : "+Inf";
+                writeSample(out, name + "_bucket", labelNames, labelValues, "le", le, cumulative);
+            }
+            writeSample(out, name + "_sum", labelNames, labelValues, null, null, sumNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1));
+            writeSample(out, name + "_count", labelNames, labelValues, null, null, cumulative);
+        }
+    }
+
+    private static void writeHeader(StringBuilder out, String name, String help, Type type) {
+        out.append("# HELP ").append(name).append(' ').append(escapeHelp(help)).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type.name().toLowerCase(Locale.ROOT)).append('\n');
+    }
+
+    private static void writeSample(StringBuilder out, String name, String[] labelNames, List<String> labelValues,
+                                    String extraLabel, String extraValue, double value) {
+        out.append(name);
+        if (labelNames.length > 0 || extraLabel != null) {
+            out.append('{');
+            for (int i = 0; i < labelNames.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(labelNames[i]).append("=\"").append(escapeLabel(labelValues.get(i))).append('"');
+            }
+            if (extraLabel != null) {
+                if (labelNames.length > 0) {
+                    out.append(',');
+                }
+                out.append(extraLabel).append("=\"").append(extraValue).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String[] normalized(String[] values) {
+        String[] copy = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            copy[i] = nonNull(values[i]);
+        }
+        return copy;
+    }
+
+    private static String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
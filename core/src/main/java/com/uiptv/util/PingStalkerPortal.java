@@ -1,6 +1,8 @@
 package com.uiptv.util;
 
 import com.uiptv.model.Account;
+import com.uiptv.shared.net.HttpRequestData;
+import com.uiptv.shared.net.HttpResponseData;
 import org.json.JSONObject;
 
 import javax.net.ssl.SSLException;
@@ -9,8 +11,20 @@ import java.net.NoRouteToHostException;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 import static com.uiptv.util.FetchAPI.ServerType.PORTAL;
@@ -19,6 +33,14 @@ import static com.uiptv.util.StringUtils.isNotBlank;
 
 public class PingStalkerPortal {
     private static final String DOCUMENT_URL_REPLACE_PREFIX = "document.URL.replace(pattern,";
+    private static final int PROBE_TIMEOUT_SECONDS = Math.max(1, Integer.getInteger("uiptv.stalker.probe.timeout.seconds", 5));
+    private static final long ENDPOINT_TTL_MS = TimeUnit.MINUTES.toMillis(Math.max(1, Long.getLong("uiptv.stalker.endpoint.cache.minutes", 60L)));
+    // Endpoints resolved for a portal base URL (see portalKey), shared by every account on that portal. An entry is
+    // dropped once it expires or a handshake against it fails, so a portal that moved is discovered again.
+    private static final Map<String, DiscoveredEndpoint> DISCOVERED_ENDPOINTS = new ConcurrentHashMap<>();
+
+    private record DiscoveredEndpoint(String apiUrl, long expiresAtMs) {
+    }
 
     private enum ProbeStatus {
         SUCCESS,
@@ -26,6 +48,9 @@ public class PingStalkerPortal {
         NETWORK_ERROR
     }
 
+    private record ProbeResult(String url, ProbeStatus status) {
+    }
+
     public static final String SPLIT_FUNCTION_SERVER_PARAMS = Pattern.quote("this.get_server_params=function()");
 
     // Ordered by commonly seen Stalker/Ministra deployments.
@@ -43,6 +68,12 @@ public class PingStalkerPortal {
         final String url = account.getUrl();
         final String timezone = account.getTimezone() != null ? account.getTimezone() : "Europe/London";
         final String httpMethod = account.getHttpMethod() != null ? account.getHttpMethod() : "GET";
+        final String portalKey = portalKey(url);
+        String knownApi = knownEndpoint(portalKey);
+        if (isNotBlank(knownApi)) {
+            com.uiptv.util.AppLog.addInfoLog(PingStalkerPortal.class, "Reusing API endpoint already discovered for " + portalKey + ": " + knownApi);
+            return knownApi;
+        }
         // Try reading and parsing xpcom.common.js first.
         com.uiptv.util.AppLog.addInfoLog(PingStalkerPortal.class, "Attempting to download xpcom.common.js from portal base URL: " + url);
         try {
@@ -58,7 +89,7 @@ public class PingStalkerPortal {
                 String defaultApi = getDefaultApiEndpoint(url);
                 if (isNotBlank(discoveredApi) && !discoveredApi.equalsIgnoreCase(defaultApi)) {
                     com.uiptv.util.AppLog.addInfoLog(PingStalkerPortal.class, "Successfully parsed xpcom.common.js and resolved a specific API endpoint: " + discoveredApi);
-                    return discoveredApi;
+                    return remember(portalKey, discoveredApi);
                 }
                 com.uiptv.util.AppLog.addWarningLog(PingStalkerPortal.class, "xpcom.common.js was accessible, but did not yield a specific API endpoint. Trying known API paths next.");
             } else {
@@ -77,7 +108,7 @@ public class PingStalkerPortal {
         String verifiedApi = probeKnownPaths(url, account.getMacAddress(), timezone, httpMethod);
         if (verifiedApi != null) {
             com.uiptv.util.AppLog.addInfoLog(PingStalkerPortal.class, "Successfully discovered working API endpoint via direct handshake probing: " + verifiedApi);
-            return verifiedApi;
+            return remember(portalKey, verifiedApi);
         }
 
         // Return standard endpoint if all discovery attempts fail.
@@ -86,7 +117,10 @@ public class PingStalkerPortal {
     }
 
     /**
-     * Iterates through known Stalker paths and attempts a handshake.
+     * Races a handshake against every known Stalker path and returns the first one that answers with a token.
+     * Probes are sent together on the non-blocking client with short timeouts; the remaining ones are cancelled once a
+     * winner is found. A failed probe never ends the race early: a network error is only reported once every probe
+     * has returned without a match.
      *
      * @param baseUrl    The base URL provided by the user.
      * @param macAddress The MAC address for the device
@@ -102,57 +136,152 @@ public class PingStalkerPortal {
             cleanBase = cleanBase.substring(0, cleanBase.length() - 1);
         }
 
+        CompletableFuture<ProbeResult> race = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(PROBE_PATHS.length);
+        AtomicReference<String> networkErrorUrl = new AtomicReference<>();
+        List<CompletableFuture<HttpResponseData>> probes = new ArrayList<>(PROBE_PATHS.length);
         for (String path : PROBE_PATHS) {
             String targetUrl = cleanBase + path;
-            ProbeStatus result = checkHandshake(targetUrl, macAddress, timezone, httpMethod);
-            if (result == ProbeStatus.SUCCESS) {
-                return targetUrl;
+            CompletableFuture<HttpResponseData> probe = sendHandshake(targetUrl, macAddress, timezone, httpMethod);
+            probes.add(probe);
+            probe.handle((response, failure) -> handshakeStatus(targetUrl, response, failure))
+                    .thenAccept(status -> {
+                        if (status == ProbeStatus.SUCCESS) {
+                            race.complete(new ProbeResult(targetUrl, status));
+                            return;
+                        }
+                        if (status == ProbeStatus.NETWORK_ERROR) {
+                            networkErrorUrl.compareAndSet(null, targetUrl);
+                        }
+                        if (pending.decrementAndGet() == 0) {
+                            String failedUrl = networkErrorUrl.get();
+                            race.complete(failedUrl == null
+                                    ? new ProbeResult(targetUrl, ProbeStatus.NO_MATCH)
+                                    : new ProbeResult(failedUrl, ProbeStatus.NETWORK_ERROR));
+                        }
+                    });
+        }
+        try {
+            ProbeResult result = race.get(PROBE_TIMEOUT_SECONDS + 1L, TimeUnit.SECONDS);
+            if (result.status() == ProbeStatus.SUCCESS) {
+                return result.url();
             }
-            if (result == ProbeStatus.NETWORK_ERROR) {
-                com.uiptv.util.AppLog.addWarningLog(PingStalkerPortal.class, "Stopping endpoint probing after connection-level failure at: " + targetUrl);
-                return null;
+            if (result.status() == ProbeStatus.NETWORK_ERROR) {
+                com.uiptv.util.AppLog.addWarningLog(PingStalkerPortal.class, "No endpoint answered; connection-level failure at: " + result.url());
             }
+        } catch (TimeoutException _) {
+            com.uiptv.util.AppLog.addWarningLog(PingStalkerPortal.class, "Endpoint probing timed out for: " + cleanBase);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            com.uiptv.util.AppLog.addErrorLog(PingStalkerPortal.class, "Endpoint probing failed: " + rootCauseMessage(e));
+        } finally {
+            probes.forEach(probe -> probe.cancel(true));
         }
         return null;
     }
 
     /**
      * Sends a Stalker handshake request to the given URL.
-     * Checks if the response contains the expected JSON token structure.
      *
      * @param apiUrl The API endpoint URL
      * @param macAddress The MAC address for the device
      * @param timezone The timezone setting
      * @param httpMethod The HTTP method to use (GET or POST)
      */
-    private static ProbeStatus checkHandshake(String apiUrl, String macAddress, String timezone, String httpMethod) {
-        try {
-            com.uiptv.util.AppLog.addInfoLog(PingStalkerPortal.class, "Checking handshake for : " + apiUrl);
-            
-            Map<String, String> headers = new HashMap<>();
-            headers.put("User-Agent", "Mozilla/5.0 (QtEmbedded; U; Linux; C) AppleWebKit/533.3 (KHTML, like Gecko) MAG200 stbapp ver: 2 rev: 250 Safari/533.3");
-            headers.put("X-User-Agent", "Model: MAG250; Link: WiFi");
-            headers.put("Referer", apiUrl);
-            headers.put("Cookie", "mac=" + macAddress + "; stb_lang=en; timezone=" + timezone);
-
-            String handshakeQuery = "?type=stb&action=handshake&JsHttpRequest=" + System.currentTimeMillis() + "-xml";
-            HttpUtil.HttpResult response = HttpUtil.sendRequest(apiUrl + handshakeQuery, headers, httpMethod);
+    private static CompletableFuture<HttpResponseData> sendHandshake(String apiUrl, String macAddress, String timezone, String httpMethod) {
+        com.uiptv.util.AppLog.addInfoLog(PingStalkerPortal.class, "Checking handshake for : " + apiUrl);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("User-Agent", "Mozilla/5.0 (QtEmbedded; U; Linux; C) AppleWebKit/533.3 (KHTML, like Gecko) MAG200 stbapp ver: 2 rev: 250 Safari/533.3");
+        headers.put("X-User-Agent", "Model: MAG250; Link: WiFi");
+        headers.put("Referer", apiUrl);
+        headers.put("Cookie", "mac=" + macAddress + "; stb_lang=en; timezone=" + timezone);
+
+        String handshakeQuery = "?type=stb&action=handshake&JsHttpRequest=" + System.currentTimeMillis() + "-xml";
+        return AsyncHttpClient.getInstance().executeAsync(
+                new HttpRequestData(apiUrl + handshakeQuery, httpMethod, headers, null, true, PROBE_TIMEOUT_SECONDS));
+    }
 
-            if (response.statusCode() == 200) {
-                String body = response.body();
-                if (hasHandshakeToken(body)) {
-                    return ProbeStatus.SUCCESS;
-                }
-            }
-        } catch (Exception e) {
-            if (isNetworkFailure(e)) {
-                com.uiptv.util.AppLog.addWarningLog(PingStalkerPortal.class, "Network/connection issue while checking " + apiUrl + ": " + rootCauseMessage(e));
+    /**
+     * Checks if a handshake response contains the expected JSON token structure.
+     */
+    private static ProbeStatus handshakeStatus(String apiUrl, HttpResponseData response, Throwable failure) {
+        if (failure != null) {
+            if (isNetworkFailure(failure)) {
+                com.uiptv.util.AppLog.addWarningLog(PingStalkerPortal.class, "Network/connection issue while checking " + apiUrl + ": " + rootCauseMessage(failure));
                 return ProbeStatus.NETWORK_ERROR;
             }
+            return ProbeStatus.NO_MATCH;
+        }
+        if (response.statusCode() == 200 && hasHandshakeToken(new String(response.body(), StandardCharsets.UTF_8))) {
+            return ProbeStatus.SUCCESS;
         }
         return ProbeStatus.NO_MATCH;
     }
 
+    /**
+     * Identifies the portal an account URL points at, as its normalized base URL: the scheme, the
+     * {@link HostCircuitBreaker#hostKey host key} and the path without trailing slashes, query or fragment. Portals
+     * served under different paths of one host get different keys.
+     *
+     * @return the key, or an empty string when the URL has no host
+     */
+    public static String portalKey(String url) {
+        if (isBlank(url)) {
+            return "";
+        }
+        try {
+            URI uri = URI.create(ensureAbsoluteUrl(url.trim()));
+            String hostKey = HostCircuitBreaker.hostKey(uri.toString());
+            if (isBlank(hostKey)) {
+                return "";
+            }
+            String key = uri.getScheme().toLowerCase(Locale.ROOT) + "://" + hostKey;
+            return uri.getPath() == null ? key : key + uri.getPath().replaceAll("/+$", "");
+        } catch (IllegalArgumentException _) {
+            return "";
+        }
+    }
+
+    /**
+     * Forgets {@code apiUrl} as the endpoint of the portal at {@code url} after a call to it failed, so the next
+     * {@link #ping(Account)} discovers the endpoint again. An endpoint remembered since then is kept.
+     */
+    public static void forgetEndpoint(String url, String apiUrl) {
+        String portalKey = portalKey(url);
+        if (isBlank(portalKey) || isBlank(apiUrl)) {
+            return;
+        }
+        DISCOVERED_ENDPOINTS.computeIfPresent(portalKey, (_, known) -> apiUrl.equals(known.apiUrl()) ? null : known);
+    }
+
+    static void clearDiscoveredEndpoints() {
+        DISCOVERED_ENDPOINTS.clear();
+    }
+
+    private static String knownEndpoint(String portalKey) {
+        if (isBlank(portalKey)) {
+            return null;
+        }
+        DiscoveredEndpoint known = DISCOVERED_ENDPOINTS.get(portalKey);
+        if (known == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= known.expiresAtMs()) {
+            DISCOVERED_ENDPOINTS.remove(portalKey, known);
+            return null;
+        }
+        return known.apiUrl();
+    }
+
+    private static String remember(String portalKey, String apiUrl) {
+        if (isNotBlank(portalKey)) {
+            DISCOVERED_ENDPOINTS.put(portalKey, new DiscoveredEndpoint(apiUrl, System.currentTimeMillis() + ENDPOINT_TTL_MS));
+        }
+        return apiUrl;
+    }
+
     private static boolean isNetworkFailure(Throwable throwable) {
         Throwable current = throwable;
         while (current != null) {
@@ -160,6 +289,8 @@ public class PingStalkerPortal {
                     || current instanceof ConnectException
                     || current instanceof NoRouteToHostException
                     || current instanceof SocketTimeoutException
+                    || current instanceof HttpTimeoutException
+                    || current instanceof ProviderUnavailableException
                     || current instanceof SSLException) {
                 return true;
             }
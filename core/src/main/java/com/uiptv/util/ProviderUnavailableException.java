@@ -0,0 +1,25 @@
+package com.uiptv.util;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of contacting a host whose {@link HostCircuitBreaker} is open.
+ */
+public class ProviderUnavailableException extends IOException {
+    private final String host;
+    private final long retryAfterSeconds;
+
+    public ProviderUnavailableException(String host, long retryAfterSeconds) {
+        super("Provider " + host + " is unavailable after repeated failures; retrying in " + retryAfterSeconds + "s");
+        this.host = host;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,4 +1,4 @@
-package com.uiptv.service.remotesync;
+package com.uiptv.util;
 
 import java.io.File;
 import java.io.IOException;
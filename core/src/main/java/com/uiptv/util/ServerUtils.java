@@ -8,6 +8,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -30,7 +32,10 @@ public class ServerUtils {
     // Removed CONTENT_TYPE_JAVASCRIPT and CONTENT_TYPE_CSS from DOWNLOADABLE to allow inline execution/rendering
     private static final List<String> DOWNLOADABLE = Arrays.asList(CONTENT_TYPE_TS);
 
-    private static Map<String, String> queryToMap(String query) {
+    /**
+     * Splits and URL-decodes a raw query string. Later duplicates of a key win.
+     */
+    public static Map<String, String> queryToMap(String query) {
         if (query == null) {
             return Collections.emptyMap();
         }
@@ -99,6 +104,22 @@ public class ServerUtils {
         writeResponse(httpExchange, statusCode, responseBytes == null ? new byte[0] : responseBytes, contentType);
     }
 
+    /**
+     * Streams {@code file} from byte {@code offset} without loading it into memory.
+     */
+    public static void writeFileResponse(HttpExchange httpExchange, int statusCode, Path file, long offset, String contentType) throws IOException {
+        long size = Files.size(file);
+        long start = Math.clamp(offset, 0L, size);
+        httpExchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+        httpExchange.getResponseHeaders().add("Content-Type", contentType);
+        httpExchange.sendResponseHeaders(statusCode, size - start == 0 ? -1 : size - start);
+        try (OutputStream os = httpExchange.getResponseBody();
+             InputStream input = Files.newInputStream(file)) {
+            input.skipNBytes(start);
+            input.transferTo(os);
+        }
+    }
+
     public static String readRequestBodyText(HttpExchange httpExchange) throws IOException {
         return new String(readRequestBodyBytes(httpExchange), StandardCharsets.UTF_8);
     }
@@ -0,0 +1,113 @@
+package com.uiptv.util;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Where the time goes while the app starts. With {@code -Duiptv.startup.profile=true}, init phases (database
+ * migrations, bundle loading, server start, ...) record their duration and milestones (first frame, first account
+ * list, server ready) record their time since JVM start; the report is logged once start-up is {@link #ready}.
+ * Disabled, every call is a no-op.
+ * <p>
+ * {@code -Duiptv.startup.exitWhenReady=true} ends the process at that point, which is how the build trains the
+ * class-data sharing archive on a real start-up.
+ */
+public final class StartupProfile {
+    private static final Phase NO_OP = new Phase(null, null, 0L);
+
+    private final boolean enabled;
+    private final boolean exitWhenReady;
+    private final LongSupplier clock;
+    private final long jvmStartMs;
+    private final List<String> entries = new ArrayList<>();
+    private final Set<String> milestones = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reported = new AtomicBoolean();
+
+    StartupProfile(boolean enabled, boolean exitWhenReady, LongSupplier clock, long jvmStartMs) {
+        this.enabled = enabled;
+        this.exitWhenReady = exitWhenReady;
+        this.clock = clock;
+        this.jvmStartMs = jvmStartMs;
+    }
+
+    private static class SingletonHelper {
+        private static final StartupProfile INSTANCE = new StartupProfile(
+                Boolean.getBoolean("uiptv.startup.profile"),
+                Boolean.getBoolean("uiptv.startup.exitWhenReady"),
+                System::currentTimeMillis,
+                ProcessHandle.current().info().startInstant().map(Instant::toEpochMilli).orElse(System.currentTimeMillis()));
+    }
+
+    public static StartupProfile getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    /**
+     * Starts timing an init phase; closing the returned phase records it.
+     */
+    public Phase begin(String name) {
+        return enabled && !reported.get() ? new Phase(this, name, clock.getAsLong()) : NO_OP;
+    }
+
+    /**
+     * Records the first time {@code name} is reached; later calls with the same name are ignored.
+     */
+    public void milestone(String name) {
+        if (enabled && !reported.get() && milestones.add(name)) {
+            record(name + " reached " + (clock.getAsLong() - jvmStartMs) + " ms after JVM start");
+        }
+    }
+
+    /**
+     * Records the milestone that completes start-up and logs the report. Only the first call has any effect.
+     */
+    public void ready(String name) {
+        milestone(name);
+        if (!reported.compareAndSet(false, true)) {
+            return;
+        }
+        if (enabled) {
+            AppLog.addInfoLog(StartupProfile.class, "Startup profile:" + System.lineSeparator() + report());
+        }
+        if (exitWhenReady) {
+            AppLog.addInfoLog(StartupProfile.class, "Start-up complete (" + name + "); exiting as requested.");
+            System.exit(0);
+        }
+    }
+
+    String report() {
+        synchronized (entries) {
+            return String.join(System.lineSeparator(), entries);
+        }
+    }
+
+    private void record(String entry) {
+        synchronized (entries) {
+            entries.add("  " + entry + " [" + Thread.currentThread().getName() + "]");
+        }
+    }
+
+    public static final class Phase implements AutoCloseable {
+        private final StartupProfile profile;
+        private final String name;
+        private final long startedAtMs;
+
+        private Phase(StartupProfile profile, String name, long startedAtMs) {
+            this.profile = profile;
+            this.name = name;
+            this.startedAtMs = startedAtMs;
+        }
+
+        @Override
+        public void close() {
+            if (profile != null) {
+                profile.record(name + " took " + (profile.clock.getAsLong() - startedAtMs) + " ms");
+            }
+        }
+    }
+}
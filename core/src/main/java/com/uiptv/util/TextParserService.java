@@ -1,8 +1,11 @@
 package com.uiptv.util;
 
 import com.uiptv.model.Account;
+import com.uiptv.service.AccountImportService;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Main service for parsing text into accounts.
@@ -16,17 +19,25 @@ public class TextParserService {
     public static final String MODE_XTREME = "Xtreme";
     public static final String MODE_M3U = "M3U Playlists";
 
+    /**
+     * Parses and saves the accounts in {@code text} through {@link AccountImportService}, without validation.
+     */
     public static List<Account> saveBulkAccounts(String text, String mode, boolean groupAccountsByMac, boolean convertM3uToXtreme) {
-        AccountParser parser;
+        return AccountImportService.getInstance()
+                .importAccounts(text, mode, groupAccountsByMac, convertM3uToXtreme, false, null)
+                .created();
+    }
 
+    /**
+     * The parser for {@code mode}, looking existing accounts up and handing parsed accounts over through the given
+     * functions.
+     */
+    public static AccountParser createParser(String mode, Function<String, Account> accountProvider, Consumer<Account> accountSaver) {
         if (MODE_STALKER.equals(mode)) {
-            parser = new StalkerPortalParser();
+            return new StalkerPortalParser(accountProvider, accountSaver);
         } else if (MODE_XTREME.equals(mode)) {
-            parser = new XtremeParser();
-        } else {
-            parser = new M3uParser();
+            return new XtremeParser(accountProvider, accountSaver);
         }
-
-        return parser.parseAndSave(text, groupAccountsByMac, convertM3uToXtreme);
+        return new M3uParser(accountProvider, accountSaver);
     }
 }
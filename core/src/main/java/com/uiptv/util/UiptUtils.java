@@ -6,6 +6,7 @@ import java.net.URI;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import static com.uiptv.util.StringUtils.EMPTY;
 import static com.uiptv.util.StringUtils.isBlank;
@@ -48,6 +49,13 @@ public class UiptUtils {
     }
 
     public static String getUniqueNameFromUrl(String urlString) {
+        return getUniqueNameFromUrl(urlString, name -> AccountService.getInstance().getByName(name) != null);
+    }
+
+    /**
+     * The first free "host (n)" name for {@code urlString}, where {@code taken} tells which names are in use.
+     */
+    public static String getUniqueNameFromUrl(String urlString, Predicate<String> taken) {
         try {
             URL url = new URL(urlString);
             URI uri = url.toURI();
@@ -55,7 +63,7 @@ public class UiptUtils {
             String validName;
             do {
                 validName = uri.getHost() + " (" + i++ + ")";
-            } while (AccountService.getInstance().getByName(validName) != null);
+            } while (taken.test(validName));
             return validName;
         } catch (Exception _) {
             // Fall back to the raw URL when host extraction fails.
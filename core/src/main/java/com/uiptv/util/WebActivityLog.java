@@ -244,6 +244,9 @@ public final class WebActivityLog {
         if (path.startsWith("/vodDetails")) {
             return "Loaded movie details in the web app";
         }
+        if (path.startsWith("/macVerification")) {
+            return "Verified MAC addresses in the web app";
+        }
         if (path.startsWith("/watchingNow")) {
             return "Updated the watching-now list in the web app";
         }
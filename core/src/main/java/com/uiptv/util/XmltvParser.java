@@ -0,0 +1,227 @@
+package com.uiptv.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static com.uiptv.util.StringUtils.isBlank;
+
+/**
+ * Streaming XMLTV reader. Elements are pulled one at a time with StAX and handed to the callbacks as they are read,
+ * so memory stays flat however large the guide is; only the last stop-less programme of each channel is held back
+ * until the next one on that channel supplies its end time.
+ */
+public final class XmltvParser {
+    public static final long INVALID_TIME = Long.MIN_VALUE;
+
+    public record XmltvChannel(String id, List<String> displayNames) {
+    }
+
+    public record XmltvProgramme(String channelId,
+                                 long startMs,
+                                 long stopMs,
+                                 String title,
+                                 String subTitle,
+                                 String description,
+                                 String category) {
+        XmltvProgramme endingAt(long endMs) {
+            return new XmltvProgramme(channelId, startMs, endMs, title, subTitle, description, category);
+        }
+    }
+
+    private XmltvParser() {
+    }
+
+    /**
+     * Reads {@code in} to the end, reporting each {@code <channel>} and each {@code <programme>} with a valid start
+     * time. A programme without a stop time ends where the next programme on the same channel starts; the last such
+     * programme of a channel is dropped.
+     *
+     * @throws CancellationException when {@code isCancelled} turns true while reading
+     */
+    public static void parse(InputStream in,
+                             Consumer<XmltvChannel> onChannel,
+                             Consumer<XmltvProgramme> onProgramme,
+                             BooleanSupplier isCancelled) throws IOException {
+        Map<String, XmltvProgramme> awaitingStop = new HashMap<>();
+        XMLStreamReader reader = null;
+        try {
+            reader = createInputFactory().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                if (isCancelled != null && isCancelled.getAsBoolean()) {
+                    throw new CancellationException("XMLTV parsing cancelled");
+                }
+                switch (reader.getLocalName()) {
+                    case "channel" -> {
+                        XmltvChannel channel = readChannel(reader);
+                        if (channel != null && onChannel != null) {
+                            onChannel.accept(channel);
+                        }
+                    }
+                    case "programme" -> {
+                        XmltvProgramme programme = readProgramme(reader);
+                        if (programme != null) {
+                            emit(programme, awaitingStop, onProgramme);
+                        }
+                    }
+                    default -> {
+                        // tv root and unknown top-level elements are skipped; their children are visited in turn.
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed XMLTV guide: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException _) {
+                    // The underlying stream is owned and closed by the caller.
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses an XMLTV timestamp ({@code YYYYMMDDhhmmss +hhmm}, seconds and offset optional, UTC when no offset).
+     *
+     * @return epoch milliseconds, or {@link #INVALID_TIME}
+     */
+    public static long parseTime(String value) {
+        if (isBlank(value)) {
+            return INVALID_TIME;
+        }
+        String text = value.trim();
+        int digits = 0;
+        while (digits < text.length() && digits < 14 && Character.isDigit(text.charAt(digits))) {
+            digits++;
+        }
+        if (digits < 12) {
+            return INVALID_TIME;
+        }
+        try {
+            LocalDateTime dateTime = LocalDateTime.of(
+                    Integer.parseInt(text, 0, 4, 10),
+                    Integer.parseInt(text, 4, 6, 10),
+                    Integer.parseInt(text, 6, 8, 10),
+                    Integer.parseInt(text, 8, 10, 10),
+                    Integer.parseInt(text, 10, 12, 10),
+                    digits >= 14 ? Integer.parseInt(text, 12, 14, 10) : 0);
+            return dateTime.toEpochSecond(parseOffset(text.substring(digits).trim())) * 1000L;
+        } catch (DateTimeException | NumberFormatException _) {
+            return INVALID_TIME;
+        }
+    }
+
+    private static ZoneOffset parseOffset(String offset) {
+        if (offset.length() < 5 || (offset.charAt(0) != '+' && offset.charAt(0) != '-')) {
+            return ZoneOffset.UTC;
+        }
+        int sign = offset.charAt(0) == '-' ? -1 : 1;
+        int hours = Integer.parseInt(offset, 1, 3, 10);
+        int minutes = Integer.parseInt(offset, 3, 5, 10);
+        return ZoneOffset.ofTotalSeconds(sign * (hours * 3600 + minutes * 60));
+    }
+
+    private static void emit(XmltvProgramme programme,
+                             Map<String, XmltvProgramme> awaitingStop,
+                             Consumer<XmltvProgramme> onProgramme) {
+        XmltvProgramme previous = awaitingStop.remove(programme.channelId());
+        if (previous != null && programme.startMs() > previous.startMs() && onProgramme != null) {
+            onProgramme.accept(previous.endingAt(programme.startMs()));
+        }
+        if (programme.stopMs() == INVALID_TIME) {
+            awaitingStop.put(programme.channelId(), programme);
+        } else if (programme.stopMs() > programme.startMs() && onProgramme != null) {
+            onProgramme.accept(programme);
+        }
+    }
+
+    private static XmltvChannel readChannel(XMLStreamReader reader) throws XMLStreamException {
+        String id = reader.getAttributeValue(null, "id");
+        List<String> displayNames = new ArrayList<>(2);
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 1 && "display-name".equals(reader.getLocalName())) {
+                    String name = reader.getElementText().trim();
+                    if (!name.isEmpty()) {
+                        displayNames.add(name);
+                    }
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return isBlank(id) ? null : new XmltvChannel(id.trim(), List.copyOf(displayNames));
+    }
+
+    private static XmltvProgramme readProgramme(XMLStreamReader reader) throws XMLStreamException {
+        String channelId = reader.getAttributeValue(null, "channel");
+        long startMs = parseTime(reader.getAttributeValue(null, "start"));
+        long stopMs = parseTime(reader.getAttributeValue(null, "stop"));
+        String title = null;
+        String subTitle = null;
+        String description = null;
+        String category = null;
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth != 1) {
+                    depth++;
+                    continue;
+                }
+                // Only the first element of each kind is kept; later ones are usually other languages.
+                switch (reader.getLocalName()) {
+                    case "title" -> title = firstNonBlank(title, reader.getElementText());
+                    case "sub-title" -> subTitle = firstNonBlank(subTitle, reader.getElementText());
+                    case "desc" -> description = firstNonBlank(description, reader.getElementText());
+                    case "category" -> category = firstNonBlank(category, reader.getElementText());
+                    default -> depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        if (isBlank(channelId) || startMs == INVALID_TIME) {
+            return null;
+        }
+        return new XmltvProgramme(channelId.trim(), startMs, stopMs, title, subTitle, description, category);
+    }
+
+    private static String firstNonBlank(String current, String candidate) {
+        if (current != null || isBlank(candidate)) {
+            return current;
+        }
+        return candidate.trim();
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // Guides come from providers: never resolve DTDs or external entities.
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
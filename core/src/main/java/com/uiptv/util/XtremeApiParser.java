@@ -75,6 +75,20 @@ public class XtremeApiParser {
         }
     }
 
+    /**
+     * Whether the provider accepts the account's credentials, i.e. {@code player_api.php} without an action reports
+     * {@code user_info.auth = 1}.
+     */
+    public static boolean authenticate(Account account) throws IOException {
+        String json = fetchPlayerApi(account, null, null);
+        try {
+            JSONObject userInfo = new JSONObject(json).optJSONObject("user_info");
+            return userInfo != null && userInfo.optInt("auth", 0) == 1;
+        } catch (Exception _) {
+            return false;
+        }
+    }
+
     private static List<Category> doParseCategories(String json) {
         List<Category> categoryList = new ArrayList<>();
         try {
@@ -91,7 +105,7 @@ public class XtremeApiParser {
         return categoryList;
     }
 
-    private static List<Channel> doParseChannels(String json, Account account) {
+    static List<Channel> doParseChannels(String json, Account account) {
         return doParseChannels(json, account, null, null);
     }
 
@@ -242,8 +256,10 @@ public class XtremeApiParser {
         StringBuilder url = new StringBuilder(baseUrl)
                 .append("player_api.php")
                 .append("?username=").append(nullSafeEncode(account.getUsername()))
-                .append("&password=").append(nullSafeEncode(account.getPassword()))
-                .append("&action=").append(nullSafeEncode(action));
+                .append("&password=").append(nullSafeEncode(account.getPassword()));
+        if (!isBlank(action)) {
+            url.append("&action=").append(nullSafeEncode(action));
+        }
         appendExtraParams(url, extraParams);
         return url.toString();
     }
@@ -308,6 +324,19 @@ public class XtremeApiParser {
         return trimmed;
     }
 
+    /**
+     * The provider's XMLTV guide ({@code xmltv.php}) for the account's credentials, or an empty string without a
+     * server URL.
+     */
+    public static String buildXmltvUrl(Account account) {
+        String baseUrl = normalizedBaseUrl(account);
+        if (isBlank(baseUrl)) {
+            return "";
+        }
+        return baseUrl + "xmltv.php?username=" + nullSafeEncode(account.getUsername())
+                + "&password=" + nullSafeEncode(account.getPassword());
+    }
+
     private static String buildXtremeStreamUrl(Account account, String streamId, String extension) {
         String baseUrl = normalizedBaseUrl(account);
         if (isBlank(baseUrl) || isBlank(streamId)) {
@@ -1,8 +1,10 @@
 module com.uiptv.core {
+    requires transitive com.uiptv.shared.contracts;
     requires org.json;
     requires org.apache.commons.io;
     requires org.apache.httpcomponents.client5.httpclient5;
     requires org.apache.httpcomponents.core5.httpcore5;
+    requires java.net.http;
     requires jdk.net;
     requires jdk.httpserver;
     requires net.bjoernpetersen.m3u;
@@ -17,6 +19,8 @@ module com.uiptv.core {
     exports com.uiptv.util;
     exports com.uiptv.service;
     exports com.uiptv.service.cache;
+    exports com.uiptv.service.jobs;
+    exports com.uiptv.service.macverify;
     exports com.uiptv.service.remotesync;
     exports com.uiptv.model;
     exports com.uiptv.shared;
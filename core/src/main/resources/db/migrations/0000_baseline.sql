@@ -297,6 +297,8 @@ CREATE TABLE IF NOT EXISTS Channel
     inputstreamaddon
     TEXT,
     manifestType
+    TEXT,
+    extraJson
     TEXT
 );
 
@@ -665,8 +667,137 @@ CREATE TABLE IF NOT EXISTS PublishedM3uChannelSelection
     NULL
 );
 
+CREATE TABLE IF NOT EXISTS BackgroundJob
+(
+    id
+    INTEGER
+    PRIMARY
+    KEY,
+    jobId
+    TEXT
+    NOT
+    NULL
+    UNIQUE,
+    jobName
+    TEXT
+    NOT
+    NULL,
+    uniqueKey
+    TEXT,
+    parametersJson
+    TEXT,
+    requiresNetwork
+    INTEGER,
+    status
+    TEXT,
+    progressPercent
+    INTEGER,
+    message
+    TEXT,
+    createdAt
+    INTEGER,
+    updatedAt
+    INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS EpgChannel
+(
+    id
+    INTEGER
+    PRIMARY
+    KEY,
+    accountId
+    TEXT
+    NOT
+    NULL,
+    guideKey
+    TEXT
+    NOT
+    NULL,
+    channelKey
+    TEXT
+    NOT
+    NULL,
+    displayName
+    TEXT,
+    nameKey
+    TEXT
+);
+
+CREATE TABLE IF NOT EXISTS EpgProgramme
+(
+    id
+    INTEGER
+    PRIMARY
+    KEY,
+    accountId
+    TEXT
+    NOT
+    NULL,
+    guideKey
+    TEXT
+    NOT
+    NULL,
+    channelKey
+    TEXT
+    NOT
+    NULL,
+    startMs
+    INTEGER
+    NOT
+    NULL,
+    stopMs
+    INTEGER
+    NOT
+    NULL,
+    title
+    TEXT,
+    subTitle
+    TEXT,
+    description
+    TEXT,
+    category
+    TEXT
+);
+
+CREATE TABLE IF NOT EXISTS EpgGuide
+(
+    id
+    INTEGER
+    PRIMARY
+    KEY,
+    accountId
+    TEXT
+    NOT
+    NULL
+    UNIQUE,
+    guideKey
+    TEXT
+    NOT
+    NULL
+);
+
+CREATE TABLE IF NOT EXISTS DatabaseMaintenance
+(
+    id
+    INTEGER
+    PRIMARY
+    KEY,
+    lastRunAt
+    INTEGER
+);
+
 CREATE UNIQUE INDEX IF NOT EXISTS idx_series_watch_unique
     ON SeriesWatchState (accountId, mode, categoryId, seriesId);
 
 CREATE UNIQUE INDEX IF NOT EXISTS idx_vod_watch_unique
     ON VodWatchState (accountId, categoryId, vodId);
+
+CREATE INDEX IF NOT EXISTS idx_background_job_unique_key_status
+    ON BackgroundJob (uniqueKey, status);
+
+CREATE INDEX IF NOT EXISTS idx_epg_channel_account_name
+    ON EpgChannel (accountId, guideKey, nameKey);
+
+CREATE INDEX IF NOT EXISTS idx_epg_programme_channel_stop
+    ON EpgProgramme (accountId, guideKey, channelKey, stopMs);
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS BackgroundJob (
+    id INTEGER PRIMARY KEY,
+    jobId TEXT NOT NULL UNIQUE,
+    jobName TEXT NOT NULL,
+    uniqueKey TEXT,
+    parametersJson TEXT,
+    requiresNetwork INTEGER,
+    status TEXT,
+    progressPercent INTEGER,
+    message TEXT,
+    createdAt INTEGER,
+    updatedAt INTEGER
+);
+CREATE INDEX IF NOT EXISTS idx_background_job_unique_key_status ON BackgroundJob(uniqueKey, status);
@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS EpgChannel (
+    id INTEGER PRIMARY KEY,
+    accountId TEXT NOT NULL,
+    guideKey TEXT NOT NULL,
+    channelKey TEXT NOT NULL,
+    displayName TEXT,
+    nameKey TEXT
+);
+CREATE INDEX IF NOT EXISTS idx_epg_channel_account_name ON EpgChannel(accountId, guideKey, nameKey);
+CREATE TABLE IF NOT EXISTS EpgProgramme (
+    id INTEGER PRIMARY KEY,
+    accountId TEXT NOT NULL,
+    guideKey TEXT NOT NULL,
+    channelKey TEXT NOT NULL,
+    startMs INTEGER NOT NULL,
+    stopMs INTEGER NOT NULL,
+    title TEXT,
+    subTitle TEXT,
+    description TEXT,
+    category TEXT
+);
+CREATE INDEX IF NOT EXISTS idx_epg_programme_channel_stop ON EpgProgramme(accountId, guideKey, channelKey, stopMs);
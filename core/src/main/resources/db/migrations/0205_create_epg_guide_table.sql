@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS EpgGuide (
+    id INTEGER PRIMARY KEY,
+    accountId TEXT NOT NULL UNIQUE,
+    guideKey TEXT NOT NULL
+);
@@ -0,0 +1 @@
+--@add_column Channel extraJson TEXT
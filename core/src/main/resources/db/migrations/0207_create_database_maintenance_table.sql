@@ -0,0 +1,4 @@
+CREATE TABLE IF NOT EXISTS DatabaseMaintenance (
+    id INTEGER PRIMARY KEY,
+    lastRunAt INTEGER
+);
@@ -32,6 +32,7 @@ class ChannelDbCoverageTest extends DbBackedTest {
 
         Channel first = new Channel("ch-1", "One", "1", "cmd://1", null, null, null, "logo1", 0, 1, 1, null, null, null, null, null);
         Channel second = new Channel("ch-2", "Two", "2", "cmd://2", null, null, null, "logo2", 0, 1, 1, "widevine", "http://license", null, "addon", "dash");
+        second.setExtraJson("{\"epg_channel_id\":\"two.uk\"}");
 
         ChannelDb.insert(first, savedCategory);
         ChannelDb.insert(second, savedCategory);
@@ -48,6 +49,7 @@ class ChannelDbCoverageTest extends DbBackedTest {
         assertNotNull(fetched);
         assertEquals("Two", fetched.getName());
         assertEquals("http://license", fetched.getDrmLicenseUrl());
+        assertEquals("{\"epg_channel_id\":\"two.uk\"}", fetched.getExtraJson());
         assertNull(channelDb.getChannelByChannelIdAndAccount("missing", savedAccount.getDbId()));
 
         channelDb.deleteByAccount(savedAccount.getDbId());
@@ -0,0 +1,64 @@
+package com.uiptv.service;
+
+import com.uiptv.model.Account;
+import com.uiptv.util.AccountType;
+import com.uiptv.util.HostCircuitBreaker;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AccountHealthServiceTest {
+    private final AccountHealthService service = AccountHealthService.getInstance();
+
+    @Test
+    void providerHost_followsTheUrlEachAccountTypeTalksTo() {
+        assertEquals("xtream.health.test:8080", AccountHealthService.providerHost(
+                account("x", "http://Xtream.Health.Test:8080", AccountType.XTREME_API, null)));
+        assertEquals("m3u.health.test", AccountHealthService.providerHost(
+                account("m", null, AccountType.M3U8_URL, "https://m3u.health.test/list.m3u8")));
+        assertEquals("", AccountHealthService.providerHost(
+                account("f", null, AccountType.M3U8_LOCAL, "/tmp/list.m3u8")));
+    }
+
+    @Test
+    void healthReflectsTheBreakerWindowOfTheProviderHost() {
+        Account down = account("down", "http://down.health.test", AccountType.XTREME_API, null);
+        Account degraded = account("degraded", "http://degraded.health.test", AccountType.XTREME_API, null);
+        record("down.health.test", 10, 10);
+        record("degraded.health.test", 10, 4);
+
+        AccountHealthService.AccountHealth downHealth = service.health(down);
+        assertEquals(AccountHealthService.HealthStatus.DOWN, downHealth.status());
+        assertEquals(0, downHealth.score());
+        assertEquals(30, downHealth.retryAfterSeconds());
+        assertEquals(AccountHealthService.HealthStatus.DEGRADED, service.health(degraded).status());
+        assertEquals(AccountHealthService.HealthStatus.HEALTHY,
+                service.health(account("fresh", "http://fresh.health.test", AccountType.XTREME_API, null)).status());
+    }
+
+    @Test
+    void orderByHealth_putsHealthyProvidersFirstAndKeepsTiesInOrder() {
+        Account failing = account("failing", "http://failing.order.test", AccountType.XTREME_API, null);
+        Account first = account("first", "http://first.order.test", AccountType.XTREME_API, null);
+        Account shaky = account("shaky", "http://shaky.order.test", AccountType.XTREME_API, null);
+        Account second = account("second", "http://second.order.test", AccountType.XTREME_API, null);
+        record("failing.order.test", 10, 10);
+        record("shaky.order.test", 10, 3);
+
+        assertEquals(List.of(first, second, shaky, failing),
+                service.orderByHealth(List.of(failing, first, shaky, second)));
+    }
+
+    private static void record(String host, int calls, int failures) {
+        for (int i = 0; i < calls; i++) {
+            HostCircuitBreaker.getInstance().record(host, TimeUnit.MILLISECONDS.toNanos(20), i < failures ? 503 : 200, null);
+        }
+    }
+
+    private static Account account(String name, String url, AccountType type, String m3u8Path) {
+        return new Account(name, "user", "pass", url, null, null, null, null, null, null, type, null, m3u8Path, false);
+    }
+}
@@ -0,0 +1,147 @@
+package com.uiptv.service;
+
+import com.uiptv.model.Account;
+import com.uiptv.util.AccountType;
+import com.uiptv.util.HostCircuitBreaker;
+import com.uiptv.util.TextParserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountImportServiceTest extends DbBackedTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutDownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void importAccounts_skipsAccountsAlreadyPresentAndSavesTheRest() {
+        AccountService.getInstance().save(new Account("portal.example(1)", null, null, "http://portal.example/c", "00:11:22:33:44:01",
+                "00:11:22:33:44:01", null, null, null, null, AccountType.STALKER_PORTAL, null, null, false));
+        AccountImportService service = new AccountImportService(_ -> AccountImportService.Status.VALID, executor, 1);
+        List<AccountImportService.ImportIssue> issues = new CopyOnWriteArrayList<>();
+
+        AccountImportService.ImportReport report = service.importAccounts("""
+                http://portal.example/c
+                00:11:22:33:44:01
+                00:11:22:33:44:02
+                00:11:22:33:44:02
+                """, TextParserService.MODE_STALKER, false, false, false, new AccountImportService.ImportListener() {
+            @Override
+            public void onIssue(AccountImportService.ImportIssue issue) {
+                issues.add(issue);
+            }
+        });
+
+        assertEquals(1, report.created().size());
+        assertEquals("00:11:22:33:44:02", report.created().get(0).getMacAddress());
+        assertNotNull(report.created().get(0).getDbId());
+        assertEquals(2, report.duplicates());
+        assertEquals(2, issues.size());
+        assertTrue(issues.stream().allMatch(issue -> issue.problem() == AccountImportService.Problem.DUPLICATE));
+        assertEquals(2, AccountService.getInstance().getAll().size());
+    }
+
+    @Test
+    void importAccounts_stripsMacsAlreadyPresentFromAGroupedAccount() {
+        AccountService.getInstance().save(new Account("portal.example(1)", null, null, "http://portal.example/c", "00:11:22:33:44:01",
+                "00:11:22:33:44:01", null, null, null, null, AccountType.STALKER_PORTAL, null, null, false));
+        AccountImportService service = new AccountImportService(_ -> AccountImportService.Status.VALID, executor, 1);
+
+        AccountImportService.ImportReport report = service.importAccounts("""
+                http://portal.example/c
+                00:11:22:33:44:01
+                00:11:22:33:44:02
+                00:11:22:33:44:03
+                """, TextParserService.MODE_STALKER, true, false, false, null);
+
+        assertEquals(1, report.created().size());
+        Account grouped = report.created().get(0);
+        assertEquals("00:11:22:33:44:02", grouped.getMacAddress());
+        assertEquals("00:11:22:33:44:02,00:11:22:33:44:03", grouped.getMacAddressList());
+        assertEquals(1, report.duplicates());
+        assertEquals(List.of(new AccountImportService.ImportIssue(grouped.getAccountName(), AccountImportService.Problem.DUPLICATE,
+                "00:11:22:33:44:01")), report.issues());
+        assertEquals("00:11:22:33:44:02,00:11:22:33:44:03",
+                AccountService.getInstance().getAll().get(grouped.getAccountName()).getMacAddressList());
+    }
+
+    @Test
+    void importAccounts_validatesNewAccountsWithBoundedConcurrencyPerHost() {
+        Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        AtomicInteger maxPerHost = new AtomicInteger();
+        AccountImportService service = new AccountImportService(account -> {
+            AtomicInteger host = inFlight.computeIfAbsent(HostCircuitBreaker.hostKey(account.getUrl()), _ -> new AtomicInteger());
+            maxPerHost.accumulateAndGet(host.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+            } finally {
+                host.decrementAndGet();
+            }
+            return account.getUrl().contains("dead") ? AccountImportService.Status.INVALID : AccountImportService.Status.VALID;
+        }, executor, 2);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            text.append("http://host-a.example/list").append(i).append(".m3u\n");
+            text.append("http://host-b.example/").append(i == 0 ? "dead" : "list" + i).append(".m3u\n");
+        }
+        AtomicInteger lastProgress = new AtomicInteger();
+
+        AccountImportService.ImportReport report = service.importAccounts(text.toString(), TextParserService.MODE_M3U, false,
+                false, true, new AccountImportService.ImportListener() {
+                    @Override
+                    public void onProgress(AccountImportService.Phase phase, int done, int total) {
+                        if (phase == AccountImportService.Phase.VALIDATING) {
+                            lastProgress.accumulateAndGet(done, Math::max);
+                        }
+                    }
+                });
+
+        assertEquals(12, report.created().size());
+        assertEquals(12, report.validations().size());
+        assertEquals(12, lastProgress.get());
+        assertTrue(maxPerHost.get() <= 2);
+        assertEquals(1, report.issues().size());
+        assertEquals(AccountImportService.Problem.INVALID, report.issues().get(0).problem());
+    }
+
+    @Test
+    void importAccounts_stopsStartingChecksOnceCancelled() {
+        AtomicInteger checks = new AtomicInteger();
+        AccountImportService service = new AccountImportService(_ -> {
+            checks.incrementAndGet();
+            return AccountImportService.Status.VALID;
+        }, executor, 1);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            text.append("http://host-a.example/list").append(i).append(".m3u\n");
+        }
+
+        AccountImportService.ImportReport report = service.importAccounts(text.toString(), TextParserService.MODE_M3U, false,
+                false, true, new AccountImportService.ImportListener() {
+                    @Override
+                    public boolean isCancelled() {
+                        return checks.get() >= 2;
+                    }
+                });
+
+        assertEquals(5, report.created().size());
+        assertEquals(2, checks.get());
+        assertEquals(2, report.validations().size());
+    }
+}
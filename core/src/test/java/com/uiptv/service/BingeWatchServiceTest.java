@@ -110,6 +110,16 @@ class BingeWatchServiceTest {
         assertEquals("", service.buildPlaylistUrl(""));
     }
 
+    @Test
+    void durationMs_parsesProviderDurationFormats() {
+        assertEquals(2_712_000L, BingeWatchService.durationMs("00:45:12"));
+        assertEquals(2_712_000L, BingeWatchService.durationMs("45:12"));
+        assertEquals(2_700_000L, BingeWatchService.durationMs("45"));
+        assertEquals(0L, BingeWatchService.durationMs(""));
+        assertEquals(0L, BingeWatchService.durationMs("45 min"));
+        assertEquals(0L, BingeWatchService.durationMs("1:2:3:4"));
+    }
+
     private Channel episode(String id, String season, String episodeNumber) {
         Channel channel = new Channel();
         channel.setChannelId(id);
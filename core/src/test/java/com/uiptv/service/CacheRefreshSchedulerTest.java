@@ -0,0 +1,71 @@
+package com.uiptv.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheRefreshSchedulerTest {
+    private static final RandomGenerator EARLIEST = new RandomGenerator() {
+        @Override
+        public long nextLong() {
+            return 0;
+        }
+
+        @Override
+        public long nextLong(long bound) {
+            return 0;
+        }
+    };
+    private static final RandomGenerator LATEST = new RandomGenerator() {
+        @Override
+        public long nextLong() {
+            return 0;
+        }
+
+        @Override
+        public long nextLong(long bound) {
+            return bound - 1;
+        }
+    };
+
+    @Test
+    void delayUntilNextRun_beforeWindowWaitsForWindowStart() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 1, 0);
+
+        assertEquals(Duration.ofHours(2), CacheRefreshScheduler.delayUntilNextRun(now, LocalTime.of(3, 0), LocalTime.of(5, 0), EARLIEST));
+        assertEquals(Duration.ofHours(4).minusMillis(1),
+                CacheRefreshScheduler.delayUntilNextRun(now, LocalTime.of(3, 0), LocalTime.of(5, 0), LATEST));
+    }
+
+    @Test
+    void delayUntilNextRun_afterWindowRollsToNextDay() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 6, 0);
+
+        assertEquals(Duration.ofHours(21), CacheRefreshScheduler.delayUntilNextRun(now, LocalTime.of(3, 0), LocalTime.of(5, 0), EARLIEST));
+    }
+
+    @Test
+    void delayUntilNextRun_insideWindowPicksFromRemainder() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 4, 30);
+
+        assertEquals(Duration.ZERO, CacheRefreshScheduler.delayUntilNextRun(now, LocalTime.of(3, 0), LocalTime.of(5, 0), EARLIEST));
+        assertEquals(Duration.ofMinutes(30).minusMillis(1),
+                CacheRefreshScheduler.delayUntilNextRun(now, LocalTime.of(3, 0), LocalTime.of(5, 0), LATEST));
+    }
+
+    @Test
+    void delayUntilNextRun_supportsWindowsSpanningMidnight() {
+        LocalTime start = LocalTime.of(23, 0);
+        LocalTime end = LocalTime.of(1, 0);
+
+        assertEquals(Duration.ofHours(11), CacheRefreshScheduler.delayUntilNextRun(LocalDateTime.of(2026, 3, 1, 12, 0), start, end, EARLIEST));
+        assertEquals(Duration.ZERO, CacheRefreshScheduler.delayUntilNextRun(LocalDateTime.of(2026, 3, 1, 0, 30), start, end, EARLIEST));
+        assertEquals(Duration.ofMinutes(30).minusMillis(1),
+                CacheRefreshScheduler.delayUntilNextRun(LocalDateTime.of(2026, 3, 1, 0, 30), start, end, LATEST));
+    }
+}
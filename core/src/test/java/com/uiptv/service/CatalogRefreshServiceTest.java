@@ -0,0 +1,79 @@
+package com.uiptv.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogRefreshServiceTest {
+
+    @Test
+    void schedule_deduplicatesRefreshesForTheSameCategory() throws Exception {
+        CatalogRefreshService service = new CatalogRefreshService(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(service.schedule(CatalogRefreshEvent.Kind.CHANNELS, "1", "vod", "10", () -> {
+            runs.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return 3;
+        }));
+        assertFalse(service.schedule(CatalogRefreshEvent.Kind.CHANNELS, "1", "vod", "10", () -> {
+            runs.incrementAndGet();
+            return 3;
+        }));
+        assertTrue(service.isRefreshing(CatalogRefreshEvent.Kind.CHANNELS, "1", "vod", "10"));
+
+        CompletableFuture<List<CatalogRefreshEvent>> pending = service.eventsAfter(0, 5_000);
+        assertFalse(pending.isDone());
+        release.countDown();
+        List<CatalogRefreshEvent> events = pending.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, runs.get());
+        assertEquals(1, events.size());
+        assertEquals("10", events.getFirst().categoryDbId());
+        assertEquals(3, events.getFirst().itemCount());
+        assertEquals(1, service.getRevision());
+    }
+
+    @Test
+    void eventsAfter_wakesListenersAndSkipsEmptyRefreshes() throws Exception {
+        CatalogRefreshService service = new CatalogRefreshService(1);
+        CountDownLatch notified = new CountDownLatch(1);
+        service.addListener(event -> notified.countDown());
+
+        service.schedule(CatalogRefreshEvent.Kind.CATEGORIES, "1", "series", null, () -> 0);
+        assertTrue(service.eventsAfter(0, 200).get().isEmpty());
+
+        service.schedule(CatalogRefreshEvent.Kind.CATEGORIES, "1", "series", null, () -> 12);
+        List<CatalogRefreshEvent> events = service.eventsAfter(0, 5_000).get();
+
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+        assertEquals(1, events.size());
+        assertEquals(CatalogRefreshEvent.Kind.CATEGORIES, events.getFirst().kind());
+        assertEquals("", events.getFirst().categoryDbId());
+        assertTrue(service.eventsAfter(events.getFirst().revision(), 50).get().isEmpty());
+    }
+
+    @Test
+    void schedule_allowsNewRefreshAfterFailure() throws Exception {
+        CatalogRefreshService service = new CatalogRefreshService(1);
+        service.schedule(CatalogRefreshEvent.Kind.CHANNELS, "1", "vod", "10", () -> {
+            throw new IllegalStateException("provider down");
+        });
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.isRefreshing(CatalogRefreshEvent.Kind.CHANNELS, "1", "vod", "10") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(service.schedule(CatalogRefreshEvent.Kind.CHANNELS, "1", "vod", "10", () -> 1));
+        assertEquals(1, service.eventsAfter(0, 5_000).get().size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.uiptv.service;
+
+import com.uiptv.model.Account;
+import com.uiptv.model.Channel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactChannelStoreTest extends DbBackedTest {
+
+    @Test
+    void table_materializesRowsEqualToTheSourceChannels() {
+        List<Channel> channels = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Channel channel = new Channel("ch-" + i, "Channel " + i, String.valueOf(i),
+                    "http://host.example:8080/live/user/pass/" + i + ".ts", "", null, "ffrt http://localhost/ch/" + i + "_",
+                    "http://img.example/logos/" + i + ".png", i % 2, 1, i % 3, i % 10 == 0 ? "widevine" : "", null,
+                    i % 10 == 0 ? Map.of("kid", "key") : null, "", "mpd");
+            channel.setDbId(String.valueOf(i + 1));
+            channel.setCategoryId("cat-1");
+            channel.setSeason("1");
+            channel.setWatched(i % 7 == 0);
+            channel.setExtraJson("{\"n\":" + i + "}");
+            channels.add(channel);
+        }
+        Channel noSlash = new Channel();
+        noSlash.setCmd("plain-cmd");
+        channels.add(noSlash);
+
+        CompactChannelTable table = CompactChannelTable.of(channels);
+
+        assertEquals(channels.size(), table.size());
+        for (int i = 0; i < channels.size(); i++) {
+            assertEquals(channels.get(i), table.get(i));
+        }
+        assertNull(table.get(500).getLogo());
+        assertEquals(channels.subList(498, 501), table.rows(498, 1_000));
+        assertTrue(table.rows(600, 700).isEmpty());
+        // URL prefixes and coded values are shared instead of stored per row.
+        assertTrue(table.dictionarySize() < 20, "dictionary size " + table.dictionarySize());
+    }
+
+    @Test
+    void table_isServedFromMemoryUntilTheAccountCacheIsCleared() throws Exception {
+        CompactChannelStore store = CompactChannelStore.getInstance();
+        Account account = new Account();
+        account.setDbId("store-account");
+        AtomicInteger loads = new AtomicInteger();
+        CompactChannelStore.ChannelLoader loader = () -> {
+            loads.incrementAndGet();
+            Channel channel = new Channel();
+            channel.setChannelId("c-" + loads.get());
+            return List.of(channel);
+        };
+
+        CompactChannelTable first = store.table(account.getDbId(), "itv", "cat-1", loader);
+        assertSame(first, store.table(account.getDbId(), "itv", "cat-1", loader));
+        store.table("other-account", "itv", "cat-1", loader);
+        assertEquals(2, loads.get());
+
+        ConfigurationService.getInstance().clearCache(account);
+
+        CompactChannelTable reloaded = store.table(account.getDbId(), "itv", "cat-1", loader);
+        assertEquals("c-3", reloaded.get(0).getChannelId());
+        store.table("other-account", "itv", "cat-1", loader);
+        assertEquals(3, loads.get());
+    }
+}
@@ -0,0 +1,136 @@
+package com.uiptv.service;
+
+import com.uiptv.db.DatabaseUtils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DatabaseDeltaSyncTest extends DbBackedTest {
+
+    @Test
+    void summarizeForDeltaSync_coversExactlyTheSyncableTables() throws Exception {
+        Path dbPath = tempDir.resolve("delta-summary.db");
+        createSchema(dbPath);
+
+        assertEquals(DatabaseUtils.Syncable.stream().map(DatabaseUtils.DbTable::getTableName).collect(Collectors.toSet()),
+                DatabaseSyncService.getInstance().summarizeForDeltaSync(dbPath.toString(), false).tables().keySet());
+    }
+
+    @Test
+    void applyDelta_matchesRowsByNaturalKeyWhenLocalIdsDiffer() throws Exception {
+        Path sourcePath = tempDir.resolve("delta-source.db");
+        Path targetPath = tempDir.resolve("delta-target.db");
+        createSchema(sourcePath);
+        createSchema(targetPath);
+        execute(sourcePath,
+                "INSERT INTO Account (id, accountName, url, type) VALUES (1, 'Alpha', 'http://alpha.test/v2', 'M3U8_URL'), (2, 'Beta', 'http://beta.test', 'M3U8_URL')",
+                "INSERT INTO AccountInfo (accountId, accountStatus) VALUES ('1', 'active')",
+                "INSERT INTO BookmarkCategory (id, name) VALUES (1, 'Sports')",
+                "INSERT INTO Bookmark (id, accountName, categoryTitle, channelId, channelName, categoryId) VALUES (1, 'Alpha', 'News', 'c1', 'One', '1')",
+                "INSERT INTO BookmarkOrder (bookmark_db_id, category_id, display_order) VALUES ('1', '1', 3)");
+        execute(targetPath,
+                "INSERT INTO Account (id, accountName, url, type) VALUES (1, 'Beta', 'http://beta.test', 'M3U8_URL'), (2, 'Alpha', 'http://alpha.test/v1', 'M3U8_URL')",
+                "INSERT INTO AccountInfo (accountId, accountStatus) VALUES ('2', 'expired')",
+                "INSERT INTO BookmarkCategory (id, name) VALUES (7, 'Sports')",
+                "INSERT INTO Category (categoryId, accountId, title) VALUES ('c-beta', '1', 'Beta'), ('c-alpha', '2', 'Alpha')");
+
+        DatabaseSyncService syncService = DatabaseSyncService.getInstance();
+        Path deltaPath = syncService.createDeltaSnapshot(sourcePath.toString(),
+                syncService.summarizeForDeltaSync(targetPath.toString(), false), false);
+        try {
+            syncService.applyDeltaWithReport(deltaPath.toString(), targetPath.toString(), false, false, null);
+        } finally {
+            Files.deleteIfExists(deltaPath);
+        }
+
+        assertEquals("1|Beta|http://beta.test;2|Alpha|http://alpha.test/v2",
+                query(targetPath, "SELECT id || '|' || accountName || '|' || url FROM Account ORDER BY id"));
+        assertEquals("2|active", query(targetPath, "SELECT accountId || '|' || accountStatus FROM AccountInfo"));
+        assertEquals("7", query(targetPath, "SELECT categoryId FROM Bookmark"));
+        assertEquals("7|3", query(targetPath, "SELECT bo.category_id || '|' || bo.display_order FROM BookmarkOrder bo "
+                + "JOIN Bookmark b ON CAST(b.id AS TEXT) = bo.bookmark_db_id"));
+        assertEquals("c-beta", query(targetPath, "SELECT categoryId FROM Category"));
+        assertEquals(syncService.summarizeForDeltaSync(sourcePath.toString(), false),
+                syncService.summarizeForDeltaSync(targetPath.toString(), false));
+    }
+
+    @Test
+    void applyDelta_carriesWatchStateAndPublishedSelectionsUnderLocalAccountIds() throws Exception {
+        Path sourcePath = tempDir.resolve("delta-watch-source.db");
+        Path targetPath = tempDir.resolve("delta-watch-target.db");
+        createSchema(sourcePath);
+        createSchema(targetPath);
+        execute(sourcePath,
+                "INSERT INTO Account (id, accountName, url, type) VALUES (1, 'Alpha', 'http://alpha.test', 'M3U8_URL'), (2, 'Beta', 'http://beta.test', 'M3U8_URL')",
+                "INSERT INTO VodWatchState (accountId, categoryId, vodId, vodName, updatedAt) VALUES ('1', 'movies', 'v1', 'Film', 200)",
+                "INSERT INTO SeriesWatchState (accountId, mode, categoryId, seriesId, episodeId, episodeNum, updatedAt) "
+                        + "VALUES ('1', 'series', 'drama', 's1', 'e2', 2, 300)",
+                "INSERT INTO SeriesWatchingNowSnapshot (accountId, categoryId, seriesId, seriesTitle, updatedAt) VALUES ('1', 'drama', 's1', 'Show', 300)",
+                "INSERT INTO PublishedM3uSelection (accountId) VALUES ('2')",
+                "INSERT INTO PublishedM3uCategorySelection (accountId, categoryName, selected) VALUES ('2', 'News', 'true')",
+                "INSERT INTO PublishedM3uChannelSelection (accountId, categoryName, channelId, selected) VALUES ('2', 'News', 'c9', 'false')");
+        execute(targetPath,
+                "INSERT INTO Account (id, accountName, url, type) VALUES (5, 'Beta', 'http://beta.test', 'M3U8_URL'), (6, 'Alpha', 'http://alpha.test', 'M3U8_URL')",
+                "INSERT INTO VodWatchState (accountId, categoryId, vodId, vodName, updatedAt) VALUES ('6', 'movies', 'v1', 'Film', 100), "
+                        + "('6', 'movies', 'v-old', 'Gone', 50)",
+                "INSERT INTO SeriesWatchState (accountId, mode, categoryId, seriesId, episodeId, episodeNum, updatedAt) "
+                        + "VALUES ('6', 'series', 'drama', 's1', 'e1', 1, 100)");
+
+        DatabaseSyncService syncService = DatabaseSyncService.getInstance();
+        Path deltaPath = syncService.createDeltaSnapshot(sourcePath.toString(),
+                syncService.summarizeForDeltaSync(targetPath.toString(), false), false);
+        try {
+            syncService.applyDeltaWithReport(deltaPath.toString(), targetPath.toString(), false, false, null);
+        } finally {
+            Files.deleteIfExists(deltaPath);
+        }
+
+        assertEquals("6|v1|200", query(targetPath, "SELECT accountId || '|' || vodId || '|' || updatedAt FROM VodWatchState"));
+        assertEquals("6|e2|2", query(targetPath, "SELECT accountId || '|' || episodeId || '|' || episodeNum FROM SeriesWatchState"));
+        assertEquals("6|Show", query(targetPath, "SELECT accountId || '|' || seriesTitle FROM SeriesWatchingNowSnapshot"));
+        assertEquals("5", query(targetPath, "SELECT accountId FROM PublishedM3uSelection"));
+        assertEquals("5|News|true", query(targetPath, "SELECT accountId || '|' || categoryName || '|' || selected FROM PublishedM3uCategorySelection"));
+        assertEquals("5|c9|false", query(targetPath, "SELECT accountId || '|' || channelId || '|' || selected FROM PublishedM3uChannelSelection"));
+        assertEquals(syncService.summarizeForDeltaSync(sourcePath.toString(), false),
+                syncService.summarizeForDeltaSync(targetPath.toString(), false));
+    }
+
+    private void createSchema(Path dbPath) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+             Statement statement = conn.createStatement()) {
+            for (DatabaseUtils.DbTable table : DatabaseUtils.DbTable.values()) {
+                statement.execute(DatabaseUtils.createTableSql(table));
+            }
+        }
+    }
+
+    private void execute(Path dbPath, String... sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+             Statement statement = conn.createStatement()) {
+            for (String update : sql) {
+                statement.executeUpdate(update);
+            }
+        }
+    }
+
+    private String query(Path dbPath, String sql) throws SQLException {
+        StringBuilder result = new StringBuilder();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+             Statement statement = conn.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                result.append(result.isEmpty() ? "" : ";").append(resultSet.getString(1));
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.uiptv.service;
+
+import com.uiptv.db.SQLConnection;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseMaintenanceServiceTest extends DbBackedTest {
+
+    @Test
+    void runMaintenance_reclaimsChurnedPagesAndTruncatesWal() throws Exception {
+        try (Connection conn = SQLConnection.connect(); Statement statement = conn.createStatement()) {
+            statement.execute("CREATE TABLE maintenance_probe (id INTEGER PRIMARY KEY, payload BLOB)");
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO maintenance_probe(payload) VALUES (?)")) {
+                for (int i = 0; i < 400; i++) {
+                    insert.setBytes(1, new byte[4096]);
+                    insert.executeUpdate();
+                }
+            }
+            statement.execute("DROP TABLE maintenance_probe");
+        }
+        DatabaseMaintenanceService service = DatabaseMaintenanceService.getInstance();
+
+        DatabaseMaintenanceService.MaintenanceReport first = service.runMaintenance();
+
+        assertTrue(first.before().freePages() > 0);
+        assertEquals(0, first.after().freePages());
+        assertTrue(first.after().fileBytes() < first.before().fileBytes());
+        assertEquals(0, first.after().walBytes());
+        try (Connection conn = SQLConnection.connect(); Statement statement = conn.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("PRAGMA auto_vacuum")) {
+                assertTrue(rs.next());
+                assertEquals(2, rs.getInt(1));
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT 1 FROM sqlite_master WHERE name = 'sqlite_stat1'")) {
+                assertTrue(rs.next());
+            }
+        }
+
+        DatabaseMaintenanceService.MaintenanceReport second = service.runMaintenance();
+        assertEquals(0, second.after().freePages());
+        try (Connection conn = SQLConnection.connect(); Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT lastRunAt FROM DatabaseMaintenance")) {
+            assertTrue(rs.next());
+            assertEquals(service.lastRunMs(), rs.getLong(1));
+            assertTrue(rs.getLong(1) > 0);
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    void isDue_waitsForIntervalAndIdleDatabase() {
+        assertTrue(DatabaseMaintenanceService.isDue(10_000L, 0L, 5_000L, 10_000L, 5_000L));
+        assertFalse(DatabaseMaintenanceService.isDue(9_999L, 0L, 0L, 10_000L, 5_000L));
+        assertFalse(DatabaseMaintenanceService.isDue(10_000L, 0L, 6_000L, 10_000L, 5_000L));
+    }
+}
@@ -0,0 +1,171 @@
+package com.uiptv.service;
+
+import com.uiptv.db.EpgDb;
+import com.uiptv.db.SQLConnection;
+import com.uiptv.model.Account;
+import com.uiptv.model.Channel;
+import com.uiptv.model.EpgProgramme;
+import com.uiptv.util.AccountType;
+import com.uiptv.util.XmltvParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EpgServiceTest extends DbBackedTest {
+    private static final String GUIDE = """
+            <tv>
+              <channel id="bbc1.uk"><display-name>BBC One HD</display-name></channel>
+              <channel id="news.uk"><display-name>News UK</display-name></channel>
+              <programme channel="bbc1.uk" start="20260301080000" stop="20260301090000"><title>Long ago</title></programme>
+              <programme channel="bbc1.uk" start="20260301190000" stop="20260301200000"><title>Quiz</title></programme>
+              <programme channel="bbc1.uk" start="20260301200000" stop="20260301210000"><title>Drama</title></programme>
+              <programme channel="bbc1.uk" start="20260301210000" stop="20260301220000"><title>Late News</title></programme>
+              <programme channel="bbc1.uk" start="20260320200000" stop="20260320210000"><title>Far future</title></programme>
+              <programme channel="news.uk" start="20260301200000" stop="20260301203000"><title>Headlines</title></programme>
+            </tv>
+            """;
+    private static final long NOW = XmltvParser.parseTime("20260301203000");
+
+    private final EpgService service = EpgService.getInstance();
+
+    @Test
+    void ingest_storesTheRetentionWindowAndAnswersNowNext() throws IOException {
+        Account account = account("1", AccountType.M3U8_URL);
+
+        EpgService.GuideIngestResult result = service.ingest("1", plain(GUIDE), NOW, () -> false);
+
+        assertEquals(2, result.channels());
+        assertEquals(4, result.programmes());
+        assertEquals(2, result.skippedProgrammes());
+        EpgService.NowNext nowNext = service.nowNext(account, channel("bbc1.uk", "BBC One HD"), NOW);
+        assertEquals("Drama", nowNext.now().getTitle());
+        assertEquals("Late News", nowNext.next().getTitle());
+        EpgService.NowNext betweenShows = service.nowNext(account, channel("news.uk", null), NOW + 1);
+        assertNull(betweenShows.now());
+        assertTrue(service.nowNext(account, channel("missing", null), NOW).isEmpty());
+    }
+
+    @Test
+    void programmes_returnsTheProgrammesOverlappingTheWindow() throws IOException {
+        Account account = account("1", AccountType.M3U8_URL);
+        service.ingest("1", gzip(GUIDE), NOW, () -> false);
+
+        List<EpgProgramme> window = service.programmes(account, channel("bbc1.uk", null),
+                NOW - TimeUnit.MINUTES.toMillis(45), NOW + TimeUnit.MINUTES.toMillis(30));
+
+        assertEquals(List.of("Quiz", "Drama"), window.stream().map(EpgProgramme::getTitle).toList());
+    }
+
+    @Test
+    void channelKey_fallsBackToTheDisplayName() throws IOException {
+        Account account = account("1", AccountType.XTREME_API);
+        service.ingest("1", plain(GUIDE), NOW, () -> false);
+        Channel byName = channel("4021", "BBC ONE-HD");
+        Channel byEpgId = channel("4022", "Something else");
+        byEpgId.setExtraJson("{\"epg_channel_id\":\"news.uk\"}");
+
+        assertEquals("bbc1.uk", service.channelKey(account, byName));
+        assertEquals("news.uk", service.channelKey(account, byEpgId));
+        assertNull(service.channelKey(account, channel("4023", "Unknown")));
+        assertEquals("bbcone", EpgService.nameKey(" BBC-One! "));
+    }
+
+    @Test
+    void ingest_keepsThePreviousGuideWhenTheNewOneFailsMidway() throws Exception {
+        Account account = account("1", AccountType.M3U8_URL);
+        service.ingest("1", plain(GUIDE), NOW, () -> false);
+        String truncated = GUIDE.substring(0, GUIDE.indexOf("<programme channel=\"news.uk\""));
+
+        assertThrows(IOException.class, () -> service.ingest("1", plain(truncated.replace("Drama", "Replaced")), NOW, () -> false));
+
+        assertEquals(4, EpgDb.get().countProgrammes("1"));
+        assertEquals("Drama", service.nowNext(account, channel("bbc1.uk", null), NOW).now().getTitle());
+        assertEquals(4, storedProgrammeRows("1"));
+    }
+
+    @Test
+    void replaceGuide_commitsInBatchesAndSwapsTheGuideInAtCommit() throws Exception {
+        Account account = account("1", AccountType.M3U8_URL);
+        service.ingest("1", plain(GUIDE), NOW, () -> false);
+        int programmes = 2500;
+
+        try (EpgDb.GuideWriter writer = EpgDb.get().replaceGuide("1")) {
+            for (int i = 0; i < programmes; i++) {
+                long start = NOW + TimeUnit.MINUTES.toMillis(i);
+                writer.addProgramme("bbc1.uk", start, start + TimeUnit.MINUTES.toMillis(1), "Slot " + i, null, null, null);
+            }
+            // Batches already written are committed, so other writers are not held up by the refresh.
+            EpgDb.get().deleteByAccount("2");
+            assertEquals(4, EpgDb.get().countProgrammes("1"));
+            assertEquals("Drama", service.nowNext(account, channel("bbc1.uk", null), NOW).now().getTitle());
+            assertThrows(IllegalStateException.class, () -> EpgDb.get().replaceGuide("1"));
+            writer.commit();
+        }
+
+        assertEquals(programmes, EpgDb.get().countProgrammes("1"));
+        assertEquals("Slot 0", service.nowNext(account, channel("bbc1.uk", null), NOW).now().getTitle());
+        assertEquals(programmes, storedProgrammeRows("1"));
+    }
+
+    @Test
+    void guideSource_prefersTheEpgSettingThenXtremeXmltv() {
+        Account xtreme = account("1", AccountType.XTREME_API);
+        xtreme.setUrl("http://xtream.test:8080/");
+        assertTrue(EpgService.guideSource(xtreme).startsWith("http://xtream.test:8080/"));
+        assertTrue(EpgService.guideSource(xtreme).endsWith("xmltv.php?username=user&password=pass"));
+        xtreme.setEpg("http://guide.test/epg.xml.gz");
+        assertEquals("http://guide.test/epg.xml.gz", EpgService.guideSource(xtreme));
+        assertEquals("", EpgService.guideSource(account("2", AccountType.M3U8_URL)));
+    }
+
+    private static int storedProgrammeRows(String accountId) throws SQLException {
+        try (Connection conn = SQLConnection.connect();
+             PreparedStatement statement = conn.prepareStatement("SELECT COUNT(*) FROM EpgProgramme WHERE accountId=?")) {
+            statement.setString(1, accountId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static Account account(String dbId, AccountType type) {
+        Account account = new Account("guide-" + dbId, "user", "pass", null, null, null, null, null, null, null, type, null, null, false);
+        account.setDbId(dbId);
+        return account;
+    }
+
+    private static Channel channel(String channelId, String name) {
+        Channel channel = new Channel();
+        channel.setChannelId(channelId);
+        channel.setName(name);
+        return channel;
+    }
+
+    private static InputStream plain(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream gzip(String xml) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(xml.getBytes(StandardCharsets.UTF_8));
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,110 @@
+package com.uiptv.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NextEpisodePrefetcherTest {
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final List<String> warmed = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void resolvedUrlIsHandedOutOnceAndWarmed() throws Exception {
+        NextEpisodePrefetcher prefetcher = new NextEpisodePrefetcher(executor, clock::get, 60_000L, 0, warmed::add);
+        AtomicInteger resolutions = new AtomicInteger();
+
+        prefetcher.schedule("t\ne2", 0, () -> "http://cdn.test/e2.m3u8?token=" + resolutions.incrementAndGet());
+        prefetcher.schedule("t\ne2", 0, () -> "http://cdn.test/e2.m3u8?token=" + resolutions.incrementAndGet());
+        awaitWarmed(1);
+
+        assertEquals("http://cdn.test/e2.m3u8?token=1", prefetcher.take("t\ne2", 1_000L));
+        assertEquals(1, resolutions.get());
+        assertEquals(List.of("http://cdn.test/e2.m3u8?token=1"), warmed);
+        assertNull(prefetcher.take("t\ne2", 1_000L));
+    }
+
+    @Test
+    void resolutionOlderThanTheTtlIsNotHandedOut() throws Exception {
+        NextEpisodePrefetcher prefetcher = new NextEpisodePrefetcher(executor, clock::get, 60_000L, 0, warmed::add);
+
+        prefetcher.schedule("t\ne2", 0, () -> "http://cdn.test/e2.m3u8");
+        awaitWarmed(1);
+        clock.addAndGet(60_000L);
+
+        assertNull(prefetcher.take("t\ne2", 1_000L));
+    }
+
+    @Test
+    void prefetchNotYetStartedIsCancelledOnTake() {
+        NextEpisodePrefetcher prefetcher = new NextEpisodePrefetcher(executor, clock::get, 60_000L, 0, warmed::add);
+        AtomicInteger resolutions = new AtomicInteger();
+
+        prefetcher.schedule("t\ne2", TimeUnit.HOURS.toMillis(1), () -> "url-" + resolutions.incrementAndGet());
+
+        assertNull(prefetcher.take("t\ne2", 1_000L));
+        assertEquals(0, prefetcher.pending());
+        assertEquals(0, resolutions.get());
+    }
+
+    @Test
+    void failedResolutionIsAMissAndIsForgotten() throws Exception {
+        NextEpisodePrefetcher prefetcher = new NextEpisodePrefetcher(executor, clock::get, 60_000L, 0, warmed::add);
+
+        prefetcher.schedule("t\ne2", 0, () -> {
+            throw new IllegalStateException("portal down");
+        });
+        executor.submit(() -> null).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, prefetcher.pending());
+        assertNull(prefetcher.take("t\ne2", 1_000L));
+        assertEquals(List.of(), warmed);
+    }
+
+    @Test
+    void untakenUrlIsResolvedAgainBeforeItLapsesThenDropped() throws Exception {
+        NextEpisodePrefetcher prefetcher = new NextEpisodePrefetcher(executor, clock::get, 200L, 1, warmed::add);
+        AtomicInteger resolutions = new AtomicInteger();
+
+        prefetcher.schedule("t\ne2", 0, () -> {
+            clock.addAndGet(150L);
+            return "http://cdn.test/e2.m3u8?token=" + resolutions.incrementAndGet();
+        });
+        awaitWarmed(2);
+        clock.addAndGet(100L);
+
+        assertEquals("http://cdn.test/e2.m3u8?token=2", prefetcher.take("t\ne2", 1_000L));
+        assertEquals(2, resolutions.get());
+
+        prefetcher.schedule("t\ne3", 0, () -> "http://cdn.test/e3.m3u8?token=" + resolutions.incrementAndGet());
+        awaitWarmed(4);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (prefetcher.pending() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, prefetcher.pending());
+        assertEquals(4, resolutions.get());
+    }
+
+    private void awaitWarmed(int count) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (warmed.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
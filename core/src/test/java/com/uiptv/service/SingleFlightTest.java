@@ -0,0 +1,170 @@
+package com.uiptv.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    void run_sharesOneFetchAndReplaysStreamedPagesToJoiners() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        String key = SingleFlight.key("1", "vod", "10", "all");
+        CountDownLatch firstPageSent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger fetches = new AtomicInteger();
+        List<List<String>> leaderPages = new CopyOnWriteArrayList<>();
+        List<List<String>> joinerPages = new CopyOnWriteArrayList<>();
+        List<Integer> joinerProgress = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<List<String>> leader = CompletableFuture.supplyAsync(() -> flight.run(key, leaderPages::add, null, null,
+                (pages, progress, cancelled) -> {
+                    fetches.incrementAndGet();
+                    pages.accept(List.of("a", "b"));
+                    progress.accept(1);
+                    firstPageSent.countDown();
+                    await(release);
+                    pages.accept(List.of("c"));
+                    progress.accept(2);
+                    return List.of("a", "b", "c");
+                }));
+        assertTrue(firstPageSent.await(5, TimeUnit.SECONDS));
+        assertTrue(flight.isInFlight(key));
+
+        CompletableFuture<List<String>> joiner = CompletableFuture.supplyAsync(() -> flight.run(key, joinerPages::add, joinerProgress::add, null,
+                (pages, progress, cancelled) -> {
+                    fetches.incrementAndGet();
+                    return List.of();
+                }));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (joinerPages.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        assertEquals(List.of("a", "b", "c"), leader.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b", "c"), joiner.get(5, TimeUnit.SECONDS));
+        assertEquals(1, fetches.get());
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), leaderPages);
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), joinerPages);
+        assertEquals(List.of(1, 2), joinerProgress);
+        assertFalse(flight.isInFlight(key));
+    }
+
+    @Test
+    void run_slowCallbackDoesNotBlockOtherCallersFromJoining() throws Exception {
+        SingleFlight<String, Void> flight = new SingleFlight<>();
+        String key = SingleFlight.key("1", "itv", "30", "all");
+        CountDownLatch leaderInCallback = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch joinerGotPage = new CountDownLatch(1);
+
+        CompletableFuture<List<String>> leader = CompletableFuture.supplyAsync(() -> flight.run(key, page -> {
+                    leaderInCallback.countDown();
+                    await(release);
+                }, null, null,
+                (pages, progress, cancelled) -> {
+                    pages.accept(List.of("a"));
+                    return List.of("a");
+                }));
+        assertTrue(leaderInCallback.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<List<String>> joiner = CompletableFuture.supplyAsync(() -> flight.run(key, page -> joinerGotPage.countDown(),
+                null, null, (pages, progress, cancelled) -> List.of()));
+
+        assertTrue(joinerGotPage.await(5, TimeUnit.SECONDS));
+        assertFalse(leader.isDone());
+        release.countDown();
+        assertEquals(List.of("a"), leader.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a"), joiner.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void run_cancelsSharedFetchOnlyWhenEveryCallerCancelled() throws Exception {
+        SingleFlight<String, Void> flight = new SingleFlight<>();
+        String key = SingleFlight.key("1", "series", "20", "all");
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean leaderCancelled = new AtomicBoolean();
+        AtomicBoolean joinerCancelled = new AtomicBoolean();
+        AtomicBoolean fetchSawCancel = new AtomicBoolean();
+
+        CompletableFuture<List<String>> leader = CompletableFuture.supplyAsync(() -> flight.run(key, null, null, leaderCancelled::get,
+                (pages, progress, cancelled) -> {
+                    pages.accept(List.of("first"));
+                    started.countDown();
+                    long deadline = System.currentTimeMillis() + 5_000;
+                    while (!cancelled.get() && System.currentTimeMillis() < deadline) {
+                        sleep();
+                    }
+                    fetchSawCancel.set(cancelled.get());
+                    return List.of("partial");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CountDownLatch joined = new CountDownLatch(1);
+        CompletableFuture<List<String>> joiner = CompletableFuture.supplyAsync(() -> flight.run(key, page -> joined.countDown(), null,
+                joinerCancelled::get, (pages, progress, cancelled) -> List.of()));
+        assertTrue(joined.await(5, TimeUnit.SECONDS));
+
+        leaderCancelled.set(true);
+        Thread.sleep(100);
+        assertFalse(leader.isDone());
+
+        joinerCancelled.set(true);
+        assertEquals(List.of(), joiner.get(5, TimeUnit.SECONDS));
+        leader.get(5, TimeUnit.SECONDS);
+        assertTrue(fetchSawCancel.get());
+    }
+
+    @Test
+    void run_propagatesFailureToJoinersAndAllowsRetry() throws Exception {
+        SingleFlight<String, Void> flight = new SingleFlight<>();
+        String key = SingleFlight.key("1", "itv", "30", "all");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<String>> leader = CompletableFuture.supplyAsync(() -> flight.run(key, null, null, null,
+                (pages, progress, cancelled) -> {
+                    pages.accept(List.of("first"));
+                    started.countDown();
+                    await(release);
+                    throw new IllegalStateException("provider down");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CountDownLatch joined = new CountDownLatch(1);
+        CompletableFuture<List<String>> joiner = CompletableFuture.supplyAsync(() -> flight.run(key, page -> joined.countDown(), null, null,
+                (pages, progress, cancelled) -> List.of("unused")));
+        assertTrue(joined.await(5, TimeUnit.SECONDS));
+        release.countDown();
+
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertThrows(Exception.class, () -> joiner.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("retry"), flight.run(key, () -> List.of("retry")));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
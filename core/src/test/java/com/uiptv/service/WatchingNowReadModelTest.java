@@ -0,0 +1,91 @@
+package com.uiptv.service;
+
+import com.uiptv.db.VodChannelDb;
+import com.uiptv.db.VodWatchStateDb;
+import com.uiptv.model.Account;
+import com.uiptv.model.Channel;
+import com.uiptv.model.VodWatchState;
+import com.uiptv.util.AccountType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class WatchingNowReadModelTest extends DbBackedTest {
+
+    @Test
+    void resolve_servesProjectionUntilWatchStateOrCacheChanges() {
+        Account account = createVodAccount("read-model-vod");
+        VodChannelDb.get().saveAll(List.of(provider("100", "Provider Movie")), "cat-db-1", account);
+        VodWatchStateDb.get().upsert(state(account, "100", 100L));
+        WatchingNowVodResolver resolver = new WatchingNowVodResolver();
+
+        assertEquals(1, resolver.resolveForAccount(account).size());
+
+        // Written behind the services' back: the projection does not see it yet.
+        VodWatchStateDb.get().upsert(state(account, "101", 101L));
+        assertEquals(1, resolver.resolveForAccount(account).size());
+
+        Channel movie = provider("102", "Saved Movie");
+        VodWatchStateService.getInstance().save(account, "cat-db-1", movie);
+        List<WatchingNowVodResolver.VodRow> rows = resolver.resolveForAccount(account);
+        assertEquals(3, rows.size());
+
+        Account otherInstance = AccountService.getInstance().getById(account.getDbId());
+        assertSame(otherInstance, resolver.resolveForAccount(otherInstance).getFirst().getAccount());
+
+        VodWatchStateDb.get().upsert(state(account, "103", 103L));
+        ConfigurationService.getInstance().clearCache(account);
+        assertEquals(4, resolver.resolveForAccount(account).size());
+    }
+
+    @Test
+    void resolve_batchesProviderLookupAndPrefersWatchedCategory() {
+        Account account = createVodAccount("read-model-batch");
+        VodChannelDb.get().saveAll(List.of(provider("200", "Other Category")), "cat-db-2", account);
+        VodChannelDb.get().saveAll(List.of(provider("200", "Watched Category"), provider("201", "Second")), "cat-db-1", account);
+        VodWatchStateDb.get().upsert(state(account, "200", 200L));
+        VodWatchState elsewhere = state(account, "201", 201L);
+        elsewhere.setCategoryId("cat-db-9");
+        elsewhere.setVodName("");
+        VodWatchStateDb.get().upsert(elsewhere);
+
+        List<WatchingNowVodResolver.VodRow> rows = new WatchingNowVodResolver().resolveForAccount(account);
+
+        assertEquals(2, rows.size());
+        WatchingNowVodResolver.VodRow watched = rows.stream().filter(row -> "200".equals(row.getState().getVodId())).findFirst().orElseThrow();
+        WatchingNowVodResolver.VodRow fallback = rows.stream().filter(row -> "201".equals(row.getState().getVodId())).findFirst().orElseThrow();
+        assertEquals("cat-db-1", watched.getPlaybackChannel().getCategoryId());
+        assertEquals("Second", fallback.getDisplayTitle());
+    }
+
+    private Account createVodAccount(String name) {
+        Account account = new Account(name, "user", "pass", "http://test.com/xtreme/", null, null, null, null, null, null, AccountType.XTREME_API, null, "http://test.com/xtreme/", false);
+        account.setAction(Account.AccountAction.vod);
+        AccountService.getInstance().save(account);
+        Account persisted = AccountService.getInstance().getByName(name);
+        persisted.setAction(Account.AccountAction.vod);
+        return persisted;
+    }
+
+    private Channel provider(String channelId, String name) {
+        Channel channel = new Channel();
+        channel.setChannelId(channelId);
+        channel.setName(name);
+        channel.setCmd("http://vod/" + channelId);
+        return channel;
+    }
+
+    private VodWatchState state(Account account, String vodId, long updatedAt) {
+        VodWatchState state = new VodWatchState();
+        state.setAccountId(account.getDbId());
+        state.setCategoryId("cat-db-1");
+        state.setVodId(vodId);
+        state.setVodName("Movie " + vodId);
+        state.setVodCmd("http://vod/" + vodId);
+        state.setUpdatedAt(updatedAt);
+        return state;
+    }
+}
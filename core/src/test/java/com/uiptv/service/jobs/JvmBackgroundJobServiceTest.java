@@ -0,0 +1,136 @@
+package com.uiptv.service.jobs;
+
+import com.uiptv.db.BackgroundJobDb;
+import com.uiptv.model.BackgroundJob;
+import com.uiptv.service.DbBackedTest;
+import com.uiptv.shared.platform.BackgroundJobException;
+import com.uiptv.shared.platform.BackgroundJobRequest;
+import com.uiptv.shared.platform.BackgroundJobStatus;
+import com.uiptv.shared.platform.BackgroundJobUniqueness;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JvmBackgroundJobServiceTest extends DbBackedTest {
+
+    @Test
+    void enqueue_keepsExistingActiveJobForSameNameAndParameters() throws Exception {
+        JvmBackgroundJobService service = new JvmBackgroundJobService(BackgroundJobDb.get(), 1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        service.registerHandler("refresh", (request, context) -> {
+            runs.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+        });
+
+        String first = service.enqueue(request("refresh", Map.of("accountId", "1", "mode", "vod"), BackgroundJobUniqueness.KEEP_EXISTING));
+        String second = service.enqueue(request("refresh", Map.of("mode", "vod", "accountId", "1"), BackgroundJobUniqueness.KEEP_EXISTING));
+        String other = service.enqueue(request("refresh", Map.of("accountId", "2"), BackgroundJobUniqueness.KEEP_EXISTING));
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+
+        release.countDown();
+        awaitStatus(service, first, BackgroundJobStatus.SUCCEEDED);
+        awaitStatus(service, other, BackgroundJobStatus.SUCCEEDED);
+        assertEquals(2, runs.get());
+        assertEquals(100, service.state(first).progressPercent());
+    }
+
+    @Test
+    void cancel_stopsRunningJobAndKeepsCancelledState() throws Exception {
+        JvmBackgroundJobService service = new JvmBackgroundJobService(BackgroundJobDb.get(), 1);
+        CountDownLatch started = new CountDownLatch(1);
+        service.registerHandler("slow", (request, context) -> {
+            context.progress(10, "started");
+            started.countDown();
+            while (!context.isCancelled()) {
+                Thread.sleep(10);
+            }
+        });
+
+        String jobId = service.enqueue(request("slow", Map.of(), BackgroundJobUniqueness.KEEP_EXISTING));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(BackgroundJobStatus.RUNNING, service.state(jobId).status());
+
+        service.cancel(jobId);
+
+        awaitIdle(service);
+        assertEquals(BackgroundJobStatus.CANCELLED, service.state(jobId).status());
+        assertEquals(BackgroundJobStatus.UNKNOWN, service.state("missing").status());
+    }
+
+    @Test
+    void enqueue_replaceExistingCancelsQueuedJob_andFailuresAreRecorded() throws Exception {
+        JvmBackgroundJobService service = new JvmBackgroundJobService(BackgroundJobDb.get(), 1);
+        CountDownLatch release = new CountDownLatch(1);
+        service.registerHandler("blocker", (request, context) -> release.await(5, TimeUnit.SECONDS));
+        service.registerHandler("broken", (request, context) -> {
+            throw new IllegalStateException("provider down");
+        });
+
+        String blocker = service.enqueue(request("blocker", Map.of(), BackgroundJobUniqueness.KEEP_EXISTING));
+        String queued = service.enqueue(request("broken", Map.of("id", "1"), BackgroundJobUniqueness.KEEP_EXISTING));
+        String replacement = service.enqueue(request("broken", Map.of("id", "1"), BackgroundJobUniqueness.REPLACE_EXISTING));
+        release.countDown();
+
+        awaitStatus(service, blocker, BackgroundJobStatus.SUCCEEDED);
+        awaitStatus(service, replacement, BackgroundJobStatus.FAILED);
+        assertEquals(BackgroundJobStatus.CANCELLED, service.state(queued).status());
+        assertEquals("provider down", service.state(replacement).message());
+        assertThrows(BackgroundJobException.class,
+                () -> service.enqueue(request("unregistered", Map.of(), BackgroundJobUniqueness.KEEP_EXISTING)));
+    }
+
+    @Test
+    void resumePending_runsJobsLeftQueuedByPreviousProcess() throws Exception {
+        BackgroundJob orphan = new BackgroundJob();
+        orphan.setJobId("orphan-1");
+        orphan.setJobName("refresh");
+        orphan.setUniqueKey("refresh|{accountId=7}");
+        orphan.setParametersJson("{\"accountId\":\"7\"}");
+        orphan.setStatus(BackgroundJobStatus.RUNNING.name());
+        orphan.setCreatedAt(System.currentTimeMillis());
+        orphan.setUpdatedAt(System.currentTimeMillis());
+        BackgroundJobDb.get().insert(orphan);
+
+        JvmBackgroundJobService service = new JvmBackgroundJobService(BackgroundJobDb.get(), 1);
+        CountDownLatch ran = new CountDownLatch(1);
+        service.registerHandler("refresh", (request, context) -> {
+            assertEquals("7", request.parameters().get("accountId"));
+            ran.countDown();
+        });
+
+        assertEquals(1, service.resumePending());
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        awaitStatus(service, "orphan-1", BackgroundJobStatus.SUCCEEDED);
+        assertEquals(0, service.resumePending());
+    }
+
+    private static BackgroundJobRequest request(String name, Map<String, String> parameters, BackgroundJobUniqueness uniqueness) {
+        return new BackgroundJobRequest(name, parameters, true, uniqueness);
+    }
+
+    private static void awaitStatus(JvmBackgroundJobService service, String jobId, BackgroundJobStatus expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.state(jobId).status() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, service.state(jobId).status());
+    }
+
+    private static void awaitIdle(JvmBackgroundJobService service) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.activeCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.uiptv.service.macverify;
+
+import com.uiptv.model.Account;
+import com.uiptv.util.AccountType;
+import com.uiptv.util.FetchAPI;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mockStatic;
+
+class MacVerificationServiceTest {
+
+    @Test
+    void verify_checksConcurrentlyWithinPortalCapAndStreamsResults() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        MacVerificationService service = new MacVerificationService((account, mac, includeInfo) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(50);
+            inFlight.decrementAndGet();
+            return new MacVerificationResult(mac, mac.endsWith("0") ? MacVerificationResult.Status.INVALID : MacVerificationResult.Status.VALID, null, 0);
+        }, 10);
+        List<String> macs = IntStream.range(0, 12).mapToObj(i -> "00:1A:79:00:00:" + (10 + i)).toList();
+        List<MacVerificationResult> streamed = new CopyOnWriteArrayList<>();
+
+        MacVerificationJob job = service.verify(stalkerAccount(), macs, false, streamed::add);
+        List<MacVerificationResult> first = job.resultsAfter(0, 5_000).get(5, TimeUnit.SECONDS);
+        List<MacVerificationResult> results = job.completion().get(10, TimeUnit.SECONDS);
+
+        assertFalse(first.isEmpty());
+        assertEquals(12, results.size());
+        assertEquals(12, streamed.size());
+        assertEquals(2, results.stream().filter(result -> !result.valid()).count());
+        assertTrue(maxInFlight.get() > 1, "checks should overlap");
+        assertTrue(maxInFlight.get() <= 4, "per-portal cap exceeded: " + maxInFlight.get());
+        assertEquals(job, service.getJob(job.id()));
+        assertTrue(job.resultsAfter(12, 50).get().isEmpty());
+    }
+
+    @Test
+    void verify_backsOffAndRetriesThrottledMacs() throws Exception {
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        MacVerificationService service = new MacVerificationService((account, mac, includeInfo) -> {
+            int call = calls.computeIfAbsent(mac, _ -> new AtomicInteger()).incrementAndGet();
+            boolean throttled = "00:1A:79:00:00:02".equals(mac) || call < 3;
+            return new MacVerificationResult(mac, throttled ? MacVerificationResult.Status.THROTTLED : MacVerificationResult.Status.VALID, null, 0);
+        }, 10);
+
+        List<MacVerificationResult> results = service.verify(stalkerAccount(), List.of("00:1A:79:00:00:01", "00:1A:79:00:00:02", " "), false, null)
+                .completion().get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, results.size());
+        MacVerificationResult recovered = results.stream().filter(result -> result.macAddress().endsWith("01")).findFirst().orElseThrow();
+        MacVerificationResult exhausted = results.stream().filter(result -> result.macAddress().endsWith("02")).findFirst().orElseThrow();
+        assertEquals(MacVerificationResult.Status.VALID, recovered.status());
+        assertEquals(3, recovered.attempts());
+        assertEquals(MacVerificationResult.Status.THROTTLED, exhausted.status());
+        assertEquals(3, exhausted.attempts());
+        assertTrue(MacVerificationService.isThrottled(429));
+        assertTrue(MacVerificationService.isThrottled(503));
+        assertFalse(MacVerificationService.isThrottled(404));
+    }
+
+    @Test
+    void cancel_stopsHandingOutMacsAndCompletesJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MacVerificationService service = new MacVerificationService((account, mac, includeInfo) -> {
+            started.countDown();
+            await(release);
+            return new MacVerificationResult(mac, MacVerificationResult.Status.VALID, null, 0);
+        }, 10);
+        List<String> macs = IntStream.range(0, 20).mapToObj(i -> "00:1A:79:00:01:" + (10 + i)).toList();
+
+        MacVerificationJob job = service.verify(stalkerAccount(), macs, false, null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        job.cancel();
+        release.countDown();
+        List<MacVerificationResult> results = job.completion().get(10, TimeUnit.SECONDS);
+
+        assertTrue(job.isCancelled());
+        assertTrue(results.size() <= 4, "only checks already running should finish: " + results.size());
+        Account xtreme = stalkerAccount();
+        xtreme.setType(AccountType.XTREME_API);
+        assertThrows(IllegalArgumentException.class, () -> service.verify(xtreme, macs, false, null));
+    }
+
+    @Test
+    void checkAgainstPortal_handshakesOncePerMacAndReadsThrottlingFromTheResponse() {
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        try (MockedStatic<FetchAPI> fetch = mockStatic(FetchAPI.class)) {
+            fetch.when(() -> FetchAPI.fetchResult(anyMap(), any(Account.class))).thenAnswer(invocation -> {
+                Map<String, String> params = invocation.getArgument(0);
+                Account worker = invocation.getArgument(1);
+                calls.computeIfAbsent(worker.getMacAddress() + "|" + params.get("action"), _ -> new AtomicInteger()).incrementAndGet();
+                return switch (params.get("action")) {
+                    case "handshake" -> worker.getMacAddress().endsWith("02")
+                            ? new FetchAPI.FetchResult(429, "")
+                            : new FetchAPI.FetchResult(200, "{\"js\":{\"token\":\"t\"}}");
+                    case "get_profile" -> new FetchAPI.FetchResult(200, "{\"js\":{\"id\":\"1\"}}");
+                    case "get_main_info" -> new FetchAPI.FetchResult(200, "{\"js\":{\"phone\":\"2027-01-01 00:00:00\"}}");
+                    default -> new FetchAPI.FetchResult(200, "{\"js\":[{\"id\":\"1\",\"title\":\"News\",\"alias\":\"news\"}]}");
+                };
+            });
+
+            MacVerificationResult valid = MacVerificationService.checkAgainstPortal(stalkerAccount(), "00:1A:79:00:00:01", true);
+            MacVerificationResult throttled = MacVerificationService.checkAgainstPortal(stalkerAccount(), "00:1A:79:00:00:02", true);
+
+            assertEquals(MacVerificationResult.Status.VALID, valid.status());
+            assertEquals(MacVerificationResult.Status.THROTTLED, throttled.status());
+            assertEquals(1, calls.get("00:1A:79:00:00:01|handshake").get());
+            assertEquals(1, calls.get("00:1A:79:00:00:01|get_profile").get());
+            assertEquals(1, calls.get("00:1A:79:00:00:01|get_main_info").get());
+            assertEquals(1, calls.get("00:1A:79:00:00:02|handshake").get());
+            assertFalse(calls.containsKey("00:1A:79:00:00:02|get_profile"));
+        }
+    }
+
+    private static Account stalkerAccount() {
+        Account account = new Account();
+        account.setAccountName("mac-verify");
+        account.setUrl("http://portal.example/c/");
+        account.setServerPortalUrl("http://portal.example/server/load.php");
+        account.setMacAddress("00:1A:79:00:00:00");
+        account.setType(AccountType.STALKER_PORTAL);
+        return account;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.uiptv.service.remotesync;
 
+import com.uiptv.service.DatabaseSyncService;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -25,6 +29,23 @@ class RemoteSyncJsonTest {
         assertEquals(ConfigurationSyncProfile.ANDROID_PORTABLE, parsed.options().configurationProfile());
         assertTrue(parsed.options().archiveTransfer());
         assertTrue(parsed.options().encryptedTransfer());
+        assertFalse(parsed.options().deltaTransfer());
+    }
+
+    @Test
+    void deltaTransferFlagAndSummaryRoundTrip() {
+        RemoteSyncRequest request = new RemoteSyncRequest(
+                RemoteSyncDirection.EXPORT_TO_REMOTE,
+                "1234",
+                "desktop",
+                new RemoteSyncOptions(false, false).withDeltaTransfer(true)
+        );
+        assertTrue(RemoteSyncJson.toRequest(RemoteSyncJson.toJson(request)).options().deltaTransfer());
+
+        DatabaseSyncService.DeltaSyncSummary summary = new DatabaseSyncService.DeltaSyncSummary(Map.of(
+                "Account", new DatabaseSyncService.TableDigest("root", List.of("a", "b"))
+        ));
+        assertEquals(summary, RemoteSyncJson.toDeltaSyncSummary(new JSONObject(RemoteSyncJson.toJson(summary).toString())));
     }
 
     @Test
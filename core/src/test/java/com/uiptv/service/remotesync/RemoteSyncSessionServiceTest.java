@@ -237,6 +237,58 @@ class RemoteSyncSessionServiceTest extends DbBackedTest {
         assertTrue(notifier.infoMessages.contains("remoteSyncRemoteFailedMessage"));
     }
 
+    @Test
+    void exportSession_segmentedChunkedUpload_resumesFromReceivedBytes() throws Exception {
+        Path remoteDb = tempDir.resolve("remote-segmented.db");
+        Path sourceDb = tempDir.resolve("source-segmented.db");
+        initializeDatabase(remoteDb);
+        initializeDatabase(sourceDb);
+        withDatabase(sourceDb, () -> saveAccount("segmented-account"));
+
+        RemoteSyncSessionService service = new RemoteSyncSessionService(
+                snapshotService,
+                DatabaseSyncService.getInstance(),
+                Clock.systemUTC(),
+                (request, decisionConsumer) -> decisionConsumer.accept(true),
+                new RecordingNotifier()
+        );
+        RemoteSyncSessionState created = withDatabase(remoteDb, () -> service.createSession(
+                new RemoteSyncRequest(
+                        RemoteSyncDirection.EXPORT_TO_REMOTE,
+                        "4321",
+                        "machine-a",
+                        new RemoteSyncOptions(false, false).withChunkedTransfer(true)
+                ),
+                "10.0.0.8"
+        ));
+        assertTrue(created.options().chunkedTransfer());
+        String sessionId = created.sessionId();
+
+        Path sourceArchive = snapshotService.createSnapshotArchive(sourceDb.toString());
+        Path encryptedUpload = tempDir.resolve("source-segmented-upload.bin");
+        RemoteSyncTransferCipher.encryptChunked(sourceArchive, encryptedUpload, "4321", sessionId, false);
+        Files.deleteIfExists(sourceArchive);
+        byte[] upload = Files.readAllBytes(encryptedUpload);
+        int split = upload.length / 2;
+
+        assertEquals(split, service.acceptUploadSegment(sessionId, 0, new java.io.ByteArrayInputStream(upload, 0, split)));
+        assertThrows(IllegalStateException.class,
+                () -> service.acceptUploadSegment(sessionId, 0, new java.io.ByteArrayInputStream(upload, 0, split)));
+        assertEquals(split, service.getUploadedBytes(sessionId));
+        assertEquals(upload.length, service.acceptUploadSegment(sessionId, split,
+                new java.io.ByteArrayInputStream(upload, split, upload.length - split)));
+
+        withDatabase(remoteDb, () -> {
+            try {
+                assertNotNull(service.completeUpload(sessionId).report());
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        withDatabase(remoteDb, () -> assertNotNull(AccountService.getInstance().getByName("segmented-account")));
+        assertEquals(RemoteSyncStatus.COMPLETED, service.getSessionState(sessionId).status());
+    }
+
     @Test
     void importSession_preparesDownloadSnapshot_andCompletionCleansUp() throws Exception {
         Path remoteDb = tempDir.resolve("remote-import.db");
@@ -303,6 +355,66 @@ class RemoteSyncSessionServiceTest extends DbBackedTest {
         assertTrue(notifier.infoMessages.contains("remoteSyncRemoteCompletedMessage"));
     }
 
+    @Test
+    void importSession_deltaTransfer_shipsOnlyChangedRowsAndDropsStaleAccountCache() throws Exception {
+        Path remoteDb = tempDir.resolve("remote-delta.db");
+        Path targetDb = tempDir.resolve("target-delta.db");
+        initializeDatabase(remoteDb);
+        initializeDatabase(targetDb);
+        withDatabase(remoteDb, () -> {
+            saveAccount("shared-account");
+            saveAccount("remote-account");
+        });
+        withDatabase(targetDb, () -> {
+            saveAccount("shared-account");
+            saveAccount("stale-account");
+        });
+        executeSql(targetDb, "INSERT INTO Category (categoryId, accountId, title) VALUES ('c1', '1', 'Shared'), ('c2', '2', 'Stale')");
+
+        RemoteSyncSessionService service = new RemoteSyncSessionService(
+                snapshotService,
+                DatabaseSyncService.getInstance(),
+                Clock.systemUTC(),
+                (request, decisionConsumer) -> decisionConsumer.accept(true),
+                new RecordingNotifier()
+        );
+        RemoteSyncSessionState created = withDatabase(remoteDb, () -> service.createSession(
+                new RemoteSyncRequest(
+                        RemoteSyncDirection.IMPORT_FROM_REMOTE,
+                        "9753",
+                        "machine-a",
+                        new RemoteSyncOptions(false, false).withDeltaTransfer(true)
+                ),
+                "10.0.0.8"
+        ));
+        assertTrue(created.options().deltaTransfer());
+        assertEquals(RemoteSyncStatus.APPROVED, service.getSessionState(created.sessionId()).status());
+
+        DatabaseSyncService.DeltaSyncSummary targetSummary = DatabaseSyncService.getInstance().summarizeForDeltaSync(targetDb.toString(), false);
+        assertFalse(targetSummary.tables().containsKey("Category"));
+        RemoteSyncSessionState ready = withDatabase(remoteDb, () -> service.acceptDeltaSummary(created.sessionId(), targetSummary));
+        assertEquals(RemoteSyncStatus.READY_FOR_DOWNLOAD, ready.status());
+        assertThrows(IllegalStateException.class, () -> service.acceptDeltaSummary(created.sessionId(), targetSummary));
+
+        Path deltaDb = tempDir.resolve("delta.db");
+        RemoteSyncTransferCipher.decrypt(service.getDownloadSnapshot(created.sessionId()), deltaDb, "9753", created.sessionId());
+        assertEquals(1, countRows(deltaDb, "Account"));
+
+        DatabaseSyncService.DatabaseSyncReport report = withDatabase(targetDb, () -> DatabaseSyncService.getInstance().applyDeltaWithReport(
+                deltaDb.toString(), targetDb.toString(), false, false, null));
+        assertEquals(1, report.getTableResults().stream().filter(table -> "Account".equals(table.getTableName()))
+                .mapToInt(DatabaseSyncService.TableSyncResult::getRowCount).sum());
+
+        withDatabase(targetDb, () -> {
+            assertNotNull(AccountService.getInstance().getByName("shared-account"));
+            assertNotNull(AccountService.getInstance().getByName("remote-account"));
+            assertNull(AccountService.getInstance().getByName("stale-account"));
+        });
+        assertEquals(1, countRows(targetDb, "Category"));
+        assertEquals(DatabaseSyncService.getInstance().summarizeForDeltaSync(remoteDb.toString(), false),
+                DatabaseSyncService.getInstance().summarizeForDeltaSync(targetDb.toString(), false));
+    }
+
     @Test
     void importApproval_reportsApprovedWhilePreparingDownloadSnapshot() throws Exception {
         Path remoteDb = tempDir.resolve("remote-preparing-import.db");
@@ -393,6 +505,21 @@ class RemoteSyncSessionServiceTest extends DbBackedTest {
         withDatabase(path, () -> ConfigurationService.getInstance().read());
     }
 
+    private void executeSql(Path databasePath, String sql) throws SQLException {
+        try (java.sql.Connection connection = java.sql.DriverManager.getConnection("jdbc:sqlite:" + databasePath);
+             java.sql.Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    private int countRows(Path databasePath, String tableName) throws SQLException {
+        try (java.sql.Connection connection = java.sql.DriverManager.getConnection("jdbc:sqlite:" + databasePath);
+             java.sql.Statement statement = connection.createStatement();
+             java.sql.ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + tableName)) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
     private void saveAccount(String accountName) {
         AccountService.getInstance().save(new Account(
                 accountName,
@@ -0,0 +1,96 @@
+package com.uiptv.service.remotesync;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RemoteSyncTransferCipherTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void chunkedContainer_roundTripsMultiChunkPayloadsWithAndWithoutCompression() throws Exception {
+        byte[] payload = new byte[(3 * 1024 * 1024) + 12345];
+        new Random(42).nextBytes(payload);
+        Arrays.fill(payload, 0, 512 * 1024, (byte) 7);
+        Path source = tempDir.resolve("payload.db");
+        Files.write(source, payload);
+
+        for (boolean compress : new boolean[]{true, false}) {
+            Path encrypted = tempDir.resolve("payload-" + compress + ".bin");
+            Path decrypted = tempDir.resolve("payload-" + compress + ".db");
+            RemoteSyncTransferCipher.encryptChunked(source, encrypted, "1234", "session", compress);
+            RemoteSyncTransferCipher.decrypt(encrypted, decrypted, "1234", "session");
+            assertArrayEquals(payload, Files.readAllBytes(decrypted));
+        }
+    }
+
+    @Test
+    void chunkedContainer_roundTripsEmptyPayloadAndLegacyFormatStillDecrypts() throws Exception {
+        Path empty = tempDir.resolve("empty.db");
+        Files.write(empty, new byte[0]);
+        Path encrypted = tempDir.resolve("empty.bin");
+        Path decrypted = tempDir.resolve("empty-out.db");
+        RemoteSyncTransferCipher.encryptChunked(empty, encrypted, "1234", "session", true);
+        RemoteSyncTransferCipher.decrypt(encrypted, decrypted, "1234", "session");
+        assertArrayEquals(new byte[0], Files.readAllBytes(decrypted));
+
+        Path source = tempDir.resolve("legacy.db");
+        Files.write(source, new byte[]{1, 2, 3});
+        Path legacy = tempDir.resolve("legacy.bin");
+        RemoteSyncTransferCipher.encrypt(source, legacy, "1234", "session");
+        RemoteSyncTransferCipher.decrypt(legacy, decrypted, "1234", "session");
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(decrypted));
+    }
+
+    @Test
+    void chunkedContainer_rejectsTamperingTruncationAndWrongKey() throws Exception {
+        byte[] payload = new byte[2 * 1024 * 1024 + 10];
+        new Random(7).nextBytes(payload);
+        Path source = tempDir.resolve("source.db");
+        Files.write(source, payload);
+        Path encrypted = tempDir.resolve("source.bin");
+        RemoteSyncTransferCipher.encryptChunked(source, encrypted, "1234", "session", false);
+        byte[] sealed = Files.readAllBytes(encrypted);
+        Path out = tempDir.resolve("out.db");
+
+        Path tampered = tempDir.resolve("tampered.bin");
+        byte[] flipped = sealed.clone();
+        flipped[flipped.length / 2] ^= 1;
+        Files.write(tampered, flipped);
+        assertThrows(IOException.class, () -> RemoteSyncTransferCipher.decrypt(tampered, out, "1234", "session"));
+
+        Path truncated = tempDir.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(sealed, sealed.length - 100_000));
+        assertThrows(IOException.class, () -> RemoteSyncTransferCipher.decrypt(truncated, out, "1234", "session"));
+
+        assertThrows(IOException.class, () -> RemoteSyncTransferCipher.decrypt(encrypted, out, "9999", "session"));
+    }
+
+    @Test
+    void chunkedContainer_rejectsFlippedFlagsByte() throws Exception {
+        Path source = tempDir.resolve("flags.db");
+        Files.write(source, new byte[]{1, 2, 3, 4});
+        Path encrypted = tempDir.resolve("flags.bin");
+        RemoteSyncTransferCipher.encryptChunked(source, encrypted, "1234", "session", false);
+        byte[] sealed = Files.readAllBytes(encrypted);
+        int flagsOffset = 8 + 16 + 4;
+        Path out = tempDir.resolve("flags-out.db");
+
+        for (int flag : new int[]{0x01, 0x02}) {
+            byte[] flipped = sealed.clone();
+            flipped[flagsOffset] ^= (byte) flag;
+            Path tampered = tempDir.resolve("flags-" + flag + ".bin");
+            Files.write(tampered, flipped);
+            assertThrows(IOException.class, () -> RemoteSyncTransferCipher.decrypt(tampered, out, "1234", "session"));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.uiptv.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AppLogTest {
+
+    @Test
+    void lazyMessages_areBuiltOnlyForListeningSinksAtTheirLevel() {
+        AtomicInteger builds = new AtomicInteger();
+        Supplier<String> message = () -> "built-" + builds.incrementAndGet();
+        List<String> received = new ArrayList<>();
+        Consumer<String> listener = received::add;
+        AtomicBoolean panelShown = new AtomicBoolean(false);
+        assumeFalse(AppLog.isEnabled(AppLogTest.class, AppLog.LogLevel.INFO), "another sink is listening");
+
+        AppLog.registerListener(listener, AppLog.LogLevel.INFO, panelShown::get);
+        try {
+            AppLog.addInfoLog(AppLogTest.class, message);
+            assertEquals(0, builds.get());
+
+            panelShown.set(true);
+            AppLog.addDebugLog(AppLogTest.class, message);
+            assertEquals(0, builds.get());
+            AppLog.addInfoLog(AppLogTest.class, message);
+            AppLog.addWarningLog(AppLogTest.class, "eager");
+        } finally {
+            AppLog.unregisterListener(listener);
+        }
+
+        assertEquals(1, builds.get());
+        assertEquals(List.of("built-1", "eager"), received);
+        assertFalse(AppLog.isEnabled(AppLogTest.class, AppLog.LogLevel.INFO));
+    }
+
+    @Test
+    void sanitizedMessages_areTrimmedAndCappedWithoutCopyingTheWholeMessage() {
+        List<String> received = new ArrayList<>();
+        Consumer<String> listener = received::add;
+        AppLog.registerListener(listener);
+        try {
+            AppLog.addInfoLog(AppLogTest.class, "\u0085 \tline\none\r\n ");
+            AppLog.addInfoLog(AppLogTest.class, "  " + "x".repeat(10_000));
+        } finally {
+            AppLog.unregisterListener(listener);
+        }
+
+        assertEquals("line one", received.get(0));
+        assertEquals("x".repeat(4000) + "...", received.get(1));
+    }
+
+    @Test
+    void httpLog_allocatesAlmostNothingWhenNobodyIsListening() {
+        assumeFalse(AppLog.isEnabled(LogUtil.class, AppLog.LogLevel.INFO), "another sink is listening");
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        HttpUtil.HttpResult response = new HttpUtil.HttpResult("GET", "http://portal.test/portal.php", 200,
+                "{\"js\":{\"data\":[" + "{\"id\":\"1\",\"name\":\"Channel\"},".repeat(100_000) + "]}}",
+                Map.of("X-Test", List.of("value")), Map.of("Content-Type", List.of("application/json")));
+        Map<String, String> params = Map.of("action", "get_all_channels", "type", "itv");
+        for (int i = 0; i < 100; i++) {
+            LogUtil.httpLog("http://portal.test/portal.php", response, params);
+        }
+
+        long thread = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100; i++) {
+            LogUtil.httpLog("http://portal.test/portal.php", response, params);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // Formatting the ~3 MB body even once would allocate megabytes.
+        assertTrue(allocated < 256 * 1024, "allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,176 @@
+package com.uiptv.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.uiptv.shared.net.HttpRequestData;
+import com.uiptv.shared.net.HttpResponseData;
+import com.uiptv.shared.net.HttpStreamData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncHttpClientTest {
+    private final AsyncHttpClient client = AsyncHttpClient.getInstance();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String base;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void executeAsync_followsRedirectsAsGetAndCarriesCookiesSetOnTheWay() throws Exception {
+        AtomicReference<String> firstContentType = new AtomicReference<>();
+        AtomicReference<String> finalRequest = new AtomicReference<>();
+        server.createContext("/login", exchange -> {
+            firstContentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Set-Cookie", "session=abc; Path=/");
+            exchange.getResponseHeaders().add("Location", "/home?from=login");
+            respond(exchange, 302, "moved");
+        });
+        server.createContext("/home", exchange -> {
+            finalRequest.set(exchange.getRequestMethod() + " " + exchange.getRequestHeaders().getFirst("Cookie")
+                    + " " + exchange.getRequestHeaders().getFirst("X-Client"));
+            respond(exchange, 200, "welcome");
+        });
+
+        HttpResponseData response = client.executeAsync(new HttpRequestData(base + "/login", "POST",
+                Map.of("X-Client", "uiptv", "Host", "ignored.example"), "user=a".getBytes(StandardCharsets.UTF_8), true, 5)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("welcome", new String(response.body(), StandardCharsets.UTF_8));
+        assertEquals(base + "/home?from=login", response.finalUrl());
+        assertEquals("application/x-www-form-urlencoded", firstContentType.get());
+        assertEquals("GET session=abc uiptv", finalRequest.get());
+    }
+
+    @Test
+    void execute_reportsRedirectsWithoutFollowingThemWhenDisabledAndFailsPastTheLimit() throws Exception {
+        server.createContext("/loop", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/loop");
+            respond(exchange, 307, "");
+        });
+
+        HttpResponseData response = client.execute(new HttpRequestData(base + "/loop", "GET", Map.of(), null, false, 5));
+        assertEquals(307, response.statusCode());
+        assertEquals("/loop", response.headers().get("location"));
+
+        IOException failure = assertThrows(IOException.class,
+                () -> client.execute(new HttpRequestData(base + "/loop", "GET", Map.of(), null, true, 5)));
+        assertTrue(failure.getMessage().contains("Maximum redirects"));
+    }
+
+    @Test
+    void requestsFanOutWithoutAThreadPerRequest() throws Exception {
+        int requests = 16;
+        CountDownLatch allArrived = new CountDownLatch(requests);
+        server.createContext("/slow", exchange -> {
+            allArrived.countDown();
+            try {
+                // Only answers once every request is in flight at the same time.
+                allArrived.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, exchange.getRequestURI().getQuery());
+        });
+
+        List<CompletableFuture<HttpResponseData>> responses = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            responses.add(client.executeAsync(new HttpRequestData(base + "/slow?id=" + i, "GET", Map.of(), null, true, 10)));
+        }
+
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        assertEquals(0, allArrived.getCount());
+        for (int i = 0; i < requests; i++) {
+            assertEquals("id=" + i, new String(responses.get(i).join().body(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void streamAsync_completesOnHeadersAndHandsTheBodyToTheCaller() throws Exception {
+        server.createContext("/segment.ts", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "video/mp2t");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(new byte[188 * 4]);
+            }
+        });
+
+        try (HttpStreamData stream = client.streamAsync(new HttpRequestData(base + "/segment.ts", "GET", Map.of(), null, true, 5))
+                .get(5, TimeUnit.SECONDS)) {
+            assertEquals(200, stream.statusCode());
+            assertEquals("video/mp2t", stream.headers().get("content-type"));
+            InputStream body = stream.body();
+            assertEquals(188 * 4, body.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void sharesTheCookieJarWithHttpUtilAndDropsCredentialsOnCrossOriginRedirects() throws Exception {
+        AtomicReference<String> sameOrigin = new AtomicReference<>();
+        AtomicReference<String> otherOrigin = new AtomicReference<>();
+        server.createContext("/portal/handshake", exchange -> {
+            exchange.getResponseHeaders().add("Set-Cookie", "portal_token=xyz; Path=/portal");
+            respond(exchange, 200, "ok");
+        });
+        server.createContext("/portal/hop", exchange -> {
+            sameOrigin.set(exchange.getRequestHeaders().getFirst("Cookie"));
+            exchange.getResponseHeaders().add("Location", "http://localhost:" + server.getAddress().getPort() + "/cdn/landing");
+            respond(exchange, 302, "moved");
+        });
+        server.createContext("/cdn/landing", exchange -> {
+            otherOrigin.set(exchange.getRequestHeaders().getFirst("Cookie") + " " + exchange.getRequestHeaders().getFirst("Referer")
+                    + " " + exchange.getRequestHeaders().getFirst("Authorization") + " " + exchange.getRequestHeaders().getFirst("X-Client"));
+            respond(exchange, 200, "landed");
+        });
+
+        HttpUtil.sendRequest(base + "/portal/handshake", Map.of(), "GET");
+        HttpResponseData response = client.execute(new HttpRequestData(base + "/portal/hop", "GET",
+                Map.of("Authorization", "Bearer secret", "Referer", base + "/portal/", "X-Client", "uiptv"), null, true, 5));
+
+        assertEquals(200, response.statusCode());
+        assertTrue(sameOrigin.get().contains("portal_token=xyz"));
+        assertEquals("null null null uiptv", otherOrigin.get());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
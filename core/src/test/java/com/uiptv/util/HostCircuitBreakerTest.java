@@ -0,0 +1,141 @@
+package com.uiptv.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostCircuitBreakerTest {
+    private static final String HOST = "portal.example:8080";
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final HostCircuitBreaker breaker = new HostCircuitBreaker(now::get, true);
+
+    @Test
+    void hostKey_isLowerCaseHostAndNonDefaultPort() {
+        assertEquals("portal.example:8080", HostCircuitBreaker.hostKey("http://Portal.Example:8080/c/index.html"));
+        assertEquals("portal.example", HostCircuitBreaker.hostKey("HTTP://portal.example:80/c/"));
+        assertEquals("portal.example", HostCircuitBreaker.hostKey("https://portal.example:443/c/"));
+        assertEquals("portal.example:443", HostCircuitBreaker.hostKey("http://portal.example:443/c/"));
+        assertEquals("cdn.example", HostCircuitBreaker.hostKey("https://cdn.example/live/1.ts"));
+        assertEquals("bare.example", HostCircuitBreaker.hostKey("bare.example/path"));
+        assertEquals("", HostCircuitBreaker.hostKey("/local/playlist.m3u"));
+        assertEquals("", HostCircuitBreaker.hostKey(null));
+    }
+
+    @Test
+    void opensOnceEnoughCallsFailAndFailsFastUntilTheOpenIntervalPasses() throws Exception {
+        for (int i = 0; i < 9; i++) {
+            breaker.record(HOST, FAST, 503, null);
+        }
+        assertDoesNotThrow(() -> breaker.acquire(HOST), "fewer calls than the minimum never open the circuit");
+
+        breaker.record(HOST, FAST, 0, new SocketTimeoutException("read timed out"));
+
+        ProviderUnavailableException rejected = assertThrows(ProviderUnavailableException.class, () -> breaker.acquire(HOST));
+        assertEquals(HOST, rejected.getHost());
+        assertEquals(30, rejected.getRetryAfterSeconds());
+        HostCircuitBreaker.HostHealth health = breaker.health(HOST);
+        assertEquals(HostCircuitBreaker.State.OPEN, health.state());
+        assertEquals(0, health.score());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertEquals(10, assertThrows(ProviderUnavailableException.class, () -> breaker.acquire(HOST)).getRetryAfterSeconds());
+    }
+
+    @Test
+    void halfOpenLetsASingleTrialThroughAndClosesWhenItSucceeds() throws Exception {
+        openCircuit();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        breaker.acquire(HOST);
+        assertThrows(ProviderUnavailableException.class, () -> breaker.acquire(HOST), "only one trial at a time");
+        assertEquals(HostCircuitBreaker.State.HALF_OPEN, breaker.health(HOST).state());
+        assertTrue(breaker.health(HOST).score() <= 25);
+
+        breaker.record(HOST, FAST, 200, null);
+
+        HostCircuitBreaker.HostHealth health = breaker.health(HOST);
+        assertEquals(HostCircuitBreaker.State.CLOSED, health.state());
+        assertEquals(100, health.score());
+        assertDoesNotThrow(() -> breaker.acquire(HOST));
+    }
+
+    @Test
+    void failedTrialReopensTheCircuitAndCancelledTrialIsReleased() throws Exception {
+        openCircuit();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        breaker.acquire(HOST);
+        breaker.record(HOST, FAST, 0, new CancellationException());
+        breaker.acquire(HOST);
+        breaker.record(HOST, FAST, 502, null);
+
+        assertEquals(HostCircuitBreaker.State.OPEN, breaker.health(HOST).state());
+        assertThrows(ProviderUnavailableException.class, () -> breaker.acquire(HOST));
+    }
+
+    @Test
+    void scoreFallsWithFailuresAndSlowMedianLatency() {
+        assertEquals(100, breaker.health(HOST).score(), "unknown hosts are healthy");
+
+        for (int i = 0; i < 8; i++) {
+            breaker.record(HOST, FAST, 200, null);
+        }
+        breaker.record(HOST, FAST, 500, null);
+        breaker.record(HOST, FAST, 0, new IOException("connection reset"));
+        HostCircuitBreaker.HostHealth health = breaker.health(HOST);
+        assertEquals(HostCircuitBreaker.State.CLOSED, health.state());
+        assertEquals(10, health.calls());
+        assertEquals(2, health.failures());
+        assertEquals(80, health.score());
+
+        String slowHost = "slow.example";
+        for (int i = 0; i < 5; i++) {
+            breaker.record(slowHost, TimeUnit.SECONDS.toNanos(5), 200, null);
+        }
+        HostCircuitBreaker.HostHealth slow = breaker.health(slowHost);
+        assertEquals(5000, slow.medianLatencyMillis());
+        assertEquals(85, slow.score());
+    }
+
+    @Test
+    void callsOlderThanTheWindowNoLongerCount() {
+        for (int i = 0; i < 9; i++) {
+            breaker.record(HOST, FAST, 500, null);
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        breaker.record(HOST, FAST, 500, null);
+
+        HostCircuitBreaker.HostHealth health = breaker.health(HOST);
+        assertEquals(HostCircuitBreaker.State.CLOSED, health.state());
+        assertEquals(1, health.calls());
+    }
+
+    @Test
+    void disabledBreakerTracksHealthButNeverRejects() {
+        HostCircuitBreaker disabled = new HostCircuitBreaker(now::get, false);
+        for (int i = 0; i < 20; i++) {
+            disabled.record(HOST, FAST, 503, null);
+        }
+
+        assertEquals(HostCircuitBreaker.State.OPEN, disabled.health(HOST).state());
+        assertDoesNotThrow(() -> disabled.acquire(HOST));
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 10; i++) {
+            breaker.record(HOST, FAST, 503, null);
+        }
+        assertEquals(HostCircuitBreaker.State.OPEN, breaker.health(HOST).state());
+    }
+}
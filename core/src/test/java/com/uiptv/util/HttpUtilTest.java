@@ -35,6 +35,20 @@ class HttpUtilTest {
         assertEquals("HTTP request log unavailable: response was null", HttpUtil.formatHttpLog("url", null, Map.of()));
     }
 
+    @Test
+    void formatHttpLog_samplesLargeBodiesAndMeasuresBinaryOnes() {
+        String large = "  line\r\n" + "x".repeat(10_000) + "  ";
+        String log = HttpUtil.formatHttpLog("http://example.test", new HttpUtil.HttpResult(
+                "GET", "http://example.test", 200, large, Map.of(), Map.of()), Map.of());
+
+        assertTrue(log.contains("  line" + System.lineSeparator() + "  " + "x".repeat(3994) + System.lineSeparator()));
+        assertTrue(log.contains("... [truncated 6006 chars]"));
+
+        String binary = HttpUtil.formatHttpLog("http://example.test", new HttpUtil.HttpResult(
+                "GET", "http://example.test", 200, "\u0001é" + "a".repeat(10_000), Map.of(), Map.of()), Map.of());
+        assertTrue(binary.contains("<binary 10003 bytes>"));
+    }
+
     @Test
     void requestOptionsAndPrivateFormattingHelpers_coverFallbackBranches() throws Exception {
         HttpUtil.RequestOptions defaults = HttpUtil.RequestOptions.defaults();
@@ -0,0 +1,77 @@
+package com.uiptv.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void histogram_rendersCumulativeBucketsSumAndCount() {
+        MetricsRegistry.Family<MetricsRegistry.Histogram> family =
+                registry.histogram("test_latency_seconds", "Test latency.", "route");
+        MetricsRegistry.Histogram histogram = family.labels("/a\"b");
+        histogram.observeNanos(2_000_000L);
+        histogram.observeNanos(40_000_000L);
+        histogram.observeNanos(60_000_000_000L);
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("# TYPE test_latency_seconds histogram\n"));
+        assertTrue(text.contains("test_latency_seconds_bucket{route=\"/a\\\"b\",le=\"0.001\"} 0\n"));
+        assertTrue(text.contains("test_latency_seconds_bucket{route=\"/a\\\"b\",le=\"0.0025\"} 1\n"));
+        assertTrue(text.contains("test_latency_seconds_bucket{route=\"/a\\\"b\",le=\"0.05\"} 2\n"));
+        assertTrue(text.contains("test_latency_seconds_bucket{route=\"/a\\\"b\",le=\"30\"} 2\n"));
+        assertTrue(text.contains("test_latency_seconds_bucket{route=\"/a\\\"b\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("test_latency_seconds_sum{route=\"/a\\\"b\"} 60.042\n"));
+        assertTrue(text.contains("test_latency_seconds_count{route=\"/a\\\"b\"} 3\n"));
+        assertSame(histogram, family.labels("/a\"b"));
+    }
+
+    @Test
+    void countersGaugesAndSampledFamilies_renderTheirCurrentValues() {
+        MetricsRegistry.CacheCounters cache = registry.cacheCounters("test_cache");
+        cache.hits().inc();
+        cache.hits().inc();
+        cache.misses().add(3);
+        MetricsRegistry.Gauge gauge = registry.gauge("test_active", "Test gauge.").labels();
+        gauge.inc();
+        gauge.inc();
+        gauge.dec();
+        Map<List<String>, Number> sampled = new LinkedHashMap<>();
+        sampled.put(List.of("x"), 7);
+        registry.sampled("test_sampled_total", MetricsRegistry.Type.COUNTER, "Test sampled.", () -> sampled, "key");
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("uiptv_cache_requests_total{cache=\"test_cache\",result=\"hit\"} 2\n"));
+        assertTrue(text.contains("uiptv_cache_requests_total{cache=\"test_cache\",result=\"miss\"} 3\n"));
+        assertTrue(text.contains("# TYPE test_active gauge\ntest_active 1\n"));
+        assertTrue(text.contains("# TYPE test_sampled_total counter\ntest_sampled_total{key=\"x\"} 7\n"));
+    }
+
+    @Test
+    void families_rejectConflictingRegistrationsAndCapTheirSeries() {
+        MetricsRegistry.Family<MetricsRegistry.Counter> family = registry.counter("test_capped_total", "Test cap.", "id");
+        assertSame(family, registry.counter("test_capped_total", "Test cap.", "id"));
+        assertThrows(IllegalArgumentException.class, () -> registry.gauge("test_capped_total", "Test cap.", "id"));
+        assertThrows(IllegalArgumentException.class, () -> family.labels("a", "b"));
+
+        for (int i = 0; i < 600; i++) {
+            family.labels("id-" + i).inc();
+        }
+
+        String text = registry.scrape();
+        long series = text.lines().filter(line -> line.startsWith("test_capped_total{")).count();
+        assertEquals(501, series);
+        assertTrue(text.contains("test_capped_total{id=\"other\"} 100\n"));
+    }
+}
@@ -1,18 +1,36 @@
 package com.uiptv.util;
 
+import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyMap;
 import static org.mockito.Mockito.contains;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
-import static org.mockito.Mockito.startsWith;
+import static org.mockito.Mockito.when;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 import com.uiptv.model.Account;
+import com.uiptv.shared.net.HttpRequestData;
+import com.uiptv.shared.net.HttpResponseData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.net.ConnectException;
+import java.net.InetSocketAddress;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -21,6 +39,23 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PingStalkerPortalTest {
 
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void clearDiscoveredEndpoints() {
+        PingStalkerPortal.clearDiscoveredEndpoints();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+            server = null;
+        }
+    }
+
     @Test
     void ping_returnsSpecificEndpointParsedFromXpcomScript() {
         Account account = createPortalAccount("http://example.com/stalker_portal/c/");
@@ -52,24 +87,109 @@ class PingStalkerPortalTest {
     }
 
     @Test
-    void ping_probesKnownPathsWhenXpcomScriptDoesNotResolveEndpoint() {
-        Account account = createPortalAccount("http://portal.example");
-        HttpUtil.HttpResult xpcom = new HttpUtil.HttpResult(200, "not useful", java.util.Map.of(), java.util.Map.of());
-        HttpUtil.HttpResult miss = new HttpUtil.HttpResult(404, "", java.util.Map.of(), java.util.Map.of());
-        HttpUtil.HttpResult hit = new HttpUtil.HttpResult(200, "{\"js\":{\"token\":\"ok\"}}", java.util.Map.of(), java.util.Map.of());
+    void ping_probesKnownPathsWhenXpcomScriptDoesNotResolveEndpoint() throws Exception {
+        String base = startPortal(exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("xpcom.common.js")) {
+                respond(exchange, 200, "not useful");
+            } else if ("/stalker_portal/c/portal.php".equals(path)) {
+                respond(exchange, 200, "{\"js\":{\"token\":\"ok\"}}");
+            } else {
+                respond(exchange, 404, "");
+            }
+        });
 
-        try (MockedStatic<HttpUtil> httpUtil = mockStatic(HttpUtil.class)) {
+        assertEquals(base + "/stalker_portal/c/portal.php", PingStalkerPortal.ping(createPortalAccount(base)));
+    }
+
+    @Test
+    void ping_keepsRacingAfterAProbeHitsANetworkError() {
+        Account account = createPortalAccount("http://probe.example/");
+        AsyncHttpClient client = mock(AsyncHttpClient.class);
+        when(client.executeAsync(any())).thenAnswer(invocation -> {
+            String url = invocation.<HttpRequestData>getArgument(0).url();
+            if (url.startsWith("http://probe.example/c/portal.php")) {
+                return CompletableFuture.failedFuture(new ConnectException("refused"));
+            }
+            if (url.startsWith("http://probe.example/server/load.php")) {
+                return CompletableFuture.supplyAsync(() -> new HttpResponseData(200, null,
+                        "{\"js\":{\"token\":\"ok\"}}".getBytes(StandardCharsets.UTF_8), url),
+                        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+            }
+            return CompletableFuture.completedFuture(new HttpResponseData(404, null, null, url));
+        });
+
+        try (MockedStatic<HttpUtil> httpUtil = mockStatic(HttpUtil.class);
+             MockedStatic<AsyncHttpClient> asyncClient = mockStatic(AsyncHttpClient.class)) {
             httpUtil.when(() -> HttpUtil.sendRequest(contains("xpcom.common.js"), anyMap(), eq("GET")))
-                    .thenReturn(xpcom);
-            httpUtil.when(() -> HttpUtil.sendRequest(startsWith("http://portal.example/c/portal.php?"), anyMap(), eq("GET")))
-                    .thenReturn(miss);
-            httpUtil.when(() -> HttpUtil.sendRequest(startsWith("http://portal.example/stalker_portal/c/portal.php?"), anyMap(), eq("GET")))
-                    .thenReturn(hit);
+                    .thenReturn(new HttpUtil.HttpResult(404, "", java.util.Map.of(), java.util.Map.of()));
+            asyncClient.when(AsyncHttpClient::getInstance).thenReturn(client);
 
-            assertEquals("http://portal.example/stalker_portal/c/portal.php", PingStalkerPortal.ping(account));
+            assertEquals("http://probe.example/server/load.php", PingStalkerPortal.ping(account));
         }
     }
 
+    @Test
+    void ping_racesProbesAndReusesDiscoveredEndpointForSamePortal() throws Exception {
+        AtomicInteger xpcomRequests = new AtomicInteger();
+        String base = startPortal(exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("xpcom.common.js")) {
+                xpcomRequests.incrementAndGet();
+                respond(exchange, 404, "");
+            } else if ("/c/portal.php".equals(path)) {
+                sleep(3_000);
+                respond(exchange, 404, "");
+            } else if ("/server/load.php".equals(path)) {
+                respond(exchange, 200, "{\"js\":{\"token\":\"ok\"}}");
+            } else {
+                respond(exchange, 404, "");
+            }
+        });
+
+        long started = System.nanoTime();
+        assertEquals(base + "/server/load.php", PingStalkerPortal.ping(createPortalAccount(base)));
+        assertTrue(System.nanoTime() - started < TimeUnit.MILLISECONDS.toNanos(2_500));
+
+        assertEquals(base + "/server/load.php", PingStalkerPortal.ping(createPortalAccount(base + "/")));
+        assertEquals(1, xpcomRequests.get());
+
+        PingStalkerPortal.ping(createPortalAccount(base + "/stalker_portal/c/"));
+        assertEquals(2, xpcomRequests.get());
+    }
+
+    @Test
+    void forgetEndpoint_makesTheNextPingDiscoverTheEndpointAgain() throws Exception {
+        AtomicInteger xpcomRequests = new AtomicInteger();
+        String base = startPortal(exchange -> {
+            if (exchange.getRequestURI().getPath().endsWith("xpcom.common.js")) {
+                xpcomRequests.incrementAndGet();
+                respond(exchange, 404, "");
+            } else if ("/server/load.php".equals(exchange.getRequestURI().getPath())) {
+                respond(exchange, 200, "{\"js\":{\"token\":\"ok\"}}");
+            } else {
+                respond(exchange, 404, "");
+            }
+        });
+        String endpoint = PingStalkerPortal.ping(createPortalAccount(base));
+
+        PingStalkerPortal.forgetEndpoint(base + "/", base + "/c/portal.php");
+        assertEquals(endpoint, PingStalkerPortal.ping(createPortalAccount(base)));
+        assertEquals(1, xpcomRequests.get());
+
+        PingStalkerPortal.forgetEndpoint(base + "/", endpoint);
+        assertEquals(endpoint, PingStalkerPortal.ping(createPortalAccount(base)));
+        assertEquals(2, xpcomRequests.get());
+    }
+
+    @Test
+    void portalKey_keepsThePortalPathWithoutTrailingSlashOrDefaultPort() {
+        assertEquals("http://demo.example/stalker_portal/c", PingStalkerPortal.portalKey("HTTP://Demo.Example:80/stalker_portal/c/"));
+        assertEquals("http://demo.example/c", PingStalkerPortal.portalKey("demo.example/c"));
+        assertEquals("https://demo.example:8443", PingStalkerPortal.portalKey("https://demo.example:8443/"));
+        assertEquals("", PingStalkerPortal.portalKey(" "));
+    }
+
     @Test
     void parsePortalApiServer_handlesPortalAndLoadPathFallbacks() {
         String portalScript = "x='/custom/portal.php';";
@@ -136,6 +256,31 @@ class PingStalkerPortalTest {
                         "/stalker_portal/server/load.php", "http://demo.example/c/"));
     }
 
+    private String startPortal(HttpHandler handler) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", handler);
+        server.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private static Account createPortalAccount(String url) {
         Account account = new Account();
         account.setUrl(url);
@@ -1,4 +1,4 @@
-package com.uiptv.service.remotesync;
+package com.uiptv.util;
 
 import org.junit.jupiter.api.Test;
 
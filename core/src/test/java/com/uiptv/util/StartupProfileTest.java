@@ -0,0 +1,51 @@
+package com.uiptv.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StartupProfileTest {
+    private final AtomicLong clock = new AtomicLong(10_000L);
+
+    @Test
+    void recordsPhasesAndFirstMilestonesUntilReady() {
+        StartupProfile profile = new StartupProfile(true, false, clock::get, 9_000L);
+
+        try (StartupProfile.Phase _ = profile.begin("database-migrations")) {
+            clock.addAndGet(250L);
+        }
+        profile.milestone("first-frame");
+        clock.addAndGet(100L);
+        profile.milestone("first-frame");
+        profile.ready("first-account-list");
+        try (StartupProfile.Phase _ = profile.begin("after-ready")) {
+            clock.addAndGet(50L);
+        }
+        profile.milestone("late");
+
+        String report = profile.report();
+        assertTrue(report.contains("database-migrations took 250 ms"));
+        assertTrue(report.contains("first-frame reached 1250 ms after JVM start"));
+        assertTrue(report.contains("first-account-list reached 1350 ms after JVM start"));
+        assertEquals(3, report.lines().count());
+        assertFalse(report.contains("after-ready"));
+        assertFalse(report.contains("late"));
+    }
+
+    @Test
+    void disabledProfileRecordsNothing() {
+        StartupProfile profile = new StartupProfile(false, false, clock::get, 9_000L);
+
+        try (StartupProfile.Phase _ = profile.begin("database-migrations")) {
+            clock.addAndGet(250L);
+        }
+        profile.milestone("first-frame");
+        profile.ready("server-ready");
+
+        assertEquals("", profile.report());
+    }
+}
@@ -0,0 +1,121 @@
+package com.uiptv.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XmltvParserTest {
+
+    @Test
+    void parseTime_appliesOffsetsAndDefaultsToUtc() {
+        assertEquals(Instant.parse("2026-03-01T18:30:00Z").toEpochMilli(), XmltvParser.parseTime("20260301203000 +0200"));
+        assertEquals(Instant.parse("2026-03-01T20:30:00Z").toEpochMilli(), XmltvParser.parseTime("20260301153000 -0500"));
+        assertEquals(Instant.parse("2026-03-01T20:30:00Z").toEpochMilli(), XmltvParser.parseTime("202603012030"));
+        assertEquals(XmltvParser.INVALID_TIME, XmltvParser.parseTime("2026-03-01"));
+        assertEquals(XmltvParser.INVALID_TIME, XmltvParser.parseTime(""));
+        assertEquals(XmltvParser.INVALID_TIME, XmltvParser.parseTime("20261399203000"));
+    }
+
+    @Test
+    void parse_reportsChannelsAndKeepsTheFirstTextOfEachKind() throws IOException {
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <tv>
+                  <channel id="news.uk">
+                    <display-name>News UK</display-name>
+                    <display-name>News &amp; Weather</display-name>
+                    <icon src="http://logo"/>
+                  </channel>
+                  <programme channel="news.uk" start="20260301200000 +0000" stop="20260301203000 +0000">
+                    <title lang="en">Evening News</title>
+                    <title lang="fr">Journal du soir</title>
+                    <sub-title>Headlines</sub-title>
+                    <desc>Today's stories.</desc>
+                    <category>News</category>
+                    <credits><presenter>Anchor</presenter></credits>
+                  </programme>
+                </tv>
+                """;
+        List<XmltvParser.XmltvChannel> channels = new ArrayList<>();
+        List<XmltvParser.XmltvProgramme> programmes = new ArrayList<>();
+
+        XmltvParser.parse(stream(xml), channels::add, programmes::add, () -> false);
+
+        assertEquals(List.of(new XmltvParser.XmltvChannel("news.uk", List.of("News UK", "News & Weather"))), channels);
+        assertEquals(1, programmes.size());
+        XmltvParser.XmltvProgramme programme = programmes.getFirst();
+        assertEquals("Evening News", programme.title());
+        assertEquals("Headlines", programme.subTitle());
+        assertEquals("Today's stories.", programme.description());
+        assertEquals("News", programme.category());
+        assertEquals(30 * 60 * 1000L, programme.stopMs() - programme.startMs());
+    }
+
+    @Test
+    void parse_endsStoplessProgrammesAtTheNextStartOnTheSameChannel() throws IOException {
+        String xml = """
+                <tv>
+                  <programme channel="a" start="20260301200000"><title>A1</title></programme>
+                  <programme channel="b" start="20260301201000" stop="20260301210000"><title>B1</title></programme>
+                  <programme channel="a" start="20260301210000"><title>A2</title></programme>
+                  <programme channel="a" start="20260301220000" stop="20260301230000"><title>A3</title></programme>
+                  <programme channel="a" start="20260301230000"><title>A4</title></programme>
+                  <programme channel="c" stop="20260301230000"><title>No start</title></programme>
+                </tv>
+                """;
+        List<XmltvParser.XmltvProgramme> programmes = new ArrayList<>();
+
+        XmltvParser.parse(stream(xml), null, programmes::add, null);
+
+        assertEquals(List.of("B1", "A1", "A2", "A3"), programmes.stream().map(XmltvParser.XmltvProgramme::title).toList());
+        XmltvParser.XmltvProgramme a1 = programmes.get(1);
+        assertEquals(XmltvParser.parseTime("20260301210000"), a1.stopMs());
+        assertEquals(XmltvParser.parseTime("20260301220000"), programmes.get(2).stopMs());
+    }
+
+    @Test
+    void parse_stopsWhenCancelled() {
+        String xml = "<tv><channel id=\"a\"/><channel id=\"b\"/><channel id=\"c\"/></tv>";
+        AtomicInteger seen = new AtomicInteger();
+
+        assertThrows(CancellationException.class,
+                () -> XmltvParser.parse(stream(xml), _ -> seen.incrementAndGet(), null, () -> seen.get() >= 1));
+        assertEquals(1, seen.get());
+    }
+
+    @Test
+    void parse_doesNotExpandDtdEntities() throws IOException {
+        String xml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE tv [<!ENTITY secret SYSTEM "file:///etc/hostname">]>
+                <tv><programme channel="a" start="20260301200000" stop="20260301210000"><title>Safe</title></programme></tv>
+                """;
+        List<XmltvParser.XmltvProgramme> programmes = new ArrayList<>();
+
+        XmltvParser.parse(stream(xml), null, programmes::add, () -> false);
+
+        assertEquals(1, programmes.size());
+        assertEquals("Safe", programmes.getFirst().title());
+        assertNull(programmes.getFirst().description());
+    }
+
+    @Test
+    void parse_reportsMalformedDocumentsAsIoException() {
+        assertThrows(IOException.class, () -> XmltvParser.parse(stream("<tv><channel id=\"a\">"), null, null, null));
+    }
+
+    private static ByteArrayInputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.strip().getBytes(StandardCharsets.UTF_8));
+    }
+}
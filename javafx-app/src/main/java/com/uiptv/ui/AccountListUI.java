@@ -7,14 +7,18 @@ import com.uiptv.model.AccountMediaContext;
 import com.uiptv.model.AccountView;
 import com.uiptv.model.Category;
 import com.uiptv.service.AccountChangeListener;
+import com.uiptv.service.AccountHealthService;
 import com.uiptv.service.AccountInfoService;
 import com.uiptv.service.AccountResolver;
 import com.uiptv.service.AccountService;
+import com.uiptv.service.CacheRefreshScheduler;
 import com.uiptv.service.CategoryService;
 import com.uiptv.service.ChannelService;
+import com.uiptv.service.EpgService;
 import com.uiptv.ui.util.UiI18n;
 import com.uiptv.util.AccountType;
 import com.uiptv.util.I18n;
+import com.uiptv.util.StartupProfile;
 import com.uiptv.widget.AppHeaderActions;
 import com.uiptv.widget.AppPageHeader;
 import com.uiptv.widget.InlinePanelService;
@@ -57,6 +61,7 @@ import static com.uiptv.model.Account.CACHE_SUPPORTED;
 import static com.uiptv.model.Account.VOD_AND_SERIES_SUPPORTED;
 import static com.uiptv.widget.UIptvAlert.showConfirmationAlert;
 import static com.uiptv.widget.UIptvAlert.showErrorAlert;
+import static com.uiptv.widget.UIptvAlert.showMessageAlert;
 
 public class AccountListUI extends HBox implements SearchTarget {
     private static final String MULTI_SELECTION_DISABLED_KEY = "autoThisActionIsDisabledForMultipleSelections";
@@ -66,6 +71,7 @@ public class AccountListUI extends HBox implements SearchTarget {
     private static final double GRID_COMPACT_CARD_MAX_WIDTH = 270;
     private static final double GRID_DRAWER_CARD_MIN_WIDTH = 230;
     private static final double GRID_DRAWER_CARD_MAX_WIDTH = 380;
+    private static final List<String> HEALTH_STYLE_CLASSES = List.of("account-health-degraded", "account-health-recovering", "account-health-down");
     private static final double GRID_NORMAL_VERTICAL_GAP = 14;
     private static final double GRID_PLAIN_TEXT_VERTICAL_GAP = 6;
     private static final double GRID_NORMAL_CARD_MIN_HEIGHT = 76;
@@ -276,7 +282,7 @@ public class AccountListUI extends HBox implements SearchTarget {
         List<AccountResolver.AccountRow> resolved = accountResolver.resolveAccounts();
         for (int index = 0; index < resolved.size(); index++) {
             AccountResolver.AccountRow account = resolved.get(index);
-            catList.add(new AccountItem(
+            AccountItem item = new AccountItem(
                     new SimpleStringProperty(account.getAccountName()),
                     new SimpleStringProperty(account.getDbId()),
                     new SimpleStringProperty(account.getType()),
@@ -284,10 +290,13 @@ public class AccountListUI extends HBox implements SearchTarget {
                     index,
                     0,
                     0
-            ));
+            );
+            item.setHealth(account.getHealthStatus(), account.getHealthScore());
+            catList.add(item);
         }
         masterAccountItems.setAll(catList);
         applyAccountOrdering();
+        StartupProfile.getInstance().ready("first-account-list");
         loadAccountMetricsAsync(generation, resolved);
     }
 
@@ -302,7 +311,7 @@ public class AccountListUI extends HBox implements SearchTarget {
                 AccountResolver.AccountRow row = safeRows.get(index);
                 AccountMetrics metrics = cachedAccountMetrics(accountViewForMetrics(row.getDbId()));
                 AccountExpiry expiry = cachedAccountExpiry(row.getDbId());
-                updatedItems.add(new AccountItem(
+                AccountItem item = new AccountItem(
                         new SimpleStringProperty(row.getAccountName()),
                         new SimpleStringProperty(row.getDbId()),
                         new SimpleStringProperty(row.getType()),
@@ -312,7 +321,9 @@ public class AccountListUI extends HBox implements SearchTarget {
                         metrics.channelCount(),
                         expiry.text(),
                         expiry.state()
-                ));
+                );
+                item.setHealth(row.getHealthStatus(), row.getHealthScore());
+                updatedItems.add(item);
             }
             Platform.runLater(() -> {
                 if (generation != refreshGeneration.get()) {
@@ -1175,6 +1186,8 @@ public class AccountListUI extends HBox implements SearchTarget {
         MenuItem reloadCache = new MenuItem(I18n.tr("autoReloadCache"));
         reloadCache.setOnAction(_ -> handleReloadCache(contextItem, actionItems));
 
+        MenuItem refreshGuide = new MenuItem(I18n.tr("epgRefreshGuide"));
+
         MenuItem deleteItem = new MenuItem(I18n.tr("autoDeleteAccount"));
         deleteItem.getStyleClass().add("danger-menu-item");
         deleteItem.setOnAction(_ -> handleDeleteAccounts(actionItems));
@@ -1190,6 +1203,7 @@ public class AccountListUI extends HBox implements SearchTarget {
                 .map(Account::getType)
                 .anyMatch(CACHE_SUPPORTED::contains);
         reloadCache.setVisible(cacheSupported);
+        refreshGuide.setOnAction(_ -> runSingleSelectionAction(actionItems, () -> handleRefreshGuide(account)));
 
         if (actionItems.size() > 1) {
             if (cacheSupported) {
@@ -1200,13 +1214,28 @@ public class AccountListUI extends HBox implements SearchTarget {
         }
 
         menu.getItems().addAll(editAccount, new SeparatorMenuItem(), itvItem, vodItem, seriesItem);
+        boolean guideSupported = EpgService.getInstance().hasGuide(account);
+        if (cacheSupported || guideSupported) {
+            menu.getItems().add(new SeparatorMenuItem());
+        }
         if (cacheSupported) {
-            menu.getItems().addAll(new SeparatorMenuItem(), reloadCache);
+            menu.getItems().add(reloadCache);
+        }
+        if (guideSupported) {
+            menu.getItems().add(refreshGuide);
         }
         menu.getItems().add(deleteItem);
         return menu;
     }
 
+    private void handleRefreshGuide(Account account) {
+        if (CacheRefreshScheduler.getInstance().enqueueGuideRefresh(account)) {
+            showMessageAlert(I18n.tr("epgRefreshQueued"));
+        } else {
+            showErrorAlert(I18n.tr("epgRefreshFailed"));
+        }
+    }
+
     private void handleAccountGridSelectionChanged() {
         if (onEditCallback == null || accountGrid.getSelectedItems().size() != 1) {
             return;
@@ -1226,6 +1255,8 @@ public class AccountListUI extends HBox implements SearchTarget {
             private final Group pinIcon = new Group(pinStem, pinHead);
             private final StackPane pinIconWrapper = new StackPane(pinIcon);
             private final Label nameLabel = new Label();
+            private final Label healthLabel = new Label("\u25CF");
+            private final Tooltip healthTooltip = new Tooltip();
             private final Pane spacer = new Pane();
 
             {
@@ -1243,7 +1274,11 @@ public class AccountListUI extends HBox implements SearchTarget {
 
                 HBox.setHgrow(spacer, Priority.ALWAYS);
                 graphic.setAlignment(Pos.CENTER_LEFT);
-                graphic.getChildren().addAll(pinIconWrapper, nameLabel, spacer);
+                healthLabel.getStyleClass().add("account-health-indicator");
+                healthLabel.setTooltip(healthTooltip);
+                healthLabel.setVisible(false);
+                healthLabel.setManaged(false);
+                graphic.getChildren().addAll(pinIconWrapper, nameLabel, healthLabel, spacer);
             }
 
             @Override
@@ -1270,9 +1305,21 @@ public class AccountListUI extends HBox implements SearchTarget {
                 boolean pinned = accountItem.isPinToTop();
                 pinIconWrapper.setVisible(pinned);
                 pinIconWrapper.setManaged(pinned);
+                updateHealthIndicator(accountItem);
                 setText(null);
                 setGraphic(graphic);
             }
+
+            private void updateHealthIndicator(AccountItem accountItem) {
+                boolean unhealthy = !AccountHealthService.HealthStatus.HEALTHY.name().equals(accountItem.getHealthStatus());
+                healthLabel.getStyleClass().removeAll(HEALTH_STYLE_CLASSES);
+                if (unhealthy) {
+                    healthLabel.getStyleClass().add("account-health-" + accountItem.getHealthStatus().toLowerCase(Locale.ROOT));
+                    healthTooltip.setText(I18n.tr("accountHealthTooltip", accountItem.getHealthScore()));
+                }
+                healthLabel.setVisible(unhealthy);
+                healthLabel.setManaged(unhealthy);
+            }
         };
     }
 
@@ -1729,6 +1776,8 @@ public class AccountListUI extends HBox implements SearchTarget {
         private int channelCount;
         private String expiryText;
         private AccountInfoUiUtil.ExpiryState expiryState;
+        private String healthStatus = AccountHealthService.HealthStatus.HEALTHY.name();
+        private int healthScore = 100;
 
         public AccountItem(SimpleStringProperty accountName, SimpleStringProperty accountId, SimpleStringProperty accountType,
                            boolean pinToTop, int originalOrder, int categoryCount, int channelCount) {
@@ -1818,6 +1867,19 @@ public class AccountListUI extends HBox implements SearchTarget {
             this.expiryState = expiryState == null ? AccountInfoUiUtil.ExpiryState.UNKNOWN : expiryState;
           }
 
+        public String getHealthStatus() {
+            return healthStatus;
+        }
+
+        public int getHealthScore() {
+            return healthScore;
+        }
+
+        public void setHealth(String healthStatus, int healthScore) {
+            this.healthStatus = healthStatus == null ? AccountHealthService.HealthStatus.HEALTHY.name() : healthStatus;
+            this.healthScore = healthScore;
+        }
+
     }
 
     private enum AccountSortMode {
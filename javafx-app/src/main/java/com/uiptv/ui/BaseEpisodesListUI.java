@@ -15,6 +15,7 @@ import com.uiptv.service.SeriesWatchingNowSnapshotService;
 import com.uiptv.shared.Episode;
 import com.uiptv.shared.EpisodeList;
 import com.uiptv.ui.util.UiServerUrlUtil;
+import com.uiptv.ui.util.UiTaskScheduler;
 import com.uiptv.util.EpisodeTitleFormatter;
 import com.uiptv.util.I18n;
 import com.uiptv.util.ServerUrlUtil;
@@ -197,7 +198,7 @@ public abstract class BaseEpisodesListUI extends HBox {
             return;
         }
         notifyReloadControlChanged();
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "episodes-portal-reload", () -> {
             EpisodeList refreshed = null;
             RuntimeException failure = null;
             try {
@@ -210,7 +211,7 @@ public abstract class BaseEpisodesListUI extends HBox {
             EpisodeList finalRefreshed = refreshed == null ? new EpisodeList() : refreshed;
             RuntimeException finalFailure = failure;
             runLater(() -> finishPortalReload(finalRefreshed, finalFailure));
-        }, "episodes-portal-reload").start();
+        });
     }
 
     protected void notifyBingeWatchControlChanged() {
@@ -427,6 +428,8 @@ public abstract class BaseEpisodesListUI extends HBox {
     }
 
     protected void releaseTransientState() {
+        UiTaskScheduler.getInstance().cancelOwner(this);
+        portalReloadInProgress.set(false);
         allEpisodeItems.clear();
         seasonInfo = new JSONObject();
         channelList.getEpisodes().clear();
@@ -453,7 +456,7 @@ public abstract class BaseEpisodesListUI extends HBox {
         if (allEpisodeItems.isEmpty()) {
             return;
         }
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, "bookmark-states", "episodes-bookmark-refresh", () -> {
             List<Bookmark> bookmarks = BookmarkService.getInstance().read();
             Set<String> bookmarkKeys = bookmarks.stream()
                     .filter(b -> account.getAccountName().equals(b.getAccountName()))
@@ -466,14 +469,14 @@ public abstract class BaseEpisodesListUI extends HBox {
                 }
                 onBookmarksRefreshed();
             });
-        }, "episodes-bookmark-refresh").start();
+        });
     }
 
     protected void refreshWatchedStatesAsync() {
         if (allEpisodeItems.isEmpty() || account == null || isBlank(account.getDbId()) || isBlank(seriesId)) {
             return;
         }
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, "watch-states", "episodes-watch-refresh", () -> {
             SeriesWatchState state = SeriesWatchStateService.getInstance().getSeriesLastWatched(account.getDbId(), seriesCategoryId, seriesId);
             runLater(() -> {
                 for (EpisodeItem item : allEpisodeItems) {
@@ -487,7 +490,7 @@ public abstract class BaseEpisodesListUI extends HBox {
                 }
                 onWatchedStatesRefreshed();
             });
-        }, "episodes-watch-refresh").start();
+        });
     }
 
     protected String bookmarkIdentityKey(String channelId, String channelName) {
@@ -512,7 +515,7 @@ public abstract class BaseEpisodesListUI extends HBox {
         if (item == null || isBlank(seriesId) || account == null) {
             return;
         }
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "episodes-mark-watched", () -> {
             SeriesWatchStateService.getInstance().markSeriesEpisodeManual(
                     account,
                     seriesCategoryId,
@@ -523,17 +526,17 @@ public abstract class BaseEpisodesListUI extends HBox {
                     item.getEpisodeNumber()
             );
             refreshWatchedStatesAsync();
-        }, "episodes-mark-watched").start();
+        });
     }
 
     protected void clearWatchedMarker() {
         if (account == null || isBlank(account.getDbId()) || isBlank(seriesId)) {
             return;
         }
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "episodes-clear-watched", () -> {
             SeriesWatchStateService.getInstance().clearSeriesLastWatched(account.getDbId(), seriesCategoryId, seriesId);
             refreshWatchedStatesAsync();
-        }, "episodes-clear-watched").start();
+        });
     }
 
     protected void play(EpisodeItem item, String playerPath) {
@@ -10,6 +10,7 @@ import com.uiptv.shared.EpisodeList;
 import com.uiptv.ui.util.ImageCacheManager;
 import com.uiptv.ui.util.UiI18n;
 import com.uiptv.ui.util.UiServerUrlUtil;
+import com.uiptv.ui.util.UiTaskScheduler;
 import com.uiptv.util.EpisodeTitleFormatter;
 import com.uiptv.util.I18n;
 import com.uiptv.util.ImageUrlNormalizer;
@@ -183,7 +184,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
         dirty = false;
         showLoadingPlaceholderIfEmpty();
         long generation = lifecycleGeneration.get();
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "watching-now-loader", () -> {
             List<SeriesPanelData> rows = buildPanelsFromCache();
             Platform.runLater(() -> {
                 try {
@@ -199,7 +200,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
                     }
                 }
             });
-        }, "watching-now-loader").start();
+        });
     }
 
     private List<SeriesPanelData> buildPanelsFromCache() {
@@ -289,7 +290,8 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
         if (episodesEmpty) {
             // Show panel immediately, then load missing episodes in background to avoid blocking UI
             panel.episodeLoadingVisible = true;
-            new Thread(() -> {
+            UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.PREFETCH, this,
+                    "episodes:" + account.getDbId() + ":" + scopedState.getSeriesId(), "watching-now-episodes-background-fetch", () -> {
                 EpisodeList fetched = null;
                 try {
                     fetched = SeriesEpisodeService.getInstance().reloadEpisodesFromPortal(
@@ -306,7 +308,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
                     // refresh the visible list so the newly loaded episodes are rendered
                     renderCurrentView();
                 });
-            }, "watching-now-episodes-background-fetch").start();
+            });
         }
         applyImdbMemoryCache(panel);
         return panel;
@@ -703,7 +705,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
         }
         String accountId = data.account.getDbId();
         String seriesId = data.state.getSeriesId();
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "watching-now-remove-series", () -> {
             List<SeriesWatchState> states = SeriesWatchStateService.getInstance().getAllSeriesLastWatchedByAccount(accountId);
             for (SeriesWatchState state : states) {
                 if (state == null) {
@@ -722,7 +724,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
                 }
                 renderCurrentView();
             });
-        }, "watching-now-remove-series").start();
+        });
     }
 
     private void showSeriesDetail(SeriesPanelData data) {
@@ -1044,7 +1046,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
         reloadButton.setText(I18n.tr("autoReloading"));
         setSeriesEpisodeLoadingOverlayVisible(data, true,
                 I18n.tr("autoLoadingEpisodesFor", firstNonBlank(data.seasonInfo.optString("name", ""), data.seriesTitle)));
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "watching-now-series-detail-reload", () -> {
             EpisodeList refreshed = null;
             RuntimeException failure = null;
             try {
@@ -1071,7 +1073,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
                 applyReloadedEpisodesToPanel(data, finalRefreshed);
                 showSeriesDetail(data);
             });
-        }, "watching-now-series-detail-reload").start();
+        });
     }
 
     private void applyReloadedEpisodesToPanel(SeriesPanelData data, EpisodeList refreshed) {
@@ -1873,7 +1875,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
         }
         // Optimistically update UI
         updateWatchingStatusUIForEpisode(item);
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "watching-now-mark-watched", () -> {
             Account seriesAccount = seriesAccount(item.account);
             if (seriesAccount == null) {
                 return;
@@ -1887,7 +1889,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
                     item.season,
                     item.episodeNum
             );
-        }, "watching-now-mark-watched").start();
+        });
     }
 
     private void updateWatchingStatusUIForEpisode(WatchingEpisode currentEpisode) {
@@ -1907,11 +1909,11 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
         if (item == null || isBlank(item.account.getDbId())) {
             return;
         }
-        new Thread(() -> SeriesWatchStateService.getInstance().clearSeriesLastWatched(
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "watching-now-clear-watched", () -> SeriesWatchStateService.getInstance().clearSeriesLastWatched(
                 item.account.getDbId(),
                 item.state.getCategoryId(),
                 item.state.getSeriesId()
-        ), "watching-now-clear-watched").start();
+        ));
     }
 
     private void playEpisode(SeriesPanelData data, WatchingEpisode item, String playerPath) {
@@ -2355,7 +2357,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
         }
         reloadInProgress.set(true);
         long generation = lifecycleGeneration.get();
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "watching-now-delta-loader", () -> {
             try {
                 List<SeriesPanelData> updated = buildUpdatedSeriesPanels(accountId, seriesId);
                 Platform.runLater(() -> {
@@ -2371,7 +2373,7 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
                     scheduleRefreshIfNeeded();
                 }
             }
-        }, "watching-now-delta-loader").start();
+        });
     }
 
     private void scheduleRefreshIfNeeded() {
@@ -2888,6 +2890,8 @@ public abstract class BaseWatchingNowUI extends VBox implements SearchTarget {
 
     private void releaseUiState() {
         lifecycleGeneration.incrementAndGet();
+        UiTaskScheduler.getInstance().cancelOwner(this);
+        reloadInProgress.set(false);
         reloadQueued.set(false);
         refreshScheduled.set(false);
         dirty = true;
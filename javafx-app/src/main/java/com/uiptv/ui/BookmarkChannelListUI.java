@@ -4,6 +4,7 @@ import com.uiptv.model.*;
 import com.uiptv.service.*;
 import com.uiptv.shared.Episode;
 import com.uiptv.ui.util.UiI18n;
+import com.uiptv.ui.util.UiTaskScheduler;
 import com.uiptv.util.I18n;
 import com.uiptv.widget.AppHeaderActions;
 import com.uiptv.widget.AppPageHeader;
@@ -167,7 +168,8 @@ public class BookmarkChannelListUI extends HBox implements SearchTarget {
     }
 
     private void startReloadThread(long generation) {
-        new Thread(() -> reloadBookmarks(generation)).start();
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "bookmark-reload",
+                () -> reloadBookmarks(generation));
     }
 
     private void reloadBookmarks(long generation) {
@@ -359,6 +361,7 @@ public class BookmarkChannelListUI extends HBox implements SearchTarget {
 
     private void releaseTransientState() {
         reloadGeneration.incrementAndGet();
+        UiTaskScheduler.getInstance().cancelOwner(this);
         reloadInProgress = false;
         loadedOnce = false;
         reloadRequestedWhileReloading = false;
@@ -1112,7 +1115,7 @@ public class BookmarkChannelListUI extends HBox implements SearchTarget {
             return;
         }
         suppressAutoReloadOnBookmarkChange = true;
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "bookmark-delete", () -> {
             List<String> removedBookmarkIds = new ArrayList<>();
             for (BookmarkItem selectedItem : selectedItems) {
                 try {
@@ -1137,7 +1140,7 @@ public class BookmarkChannelListUI extends HBox implements SearchTarget {
                     suppressAutoReloadOnBookmarkChange = false;
                 }
             });
-        }, "bookmark-delete").start();
+        });
     }
 
     private void play(BookmarkItem item, String playerPath) {
@@ -9,6 +9,7 @@ import com.uiptv.service.CategoryCacheRemovalService;
 import com.uiptv.service.CategoryResolver;
 import com.uiptv.service.CategoryService;
 import com.uiptv.service.ChannelService;
+import com.uiptv.ui.util.UiTaskScheduler;
 import com.uiptv.util.I18n;
 import com.uiptv.widget.CloseIconButton;
 import com.uiptv.widget.InlinePanelService;
@@ -68,7 +69,7 @@ public class CategoryListUI extends HBox implements SearchTarget {
     private static final String LOG_CHANNELS = " channels: ";
     private final AccountMediaContext mediaContext;
     private final AccountView account;
-    private final AtomicReference<Thread> currentLoadingThread = new AtomicReference<>();
+    private final AtomicReference<UiTaskScheduler.TaskHandle> currentLoad = new AtomicReference<>();
     private final VBox leftPane = new VBox(5);
     private final VBox detailPane = new VBox(8);
     private final HBox headerRow = new HBox(8);
@@ -823,7 +824,7 @@ public class CategoryListUI extends HBox implements SearchTarget {
         table.setPlaceholder(new Label(I18n.tr(I18N_AUTO_LOADING_CATEGORIES)));
         showListView();
 
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, "categories:" + mode, "category-mode-loader", () -> {
             try {
                 Account modeAccount = accountForMode(mode);
                 List<Category> categories = CategoryService.getInstance().get(modeAccount, true,
@@ -837,7 +838,7 @@ public class CategoryListUI extends HBox implements SearchTarget {
             } catch (Exception e) {
                 Platform.runLater(() -> showErrorAlert(I18n.tr("autoFailedToLoadCategories", e.getMessage())));
             }
-        }).start();
+        });
     }
 
     private void selectActiveModePill() {
@@ -954,9 +955,9 @@ public class CategoryListUI extends HBox implements SearchTarget {
         if (currentRequestCancelled != null) {
             currentRequestCancelled.set(true);
         }
-        Thread runningThread = currentLoadingThread.getAndSet(null);
-        if (runningThread != null && runningThread.isAlive()) {
-            runningThread.interrupt();
+        UiTaskScheduler.TaskHandle running = currentLoad.getAndSet(null);
+        if (running != null) {
+            running.cancel();
         }
     }
 
@@ -1003,29 +1004,25 @@ public class CategoryListUI extends HBox implements SearchTarget {
             currentRequestCancelled.set(true);
         }
 
-        Thread runningThread = currentLoadingThread.get();
-        if (runningThread != null && runningThread.isAlive()) {
-            RootApplication.getPrimaryStage().getScene().setCursor(Cursor.WAIT);
-            runningThread.interrupt();
+        UiTaskScheduler.TaskHandle running = currentLoad.get();
+        if (running != null && !running.isDone()) {
+            running.cancel();
         }
 
         currentRequestCancelled = new AtomicBoolean(false);
         AtomicBoolean isCancelled = currentRequestCancelled;
 
         RootApplication.getPrimaryStage().getScene().setCursor(Cursor.WAIT);
-        Thread loadingThread = new Thread(() -> {
-            Thread worker = Thread.currentThread();
+        currentLoad.set(UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "category-channel-loader", () -> {
             try {
                 retrieveChannels(item, noCachingNeeded, isCancelled::get, mode);
             } finally {
-                if (currentLoadingThread.compareAndSet(worker, null)) {
+                // A superseded load leaves the cursor to the request that replaced it.
+                if (!isCancelled.get()) {
                     Platform.runLater(() -> RootApplication.getPrimaryStage().getScene().setCursor(null));
                 }
             }
-        });
-        loadingThread.setDaemon(true);
-        currentLoadingThread.set(loadingThread);
-        loadingThread.start();
+        }));
     }
 
     private void retrieveChannels(CategoryItem item, boolean noCachingNeeded, BooleanSupplier isCancelled, Account.AccountAction mode) {
@@ -3,7 +3,9 @@ package com.uiptv.ui;
 import com.uiptv.model.*;
 import com.uiptv.service.*;
 import com.uiptv.shared.EpisodeList;
+import com.uiptv.ui.dialog.EpgGuideDialog;
 import com.uiptv.ui.util.UiI18n;
+import com.uiptv.ui.util.UiTaskScheduler;
 import com.uiptv.util.I18n;
 import com.uiptv.util.ServerUrlUtil;
 import com.uiptv.widget.AsyncImageView;
@@ -111,7 +113,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
     private final BookmarkChangeListener bookmarkChangeListener = (revision, updatedEpochMs) -> scheduleBookmarkRefresh();
     private final VodWatchStateChangeListener vodWatchStateChangeListener = (accountId, vodId) -> scheduleBookmarkRefresh();
     private final SeriesWatchStateChangeListener seriesWatchStateChangeListener = this::onSeriesWatchStateChanged;
-    private final AtomicReference<Thread> currentLoadingThread = new AtomicReference<>();
+    private final AtomicReference<UiTaskScheduler.TaskHandle> currentLoad = new AtomicReference<>();
     private AtomicBoolean currentRequestCancelled;
     private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor();
     private final AtomicReference<ScheduledFuture<?>> refreshFuture = new AtomicReference<>();
@@ -192,9 +194,8 @@ public class ChannelListUI extends HBox implements SearchTarget {
         itemsLoaded.set(true);
         if (Platform.isFxApplicationThread() && newChannels.size() > CHANNEL_UI_BATCH_SIZE) {
             List<Channel> channels = new ArrayList<>(newChannels);
-            Thread worker = new Thread(() -> addItemsIncrementally(channels), "uiptv-channel-card-batcher");
-            worker.setDaemon(true);
-            worker.start();
+            UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "channel-card-batcher",
+                    () -> addItemsIncrementally(channels));
             return;
         }
         addItemsIncrementally(newChannels);
@@ -1181,6 +1182,30 @@ public class ChannelListUI extends HBox implements SearchTarget {
     private void populateChannelContextMenu(ContextMenu menu, ChannelItem item, List<ChannelItem> selectedItems) {
         addPlayerItems(menu, item);
         addBookmarkMenu(menu, item, selectedItems);
+        if (EpgService.getInstance().hasGuide(account)) {
+            MenuItem guideItem = new MenuItem(I18n.tr("epgProgrammeGuide"));
+            guideItem.setOnAction(_ -> {
+                menu.hide();
+                showProgrammeGuide(item);
+            });
+            menu.getItems().add(guideItem);
+        }
+    }
+
+    private void showProgrammeGuide(ChannelItem item) {
+        Channel channel = item.getChannel();
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "channel-guide-loader", () -> {
+            long now = System.currentTimeMillis();
+            List<EpgProgramme> programmes;
+            try {
+                programmes = EpgService.getInstance().programmes(account, channel, now, now + TimeUnit.HOURS.toMillis(24));
+            } catch (RuntimeException _) {
+                // An unreadable guide is shown as an empty one.
+                programmes = List.of();
+            }
+            List<EpgProgramme> loaded = programmes;
+            runLater(() -> EpgGuideDialog.show(item.getChannelName(), loaded));
+        });
     }
 
     private void addBookmarkMenu(ContextMenu menu, ChannelItem item, List<ChannelItem> selectedItems) {
@@ -1419,10 +1444,9 @@ public class ChannelListUI extends HBox implements SearchTarget {
         if (currentRequestCancelled != null) {
             currentRequestCancelled.set(true);
         }
-        Thread loadingThread = currentLoadingThread.getAndSet(null);
-        if (loadingThread != null && loadingThread.isAlive()) {
-            loadingThread.interrupt();
-        }
+        currentLoad.set(null);
+        UiTaskScheduler.getInstance().cancelOwner(this);
+        table.cancelPendingFilter();
         cancelLoadingProgressHide();
         seriesEpisodesCache.clear();
         // Clear channel items and metadata to allow garbage collection
@@ -1467,7 +1491,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
         if (disposed.get() || channelItems == null || channelItems.isEmpty()) {
             return;
         }
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, "bookmark-states", "channel-bookmark-states", () -> {
             if (disposed.get()) {
                 return;
             }
@@ -1489,7 +1513,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
                 }
                 refreshChannelViews();
             });
-        }).start();
+        });
     }
 
     private List<Bookmark> loadBookmarksForAccount() {
@@ -1525,7 +1549,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
         if (disposed.get() || channelItems == null || channelItems.isEmpty()) {
             return;
         }
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, "series-watch-states:" + normalizeSeriesWatchKey(changedSeriesId), "series-watch-state-refresh", () -> {
             if (disposed.get()) {
                 return;
             }
@@ -1548,7 +1572,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
                 }
                 refreshChannelViews();
             });
-        }, "series-watch-state-refresh").start();
+        });
     }
 
     private Map<String, SeriesWatchState> loadSeriesWatchStates() {
@@ -1703,7 +1727,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
         if (!isAllCategoryView()) {
             return;
         }
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.PREFETCH, this, "all-category-context", "bookmark-all-context-loader", () -> {
             if (disposed.get()) {
                 return;
             }
@@ -1736,7 +1760,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
                     runLater(this::refreshBookmarkStatesAsync);
                 }
             }
-        }, "bookmark-all-context-loader").start();
+        });
     }
 
     private String normalizeCategoryKey(String value) {
@@ -1804,7 +1828,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
 
     private void loadSeriesEpisodesAsync(ChannelItem item, AtomicBoolean isCancelled) {
         getScene().setCursor(Cursor.WAIT);
-        Thread loadingThread = new Thread(() -> {
+        currentLoad.set(UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "series-episodes-loader", () -> {
             try {
                 EpisodesListUI ui = buildEpisodesListUi(item);
                 if (!awaitEpisodesUiReady(item, ui, isCancelled)) {
@@ -1817,11 +1841,8 @@ public class ChannelListUI extends HBox implements SearchTarget {
                 runLater(() -> showErrorAlert(I18n.tr("autoErrorLoadingSeries", e.getMessage())));
             } finally {
                 runLater(() -> getScene().setCursor(null));
-                currentLoadingThread.compareAndSet(Thread.currentThread(), null);
             }
-        });
-        currentLoadingThread.set(loadingThread);
-        loadingThread.start();
+        }));
     }
 
     private EpisodesListUI buildEpisodesListUi(ChannelItem item) {
@@ -1877,17 +1898,13 @@ public class ChannelListUI extends HBox implements SearchTarget {
     }
 
     private void interruptRunningLoad() {
-        Thread runningThread = currentLoadingThread.get();
-        if (runningThread == null || !runningThread.isAlive()) {
+        UiTaskScheduler.TaskHandle running = currentLoad.get();
+        if (running == null || running.awaitDone(0)) {
             return;
         }
         getScene().setCursor(Cursor.WAIT);
-        runningThread.interrupt();
-        try {
-            runningThread.join(2000);
-        } catch (InterruptedException _) {
-            Thread.currentThread().interrupt();
-        }
+        running.cancel();
+        running.awaitDone(2000);
     }
 
     private static final class ChannelBookmarkIdentity {
@@ -1939,7 +1956,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
     }
 
     private void loadBookmarkMenuItemsAsync(List<ChannelItem> items, Menu bookmarkMenu) {
-        Thread bookmarkMenuThread = new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "channel-bookmark-menu-loader", () -> {
             try {
                 List<Bookmark> accountBookmarks = loadBookmarksForAccount();
                 List<BookmarkCategory> categories = BookmarkService.getInstance().getAllCategories();
@@ -1955,9 +1972,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
             } catch (RuntimeException _) {
                 // Context menus remain usable without bookmark sub-items if the cache is unavailable.
             }
-        }, "channel-bookmark-menu-loader");
-        bookmarkMenuThread.setDaemon(true);
-        bookmarkMenuThread.start();
+        });
     }
 
     private void populateBookmarkMenuItems(List<ChannelItem> items,
@@ -1989,7 +2004,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
     }
 
     private void removeBookmarksAsync(Map<ChannelItem, Bookmark> existingBookmarks) {
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "channel-bookmark-remove", () -> {
             for (Map.Entry<ChannelItem, Bookmark> entry : existingBookmarks.entrySet()) {
                 Bookmark bookmark = entry.getValue();
                 if (bookmark != null && !isBlank(bookmark.getDbId())) {
@@ -2003,7 +2018,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
                 refreshChannelViews();
                 refreshBookmarkStatesAsync();
             });
-        }).start();
+        });
     }
 
     private void populateVodContextMenu(ContextMenu rowMenu, ChannelItem item) {
@@ -2041,7 +2056,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
     }
 
     private void saveBookmarks(List<ChannelItem> items, String bookmarkCategoryId) {
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "channel-bookmark-save", () -> {
             for (ChannelItem item : items) {
                 BookmarkContext ctx = resolveBookmarkContext(item.getChannel());
                 Bookmark bookmark = new Bookmark(account.getAccountName(), ctx.categoryTitle, item.getChannelId(), item.getChannelName(), item.getCmd(), account.getServerPortalUrl(), ctx.categoryId);
@@ -2069,14 +2084,14 @@ public class ChannelListUI extends HBox implements SearchTarget {
                 refreshChannelViews();
                 refreshBookmarkStatesAsync();
             });
-        }).start();
+        });
     }
 
     private void saveVodWatchingNow(ChannelItem item) {
         if (item == null || item.getChannel() == null) {
             return;
         }
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "vod-watching-now-save", () -> {
             BookmarkContext ctx = resolveBookmarkContext(item.getChannel());
             VodWatchStateService.getInstance().save(account, ctx == null ? categoryId : ctx.categoryId, item.getChannel());
             Platform.runLater(() -> {
@@ -2084,14 +2099,14 @@ public class ChannelListUI extends HBox implements SearchTarget {
                 refreshChannelViews();
                 refreshBookmarkStatesAsync();
             });
-        }).start();
+        });
     }
 
     private void removeVodWatchingNow(ChannelItem item) {
         if (item == null || item.getChannel() == null || isBlank(account.getDbId())) {
             return;
         }
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "vod-watching-now-remove", () -> {
             BookmarkContext ctx = resolveBookmarkContext(item.getChannel());
             VodWatchStateService.getInstance().remove(account.getDbId(), ctx == null ? categoryId : ctx.categoryId, item.getChannelId());
             Platform.runLater(() -> {
@@ -2099,7 +2114,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
                 refreshChannelViews();
                 refreshBookmarkStatesAsync();
             });
-        }).start();
+        });
     }
 
     private void saveSeriesWatchingNow(ChannelItem item) {
@@ -2107,7 +2122,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
             return;
         }
         Channel channel = item.getChannel();
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "series-watching-now-save", () -> {
             SeriesWatchStateService.getInstance().markSeriesEpisodeManual(
                 account, categoryId, channel.getChannelId(), channel.getChannelId(),
                 channel.getName(), channel.getSeason(), channel.getEpisodeNum()
@@ -2117,7 +2132,7 @@ public class ChannelListUI extends HBox implements SearchTarget {
                 refreshChannelViews();
                 refreshSeriesWatchStatesAsync(channel.getChannelId());
             });
-        }).start();
+        });
     }
 
     private void removeSeriesWatchingNow(ChannelItem item) {
@@ -2129,14 +2144,14 @@ public class ChannelListUI extends HBox implements SearchTarget {
             return;
         }
         Channel channel = item.getChannel();
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "series-watching-now-remove", () -> {
             SeriesWatchStateService.getInstance().clearSeriesLastWatched(account.getDbId(), categoryId, channel.getChannelId());
             Platform.runLater(() -> {
                 channel.setWatched(false);
                 refreshChannelViews();
                 refreshSeriesWatchStatesAsync(channel.getChannelId());
             });
-        }).start();
+        });
     }
 
     private void play(ChannelItem item, String playerPath) {
@@ -13,6 +13,7 @@ import com.uiptv.service.remotesync.RemoteSyncProgressStep;
 import com.uiptv.ui.util.ImageCacheManager;
 import com.uiptv.ui.util.UiI18n;
 import com.uiptv.ui.util.UiServerUrlUtil;
+import com.uiptv.ui.util.UiTaskScheduler;
 import com.uiptv.util.I18n;
 import com.uiptv.util.ServerUrlUtil;
 import com.uiptv.widget.*;
@@ -40,6 +41,8 @@ import javafx.util.Duration;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -159,6 +162,8 @@ public class ConfigurationUI extends VBox {
     private final Button clearCacheButton = new Button(I18n.tr("configClearCache"));
     private final Button clearWatchingNowButton = new Button(I18n.tr("configClearWatchingNow"));
     private final Button reloadCacheButton = new Button(I18n.tr("configReloadAccountsCache"));
+    private final Button optimizeDatabaseButton = new Button(I18n.tr("configOptimizeDatabase"));
+    private final Label databaseStorageLabel = new Label();
     private final Hyperlink importDatabaseButton = new Hyperlink(I18n.tr(CONFIG_IMPORT_DATABASE));
     private final Hyperlink exportDatabaseButton = new Hyperlink(I18n.tr(CONFIG_EXPORT_DATABASE));
     private final FileChooser databaseFileChooser = new FileChooser();
@@ -371,9 +376,10 @@ public class ConfigurationUI extends VBox {
 
         VBox themeOverridesGroup = buildThemeOverrideGroup();
 
-        FlowPane clearButtons = createWrappingRow(10, 6, clearCacheButton, clearWatchingNowButton);
+        FlowPane clearButtons = createWrappingRow(10, 6, clearCacheButton, clearWatchingNowButton, optimizeDatabaseButton);
         reloadCacheButton.setMaxWidth(Region.USE_PREF_SIZE);
-        VBox cacheGroup = new VBox(10, cacheExpiryRow, clearButtons, reloadCacheButton);
+        databaseStorageLabel.setWrapText(true);
+        VBox cacheGroup = new VBox(10, cacheExpiryRow, clearButtons, databaseStorageLabel, reloadCacheButton);
         refreshConfigurationBlockTitles();
 
         openServerLink.setVisible(false);
@@ -422,6 +428,7 @@ public class ConfigurationUI extends VBox {
         addStartServerButtonClickHandler();
         addClearCacheButtonClickHandler();
         addClearWatchingNowButtonClickHandler();
+        addOptimizeDatabaseButtonClickHandler();
         addPublishM3u8ButtonClickHandler();
         addReloadCacheButtonClickHandler();
         addOpenServerLinkClickHandler();
@@ -1129,6 +1136,54 @@ public class ConfigurationUI extends VBox {
         });
     }
 
+    private void addOptimizeDatabaseButtonClickHandler() {
+        refreshDatabaseStorageLabel();
+        optimizeDatabaseButton.setOnAction(event -> {
+            optimizeDatabaseButton.setDisable(true);
+            Task<DatabaseMaintenanceService.MaintenanceReport> task = new Task<>() {
+                @Override
+                protected DatabaseMaintenanceService.MaintenanceReport call() {
+                    return configurationApplicationService.runDatabaseMaintenance();
+                }
+            };
+            task.setOnSucceeded(_ -> {
+                optimizeDatabaseButton.setDisable(false);
+                DatabaseMaintenanceService.StorageStats before = task.getValue().before();
+                DatabaseMaintenanceService.StorageStats after = task.getValue().after();
+                showMessageAlert(I18n.tr("configOptimizeDatabaseResult",
+                        formatMegabytes(before.fileBytes()), formatMegabytes(after.fileBytes()),
+                        String.valueOf(before.freePages()), String.valueOf(after.freePages()),
+                        formatMegabytes(before.walBytes()), formatMegabytes(after.walBytes())));
+                refreshDatabaseStorageLabel();
+            });
+            task.setOnFailed(_ -> {
+                optimizeDatabaseButton.setDisable(false);
+                showErrorAlert(I18n.tr("configOptimizeDatabaseFailed") + "\n" + summarizeExceptionMessage(task.getException()));
+            });
+            Thread worker = new Thread(task, "database-maintenance-task");
+            worker.setDaemon(true);
+            worker.start();
+        });
+    }
+
+    private void refreshDatabaseStorageLabel() {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.BACKGROUND, this, "database-storage", "database-storage-stats", () -> {
+            DatabaseMaintenanceService.StorageStats stats = configurationApplicationService.getDatabaseStorageStats();
+            long lastRunMs = configurationApplicationService.getLastDatabaseMaintenanceMs();
+            String lastRun = lastRunMs > 0
+                    ? I18n.formatDate(Instant.ofEpochMilli(lastRunMs).atZone(ZoneId.systemDefault()).toLocalDate())
+                    : I18n.tr("configDatabaseMaintenanceNever");
+            String text = I18n.tr("configDatabaseStorageStatus",
+                    formatMegabytes(stats.fileBytes()), formatMegabytes(stats.walBytes()),
+                    String.valueOf(stats.freePages()), String.valueOf(stats.pageCount()), lastRun);
+            Platform.runLater(() -> databaseStorageLabel.setText(text));
+        });
+    }
+
+    private static String formatMegabytes(long bytes) {
+        return String.format(I18n.getCurrentLocale(), "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
     private void addStartServerButtonClickHandler() {
         startServerButton.setOnAction(event -> {
             try {
@@ -2493,7 +2548,9 @@ public class ConfigurationUI extends VBox {
         Task<RemoteSyncExecutionResult> task = new Task<>() {
             @Override
             protected RemoteSyncExecutionResult call() throws Exception {
-                RemoteSyncOptions options = new RemoteSyncOptions(syncConfiguration, syncExternalPlayerPaths);
+                RemoteSyncOptions options = new RemoteSyncOptions(syncConfiguration, syncExternalPlayerPaths)
+                        .withDeltaTransfer(true)
+                        .withChunkedTransfer(true);
                 if (importMode) {
                     return remoteSyncClientService.importFromRemote(
                             normalizedHost,
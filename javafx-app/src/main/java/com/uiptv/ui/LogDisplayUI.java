@@ -44,8 +44,8 @@ public class LogDisplayUI extends VBox {
     private final Button webLogButton = new Button(I18n.tr("autoWebLogs"));
     private final Button detachButton = new Button(I18n.tr("autoDetach"));
     private final Button attachButton = new Button(I18n.tr("autoAttach"));
-    private static boolean isLoggingEnabled = false;
-    private static boolean forceLoggingEnabled = false;
+    private static volatile boolean isLoggingEnabled = false;
+    private static volatile boolean forceLoggingEnabled = false;
     private static boolean detached = false;
     private static Stage detachedStage;
     private static Stage webLogStage;
@@ -55,7 +55,9 @@ public class LogDisplayUI extends VBox {
     private final Runnable themeToggleHandler;
 
     static {
-        AppLog.registerListener(LogDisplayUI::appendToLogArea);
+        // Only a visible log panel counts as listening, so lazy log messages are not built while it is hidden.
+        AppLog.registerListener(LogDisplayUI::appendToLogArea, AppLog.LogLevel.INFO,
+                () -> (isLoggingEnabled || forceLoggingEnabled) && logArea != null);
     }
 
     public LogDisplayUI() {
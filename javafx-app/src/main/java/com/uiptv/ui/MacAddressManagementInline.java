@@ -3,8 +3,7 @@ package com.uiptv.ui;
 import com.uiptv.util.I18n;
 import com.uiptv.model.Account;
 import com.uiptv.model.AccountInfo;
-import com.uiptv.service.HandshakeService;
-import com.uiptv.util.AccountCopyUtil;
+import com.uiptv.service.macverify.MacVerificationService;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -264,24 +263,16 @@ public class MacAddressManagementInline extends VBox {
         }
         verifyInfoButton.setDisable(true);
         final List<MacItem> finalTargets = new java.util.ArrayList<>(targets);
-        new Thread(() -> {
-            try {
-                for (MacItem item : finalTargets) {
-                    Account account = buildAccountForMac(item.getMac());
-                    AccountInfo info = HandshakeService.getInstance().fetchAccountInfo(account);
-                    updateMacItemInfo(item, info);
-                }
-            } finally {
-                javafx.application.Platform.runLater(() -> {
+        List<String> macs = finalTargets.stream().map(MacItem::getMac).toList();
+        MacVerificationService.getInstance()
+                .verify(baseAccount, macs, true, result -> finalTargets.stream()
+                        .filter(item -> result.macAddress().equals(item.getMac() == null ? null : item.getMac().trim()))
+                        .forEach(item -> updateMacItemInfo(item, result.accountInfo())))
+                .completion()
+                .whenComplete((results, error) -> javafx.application.Platform.runLater(() -> {
                     verifyInfoButton.setDisable(false);
                     macListView.refresh();
-                });
-            }
-        }).start();
-    }
-
-    private Account buildAccountForMac(String mac) {
-        return AccountCopyUtil.copyForMac(baseAccount, mac);
+                }));
     }
 
     private void updateMacItemInfo(MacItem item, AccountInfo info) {
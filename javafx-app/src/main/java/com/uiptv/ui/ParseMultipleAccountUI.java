@@ -4,16 +4,24 @@ import com.uiptv.util.I18n;
 
 import com.uiptv.api.Callback;
 import com.uiptv.model.Account;
+import com.uiptv.service.AccountImportService;
 import com.uiptv.util.TextParserService;
 import com.uiptv.widget.AppHeaderActions;
 import com.uiptv.widget.AppPageHeader;
 import com.uiptv.widget.PillBar;
 import com.uiptv.widget.SwitchToggle;
 import com.uiptv.widget.UIptvTextArea;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.Pos;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -61,6 +69,11 @@ public class ParseMultipleAccountUI extends VBox {
     private final Label startVerificationAfterParsingLabel = new Label(I18n.tr("autoStartVerificationAfterParsing"));
     private final Button saveButton = new Button(I18n.tr("parseAndSave"));
     private final Button clearButton = new Button(I18n.tr("autoClear"));
+    private final Button cancelImportButton = new Button(I18n.tr("autoCancel"));
+    private final ProgressBar importProgressBar = new ProgressBar();
+    private final Label importProgressLabel = new Label();
+    private final ObservableList<String> importIssues = FXCollections.observableArrayList();
+    private final ListView<String> importIssuesView = new ListView<>(importIssues);
     private final VBox contentContainer = new VBox();
     private final HostServices hostServices;
     private final Runnable themeToggleHandler;
@@ -108,6 +121,8 @@ public class ParseMultipleAccountUI extends VBox {
         saveButton.setMaxWidth(Region.USE_PREF_SIZE);
         clearButton.getStyleClass().add("bulk-import-clear-button");
         clearButton.setMinWidth(Region.USE_PREF_SIZE);
+        cancelImportButton.getStyleClass().add("bulk-import-clear-button");
+        cancelImportButton.setMinWidth(Region.USE_PREF_SIZE);
         multipleSPAccounts.getStyleClass().add("bulk-import-input");
         multipleSPAccounts.setMinHeight(360);
         multipleSPAccounts.setPrefHeight(620);
@@ -137,7 +152,8 @@ public class ParseMultipleAccountUI extends VBox {
         VBox modeCard = createModeCard(groupAccountsRow, convertM3uToXtremeRow, verificationRow);
         VBox editorCard = createEditorCard();
         HBox actionRow = createActionRow();
-        contentContainer.getChildren().setAll(pageHeader, modeCard, editorCard, actionRow);
+        VBox issuesCard = createIssuesCard();
+        contentContainer.getChildren().setAll(pageHeader, modeCard, editorCard, actionRow, issuesCard);
         VBox.setVgrow(editorCard, Priority.ALWAYS);
         addSubmitButtonClickHandler();
         addClearButtonClickHandler();
@@ -193,7 +209,12 @@ public class ParseMultipleAccountUI extends VBox {
     }
 
     private HBox createActionRow() {
-        HBox row = new HBox(10, saveButton, clearButton);
+        importProgressBar.setVisible(false);
+        importProgressLabel.getStyleClass().add("bulk-import-description");
+        importProgressLabel.visibleProperty().bind(importProgressBar.visibleProperty());
+        cancelImportButton.setVisible(false);
+        cancelImportButton.managedProperty().bind(cancelImportButton.visibleProperty());
+        HBox row = new HBox(10, saveButton, clearButton, importProgressBar, importProgressLabel, cancelImportButton);
         row.getStyleClass().add("bulk-import-actions");
         row.setAlignment(Pos.CENTER_LEFT);
         row.setFillHeight(false);
@@ -201,6 +222,21 @@ public class ParseMultipleAccountUI extends VBox {
         return row;
     }
 
+    private VBox createIssuesCard() {
+        Label title = new Label(I18n.tr("bulkImportIssuesTitle"));
+        title.getStyleClass().add("bulk-import-section-title");
+        importIssuesView.setPrefHeight(160);
+        importIssuesView.setFocusTraversable(false);
+
+        VBox card = new VBox(10, title, importIssuesView);
+        card.getStyleClass().add("bulk-import-card");
+        card.setFillWidth(true);
+        card.setMaxWidth(Double.MAX_VALUE);
+        card.visibleProperty().bind(Bindings.isNotEmpty(importIssues));
+        card.managedProperty().bind(card.visibleProperty());
+        return card;
+    }
+
     private HBox createSwitchRow(Label label, SwitchToggle toggle) {
         label.getStyleClass().add("bulk-import-switch-label");
         label.setWrapText(true);
@@ -272,28 +308,126 @@ public class ParseMultipleAccountUI extends VBox {
 
     private void addSubmitButtonClickHandler() {
         saveButton.setOnAction(_ -> {
-            try {
-                if (isBlank(multipleSPAccounts.getText())) {
-                    showErrorAlert(I18n.tr("autoInputCannotBeEmpty"));
-                    return;
-                }
-                String selectedMode = parseModePillBar.getSelectedItem();
-                boolean startVerificationAfterParsing = startVerificationAfterParsingSwitch.isSelected();
-                List<Account> createdAccounts = TextParserService.saveBulkAccounts(multipleSPAccounts.getText(), selectedMode, groupAccountsSwitch.isSelected(), convertM3uToXtremeSwitch.isSelected());
-                clearAll();
-                if (onSaveCallback != null) {
-                    onSaveCallback.call(null);
+            if (isBlank(multipleSPAccounts.getText())) {
+                showErrorAlert(I18n.tr("autoInputCannotBeEmpty"));
+                return;
+            }
+            String text = multipleSPAccounts.getText();
+            String selectedMode = parseModePillBar.getSelectedItem();
+            boolean groupAccounts = groupAccountsSwitch.isSelected();
+            boolean convertM3uToXtreme = convertM3uToXtremeSwitch.isSelected();
+            boolean startVerificationAfterParsing = startVerificationAfterParsingSwitch.isSelected();
+            Task<AccountImportService.ImportReport> task = new Task<>() {
+                @Override
+                protected AccountImportService.ImportReport call() {
+                    updateMessage(I18n.tr("bulkImportInProgress"));
+                    return AccountImportService.getInstance().importAccounts(text, selectedMode, groupAccounts,
+                            convertM3uToXtreme, startVerificationAfterParsing, new AccountImportService.ImportListener() {
+                                @Override
+                                public void onIssue(AccountImportService.ImportIssue issue) {
+                                    String line = describeIssue(issue);
+                                    Platform.runLater(() -> importIssues.add(line));
+                                }
+
+                                @Override
+                                public void onProgress(AccountImportService.Phase phase, int done, int total) {
+                                    if (phase == AccountImportService.Phase.VALIDATING) {
+                                        if (done == 0) {
+                                            Platform.runLater(() -> cancelImportButton.setVisible(!importCancelled()));
+                                        }
+                                        updateProgress(done, total);
+                                        updateMessage(I18n.tr("bulkImportValidating", String.valueOf(done), String.valueOf(total)));
+                                    }
+                                }
+
+                                @Override
+                                public boolean isCancelled() {
+                                    return importCancelled();
+                                }
+                            });
                 }
-                showMessageAlert(I18n.tr("autoAccountsParsedAndSaved"));
-                if (startVerificationAfterParsing && createdAccounts != null && !createdAccounts.isEmpty()) {
-                    openVerificationPopup(createdAccounts);
+
+                private boolean importCancelled() {
+                    return isCancelled();
                 }
-            } catch (Exception _) {
+            };
+            importIssues.clear();
+            setImportRunning(task);
+            task.setOnSucceeded(_ -> {
+                setImportRunning(null);
+                onImportFinished(task.getValue(), startVerificationAfterParsing);
+            });
+            task.setOnFailed(_ -> {
+                setImportRunning(null);
                 showErrorAlert(I18n.tr("autoErrorParsingOrSavingAccounts"));
-            }
+            });
+            task.setOnCancelled(_ -> {
+                // Only validation can be cancelled, so the accounts are already saved.
+                setImportRunning(null);
+                clearAll();
+                notifyAccountsChanged();
+                showMessageAlert(I18n.tr("autoAccountsParsedAndSaved") + "\n" + I18n.tr("autoVerificationCancelled"));
+            });
+            cancelImportButton.setOnAction(_ -> task.cancel());
+            Thread worker = new Thread(task, "bulk-account-import-task");
+            worker.setDaemon(true);
+            worker.start();
         });
     }
 
+    private static String describeIssue(AccountImportService.ImportIssue issue) {
+        String line = I18n.tr(switch (issue.problem()) {
+            case DUPLICATE -> "bulkImportIssueDuplicate";
+            case INVALID -> "bulkImportIssueInvalid";
+            case UNREACHABLE -> "bulkImportIssueUnreachable";
+        }, issue.accountName());
+        return isBlank(issue.detail()) ? line : line + " (" + issue.detail() + ")";
+    }
+
+    private void setImportRunning(Task<?> task) {
+        importProgressBar.progressProperty().unbind();
+        importProgressLabel.textProperty().unbind();
+        boolean running = task != null;
+        if (running) {
+            importProgressBar.progressProperty().bind(task.progressProperty());
+            importProgressLabel.textProperty().bind(task.messageProperty());
+        }
+        importProgressBar.setVisible(running);
+        if (!running) {
+            cancelImportButton.setVisible(false);
+            cancelImportButton.setOnAction(null);
+        }
+        saveButton.setDisable(running);
+        clearButton.setDisable(running);
+    }
+
+    private void onImportFinished(AccountImportService.ImportReport report, boolean verified) {
+        clearAll();
+        if (onSaveCallback != null) {
+            onSaveCallback.call(null);
+        }
+        StringBuilder message = new StringBuilder(I18n.tr("autoAccountsParsedAndSaved"))
+                .append('\n')
+                .append(I18n.tr("bulkImportSummary", String.valueOf(report.created().size()),
+                        String.valueOf(report.updated()), String.valueOf(report.duplicates())));
+        List<Account> reachable = report.created();
+        if (verified) {
+            reachable = report.validations().stream()
+                    .filter(result -> result.status() == AccountImportService.Status.VALID)
+                    .map(AccountImportService.ValidationResult::account)
+                    .toList();
+            int failed = report.validations().size() - reachable.size();
+            if (failed > 0) {
+                message.append('\n').append(I18n.tr("bulkImportValidationFailed",
+                        String.valueOf(failed), String.valueOf(report.validations().size())));
+            }
+        }
+        showMessageAlert(message.toString());
+        if (verified && !reachable.isEmpty()) {
+            openVerificationPopup(reachable);
+        }
+    }
+
     private void openVerificationPopup(List<Account> accountsToVerify) {
         ReloadCachePopup.showPopup(RootApplication.getPrimaryStage(), accountsToVerify, this::notifyAccountsChanged);
     }
@@ -5,6 +5,7 @@ import com.uiptv.ui.util.UiI18n;
 import com.uiptv.util.I18n;
 import com.uiptv.model.Account;
 import com.uiptv.model.AccountInfo;
+import com.uiptv.service.AccountHealthService;
 import com.uiptv.service.AccountService;
 import com.uiptv.service.AccountInfoService;
 import com.uiptv.service.CacheService;
@@ -776,7 +777,8 @@ public class ReloadCacheInline extends VBox {
             return;
         }
 
-        List<Account> selectedAccounts = selectedAccountsSnapshot();
+        // Healthy providers first, so an outage does not hold up the rest of the batch.
+        List<Account> selectedAccounts = AccountHealthService.getInstance().orderByHealth(selectedAccountsSnapshot());
         GlobalFailureDecision selectedAutomaticDecision = resolveFailureDecisionBeforeStart(selectedAccounts);
         if (!reloadInProgress.compareAndSet(false, true)) {
             return;
@@ -3,8 +3,10 @@ package com.uiptv.ui;
 import com.uiptv.application.ConfigurationApplicationService;
 import com.uiptv.model.Configuration;
 import com.uiptv.player.MediaPlayerFactory;
+import com.uiptv.service.CacheRefreshScheduler;
 import com.uiptv.service.ConfigurationChangeListener;
 import com.uiptv.service.ConfigurationService;
+import com.uiptv.service.DatabaseMaintenanceService;
 import com.uiptv.service.DatabaseSyncService;
 import com.uiptv.service.remotesync.RemoteSyncSessionService;
 import com.uiptv.ui.main.BaseMainApplicationUI;
@@ -16,6 +18,7 @@ import com.uiptv.ui.util.UiServerUrlUtil;
 import com.uiptv.util.AppLog;
 import com.uiptv.util.I18n;
 import com.uiptv.util.ServerUrlUtil;
+import com.uiptv.util.StartupProfile;
 import com.uiptv.widget.AppNavigationController;
 import com.uiptv.widget.AppFonts;
 import javafx.animation.Animation;
@@ -54,7 +57,6 @@ public class RootApplication extends Application {
     private static final double[] PRIMARY_STAGE_ICON_SIZES = {48, 64, 128, 256};
     private static final Color TITLEBAR_MARK_BACKGROUND = Color.rgb(91, 204, 214);
     private static final Color TITLEBAR_MARK_FOREGROUND = Color.WHITE;
-    private static final DatabaseSyncService databaseSyncService = DatabaseSyncService.getInstance();
     private static final ConfigurationApplicationService configurationApplicationService = ConfigurationApplicationService.getInstance();
     private static Stage primaryStage;
     private static String currentTheme;
@@ -80,12 +82,38 @@ public class RootApplication extends Application {
             exit(0);
         } else if (headlessMode) {
             AppLog.addInfoLog(RootApplication.class, "Starting UIPTV in headless mode.");
-            ServerUrlUtil.startServer();
+            try (StartupProfile.Phase _ = StartupProfile.getInstance().begin("background-schedulers")) {
+                CacheRefreshScheduler.getInstance().start();
+                DatabaseMaintenanceService.getInstance().start();
+            }
+            try (StartupProfile.Phase _ = StartupProfile.getInstance().begin("server-start")) {
+                ServerUrlUtil.startServer();
+            }
+            StartupProfile.getInstance().ready("server-ready");
         } else {
+            startWarmup();
             launch();
         }
     }
 
+    /**
+     * Runs the database migrations and parses the UI language bundle while the JavaFX toolkit starts, instead of on the
+     * FX thread after it. {@link #start(Stage)} reads the same state and simply waits if this is not done yet.
+     */
+    private static void startWarmup() {
+        Thread warmup = new Thread(() -> {
+            try (StartupProfile.Phase _ = StartupProfile.getInstance().begin("warmup")) {
+                Configuration configuration = ConfigurationService.getInstance().read();
+                I18n.preload(configuration == null ? null : configuration.getLanguageLocale());
+            } catch (Throwable e) {
+                // start(Stage) redoes this work on the FX thread; only record why the early pass did not finish.
+                AppLog.addErrorLog(RootApplication.class, "Start-up warmup failed", e);
+            }
+        }, "uiptv-startup-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
     private static void handleSync(String[] args) {
         if (args.length != 3) {
             com.uiptv.util.AppLog.addErrorLog(RootApplication.class, "Usage: sync <source_db_path> <target_db_path>");
@@ -102,11 +130,11 @@ public class RootApplication extends Application {
     }
 
     public static void syncDatabases(String sourceDB, String targetDB) throws SQLException {
-        databaseSyncService.syncDatabases(sourceDB, targetDB);
+        DatabaseSyncService.getInstance().syncDatabases(sourceDB, targetDB);
     }
 
     public static void syncDatabases(String sourceDB, String targetDB, boolean syncConfiguration, boolean syncExternalPlayerPaths) throws SQLException {
-        databaseSyncService.syncDatabases(sourceDB, targetDB, syncConfiguration, syncExternalPlayerPaths);
+        DatabaseSyncService.getInstance().syncDatabases(sourceDB, targetDB, syncConfiguration, syncExternalPlayerPaths);
     }
 
     public static DatabaseSyncService.DatabaseSyncReport syncDatabasesWithReport(String sourceDB,
@@ -114,7 +142,7 @@ public class RootApplication extends Application {
                                                                                  boolean syncConfiguration,
                                                                                  boolean syncExternalPlayerPaths,
                                                                                  DatabaseSyncService.SyncProgressListener progressListener) throws SQLException {
-        return databaseSyncService.syncDatabasesWithReport(sourceDB, targetDB, syncConfiguration, syncExternalPlayerPaths, progressListener);
+        return DatabaseSyncService.getInstance().syncDatabasesWithReport(sourceDB, targetDB, syncConfiguration, syncExternalPlayerPaths, progressListener);
     }
 
     private static String stripWrappingQuotes(String value) {
@@ -192,8 +220,12 @@ public class RootApplication extends Application {
     public final void start(Stage primaryStage) throws IOException {
         setPrimaryStage(primaryStage);
         UiServerUrlUtil.setHostServices(getHostServices());
-        Configuration bootConfiguration = configurationService.read();
-        I18n.initialize(bootConfiguration == null ? null : bootConfiguration.getLanguageLocale());
+        StartupProfile.getInstance().milestone("fx-toolkit-started");
+        Configuration bootConfiguration;
+        try (StartupProfile.Phase _ = StartupProfile.getInstance().begin("boot-configuration")) {
+            bootConfiguration = configurationService.read();
+            I18n.initialize(bootConfiguration == null ? null : bootConfiguration.getLanguageLocale());
+        }
         FxRemoteSyncUiBridge remoteSyncUiBridge = new FxRemoteSyncUiBridge();
         RemoteSyncSessionService.getInstance().setApprovalPrompt(remoteSyncUiBridge);
         RemoteSyncSessionService.getInstance().setNotifier(remoteSyncUiBridge);
@@ -212,15 +244,21 @@ public class RootApplication extends Application {
         Scene loadingScene = createLoadingScene();
         primaryStage.setScene(loadingScene);
         primaryStage.show();
+        StartupProfile.getInstance().milestone("first-frame");
         Platform.runLater(() -> applyMaximizedBounds(primaryStage));
-        autoStartInternalServer(bootConfiguration);
 
         Platform.runLater(() -> {
-            BaseMainApplicationUI mainUiRoute = selectMainUiRoute(embeddedEnabled);
-            Scene scene = mainUiRoute.buildScene();
-            UiI18n.applySceneOrientation(scene);
-            primaryStage.setScene(scene);
-            applyMaximizedBounds(primaryStage);
+            try (StartupProfile.Phase _ = StartupProfile.getInstance().begin("main-scene")) {
+                BaseMainApplicationUI mainUiRoute = selectMainUiRoute(embeddedEnabled);
+                Scene scene = mainUiRoute.buildScene();
+                UiI18n.applySceneOrientation(scene);
+                primaryStage.setScene(scene);
+                applyMaximizedBounds(primaryStage);
+            }
+            // Background refreshes and the web server are not needed for the first account list; start them after it.
+            CacheRefreshScheduler.getInstance().start();
+            DatabaseMaintenanceService.getInstance().start();
+            autoStartInternalServer(bootConfiguration);
         });
     }
 
@@ -12,6 +12,7 @@ import com.uiptv.service.VodWatchStateService;
 import com.uiptv.service.WatchingNowVodResolver;
 import com.uiptv.ui.util.ImageCacheManager;
 import com.uiptv.ui.util.UiI18n;
+import com.uiptv.ui.util.UiTaskScheduler;
 import com.uiptv.util.I18n;
 import com.uiptv.util.ImageUrlNormalizer;
 import com.uiptv.widget.LoadingStateView;
@@ -146,7 +147,7 @@ public class VodWatchingNowUI extends VBox implements SearchTarget {
         dirty = false;
         showLoadingPlaceholderIfEmpty();
         long generation = lifecycleGeneration.get();
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "vod-watching-now-loader", () -> {
             List<VodPanelData> rows = buildRows();
             Platform.runLater(() -> {
                 try {
@@ -162,7 +163,7 @@ public class VodWatchingNowUI extends VBox implements SearchTarget {
                     }
                 }
             });
-        }, "vod-watching-now-loader").start();
+        });
     }
 
     private List<VodPanelData> buildRows() {
@@ -857,7 +858,7 @@ public class VodWatchingNowUI extends VBox implements SearchTarget {
         if (data == null || data.account == null || data.state == null) {
             return;
         }
-        new Thread(() -> {
+        UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.WRITE, "vod-watching-now-remove", () -> {
             VodWatchStateService.getInstance().remove(data.account.getDbId(), data.state.getCategoryId(), data.state.getVodId());
             Platform.runLater(() -> {
                 panelDataByKey.remove(panelKey(data));
@@ -867,7 +868,7 @@ public class VodWatchingNowUI extends VBox implements SearchTarget {
                 }
                 render(new ArrayList<>(panelDataByKey.values()));
             });
-        }, "vod-watching-now-remove").start();
+        });
     }
 
     private void confirmAndRemoveVod(VodPanelData data) {
@@ -928,6 +929,8 @@ public class VodWatchingNowUI extends VBox implements SearchTarget {
 
     private void releaseUiState() {
         lifecycleGeneration.incrementAndGet();
+        UiTaskScheduler.getInstance().cancelOwner(this);
+        reloadInProgress.set(false);
         reloadQueued.set(false);
         refreshScheduled.set(false);
         dirty = true;
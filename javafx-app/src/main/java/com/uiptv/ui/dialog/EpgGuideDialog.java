@@ -0,0 +1,75 @@
+package com.uiptv.ui.dialog;
+
+import com.uiptv.model.EpgProgramme;
+import com.uiptv.util.I18n;
+import com.uiptv.widget.ThemedDialogSupport;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static com.uiptv.util.StringUtils.isBlank;
+
+public final class EpgGuideDialog {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final double PREF_WIDTH = 520;
+    private static final double PREF_HEIGHT = 420;
+
+    private EpgGuideDialog() {
+    }
+
+    public static void show(String channelName, List<EpgProgramme> programmes) {
+        VBox rows = new VBox();
+        rows.getStyleClass().add("epg-guide-root");
+        rows.setPadding(new Insets(8));
+        if (programmes == null || programmes.isEmpty()) {
+            rows.getChildren().add(new Label(I18n.tr("epgNoProgrammes")));
+        } else {
+            long now = System.currentTimeMillis();
+            ZoneId zone = ZoneId.systemDefault();
+            programmes.forEach(programme -> rows.getChildren().add(createRow(programme, now, zone)));
+        }
+
+        ScrollPane scrollPane = new ScrollPane(rows);
+        scrollPane.setFitToWidth(true);
+        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
+        scrollPane.getStyleClass().add("transparent-scroll-pane");
+        scrollPane.setPrefSize(PREF_WIDTH, PREF_HEIGHT);
+
+        String title = isBlank(channelName) ? I18n.tr("epgProgrammeGuide") : I18n.tr("epgProgrammeGuide") + " - " + channelName;
+        ButtonType closeButton = new ButtonType(I18n.tr("commonClose"), ButtonBar.ButtonData.CANCEL_CLOSE);
+        ThemedDialogSupport.showChoice(title, scrollPane, List.of(closeButton), closeButton);
+    }
+
+    private static HBox createRow(EpgProgramme programme, long now, ZoneId zone) {
+        Label time = new Label(format(programme.getStartMs(), zone) + "–" + format(programme.getStopMs(), zone));
+        time.getStyleClass().add("epg-guide-time");
+        Label title = new Label(isBlank(programme.getTitle()) ? "" : programme.getTitle());
+        title.setWrapText(true);
+        HBox row = new HBox(10, time, title);
+        row.setAlignment(Pos.CENTER_LEFT);
+        row.getStyleClass().add("epg-guide-row");
+        if (programme.isAiringAt(now)) {
+            row.getStyleClass().add("epg-guide-row-current");
+        }
+        if (!isBlank(programme.getDescription())) {
+            Tooltip.install(row, new Tooltip(programme.getDescription()));
+        }
+        return row;
+    }
+
+    private static String format(long epochMs, ZoneId zone) {
+        return TIME_FORMAT.format(Instant.ofEpochMilli(epochMs).atZone(zone));
+    }
+}
@@ -0,0 +1,274 @@
+package com.uiptv.ui.util;
+
+import com.uiptv.util.AppLog;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared worker pool for the JavaFX client's background loads.
+ * <p>
+ * Tasks run in priority lanes: {@link Lane#USER_VISIBLE} before {@link Lane#PREFETCH} before
+ * {@link Lane#BACKGROUND}, first-come within a lane, on {@code uiptv.ui.tasks.threads} daemon threads (default 4).
+ * {@link Lane#WRITE} has a worker of its own, so a save or delete never waits behind catalog reloads and writes
+ * apply in the order they were submitted.
+ * A task submitted with an owner and key is coalesced with a queued task of the same owner and key, and
+ * {@link #cancelOwner(Object)} drops or interrupts everything a screen started when it is released.
+ * Per-lane depth and queue wait are available from {@link #stats()}; waits over {@code uiptv.ui.tasks.slow.wait.ms}
+ * (default 1s) are logged.
+ */
+public final class UiTaskScheduler {
+    private static final int THREADS = Math.clamp(Integer.getInteger("uiptv.ui.tasks.threads", 4), 1, 32);
+    private static final long SLOW_WAIT_MS = Math.max(1, Long.getLong("uiptv.ui.tasks.slow.wait.ms", 1_000));
+
+    public enum Lane {
+        USER_VISIBLE,
+        PREFETCH,
+        BACKGROUND,
+        WRITE
+    }
+
+    /**
+     * Queue depth and timing of one lane; times are in milliseconds.
+     */
+    public record LaneStats(int queued, int running, long completed, long cancelled, long averageWaitMs, long maxWaitMs) {
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor writeExecutor;
+    private final Set<TaskHandle> live = ConcurrentHashMap.newKeySet();
+    private final Map<TaskKey, TaskHandle> queuedByKey = new ConcurrentHashMap<>();
+    private final Map<Lane, LaneCounters> counters = new EnumMap<>(Lane.class);
+    private final AtomicLong sequence = new AtomicLong();
+
+    UiTaskScheduler(int threads) {
+        for (Lane lane : Lane.values()) {
+            counters.put(lane, new LaneCounters());
+        }
+        executor = newExecutor(threads, "uiptv-ui-task-");
+        writeExecutor = newExecutor(1, "uiptv-ui-write-");
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads, String threadPrefix) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static class SingletonHelper {
+        private static final UiTaskScheduler INSTANCE = new UiTaskScheduler(THREADS);
+    }
+
+    public static UiTaskScheduler getInstance() {
+        return SingletonHelper.INSTANCE;
+    }
+
+    /**
+     * Runs {@code task} with no owner; it is never cancelled by a screen going away. Use with {@link Lane#WRITE}
+     * for writes.
+     */
+    public TaskHandle submit(Lane lane, String name, Runnable task) {
+        return submit(lane, null, null, name, task);
+    }
+
+    /**
+     * Runs {@code task} on behalf of {@code owner}. When {@code key} is set and a task with the same owner and key is
+     * still queued, that task is returned instead of queueing another; a task that already started is not reused,
+     * so the new request still sees the latest data.
+     */
+    public TaskHandle submit(Lane lane, Object owner, String key, String name, Runnable task) {
+        Objects.requireNonNull(task, "task");
+        Lane effectiveLane = lane == null ? Lane.BACKGROUND : lane;
+        TaskKey taskKey = key == null ? null : new TaskKey(owner, key);
+        TaskHandle handle = new TaskHandle(effectiveLane, owner, taskKey, name, task);
+        if (taskKey != null) {
+            TaskHandle winner = queuedByKey.merge(taskKey, handle, (existing, fresh) -> existing.isQueued() ? existing : fresh);
+            if (winner != handle) {
+                return winner;
+            }
+        }
+        live.add(handle);
+        counters.get(effectiveLane).queued.incrementAndGet();
+        executorFor(effectiveLane).execute(handle);
+        return handle;
+    }
+
+    /**
+     * Cancels every queued or running task of {@code owner}; running ones are interrupted.
+     */
+    public void cancelOwner(Object owner) {
+        if (owner == null) {
+            return;
+        }
+        for (TaskHandle handle : live) {
+            if (handle.owner == owner) {
+                handle.cancel();
+            }
+        }
+    }
+
+    private ThreadPoolExecutor executorFor(Lane lane) {
+        return lane == Lane.WRITE ? writeExecutor : executor;
+    }
+
+    public LaneStats stats(Lane lane) {
+        LaneCounters lc = counters.get(lane);
+        long started = lc.started.get();
+        return new LaneStats(lc.queued.get(), lc.running.get(), lc.completed.get(), lc.cancelled.get(),
+                started == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(lc.totalWaitNanos.get() / started),
+                TimeUnit.NANOSECONDS.toMillis(lc.maxWaitNanos.get()));
+    }
+
+    public Map<Lane, LaneStats> stats() {
+        Map<Lane, LaneStats> all = new EnumMap<>(Lane.class);
+        for (Lane lane : Lane.values()) {
+            all.put(lane, stats(lane));
+        }
+        return all;
+    }
+
+    private record TaskKey(Object owner, String key) {
+    }
+
+    private static final class LaneCounters {
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong cancelled = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+    }
+
+    /**
+     * A submitted task. Cancelling it before it starts drops it from the queue; cancelling a running task interrupts it.
+     */
+    public final class TaskHandle extends FutureTask<Void> implements Comparable<TaskHandle> {
+        private final Lane lane;
+        private final Object owner;
+        private final TaskKey key;
+        private final String name;
+        private final long order = sequence.incrementAndGet();
+        private final long enqueuedAtNanos = System.nanoTime();
+        private final AtomicInteger phase = new AtomicInteger(); // 0 queued, 1 running, 2 finished
+        private final CountDownLatch settled = new CountDownLatch(1);
+
+        private TaskHandle(Lane lane, Object owner, TaskKey key, String name, Runnable task) {
+            super(task, null);
+            this.lane = lane;
+            this.owner = owner;
+            this.key = key;
+            this.name = name == null ? "task" : name;
+        }
+
+        public Lane lane() {
+            return lane;
+        }
+
+        public void cancel() {
+            if (cancel(true)) {
+                executorFor(lane).remove(this);
+            }
+        }
+
+        /**
+         * Waits up to {@code timeoutMs} until the task body has returned, or until a cancelled task is known never to
+         * start; true when it settled in time.
+         */
+        public boolean awaitDone(long timeoutMs) {
+            try {
+                return settled.await(Math.max(0, timeoutMs), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+                return settled.getCount() == 0;
+            }
+        }
+
+        private boolean isQueued() {
+            return phase.get() == 0 && !isDone();
+        }
+
+        @Override
+        public void run() {
+            if (!phase.compareAndSet(0, 1)) {
+                return;
+            }
+            releaseKey();
+            LaneCounters lc = counters.get(lane);
+            lc.queued.decrementAndGet();
+            if (isCancelled()) {
+                settled.countDown();
+                return;
+            }
+            long waited = System.nanoTime() - enqueuedAtNanos;
+            lc.started.incrementAndGet();
+            lc.totalWaitNanos.addAndGet(waited);
+            lc.maxWaitNanos.accumulateAndGet(waited, Math::max);
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(waited);
+            if (waitedMs >= SLOW_WAIT_MS) {
+                AppLog.addWarningLog(UiTaskScheduler.class, "UI task '" + name + "' waited " + waitedMs + " ms in "
+                        + lane + " (queued " + lc.queued.get() + ", running " + lc.running.get() + ")");
+            }
+            lc.running.incrementAndGet();
+            try {
+                super.run();
+            } finally {
+                lc.running.decrementAndGet();
+                settled.countDown();
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (phase.getAndSet(2) == 0) {
+                // Cancelled before a worker picked it up.
+                releaseKey();
+                counters.get(lane).queued.decrementAndGet();
+                settled.countDown();
+            }
+            live.remove(this);
+            LaneCounters lc = counters.get(lane);
+            if (isCancelled()) {
+                lc.cancelled.incrementAndGet();
+                return;
+            }
+            lc.completed.incrementAndGet();
+            try {
+                get();
+            } catch (ExecutionException e) {
+                AppLog.addErrorLog(UiTaskScheduler.class, "UI task '" + name + "' failed", e.getCause());
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void releaseKey() {
+            if (key != null) {
+                queuedByKey.remove(key, this);
+            }
+        }
+
+        @Override
+        public int compareTo(TaskHandle other) {
+            int byLane = Integer.compare(lane.ordinal(), other.lane.ordinal());
+            return byLane != 0 ? byLane : Long.compare(order, other.order);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.uiptv.widget;
 
-import javafx.beans.binding.Bindings;
+import com.uiptv.ui.util.UiTaskScheduler;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
+import javafx.util.Duration;
 
 import java.util.Date;
 import java.util.List;
@@ -15,7 +20,15 @@ import static com.uiptv.ui.RootApplication.GUIDED_MAX_WIDTH_PIXELS;
 import static com.uiptv.util.StringUtils.isBlank;
 
 public class SearchableTableView<T> extends TableView<T> {
+    private static final long SEARCH_DEBOUNCE_MS = Math.max(0, Long.getLong("uiptv.ui.search.debounce.ms", 150));
+    private static final int INLINE_FILTER_MAX_ROWS = 2_000;
+    private static final char COLUMN_SEPARATOR = '\u0000';
+
     private final UIptvText searchTextField = new UIptvText("search" + new Date().getTime(), "commonSearch", 10);
+    private final TextSearchIndex<T> searchIndex = new TextSearchIndex<>();
+    private TextSearchIndex.Match<T> lastMatch;
+    private UiTaskScheduler.TaskHandle pendingFilter;
+    private long filterGeneration;
 
     public SearchableTableView() {
         this.setPrefWidth((double) GUIDED_MAX_WIDTH_PIXELS / 3);
@@ -27,32 +40,110 @@ public class SearchableTableView<T> extends TableView<T> {
         return searchTextField;
     }
 
+    /**
+     * Filters rows by the search field. Each row's column text is indexed once as rows are added or updated, so a
+     * keystroke scans flat strings instead of every cell. Small lists filter inline; past
+     * {@value #INLINE_FILTER_MAX_ROWS} rows typing is debounced by {@code uiptv.ui.search.debounce.ms} (default 150)
+     * and the scan runs on the {@link UiTaskScheduler}, publishing only the latest query's matches.
+     */
     public void addTextFilter() {
         TextField filterField = getSearchTextField();
         final List<TableColumn<T, ?>> columns = getColumns();
-        FilteredList<T> filteredData = new FilteredList<>(getItems());
-        filteredData.predicateProperty().bind(Bindings.createObjectBinding(() -> {
-            String text = filterField.getText();
-            if (isBlank(text)) {
-                return null;
-            }
-            final String filterText = text.toLowerCase();
-            return o -> {
-                for (TableColumn<T, ?> col : columns) {
-                    ObservableValue<?> observable = col.getCellObservableValue(o);
-                    if (observable != null) {
-                        Object value = observable.getValue();
-                        if (value != null && value.toString().toLowerCase().contains(filterText)) {
-                            return true;
-                        }
+        ObservableList<T> source = getItems();
+        FilteredList<T> filteredData = new FilteredList<>(source);
+
+        searchIndex.clear();
+        source.forEach(item -> searchIndex.put(item, searchText(columns, item)));
+        PauseTransition debounce = new PauseTransition(Duration.millis(SEARCH_DEBOUNCE_MS));
+        debounce.setOnFinished(_ -> applyFilter(filteredData, filterField.getText()));
+        source.addListener((ListChangeListener<T>) change -> {
+            boolean changed = false;
+            while (change.next()) {
+                if (change.wasPermutated()) {
+                    continue;
+                }
+                if (change.wasUpdated()) {
+                    for (int i = change.getFrom(); i < change.getTo(); i++) {
+                        T item = change.getList().get(i);
+                        searchIndex.put(item, searchText(columns, item));
                     }
+                } else {
+                    change.getRemoved().forEach(searchIndex::remove);
+                    change.getAddedSubList().forEach(item -> searchIndex.put(item, searchText(columns, item)));
                 }
-                return false;
-            };
-        }, filterField.textProperty()));
+                changed = true;
+            }
+            if (changed && !isBlank(filterField.getText())) {
+                debounce.playFromStart();
+            }
+        });
+        filterField.textProperty().addListener((_, _, text) -> {
+            if (isBlank(text) || searchIndex.size() <= INLINE_FILTER_MAX_ROWS || SEARCH_DEBOUNCE_MS == 0) {
+                debounce.stop();
+                applyFilter(filteredData, text);
+            } else {
+                debounce.playFromStart();
+            }
+        });
 
         SortedList<T> sortedData = new SortedList<>(filteredData);
         sortedData.comparatorProperty().bind(comparatorProperty());
         setItems(sortedData);
     }
+
+    /**
+     * Drops a filter pass still running for this table, e.g. when the owning screen is released.
+     */
+    public void cancelPendingFilter() {
+        filterGeneration++;
+        UiTaskScheduler.getInstance().cancelOwner(this);
+        pendingFilter = null;
+    }
+
+    private void applyFilter(FilteredList<T> filteredData, String text) {
+        long generation = ++filterGeneration;
+        if (pendingFilter != null) {
+            pendingFilter.cancel();
+            pendingFilter = null;
+        }
+        if (isBlank(text)) {
+            lastMatch = null;
+            filteredData.setPredicate(null);
+            return;
+        }
+        TextSearchIndex.Snapshot<T> snapshot = searchIndex.snapshot();
+        TextSearchIndex.Match<T> previous = lastMatch;
+        if (snapshot.size() <= INLINE_FILTER_MAX_ROWS) {
+            publish(filteredData, snapshot.filter(text, previous));
+            return;
+        }
+        pendingFilter = UiTaskScheduler.getInstance().submit(UiTaskScheduler.Lane.USER_VISIBLE, this, null, "table-text-filter", () -> {
+            TextSearchIndex.Match<T> match = snapshot.filter(text, previous);
+            Platform.runLater(() -> {
+                if (generation == filterGeneration) {
+                    pendingFilter = null;
+                    publish(filteredData, match);
+                }
+            });
+        });
+    }
+
+    private void publish(FilteredList<T> filteredData, TextSearchIndex.Match<T> match) {
+        lastMatch = match;
+        filteredData.setPredicate(match.items()::contains);
+    }
+
+    private static <T> String searchText(List<TableColumn<T, ?>> columns, T item) {
+        StringBuilder text = new StringBuilder();
+        for (TableColumn<T, ?> col : columns) {
+            ObservableValue<?> observable = col.getCellObservableValue(item);
+            if (observable != null) {
+                Object value = observable.getValue();
+                if (value != null) {
+                    text.append(value).append(COLUMN_SEPARATOR);
+                }
+            }
+        }
+        return text.toString();
+    }
 }
@@ -0,0 +1,129 @@
+package com.uiptv.widget;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lower-cased search text of table rows kept in two flat arrays, so a filter pass is a tight scan over strings
+ * instead of asking every column for its cell value. Writers are synchronized; {@link #snapshot()} hands out an
+ * immutable copy that can be filtered off the FX thread.
+ */
+final class TextSearchIndex<T> {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+    private Object[] items = new Object[INITIAL_CAPACITY];
+    private String[] texts = new String[INITIAL_CAPACITY];
+    private int size;
+    private long version;
+    private Snapshot<T> snapshot;
+
+    synchronized void put(T item, String text) {
+        if (item == null) {
+            return;
+        }
+        String normalized = text == null ? "" : text.toLowerCase();
+        Integer position = positions.get(item);
+        if (position != null) {
+            if (normalized.equals(texts[position])) {
+                return;
+            }
+            texts[position] = normalized;
+        } else {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+                texts = Arrays.copyOf(texts, size * 2);
+            }
+            items[size] = item;
+            texts[size] = normalized;
+            positions.put(item, size++);
+        }
+        version++;
+    }
+
+    synchronized void remove(T item) {
+        Integer position = positions.remove(item);
+        if (position == null) {
+            return;
+        }
+        int last = --size;
+        if (position != last) {
+            @SuppressWarnings("unchecked")
+            T moved = (T) items[last];
+            items[position] = moved;
+            texts[position] = texts[last];
+            positions.put(moved, position);
+        }
+        items[last] = null;
+        texts[last] = null;
+        version++;
+    }
+
+    synchronized void clear() {
+        positions.clear();
+        items = new Object[INITIAL_CAPACITY];
+        texts = new String[INITIAL_CAPACITY];
+        size = 0;
+        version++;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized Snapshot<T> snapshot() {
+        if (snapshot == null || snapshot.version != version) {
+            snapshot = new Snapshot<>(Arrays.copyOf(items, size), Arrays.copyOf(texts, size), version);
+        }
+        return snapshot;
+    }
+
+    static final class Snapshot<T> {
+        private final Object[] items;
+        private final String[] texts;
+        private final long version;
+
+        private Snapshot(Object[] items, String[] texts, long version) {
+            this.items = items;
+            this.texts = texts;
+            this.version = version;
+        }
+
+        int size() {
+            return texts.length;
+        }
+
+        /**
+         * Rows containing {@code query}. When {@code previous} came from this snapshot and its query is contained in
+         * {@code query} (the user kept typing), only its matches are rescanned.
+         */
+        Match<T> filter(String query, Match<T> previous) {
+            String needle = query == null ? "" : query.toLowerCase();
+            boolean narrowing = previous != null && previous.version == version && needle.contains(previous.query);
+            int[] candidates = narrowing ? previous.positions : null;
+            int limit = narrowing ? candidates.length : texts.length;
+            int[] hits = new int[limit];
+            int count = 0;
+            for (int i = 0; i < limit; i++) {
+                int position = narrowing ? candidates[i] : i;
+                if (texts[position].contains(needle)) {
+                    hits[count++] = position;
+                }
+            }
+            int[] positions = Arrays.copyOf(hits, count);
+            Set<T> matches = Collections.newSetFromMap(new IdentityHashMap<>(count * 2));
+            for (int position : positions) {
+                @SuppressWarnings("unchecked")
+                T item = (T) items[position];
+                matches.add(item);
+            }
+            return new Match<>(needle, version, positions, matches);
+        }
+    }
+
+    record Match<T>(String query, long version, int[] positions, Set<T> items) {
+    }
+}
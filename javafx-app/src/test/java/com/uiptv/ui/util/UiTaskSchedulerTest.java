@@ -0,0 +1,110 @@
+package com.uiptv.ui.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UiTaskSchedulerTest {
+
+    @Test
+    void submit_runsHigherLanesFirstAndCoalescesQueuedKeys() throws Exception {
+        UiTaskScheduler scheduler = new UiTaskScheduler(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object screen = new Object();
+        List<String> order = new CopyOnWriteArrayList<>();
+        AtomicInteger refreshes = new AtomicInteger();
+
+        UiTaskScheduler.TaskHandle blocker = scheduler.submit(UiTaskScheduler.Lane.USER_VISIBLE, "blocker", () -> await(release));
+        scheduler.submit(UiTaskScheduler.Lane.BACKGROUND, "background", () -> order.add("background"));
+        scheduler.submit(UiTaskScheduler.Lane.PREFETCH, "prefetch", () -> order.add("prefetch"));
+        UiTaskScheduler.TaskHandle first = scheduler.submit(UiTaskScheduler.Lane.USER_VISIBLE, screen, "refresh", "refresh", () -> {
+            refreshes.incrementAndGet();
+            order.add("visible");
+        });
+        UiTaskScheduler.TaskHandle second = scheduler.submit(UiTaskScheduler.Lane.USER_VISIBLE, screen, "refresh", "refresh", () -> {
+            refreshes.incrementAndGet();
+            order.add("visible");
+        });
+        UiTaskScheduler.TaskHandle last = scheduler.submit(UiTaskScheduler.Lane.BACKGROUND, "last", () -> order.add("last"));
+
+        assertSame(first, second);
+        assertEquals(2, scheduler.stats(UiTaskScheduler.Lane.BACKGROUND).queued());
+        release.countDown();
+        assertTrue(blocker.awaitDone(5_000));
+        assertTrue(last.awaitDone(5_000));
+
+        assertEquals(List.of("visible", "prefetch", "background", "last"), order);
+        assertEquals(1, refreshes.get());
+        UiTaskScheduler.LaneStats visible = scheduler.stats(UiTaskScheduler.Lane.USER_VISIBLE);
+        assertEquals(0, visible.queued());
+        assertEquals(2, visible.completed());
+    }
+
+    @Test
+    void cancelOwner_dropsQueuedAndInterruptsRunningTasks() throws Exception {
+        UiTaskScheduler scheduler = new UiTaskScheduler(1);
+        Object leftScreen = new Object();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger queuedRan = new AtomicInteger();
+
+        UiTaskScheduler.TaskHandle running = scheduler.submit(UiTaskScheduler.Lane.USER_VISIBLE, leftScreen, null, "load", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException _) {
+                interrupted.countDown();
+            }
+        });
+        UiTaskScheduler.TaskHandle queued = scheduler.submit(UiTaskScheduler.Lane.PREFETCH, leftScreen, "prefetch", "prefetch", queuedRan::incrementAndGet);
+        UiTaskScheduler.TaskHandle write = scheduler.submit(UiTaskScheduler.Lane.USER_VISIBLE, "write", () -> {
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        scheduler.cancelOwner(leftScreen);
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(running.awaitDone(5_000));
+        assertTrue(queued.isCancelled());
+        assertTrue(write.awaitDone(5_000));
+        assertFalse(write.isCancelled());
+        assertEquals(0, queuedRan.get());
+        assertEquals(1, scheduler.stats(UiTaskScheduler.Lane.PREFETCH).cancelled());
+        assertEquals(0, scheduler.stats(UiTaskScheduler.Lane.PREFETCH).queued());
+    }
+
+    @Test
+    void submit_runsWritesWhileEveryLoadWorkerIsBusy() throws Exception {
+        UiTaskScheduler scheduler = new UiTaskScheduler(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        UiTaskScheduler.TaskHandle reload = scheduler.submit(UiTaskScheduler.Lane.USER_VISIBLE, new Object(), null, "reload", () -> await(release));
+        scheduler.submit(UiTaskScheduler.Lane.WRITE, "save", () -> order.add("save"));
+        UiTaskScheduler.TaskHandle remove = scheduler.submit(UiTaskScheduler.Lane.WRITE, "remove", () -> order.add("remove"));
+
+        assertTrue(remove.awaitDone(5_000));
+        assertFalse(reload.isDone());
+        assertEquals(List.of("save", "remove"), order);
+        assertEquals(2, scheduler.stats(UiTaskScheduler.Lane.WRITE).completed());
+        release.countDown();
+        assertTrue(reload.awaitDone(5_000));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.uiptv.widget;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextSearchIndexTest {
+
+    @Test
+    void filter_matchesCaseInsensitivelyAndNarrowsFromPreviousQuery() {
+        TextSearchIndex<String> index = new TextSearchIndex<>();
+        for (int i = 0; i < 1_000; i++) {
+            index.put("row-" + i, "Channel " + i);
+        }
+        index.put("bbc", "BBC One HD");
+        index.put("bbc2", "BBC Two");
+
+        TextSearchIndex.Snapshot<String> snapshot = index.snapshot();
+        TextSearchIndex.Match<String> broad = snapshot.filter("bbc", null);
+        TextSearchIndex.Match<String> narrow = snapshot.filter("bbc one", broad);
+
+        assertEquals(Set.of("bbc", "bbc2"), Set.copyOf(broad.items()));
+        assertEquals(Set.of("bbc"), Set.copyOf(narrow.items()));
+        assertEquals(111, snapshot.filter("channel 1", null).items().size());
+        assertSame(snapshot, index.snapshot());
+    }
+
+    @Test
+    void remove_andUpdate_areVisibleInNextSnapshot() {
+        TextSearchIndex<String> index = new TextSearchIndex<>();
+        index.put("a", "Alpha");
+        index.put("b", "Beta");
+        index.put("c", "Gamma");
+        TextSearchIndex.Match<String> before = index.snapshot().filter("a", null);
+
+        index.remove("a");
+        index.put("c", "Delta");
+        TextSearchIndex.Snapshot<String> after = index.snapshot();
+
+        assertEquals(2, after.size());
+        // A match from an older snapshot is not reused for narrowing.
+        assertEquals(Set.of("b", "c"), Set.copyOf(after.filter("ta", before).items()));
+        assertTrue(after.filter("alpha", null).items().isEmpty());
+        assertEquals(Set.of("c"), Set.copyOf(after.filter("DEL", null).items()));
+    }
+}
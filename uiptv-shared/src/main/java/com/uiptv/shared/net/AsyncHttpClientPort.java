@@ -0,0 +1,16 @@
+package com.uiptv.shared.net;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An {@link HttpClientPort} whose requests complete asynchronously, so callers can fan out many requests without
+ * holding a thread for each one. Failures complete the future exceptionally with the underlying {@link java.io.IOException}.
+ */
+public interface AsyncHttpClientPort extends HttpClientPort {
+    CompletableFuture<HttpResponseData> executeAsync(HttpRequestData request);
+
+    /**
+     * Completes once the response headers arrive; the caller reads and closes the body.
+     */
+    CompletableFuture<HttpStreamData> streamAsync(HttpRequestData request);
+}
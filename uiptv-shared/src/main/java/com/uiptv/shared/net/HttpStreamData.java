@@ -0,0 +1,23 @@
+package com.uiptv.shared.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public record HttpStreamData(int statusCode,
+                             Map<String, String> headers,
+                             InputStream body,
+                             String finalUrl) implements AutoCloseable {
+    public HttpStreamData {
+        headers = headers == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        body = body == null ? InputStream.nullInputStream() : body;
+        finalUrl = finalUrl == null ? "" : finalUrl;
+    }
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
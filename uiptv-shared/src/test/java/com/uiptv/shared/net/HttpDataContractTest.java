@@ -2,6 +2,8 @@ package com.uiptv.shared.net;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -9,6 +11,7 @@ import java.util.Map;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HttpDataContractTest {
     @Test
@@ -79,4 +82,24 @@ class HttpDataContractTest {
         assertEquals(response, sameResponse);
         assertEquals(response.hashCode(), sameResponse.hashCode());
     }
+
+    @Test
+    void streamUsesSafeDefaultsAndClosesItsBody() throws IOException {
+        HttpStreamData empty = new HttpStreamData(204, null, null, null);
+        assertEquals(Map.of(), empty.headers());
+        assertEquals(-1, empty.body().read());
+        assertEquals("", empty.finalUrl());
+
+        boolean[] closed = {false};
+        ByteArrayInputStream body = new ByteArrayInputStream(new byte[]{1}) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        try (HttpStreamData stream = new HttpStreamData(200, Map.of("Content-Type", "video/mp2t"), body, "https://example.test/a.ts")) {
+            assertEquals(1, stream.body().read());
+        }
+        assertTrue(closed[0]);
+    }
 }